@@ -31,6 +31,7 @@ plugins {
   jacoco
   id("com.diffplug.spotless") version "8.8.0"
   id("com.github.spotbugs") version "6.5.9"
+  id("me.champeau.jmh") version "0.7.3"
   id("net.ltgt.errorprone") version "5.1.0"
 }
 
@@ -164,6 +165,9 @@ dependencies {
   @Suppress("AvoidDuplicateDependencies", "RedundantSuppression")
   mockitoAgent("org.mockito:mockito-core:$mockitoVersion") { isTransitive = false }
   testImplementation("org.mockito:mockito-junit-jupiter:${mockitoVersion}")
+
+  @Suppress("AvoidDuplicateDependencies", "RedundantSuppression")
+  jmh("org.mockito:mockito-core:$mockitoVersion")
 }
 
 spotless {
@@ -703,6 +707,8 @@ tasks.named<SpotBugsTask>("spotbugsMain") {
 
 tasks.named("spotbugsTest") { enabled = false }
 
+tasks.named("spotbugsJmh") { enabled = false }
+
 tasks.named("spotlessNewlineAndTrailingWhitespace") { dependsOn("copyGameControllerDB") }
 
 tasks.named("spotlessOnlyNewline") { dependsOn("copyGameControllerDB") }
@@ -841,6 +847,12 @@ tasks.named<Test>("test") {
   }
 }
 
+jmh {
+  jmhVersion = "1.37"
+  jvmArgsAppend.addAll(mockitoAgent.map { "-javaagent:${it.absolutePath}" })
+  jvmArgsAppend.addAll(commonJvmArgs)
+}
+
 tasks.named<JacocoReport>("jacocoTestReport") {
   dependsOn("test")
 
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.input;
+
+import de.bwravencl.controllerbuddy.gui.Main;
+import de.bwravencl.controllerbuddy.input.action.AxisToCursorAction;
+import de.bwravencl.controllerbuddy.input.action.AxisToKeyAction;
+import de.bwravencl.controllerbuddy.input.action.AxisToScrollAction;
+import de.bwravencl.controllerbuddy.input.action.ButtonToCursorAction;
+import de.bwravencl.controllerbuddy.input.action.ButtonToKeyAction;
+import de.bwravencl.controllerbuddy.input.action.ButtonToMouseButtonAction;
+import de.bwravencl.controllerbuddy.input.action.ButtonToScrollAction;
+import de.bwravencl.controllerbuddy.input.action.IAction;
+import java.lang.constant.Constable;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+import org.lwjgl.sdl.SDLGamepad;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/// Compares the [ActionInterpreter] with dispatchers compiled by the
+/// [ActionCompiler].
+///
+/// The dispatch tables resemble a typical profile with several distinct action
+/// classes, which makes the call site of the interpreter megamorphic.
+@NullMarked
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ActionDispatcherBenchmark {
+
+	private final float[] axes = new float[SDLGamepad.SDL_GAMEPAD_AXIS_COUNT];
+
+	private final boolean[] buttons = new boolean[SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT + 1];
+
+	private final ActionDispatcher compiledActionDispatcher;
+
+	private final Input input = new Input(Mockito.mock(Main.class), null, null);
+
+	private final ActionDispatcher interpretingActionDispatcher;
+
+	public ActionDispatcherBenchmark() throws ReflectiveOperationException {
+		final IAction<Float>[][] axisDispatchTable = newDispatchTable(SDLGamepad.SDL_GAMEPAD_AXIS_COUNT);
+		axisDispatchTable[SDLGamepad.SDL_GAMEPAD_AXIS_LEFTX] = actions(new AxisToCursorAction());
+		axisDispatchTable[SDLGamepad.SDL_GAMEPAD_AXIS_LEFTY] = actions(new AxisToCursorAction());
+		axisDispatchTable[SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTX] = actions(new AxisToKeyAction(), new AxisToKeyAction());
+		axisDispatchTable[SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTY] = actions(new AxisToScrollAction());
+		axisDispatchTable[SDLGamepad.SDL_GAMEPAD_AXIS_LEFT_TRIGGER] = actions(new AxisToKeyAction());
+		axisDispatchTable[SDLGamepad.SDL_GAMEPAD_AXIS_RIGHT_TRIGGER] = actions(new AxisToScrollAction());
+
+		final IAction<Boolean>[][] buttonDispatchTable = newDispatchTable(
+				SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT + 1);
+		for (var button = 0; button < buttonDispatchTable.length; button++) {
+			buttonDispatchTable[button] = switch (button % 4) {
+			case 0 -> actions(new ButtonToKeyAction());
+			case 1 -> actions(new ButtonToMouseButtonAction());
+			case 2 -> actions(new ButtonToScrollAction(), new ButtonToCursorAction());
+			default -> actions(new ButtonToKeyAction(), new ButtonToMouseButtonAction());
+			};
+		}
+
+		for (var axis = 0; axis < axes.length; axis++) {
+			axes[axis] = axis % 2 == 0 ? 0.75f : -0.5f;
+		}
+
+		for (var button = 0; button < buttons.length; button++) {
+			buttons[button] = button % 3 == 0;
+		}
+
+		interpretingActionDispatcher = new ActionInterpreter(axisDispatchTable, buttonDispatchTable);
+		compiledActionDispatcher = ActionCompiler.compile(axisDispatchTable, buttonDispatchTable);
+	}
+
+	@SafeVarargs
+	private static <V extends Constable> IAction<V>[] actions(final IAction<V>... actions) {
+		return actions;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <V extends Constable> IAction<V>[][] newDispatchTable(final int numComponents) {
+		return (IAction<V>[][]) new IAction<?>[numComponents][0];
+	}
+
+	@Benchmark
+	public void compiled() {
+		compiledActionDispatcher.dispatch(input, axes, buttons);
+	}
+
+	@Benchmark
+	public void interpreted() {
+		interpretingActionDispatcher.dispatch(input, axes, buttons);
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.input;
+
+import de.bwravencl.controllerbuddy.gui.Main;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+import org.lwjgl.sdl.SDLError;
+import org.lwjgl.sdl.SDLGamepad;
+import org.lwjgl.sdl.SDLInit;
+import org.lwjgl.sdl.SDLJoystick;
+import org.lwjgl.sdl.SDL_VirtualJoystickDesc;
+import org.lwjgl.system.MemoryStack;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/// Compares the per-poll overhead of reading the gamepad state with one SDL
+/// call per axis and button against updating it from the event-driven
+/// snapshot.
+///
+/// A virtual SDL gamepad is attached, so that no physical controller is
+/// required.
+@NullMarked
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GamepadStateBenchmark {
+
+	private final Input.GamepadState gamepadState;
+
+	private final long sdlGamepad;
+
+	private final int virtualJoystickInstanceId;
+
+	public GamepadStateBenchmark() {
+		if (!SDLInit.SDL_Init(SDLInit.SDL_INIT_GAMEPAD)) {
+			throw new IllegalStateException("Could not initialize SDL: " + SDLError.SDL_GetError());
+		}
+
+		try (final var stack = MemoryStack.stackPush()) {
+			final var virtualJoystickDesc = SDL_VirtualJoystickDesc.calloc(stack)
+					.version(SDL_VirtualJoystickDesc.SIZEOF).type((short) SDLJoystick.SDL_JOYSTICK_TYPE_GAMEPAD)
+					.naxes((short) SDLGamepad.SDL_GAMEPAD_AXIS_COUNT)
+					.nbuttons((short) SDLGamepad.SDL_GAMEPAD_BUTTON_COUNT);
+			virtualJoystickInstanceId = SDLJoystick.SDL_AttachVirtualJoystick(virtualJoystickDesc);
+		}
+		if (virtualJoystickInstanceId == 0) {
+			throw new IllegalStateException("Could not attach virtual joystick: " + SDLError.SDL_GetError());
+		}
+
+		sdlGamepad = SDLGamepad.SDL_OpenGamepad(virtualJoystickInstanceId);
+		if (sdlGamepad == 0L) {
+			throw new IllegalStateException("Could not open virtual gamepad: " + SDLError.SDL_GetError());
+		}
+
+		final var input = new Input(Mockito.mock(Main.class), null, null);
+		gamepadState = input.new GamepadState(sdlGamepad, virtualJoystickInstanceId);
+	}
+
+	@Benchmark
+	public boolean perFieldReads() {
+		gamepadState.readSnapshot();
+		return gamepadState.update();
+	}
+
+	@Benchmark
+	public boolean snapshot() {
+		return gamepadState.update();
+	}
+
+	@TearDown
+	public void tearDown() {
+		SDLGamepad.SDL_CloseGamepad(sdlGamepad);
+		SDLJoystick.SDL_DetachVirtualJoystick(virtualJoystickInstanceId);
+		SDLInit.SDL_Quit();
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import de.bwravencl.controllerbuddy.input.Scancode;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/// Compares diffing the held keys of a frame with [HashSet]s of boxed
+/// [Scancode]s against [DenseBitSet]s of key codes.
+///
+/// Every frame, a few keys are held and one of them changes, which resembles
+/// holding a modifier while tapping keys.
+@NullMarked
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class OutputDiffBenchmark {
+
+	private static final Scancode[][] FRAMES = {
+			{ scancode(Scancode.DIK_LSHIFT), scancode(Scancode.DIK_W), scancode(Scancode.DIK_UP) },
+			{ scancode(Scancode.DIK_LSHIFT), scancode(Scancode.DIK_A), scancode(Scancode.DIK_UP) },
+			{ scancode(Scancode.DIK_LSHIFT), scancode(Scancode.DIK_S), scancode(Scancode.DIK_DELETE) } };
+
+	private final DenseBitSet bitSetNewDown = new DenseBitSet(Scancode.NUM_KEY_CODES);
+
+	private final DenseBitSet bitSetNewUp = new DenseBitSet(Scancode.NUM_KEY_CODES);
+
+	private final DenseBitSet bitSetOldDown = new DenseBitSet(Scancode.NUM_KEY_CODES);
+
+	private final DenseBitSet bitSetSource = new DenseBitSet(Scancode.NUM_KEY_CODES);
+
+	private final Set<Scancode> hashSetNewDown = new HashSet<>();
+
+	private final Set<Scancode> hashSetNewUp = new HashSet<>();
+
+	private final Set<Scancode> hashSetOldDown = new HashSet<>();
+
+	private final Set<Scancode> hashSetSource = new HashSet<>();
+
+	private int frame;
+
+	private static Scancode scancode(final String name) {
+		final var scancode = Scancode.NAME_TO_SCAN_CODE_MAP.get(name);
+		if (scancode == null) {
+			throw new IllegalArgumentException("Unknown scancode: " + name);
+		}
+
+		return scancode;
+	}
+
+	@Benchmark
+	public void denseBitSet(final Blackhole blackhole) {
+		bitSetSource.clear();
+		for (final var scancode : nextFrame()) {
+			bitSetSource.add(scancode.keyCode());
+		}
+
+		DenseBitSet.diff(bitSetSource, bitSetOldDown, bitSetNewUp, bitSetNewDown, false);
+
+		for (var i = bitSetNewUp.nextSetBit(0); i >= 0; i = bitSetNewUp.nextSetBit(i + 1)) {
+			blackhole.consume(i);
+		}
+		for (var i = bitSetNewDown.nextSetBit(0); i >= 0; i = bitSetNewDown.nextSetBit(i + 1)) {
+			blackhole.consume(i);
+		}
+	}
+
+	@Benchmark
+	public void hashSet(final Blackhole blackhole) {
+		hashSetSource.clear();
+		for (final var scancode : nextFrame()) {
+			hashSetSource.add(scancode);
+		}
+
+		hashSetNewUp.clear();
+		hashSetNewDown.clear();
+		hashSetNewUp.addAll(hashSetOldDown);
+		hashSetNewUp.removeAll(hashSetSource);
+		hashSetOldDown.removeAll(hashSetNewUp);
+		hashSetNewDown.addAll(hashSetSource);
+		hashSetNewDown.removeAll(hashSetOldDown);
+		hashSetOldDown.addAll(hashSetNewDown);
+
+		for (final var scancode : hashSetNewUp) {
+			blackhole.consume(scancode.keyCode());
+		}
+		for (final var scancode : hashSetNewDown) {
+			blackhole.consume(scancode.keyCode());
+		}
+	}
+
+	private Scancode[] nextFrame() {
+		frame = (frame + 1) % FRAMES.length;
+		return FRAMES[frame];
+	}
+}
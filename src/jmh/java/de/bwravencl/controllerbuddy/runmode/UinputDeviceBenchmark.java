@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import de.bwravencl.controllerbuddy.ffi.Linux;
+import de.bwravencl.controllerbuddy.ffi.Linux.input_event;
+import de.bwravencl.controllerbuddy.runmode.UinputDevice.Event;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/// Compares writing a frame that moves all eight joystick axes with one
+/// confined arena, one `input_event` allocation and one `write()` call per
+/// event and `SYN_REPORT`, against the preallocated frame buffer of
+/// [UinputDevice].
+///
+/// The events are written to `/dev/null` instead of `/dev/uinput`, so that
+/// neither the uinput module nor write access to it is required. The
+/// benchmark therefore only runs on Linux.
+@NullMarked
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UinputDeviceBenchmark {
+
+	private static final Event[] AXIS_EVENTS = { Event.ABS_X, Event.ABS_Y, Event.ABS_Z, Event.ABS_RX, Event.ABS_RY,
+			Event.ABS_RZ, Event.ABS_THROTTLE, Event.ABS_RUDDER };
+
+	private static final short EV_ABS = 3;
+
+	private static final short EV_SYN = 0;
+
+	private static final short SYN_REPORT = 0;
+
+	private final int fd;
+
+	private final UinputDevice uinputDevice;
+
+	private int value;
+
+	public UinputDeviceBenchmark() {
+		try (final var arena = Arena.ofConfined()) {
+			fd = Linux.open(arena.allocateFrom("/dev/null"), Linux.O_WRONLY);
+		}
+		if (fd == -1) {
+			throw new IllegalStateException("Could not open /dev/null");
+		}
+
+		uinputDevice = new UinputDevice(fd, "Benchmark");
+	}
+
+	private static void writeEvent(final int fd, final short type, final short code, final int value)
+			throws IOException {
+		try (final var arena = Arena.ofConfined()) {
+			final var inputEvent = arena.allocate(input_event.LAYOUT);
+			input_event.setCode(inputEvent, 0L, code);
+			input_event.setType(inputEvent, 0L, type);
+			input_event.setValue(inputEvent, 0L, value);
+
+			if (Linux.write(fd, inputEvent, inputEvent.byteSize()) == -1) {
+				throw new IOException("write() failed");
+			}
+		}
+	}
+
+	@Benchmark
+	public void frameBuffer() throws IOException {
+		value++;
+
+		for (final var axisEvent : AXIS_EVENTS) {
+			uinputDevice.emit(axisEvent, value);
+		}
+
+		uinputDevice.flush();
+	}
+
+	@Benchmark
+	public void perEventWrites() throws IOException {
+		value++;
+
+		for (short code = 0; code < AXIS_EVENTS.length; code++) {
+			writeEvent(fd, EV_ABS, code, value);
+			writeEvent(fd, EV_SYN, SYN_REPORT, 0);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		Linux.close(fd);
+	}
+}
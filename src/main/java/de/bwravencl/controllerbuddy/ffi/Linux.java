@@ -30,18 +30,24 @@ import java.lang.invoke.VarHandle;
 /// Provides Java bindings to Linux system calls and uinput ioctl constants via
 /// the Foreign Function & Memory API.
 ///
-/// This class exposes native `open`, `close`, `write`, and `ioctl` operations,
-/// as well as memory layout definitions for uinput data structures used to
-/// create and manage virtual input devices.
+/// This class exposes native `open`, `close`, `read`, `write`, `ioctl` and
+/// `timerfd` operations, as well as memory layout definitions for uinput data
+/// structures used to create and manage virtual input devices.
 @SuppressWarnings({ "exports", "restricted", "SameParameterValue" })
 public final class Linux {
 
+	/// Linux `CLOCK_MONOTONIC` clock ID.
+	public static final int CLOCK_MONOTONIC = 1;
+
 	/// Linux `O_NONBLOCK` flag for non-blocking I/O.
 	public static final int O_NONBLOCK = 4000;
 
 	/// Linux `O_WRONLY` flag for write-only access.
 	public static final int O_WRONLY = 1;
 
+	/// Linux `TFD_CLOEXEC` flag that closes a timer file descriptor on `exec`.
+	public static final int TFD_CLOEXEC = 0x80000;
+
 	/// Maximum length of a uinput device name.
 	public static final int UINPUT_MAX_NAME_SIZE = 80;
 
@@ -75,6 +81,25 @@ public final class Linux {
 			FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_INT),
 			Linker.Option.critical(false));
 
+	/// Method handle for the native `read` function with errno capture.
+	private static final MethodHandle READ_METHOD_HANDLE = LINKER.downcallHandle(
+			LINKER.defaultLookup().findOrThrow("read"),
+			FunctionDescriptor.of(ValueLayout.JAVA_LONG, ValueLayout.JAVA_INT, ValueLayout.ADDRESS,
+					ValueLayout.JAVA_LONG),
+			ERRNO_CAPTURE_CALL_STATE);
+
+	/// Method handle for the native `timerfd_create` function.
+	private static final MethodHandle TIMERFD_CREATE_METHOD_HANDLE = LINKER.downcallHandle(
+			LINKER.defaultLookup().findOrThrow("timerfd_create"),
+			FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT),
+			Linker.Option.critical(false));
+
+	/// Method handle for the native `timerfd_settime` function.
+	private static final MethodHandle TIMERFD_SETTIME_METHOD_HANDLE = LINKER.downcallHandle(
+			LINKER.defaultLookup().findOrThrow("timerfd_settime"), FunctionDescriptor.of(ValueLayout.JAVA_INT,
+					ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS),
+			Linker.Option.critical(false));
+
 	/// The ioctl base character for uinput ioctl commands.
 	private static final byte UINPUT_IOCTL_BASE = 'U';
 
@@ -213,7 +238,7 @@ public final class Linux {
 	/// @return the ioctl return value, typically zero on success or `-1` on error
 	public static int ioctl(final int fd, final long request, final MemorySegment argp, final MemorySegment errno) {
 		try {
-			return (int) IOCTL_METHOD_HANDLE.invoke(errno, fd, request, argp);
+			return (int) IOCTL_METHOD_HANDLE.invokeExact(errno, fd, request, argp);
 		} catch (final Throwable t) {
 			throw new RuntimeException(t);
 		}
@@ -232,6 +257,51 @@ public final class Linux {
 		}
 	}
 
+	/// Reads bytes from a file descriptor.
+	///
+	/// @param fd the file descriptor
+	/// @param buf the memory segment receiving the data
+	/// @param count the maximum number of bytes to read
+	/// @param errno the memory segment to capture the errno state
+	/// @return the number of bytes read, or `-1` on error
+	public static long read(final int fd, final MemorySegment buf, final long count, final MemorySegment errno) {
+		try {
+			return (long) READ_METHOD_HANDLE.invokeExact(errno, fd, buf, count);
+		} catch (final Throwable t) {
+			throw new RuntimeException(t);
+		}
+	}
+
+	/// Creates a timer that notifies via a file descriptor.
+	///
+	/// @param clockid the clock the timer is based on (e.g. [#CLOCK_MONOTONIC])
+	/// @param flags the creation flags (e.g. [#TFD_CLOEXEC])
+	/// @return a non-negative file descriptor on success, or `-1` on error
+	public static int timerfd_create(final int clockid, final int flags) {
+		try {
+			return (int) TIMERFD_CREATE_METHOD_HANDLE.invokeExact(clockid, flags);
+		} catch (final Throwable t) {
+			throw new RuntimeException(t);
+		}
+	}
+
+	/// Arms or disarms the timer referred to by a timer file descriptor.
+	///
+	/// @param fd the timer file descriptor
+	/// @param flags the flags, zero for a timer relative to the current time
+	/// @param new_value the memory segment holding the new `itimerspec`
+	/// @param old_value the memory segment receiving the previous `itimerspec`,
+	/// or [MemorySegment#NULL]
+	/// @return zero on success, or `-1` on error
+	public static int timerfd_settime(final int fd, final int flags, final MemorySegment new_value,
+			final MemorySegment old_value) {
+		try {
+			return (int) TIMERFD_SETTIME_METHOD_HANDLE.invokeExact(fd, flags, new_value, old_value);
+		} catch (final Throwable t) {
+			throw new RuntimeException(t);
+		}
+	}
+
 	/// Writes bytes to a file descriptor.
 	///
 	/// @param fd the file descriptor
@@ -250,8 +320,9 @@ public final class Linux {
 	/// to uinput devices.
 	///
 	/// Provides a [GroupLayout] constant and static setter methods for
-	/// populating the type, code, and value fields of an `input_event`
-	/// memory segment.
+	/// populating the type, code, and value fields of the `input_event` structs
+	/// in an array of `input_event` structs. The setters address an element by
+	/// its index, so that no slice of the array has to be created.
 	public static final class input_event {
 
 		/// Field name for the event code.
@@ -287,28 +358,31 @@ public final class Linux {
 		private input_event() {
 		}
 
-		/// Sets the event code field in the given `input_event` memory segment.
+		/// Sets the event code field of the `input_event` at the given index.
 		///
-		/// @param seg the memory segment representing an `input_event`
+		/// @param seg the memory segment holding an array of `input_event` structs
+		/// @param index the index of the `input_event` within the array
 		/// @param code the event code value
-		public static void setCode(final MemorySegment seg, final short code) {
-			CODE_VAR_HANDLE.set(seg, 0L, code);
+		public static void setCode(final MemorySegment seg, final long index, final short code) {
+			CODE_VAR_HANDLE.set(seg, index * LAYOUT.byteSize(), code);
 		}
 
-		/// Sets the event type field in the given `input_event` memory segment.
+		/// Sets the event type field of the `input_event` at the given index.
 		///
-		/// @param seg the memory segment representing an `input_event`
+		/// @param seg the memory segment holding an array of `input_event` structs
+		/// @param index the index of the `input_event` within the array
 		/// @param type the event type value
-		public static void setType(final MemorySegment seg, final short type) {
-			TYPE_VAR_HANDLE.set(seg, 0L, type);
+		public static void setType(final MemorySegment seg, final long index, final short type) {
+			TYPE_VAR_HANDLE.set(seg, index * LAYOUT.byteSize(), type);
 		}
 
-		/// Sets the event value field in the given `input_event` memory segment.
+		/// Sets the event value field of the `input_event` at the given index.
 		///
-		/// @param seg the memory segment representing an `input_event`
+		/// @param seg the memory segment holding an array of `input_event` structs
+		/// @param index the index of the `input_event` within the array
 		/// @param value the event value
-		public static void setValue(final MemorySegment seg, final int value) {
-			VALUE_VAR_HANDLE.set(seg, 0L, value);
+		public static void setValue(final MemorySegment seg, final long index, final int value) {
+			VALUE_VAR_HANDLE.set(seg, index * LAYOUT.byteSize(), value);
 		}
 	}
 
@@ -378,6 +452,59 @@ public final class Linux {
 		}
 	}
 
+	/// Represents the Linux `itimerspec` structure used to arm timers with an
+	/// initial expiration and an interval.
+	///
+	/// Provides a [GroupLayout] constant and a static setter for the initial
+	/// expiration of an `itimerspec` memory segment. Each member is a `timespec`
+	/// consisting of seconds and nanoseconds.
+	public static final class itimerspec {
+
+		/// Field name for the interval.
+		private static final String IT_INTERVAL_NAME = "it_interval";
+
+		/// Field name for the initial expiration.
+		private static final String IT_VALUE_NAME = "it_value";
+
+		/// Field name for the nanoseconds component of a `timespec`.
+		private static final String TV_NSEC_NAME = "tv_nsec";
+
+		/// Field name for the seconds component of a `timespec`.
+		private static final String TV_SEC_NAME = "tv_sec";
+
+		/// Memory layout of the Linux `timespec` struct.
+		private static final GroupLayout TIMESPEC_LAYOUT = MemoryLayout.structLayout(
+				ValueLayout.JAVA_LONG.withName(TV_SEC_NAME), ValueLayout.JAVA_LONG.withName(TV_NSEC_NAME));
+
+		/// Memory layout of the Linux `itimerspec` struct.
+		public static final GroupLayout LAYOUT = MemoryLayout.structLayout(
+				TIMESPEC_LAYOUT.withName(IT_INTERVAL_NAME), TIMESPEC_LAYOUT.withName(IT_VALUE_NAME));
+
+		/// VarHandle for accessing the `it_value.tv_nsec` field.
+		private static final VarHandle IT_VALUE_TV_NSEC_VAR_HANDLE = LAYOUT.varHandle(
+				MemoryLayout.PathElement.groupElement(IT_VALUE_NAME),
+				MemoryLayout.PathElement.groupElement(TV_NSEC_NAME));
+
+		/// VarHandle for accessing the `it_value.tv_sec` field.
+		private static final VarHandle IT_VALUE_TV_SEC_VAR_HANDLE = LAYOUT.varHandle(
+				MemoryLayout.PathElement.groupElement(IT_VALUE_NAME),
+				MemoryLayout.PathElement.groupElement(TV_SEC_NAME));
+
+		/// Prevents instantiation.
+		private itimerspec() {
+		}
+
+		/// Sets the initial expiration in the given `itimerspec` memory segment.
+		///
+		/// @param seg the memory segment representing the `itimerspec` struct
+		/// @param nanos the initial expiration in nanoseconds, or zero to disarm the
+		/// timer
+		public static void setItValueNanos(final MemorySegment seg, final long nanos) {
+			IT_VALUE_TV_SEC_VAR_HANDLE.set(seg, 0L, nanos / 1_000_000_000L);
+			IT_VALUE_TV_NSEC_VAR_HANDLE.set(seg, 0L, nanos % 1_000_000_000L);
+		}
+	}
+
 	/// Represents the Linux `timeval` structure used to express a time value as
 	/// seconds and microseconds.
 	///
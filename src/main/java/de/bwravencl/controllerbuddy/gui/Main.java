@@ -55,6 +55,7 @@ import de.bwravencl.controllerbuddy.json.ScancodeAdapter;
 import de.bwravencl.controllerbuddy.runmode.ClientRunMode;
 import de.bwravencl.controllerbuddy.runmode.LocalRunMode;
 import de.bwravencl.controllerbuddy.runmode.OutputRunMode;
+import de.bwravencl.controllerbuddy.runmode.PacingStrategy;
 import de.bwravencl.controllerbuddy.runmode.RunMode;
 import de.bwravencl.controllerbuddy.runmode.ServerRunMode;
 import de.bwravencl.controllerbuddy.runmode.UinputDevice;
@@ -69,6 +70,7 @@ import java.awt.Cursor;
 import java.awt.Desktop;
 import java.awt.Dialog;
 import java.awt.Dimension;
+import java.awt.DisplayMode;
 import java.awt.EventQueue;
 import java.awt.FlowLayout;
 import java.awt.Font;
@@ -418,6 +420,10 @@ public final class Main extends JFrame {
 	/// CLI option name for printing the application version.
 	private static final String OPTION_VERSION = "version";
 
+	/// Refresh rate in hertz of the overlay axis indicators if the refresh rate of
+	/// the display is unknown.
+	private static final int OVERLAY_AXIS_INDICATORS_DEFAULT_REFRESH_RATE = 60;
+
 	/// Maximum width in pixels of the overlay mode label.
 	private static final int OVERLAY_MODE_LABEL_MAX_WIDTH = 200;
 
@@ -433,6 +439,12 @@ public final class Main extends JFrame {
 	/// Preferences key for the auto-restart output setting.
 	private static final String PREFERENCES_AUTO_RESTART_OUTPUT = "auto_restart_output";
 
+	/// Preferences key for the profile compilation setting.
+	private static final String PREFERENCES_COMPILE_PROFILE = "compile_profile";
+
+	/// Preferences key for the event redundancy setting.
+	private static final String PREFERENCES_EVENT_REDUNDANCY = "event_redundancy";
+
 	/// Preferences key for the haptic feedback setting.
 	private static final String PREFERENCES_HAPTIC_FEEDBACK = "haptic_feedback";
 
@@ -457,15 +469,31 @@ public final class Main extends JFrame {
 	/// Preferences key for the maximum polling rate.
 	private static final String PREFERENCES_MAX_POLLING_RATE = "max_polling_rate";
 
+	/// Preferences key for the maximum send rate of the server.
+	private static final String PREFERENCES_MAX_SEND_RATE = "max_send_rate";
+
 	/// Preferences key for the minimum polling rate.
 	private static final String PREFERENCES_MIN_POLLING_RATE = "min_polling_rate";
 
+	/// Preferences key for the minimum send rate of the server.
+	private static final String PREFERENCES_MIN_SEND_RATE = "min_send_rate";
+
 	/// Preferences key for the overlay scaling factor.
 	private static final String PREFERENCES_OVERLAY_SCALING = "overlay_scaling";
 
+	/// Preferences key for the selected pacing strategy of the polling loop.
+	private static final String PREFERENCES_PACING_STRATEGY = "pacing_strategy";
+
 	/// Preferences key for the stored connection password.
 	private static final String PREFERENCES_PASSWORD = "password";
 
+	/// Preferences key for the client playout setting.
+	private static final String PREFERENCES_PLAYOUT = "playout";
+
+	/// Preferences key for the time without input activity after which the
+	/// polling rate starts to decay.
+	private static final String PREFERENCES_POLLING_RATE_IDLE_TIMEOUT = "polling_rate_idle_timeout";
+
 	/// Preferences key for the stored network port.
 	private static final String PREFERENCES_PORT = "port";
 
@@ -878,6 +906,11 @@ public final class Main extends JFrame {
 	/// Combo box for selecting the active mode within the current profile.
 	private @Nullable JComboBox<Mode> modeComboBox;
 
+	/// Timer that refreshes the overlay axis indicators at the refresh rate of
+	/// the display, coalescing all axis changes in between.
+	@SuppressWarnings({ "serial", "RedundantSuppression" })
+	private @Nullable Timer overlayAxisIndicatorsTimer;
+
 	/// Executor that schedules periodic overlay position update tasks.
 	@SuppressWarnings({ "serial", "RedundantSuppression" })
 	private @Nullable ScheduledExecutorService overlayExecutorService;
@@ -905,9 +938,6 @@ public final class Main extends JFrame {
 	@SuppressWarnings({ "serial", "RedundantSuppression" })
 	private @Nullable volatile RunMode runMode;
 
-	/// Whether an on-screen keyboard mode switch has been scheduled.
-	private volatile boolean scheduleOnScreenKeyboardModeSwitch;
-
 	/// The controller currently selected for input, or `null` if none.
 	@SuppressWarnings({ "serial", "RedundantSuppression" })
 	private @Nullable volatile Controller selectedController;
@@ -1283,6 +1313,38 @@ public final class Main extends JFrame {
 		GuiUtils.makeHertzSpinner(maxPollingRateSpinner);
 		maxPollingRatePanel.add(maxPollingRateSpinner);
 
+		final var pollingRateIdleTimeoutPanel = new JPanel(defaultFlowLayout);
+		inputSettingsPanel.add(pollingRateIdleTimeoutPanel);
+
+		final var pollingRateIdleTimeoutLabel = new JLabel(strings.getString("POLLING_RATE_IDLE_TIMEOUT_LABEL"));
+		pollingRateIdleTimeoutLabel.setPreferredSize(longSettingsLabelDimension);
+		pollingRateIdleTimeoutPanel.add(pollingRateIdleTimeoutLabel);
+
+		final var pollingRateIdleTimeoutSpinner = new JSpinner(
+				new ClampingSpinnerNumberModel(getPollingRateIdleTimeout(), 0, 60_000, 100, event -> {
+					preferences.putInt(PREFERENCES_POLLING_RATE_IDLE_TIMEOUT,
+							((SpinnerNumberModel) event.getSource()).getNumber().intValue());
+				}));
+		GuiUtils.makeMillisecondSpinner(pollingRateIdleTimeoutSpinner);
+		pollingRateIdleTimeoutPanel.add(pollingRateIdleTimeoutSpinner);
+
+		final var pacingStrategyPanel = new JPanel(defaultFlowLayout);
+		inputSettingsPanel.add(pacingStrategyPanel);
+
+		final var pacingStrategyLabel = new JLabel(strings.getString("PACING_STRATEGY_LABEL"));
+		pacingStrategyLabel.setPreferredSize(longSettingsLabelDimension);
+		pacingStrategyPanel.add(pacingStrategyLabel);
+
+		final var pacingStrategyComboBox = new JComboBox<>(PacingStrategy.getAvailableValues());
+		pacingStrategyComboBox.setSelectedItem(getPacingStrategy());
+		pacingStrategyComboBox.addActionListener(event -> {
+			final var pacingStrategy = (PacingStrategy) ((JComboBox<?>) event.getSource()).getSelectedItem();
+			if (pacingStrategy != null) {
+				preferences.putInt(PREFERENCES_PACING_STRATEGY, pacingStrategy.getId());
+			}
+		});
+		pacingStrategyPanel.add(pacingStrategyComboBox);
+
 		final var physicalAxesPanel = new JPanel(defaultFlowLayout);
 		inputSettingsPanel.add(physicalAxesPanel, constraints);
 
@@ -1337,6 +1399,21 @@ public final class Main extends JFrame {
 		});
 		hapticFeedbackPanel.add(hapticFeedbackCheckBox);
 
+		final var actionDispatchPanel = new JPanel(defaultFlowLayout);
+		inputSettingsPanel.add(actionDispatchPanel, constraints);
+
+		final var actionDispatchLabel = new JLabel(strings.getString("ACTION_DISPATCH_LABEL"));
+		actionDispatchLabel.setPreferredSize(longSettingsLabelDimension);
+		actionDispatchPanel.add(actionDispatchLabel);
+
+		final var compileProfileCheckBox = new JCheckBox(strings.getString("COMPILE_PROFILE_CHECK_BOX"));
+		compileProfileCheckBox.setSelected(isCompileProfile());
+		compileProfileCheckBox.addActionListener(event -> {
+			final var compileProfile = ((JCheckBox) event.getSource()).isSelected();
+			preferences.putBoolean(PREFERENCES_COMPILE_PROFILE, compileProfile);
+		});
+		actionDispatchPanel.add(compileProfileCheckBox);
+
 		final var hotSwapPanel = new JPanel(defaultFlowLayout);
 		inputSettingsPanel.add(hotSwapPanel, constraints);
 
@@ -2558,6 +2635,11 @@ public final class Main extends JFrame {
 	/// between attempts until it is no longer displayable. Clears the horizontal
 	/// indicator panel, current mode label, and virtual axis progress bar map.
 	private void deInitOverlay() {
+		if (overlayAxisIndicatorsTimer != null) {
+			overlayAxisIndicatorsTimer.stop();
+			overlayAxisIndicatorsTimer = null;
+		}
+
 		if (overlayFrame != null) {
 			for (var i = 0; i < 10; i++) {
 				overlayFrame.dispose();
@@ -2950,6 +3032,15 @@ public final class Main extends JFrame {
 		return Optional.empty();
 	}
 
+	/// Returns the configured number of additional update messages that repeat
+	/// the one-shot events of an update message sent by the server.
+	///
+	/// @return the configured event redundancy
+	public int getEventRedundancy() {
+		return Math.clamp(preferences.getInt(PREFERENCES_EVENT_REDUNDANCY, ServerRunMode.DEFAULT_EVENT_REDUNDANCY), 0,
+				ServerRunMode.MAX_EVENT_REDUNDANCY);
+	}
+
 	/// Returns the configured host address for network connections.
 	///
 	/// @return the configured host address
@@ -2987,6 +3078,15 @@ public final class Main extends JFrame {
 		return preferences.getInt(PREFERENCES_MAX_POLLING_RATE, RunMode.DEFAULT_MAX_POLLING_RATE_HZ);
 	}
 
+	/// Returns the configured upper bound of the rate at which the server sends
+	/// update messages.
+	///
+	/// @return the maximum send rate in hertz
+	public int getMaxSendRate() {
+		return Math.clamp(preferences.getInt(PREFERENCES_MAX_SEND_RATE, ServerRunMode.DEFAULT_MAX_SEND_RATE_HZ),
+				getMinSendRate(), ServerRunMode.MAX_SEND_RATE_HZ);
+	}
+
 	/// Returns the configured minimum input polling rate in hertz.
 	///
 	/// @return the minimum polling rate in hertz
@@ -2994,6 +3094,15 @@ public final class Main extends JFrame {
 		return preferences.getInt(PREFERENCES_MIN_POLLING_RATE, RunMode.DEFAULT_MIN_POLLING_RATE_HZ);
 	}
 
+	/// Returns the configured lower bound of the rate at which the server sends
+	/// update messages.
+	///
+	/// @return the minimum send rate in hertz
+	public int getMinSendRate() {
+		return Math.clamp(preferences.getInt(PREFERENCES_MIN_SEND_RATE, ServerRunMode.DEFAULT_MIN_SEND_RATE_HZ),
+				ServerRunMode.MIN_SEND_RATE_HZ, ServerRunMode.MAX_SEND_RATE_HZ);
+	}
+
 	/// Returns the on-screen keyboard instance.
 	///
 	/// @return the on-screen keyboard instance
@@ -3013,6 +3122,13 @@ public final class Main extends JFrame {
 		return cachedOverlayScaling;
 	}
 
+	/// Returns the pacing strategy selected for the polling loop.
+	///
+	/// @return the selected [PacingStrategy]
+	public PacingStrategy getPacingStrategy() {
+		return PacingStrategy.fromId(preferences.getInt(PREFERENCES_PACING_STRATEGY, PacingStrategy.DEFAULT.getId()));
+	}
+
 	/// Returns the configured network password.
 	///
 	/// @return the configured network password
@@ -3020,6 +3136,15 @@ public final class Main extends JFrame {
 		return preferences.get(PREFERENCES_PASSWORD, "");
 	}
 
+	/// Returns the configured time in milliseconds without input activity after
+	/// which the polling rate starts to decay towards the minimum polling rate.
+	///
+	/// @return the idle timeout in milliseconds
+	public int getPollingRateIdleTimeout() {
+		return preferences.getInt(PREFERENCES_POLLING_RATE_IDLE_TIMEOUT,
+				RunMode.DEFAULT_POLLING_RATE_IDLE_TIMEOUT_MILLIS);
+	}
+
 	/// Returns the configured network port.
 	///
 	/// @return the configured network port
@@ -3122,6 +3247,9 @@ public final class Main extends JFrame {
 								OPTION_HOST, host),
 						strings.getString("ERROR_DIALOG_TITLE"), JOptionPane.ERROR_MESSAGE);
 			}
+			if (!host.equals(getHost())) {
+				ClientRunMode.discardResumableSession();
+			}
 			preferences.put(PREFERENCES_HOST, host);
 		}
 
@@ -3163,31 +3291,15 @@ public final class Main extends JFrame {
 								OPTION_PASSWORD, PASSWORD_MIN_LENGTH, PASSWORD_MAX_LENGTH),
 						strings.getString("ERROR_DIALOG_TITLE"), JOptionPane.ERROR_MESSAGE);
 			}
+			if (!password.equals(getPassword())) {
+				ClientRunMode.discardResumableSession();
+			}
 			preferences.put(PREFERENCES_PASSWORD, password);
 		}
 
 		return valid;
 	}
 
-	/// Handles a pending on-screen keyboard mode switch by activating the
-	/// corresponding `ButtonToModeAction` if a switch was previously scheduled.
-	public void handleOnScreenKeyboardModeChange() {
-		if (!scheduleOnScreenKeyboardModeSwitch || input == null) {
-			return;
-		}
-
-		for (final var buttonToModeActions : input.getProfile().getButtonToModeActionsMap().values()) {
-			for (final var buttonToModeAction : buttonToModeActions) {
-				if (OnScreenKeyboard.onScreenKeyboardMode.equals(buttonToModeAction.getMode(input))) {
-					buttonToModeAction.doAction(input, -1, true);
-					break;
-				}
-			}
-		}
-
-		scheduleOnScreenKeyboardModeSwitch = false;
-	}
-
 	/// Processes the remaining command-line options after profile loading.
 	///
 	/// Handles tray visibility, network options, autostart, save, export, and
@@ -3505,6 +3617,22 @@ public final class Main extends JFrame {
 		updateOverlayAlignment(prevTotalDisplayBounds);
 
 		overlayFrame.setVisible(true);
+
+		if (!virtualAxisToProgressBarMap.isEmpty()) {
+			var refreshRate = overlayFrame.getGraphicsConfiguration().getDevice().getDisplayMode().getRefreshRate();
+			if (refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN) {
+				refreshRate = OVERLAY_AXIS_INDICATORS_DEFAULT_REFRESH_RATE;
+			}
+
+			overlayAxisIndicatorsTimer = new Timer(Math.max(1, 1000 / refreshRate), (_) -> {
+				if (input != null && input.consumeOverlayAxisValuesChanged()) {
+					updateOverlayAxisIndicators(false);
+				}
+			});
+			overlayAxisIndicatorsTimer.start();
+
+			updateOverlayAxisIndicators(true);
+		}
 	}
 
 	/// Initializes the active profile from the command line or the last-used
@@ -3578,6 +3706,13 @@ public final class Main extends JFrame {
 		return mainLoop.isTaskOfTypeRunning(ClientRunMode.class);
 	}
 
+	/// Returns whether profiles are compiled to bytecode for dispatching actions.
+	///
+	/// @return `true` if profile compilation is enabled
+	public boolean isCompileProfile() {
+		return preferences.getBoolean(PREFERENCES_COMPILE_PROFILE, true);
+	}
+
 	/// Returns whether the current look and feel is dark.
 	///
 	/// @return `true` if the look and feel is dark
@@ -3618,6 +3753,14 @@ public final class Main extends JFrame {
 		return overlayFrame.getY() + overlayFrame.getHeight() / 2 < totalDisplayBounds.height / 2;
 	}
 
+	/// Returns whether the client buffers received axis values and interpolates
+	/// between them.
+	///
+	/// @return `true` if client playout is enabled
+	public boolean isPlayout() {
+		return preferences.getBoolean(PREFERENCES_PLAYOUT, false);
+	}
+
 	/// Returns whether power save mode prevention is enabled.
 	///
 	/// @return `true` if power save mode prevention is enabled
@@ -4128,9 +4271,40 @@ public final class Main extends JFrame {
 						EventQueue.invokeLater(() -> onControllersChanged(false));
 					}
 				}
+				case SDLEvents.SDL_EVENT_GAMEPAD_AXIS_MOTION -> {
+					if (input != null) {
+						final var gamepadAxisEvent = sdlEvent.gaxis();
+						input.handleGamepadAxisEvent(gamepadAxisEvent.which(),
+								Byte.toUnsignedInt(gamepadAxisEvent.axis()), gamepadAxisEvent.value());
+					}
+				}
+				case SDLEvents.SDL_EVENT_GAMEPAD_BUTTON_DOWN, SDLEvents.SDL_EVENT_GAMEPAD_BUTTON_UP -> {
+					if (input == null) {
+						break;
+					}
+
+					final var gamepadButtonEvent = sdlEvent.gbutton();
+					input.handleGamepadButtonEvent(gamepadButtonEvent.which(),
+							Byte.toUnsignedInt(gamepadButtonEvent.button()), gamepadButtonEvent.down());
+
+					if (!isTouchpadEnabled() || !isSelectedController(gamepadButtonEvent.which())
+							|| gamepadButtonEvent.button() != SDLGamepad.SDL_GAMEPAD_BUTTON_TOUCHPAD) {
+						break;
+					}
+
+					if (gamepadButtonEvent.down()) {
+						input.pressMouseButton(prevFinger1Y != null ? 2 : 1);
+					} else {
+						input.releaseAllMouseButtons();
+					}
+				}
 				case SDLEvents.SDL_EVENT_GAMEPAD_REMOVED -> {
 					final var instanceId = sdlEvent.gdevice().which();
 
+					if (input != null) {
+						input.handleGamepadRemovedEvent(instanceId);
+					}
+
 					controllers.stream().filter(controller -> controller.instanceId == instanceId).findFirst()
 							.ifPresent(controller -> {
 								controllers.remove(controller);
@@ -4207,24 +4381,6 @@ public final class Main extends JFrame {
 					}
 					}
 				}
-				case SDLEvents.SDL_EVENT_GAMEPAD_BUTTON_DOWN, SDLEvents.SDL_EVENT_GAMEPAD_BUTTON_UP -> {
-					if (!isTouchpadEnabled()) {
-						break;
-					}
-
-					final var gamepadButtonEvent = sdlEvent.gbutton();
-					if (input == null || !isSelectedController(gamepadButtonEvent.which())
-							|| gamepadButtonEvent.button() != SDLGamepad.SDL_GAMEPAD_BUTTON_TOUCHPAD) {
-						break;
-					}
-
-					final var downMouseButtons = input.getDownMouseButtons();
-					if (gamepadButtonEvent.down()) {
-						downMouseButtons.add(prevFinger1Y != null ? 2 : 1);
-					} else {
-						downMouseButtons.clear();
-					}
-				}
 				case SDLEvents.SDL_EVENT_JOYSTICK_BATTERY_UPDATED -> {
 					final var joyBatteryEvent = sdlEvent.jbattery();
 					if (!isSelectedController(joyBatteryEvent.which())) {
@@ -4993,8 +5149,8 @@ public final class Main extends JFrame {
 		overlayFrame.pack();
 	}
 
-	/// Updates the overlay axis indicator progress bars with the current axis
-	/// values.
+	/// Updates the overlay axis indicator progress bars with the axis values last
+	/// published by [Input].
 	///
 	/// @param forceRepaint if `true`, all indicators are repainted regardless of
 	/// value changes
@@ -5021,8 +5177,7 @@ public final class Main extends JFrame {
 			}
 
 			@SuppressWarnings("DataFlowIssue")
-			final var newValue = -input.getAxes().getOrDefault(virtualAxis, 0) - minimum
-					- (negativeMinAxisValue ? 1 : 0);
+			final var newValue = -input.getOverlayAxisValue(virtualAxis) - minimum - (negativeMinAxisValue ? 1 : 0);
 			if (progressBar.getValue() != newValue) {
 				progressBar.setValue(newValue);
 				repaint = true;
@@ -5297,6 +5452,9 @@ public final class Main extends JFrame {
 		final var keyRepeatRateSpinner = new JSpinner(
 				new ClampingSpinnerNumberModel(profile.getKeyRepeatRate(), 1L, 100L, 1L, event -> {
 					profile.setKeyRepeatRate(((SpinnerNumberModel) event.getSource()).getNumber().longValue());
+					if (runMode instanceof final OutputRunMode outputRunMode) {
+						mainLoop.runAsync(outputRunMode::updateKeyRepeatRate);
+					}
 					setUnsavedChanges(true);
 				}));
 		GuiUtils.makeHertzSpinner(keyRepeatRateSpinner);
@@ -6190,9 +6348,25 @@ public final class Main extends JFrame {
 		/// Spinner for entering the connection timeout value.
 		private final JSpinner timeoutSpinner;
 
+		/// Spinner for entering the event redundancy, only present for server
+		/// connections.
+		private @Nullable JSpinner eventRedundancySpinner;
+
 		/// Text field for entering the remote host address.
 		private @Nullable JTextField hostTextField;
 
+		/// Spinner for entering the maximum send rate, only present for server
+		/// connections.
+		private @Nullable JSpinner maxSendRateSpinner;
+
+		/// Spinner for entering the minimum send rate, only present for server
+		/// connections.
+		private @Nullable JSpinner minSendRateSpinner;
+
+		/// Check box for enabling client playout, only present for client
+		/// connections.
+		private @Nullable JCheckBox playoutCheckBox;
+
 		/// Constructs a [ConnectionSettingsPanel] with or without a host field.
 		///
 		/// Pre-populates all fields from the current user preferences.
@@ -6244,6 +6418,56 @@ public final class Main extends JFrame {
 			GuiUtils.makeMillisecondSpinner(timeoutSpinner);
 			timeoutPanel.add(timeoutSpinner);
 
+			if (!withHost) {
+				final var eventRedundancyPanel = new JPanel(defaultFlowLayout);
+				add(eventRedundancyPanel);
+
+				final var eventRedundancyLabel = new JLabel(strings.getString("EVENT_REDUNDANCY_LABEL"));
+				eventRedundancyLabel.setPreferredSize(shortSettingsLabelDimension);
+				eventRedundancyPanel.add(eventRedundancyLabel);
+
+				eventRedundancySpinner = new JSpinner(new ClampingSpinnerNumberModel(getEventRedundancy(), 0,
+						ServerRunMode.MAX_EVENT_REDUNDANCY, 1, null));
+				eventRedundancyPanel.add(eventRedundancySpinner);
+
+				final var minSendRatePanel = new JPanel(defaultFlowLayout);
+				add(minSendRatePanel);
+
+				final var minSendRateLabel = new JLabel(strings.getString("MIN_SEND_RATE_LABEL"));
+				minSendRateLabel.setPreferredSize(shortSettingsLabelDimension);
+				minSendRatePanel.add(minSendRateLabel);
+
+				minSendRateSpinner = new JSpinner(new ClampingSpinnerNumberModel(getMinSendRate(),
+						ServerRunMode.MIN_SEND_RATE_HZ, ServerRunMode.MAX_SEND_RATE_HZ, 5, null));
+				GuiUtils.makeHertzSpinner(minSendRateSpinner);
+				minSendRatePanel.add(minSendRateSpinner);
+
+				final var maxSendRatePanel = new JPanel(defaultFlowLayout);
+				add(maxSendRatePanel);
+
+				final var maxSendRateLabel = new JLabel(strings.getString("MAX_SEND_RATE_LABEL"));
+				maxSendRateLabel.setPreferredSize(shortSettingsLabelDimension);
+				maxSendRatePanel.add(maxSendRateLabel);
+
+				maxSendRateSpinner = new JSpinner(new ClampingSpinnerNumberModel(getMaxSendRate(),
+						ServerRunMode.MIN_SEND_RATE_HZ, ServerRunMode.MAX_SEND_RATE_HZ, 10, null));
+				GuiUtils.makeHertzSpinner(maxSendRateSpinner);
+				maxSendRatePanel.add(maxSendRateSpinner);
+			}
+
+			if (withHost) {
+				final var playoutPanel = new JPanel(defaultFlowLayout);
+				add(playoutPanel);
+
+				final var playoutLabel = new JLabel(strings.getString("PLAYOUT_LABEL"));
+				playoutLabel.setPreferredSize(shortSettingsLabelDimension);
+				playoutPanel.add(playoutLabel);
+
+				playoutCheckBox = new JCheckBox(strings.getString("PLAYOUT_CHECK_BOX"));
+				playoutCheckBox.setSelected(isPlayout());
+				playoutPanel.add(playoutCheckBox);
+			}
+
 			final var passwordPanel = new JPanel(defaultFlowLayout);
 			add(passwordPanel);
 
@@ -6270,17 +6494,35 @@ public final class Main extends JFrame {
 				if (!isValidHost(host)) {
 					return strings.getString("NO_HOST_ADDRESS_ERROR_DIALOG_TEXT");
 				}
+				if (!host.equals(getHost())) {
+					ClientRunMode.discardResumableSession();
+				}
 				preferences.put(PREFERENCES_HOST, host);
 			}
 
 			preferences.putInt(PREFERENCES_PORT, (int) portSpinner.getValue());
 			preferences.putInt(PREFERENCES_TIMEOUT, (int) timeoutSpinner.getValue());
+			if (eventRedundancySpinner != null) {
+				preferences.putInt(PREFERENCES_EVENT_REDUNDANCY, (int) eventRedundancySpinner.getValue());
+			}
+			if (minSendRateSpinner != null && maxSendRateSpinner != null) {
+				final var minSendRate = (int) minSendRateSpinner.getValue();
+				preferences.putInt(PREFERENCES_MIN_SEND_RATE, minSendRate);
+				preferences.putInt(PREFERENCES_MAX_SEND_RATE,
+						Math.max(minSendRate, (int) maxSendRateSpinner.getValue()));
+			}
+			if (playoutCheckBox != null) {
+				preferences.putBoolean(PREFERENCES_PLAYOUT, playoutCheckBox.isSelected());
+			}
 
 			final var password = new String(passwordPasswordField.getPassword());
 			if (!isValidPassword(password)) {
 				return MessageFormat.format(strings.getString("INVALID_PASSWORD_ERROR_DIALOG_TEXT"),
 						PASSWORD_MIN_LENGTH, PASSWORD_MAX_LENGTH);
 			}
+			if (!password.equals(getPassword())) {
+				ClientRunMode.discardResumableSession();
+			}
 			preferences.put(PREFERENCES_PASSWORD, password);
 
 			return null;
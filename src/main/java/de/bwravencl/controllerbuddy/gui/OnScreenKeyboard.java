@@ -409,8 +409,15 @@ public final class OnScreenKeyboard extends JFrame {
 	/// Polls all keyboard buttons and applies their pending key events to the given
 	/// input state.
 	///
+	/// Returns without locking if no keyboard button has changed, which is the
+	/// case on most poll cycles.
+	///
 	/// @param input the input state to update
 	public void poll(@SuppressWarnings("exports") final Input input) {
+		if (!anyChanges) {
+			return;
+		}
+
 		synchronized (keyboardButtons) {
 			if (anyChanges) {
 				anyChanges = false;
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.input;
+
+import de.bwravencl.controllerbuddy.input.action.IAction;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.TypeKind;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDescs;
+import java.lang.constant.Constable;
+import java.lang.constant.DynamicConstantDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/// Compiles dispatch tables into hidden classes implementing [ActionDispatcher].
+///
+/// The generated `dispatch` method is straight-line code without loops or
+/// table lookups. Each action is embedded as a class data constant and invoked
+/// on its concrete class, so that every call site in the generated code is
+/// monomorphic and can be inlined, whereas the single call site of the
+/// [ActionInterpreter] sees all action classes of the profile. Actions whose
+/// class cannot be named from this package, such as hidden or inaccessible
+/// classes, are invoked through the [IAction] interface instead.
+final class ActionCompiler {
+
+	/// Local variable slot of the `axes` parameter of the generated method.
+	private static final int AXES_SLOT = 2;
+
+	/// Local variable slot of the `buttons` parameter of the generated method.
+	private static final int BUTTONS_SLOT = 3;
+
+	/// Descriptor of [IAction].
+	private static final ClassDesc CD_ACTION = ClassDesc.of(IAction.class.getName());
+
+	/// Descriptor of [ActionDispatcher].
+	private static final ClassDesc CD_ACTION_DISPATCHER = ClassDesc.of(ActionDispatcher.class.getName());
+
+	/// Descriptor of the generated class, which must reside in the package of the
+	/// lookup that defines it.
+	private static final ClassDesc CD_COMPILED_ACTION_DISPATCHER = ClassDesc
+			.of(ActionCompiler.class.getPackageName(), "CompiledActionDispatcher");
+
+	/// Descriptor of [Input].
+	private static final ClassDesc CD_INPUT = ClassDesc.of(Input.class.getName());
+
+	/// Name of the `dispatch` method of [ActionDispatcher].
+	private static final String DISPATCH_METHOD_NAME = "dispatch";
+
+	/// Name of the `doAction` method of [IAction].
+	private static final String DO_ACTION_METHOD_NAME = "doAction";
+
+	/// Local variable slot of the `input` parameter of the generated method.
+	private static final int INPUT_SLOT = 1;
+
+	/// Descriptor of the `dispatch` method of [ActionDispatcher].
+	private static final MethodTypeDesc MTD_DISPATCH = MethodTypeDesc.of(ConstantDescs.CD_void, CD_INPUT,
+			ConstantDescs.CD_float.arrayType(), ConstantDescs.CD_boolean.arrayType());
+
+	/// Erased descriptor of the `doAction` method of [IAction], which every action
+	/// class implements either directly or as a bridge method.
+	private static final MethodTypeDesc MTD_DO_ACTION = MethodTypeDesc.of(ConstantDescs.CD_void, CD_INPUT,
+			ConstantDescs.CD_int, ClassDesc.of(Constable.class.getName()));
+
+	/// Name of the static factory methods of the wrapper classes.
+	private static final String VALUE_OF_METHOD_NAME = "valueOf";
+
+	/// Local variable slot holding the boxed value of the current component.
+	private static final int VALUE_SLOT = 4;
+
+	/// Prevents instantiation.
+	private ActionCompiler() {
+	}
+
+	/// Compiles the given dispatch tables into a new hidden class and returns an
+	/// instance of it.
+	///
+	/// The actions are captured when this method is called, later changes to the
+	/// tables have no effect on the returned dispatcher.
+	///
+	/// @param axisDispatchTable the actions of each gamepad axis
+	/// @param buttonDispatchTable the actions of each gamepad button
+	/// @return the compiled dispatcher
+	/// @throws ReflectiveOperationException if the hidden class cannot be defined
+	/// or instantiated
+	static ActionDispatcher compile(final IAction<Float>[][] axisDispatchTable,
+			final IAction<Boolean>[][] buttonDispatchTable) throws ReflectiveOperationException {
+		final var lookup = MethodHandles.lookup();
+		final var classData = Stream.concat(Arrays.stream(axisDispatchTable), Arrays.stream(buttonDispatchTable))
+				.flatMap(Arrays::stream).toList();
+
+		final var bytes = ClassFile.of().build(CD_COMPILED_ACTION_DISPATCHER, classBuilder -> classBuilder
+				.withFlags(ClassFile.ACC_FINAL | ClassFile.ACC_SYNTHETIC).withInterfaceSymbols(CD_ACTION_DISPATCHER)
+				.withMethodBody(ConstantDescs.INIT_NAME, ConstantDescs.MTD_void, ClassFile.ACC_PUBLIC,
+						codeBuilder -> codeBuilder.aload(0)
+								.invokespecial(ConstantDescs.CD_Object, ConstantDescs.INIT_NAME, ConstantDescs.MTD_void)
+								.return_())
+				.withMethodBody(DISPATCH_METHOD_NAME, MTD_DISPATCH, ClassFile.ACC_PUBLIC, codeBuilder -> {
+					final var classDataIndex = emitDispatchTable(codeBuilder, lookup, axisDispatchTable, AXES_SLOT,
+							ConstantDescs.CD_float, ConstantDescs.CD_Float, 0);
+					emitDispatchTable(codeBuilder, lookup, buttonDispatchTable, BUTTONS_SLOT, ConstantDescs.CD_boolean,
+							ConstantDescs.CD_Boolean, classDataIndex);
+					codeBuilder.return_();
+				}));
+
+		final var compiledClass = lookup.defineHiddenClassWithClassData(bytes, classData, true)
+				.lookupClass();
+
+		return (ActionDispatcher) compiledClass.getDeclaredConstructor().newInstance();
+	}
+
+	/// Emits the invocations of all actions of a dispatch table.
+	///
+	/// For every component with actions, the value of the component is loaded
+	/// from the values array and boxed once, followed by one invocation per
+	/// action. The actions are expected at consecutive indices of the class data,
+	/// in the order of the dispatch table.
+	///
+	/// @param codeBuilder the builder of the generated `dispatch` method
+	/// @param lookup the lookup in which the hidden class is defined
+	/// @param dispatchTable the actions of each component
+	/// @param valuesSlot the local variable slot of the values array
+	/// @param valueDesc the primitive type of the values
+	/// @param boxedValueDesc the wrapper type of the values
+	/// @param classDataIndex the class data index of the first action of the
+	/// table
+	/// @return the class data index following the last action of the table
+	private static int emitDispatchTable(final CodeBuilder codeBuilder, final Lookup lookup,
+			final IAction<?>[][] dispatchTable, final int valuesSlot, final ClassDesc valueDesc,
+			final ClassDesc boxedValueDesc, int classDataIndex) {
+		final var valueOfDesc = MethodTypeDesc.of(boxedValueDesc, valueDesc);
+
+		for (var component = 0; component < dispatchTable.length; component++) {
+			final var actions = dispatchTable[component];
+			if (actions.length == 0) {
+				continue;
+			}
+
+			codeBuilder.aload(valuesSlot).loadConstant(component).arrayLoad(TypeKind.from(valueDesc))
+					.invokestatic(boxedValueDesc, VALUE_OF_METHOD_NAME, valueOfDesc).astore(VALUE_SLOT);
+
+			for (final var action : actions) {
+				final var actionClass = action.getClass();
+				final var nameable = isNameable(lookup, actionClass);
+				final var actionDesc = nameable ? ClassDesc.of(actionClass.getName()) : CD_ACTION;
+
+				codeBuilder
+						.loadConstant(DynamicConstantDesc.ofNamed(ConstantDescs.BSM_CLASS_DATA_AT,
+								ConstantDescs.DEFAULT_NAME, actionDesc, classDataIndex++))
+						.aload(INPUT_SLOT).loadConstant(component).aload(VALUE_SLOT);
+
+				if (nameable) {
+					codeBuilder.invokevirtual(actionDesc, DO_ACTION_METHOD_NAME, MTD_DO_ACTION);
+				} else {
+					codeBuilder.invokeinterface(CD_ACTION, DO_ACTION_METHOD_NAME, MTD_DO_ACTION);
+				}
+			}
+		}
+
+		return classDataIndex;
+	}
+
+	/// Checks whether the generated class can refer to the given action class by
+	/// name.
+	///
+	/// @param lookup the lookup in which the hidden class is defined
+	/// @param actionClass the class of an action
+	/// @return `true` if the class resolves to the same class from the lookup and
+	/// is accessible to it
+	private static boolean isNameable(final Lookup lookup, final Class<?> actionClass) {
+		if (actionClass.isHidden()) {
+			return false;
+		}
+
+		try {
+			return lookup.findClass(actionClass.getName()) == actionClass;
+		} catch (final ClassNotFoundException | IllegalAccessException _) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.input;
+
+/// Dispatches the state of the gamepad axes and buttons to the actions that are
+/// effective under the active mode and the mode stack.
+///
+/// Implementations are created for a fixed set of dispatch tables, either by
+/// [ActionInterpreter], which walks the tables, or by [ActionCompiler], which
+/// translates them into straight-line bytecode.
+interface ActionDispatcher {
+
+	/// Invokes the actions of all axes and buttons with their current values.
+	///
+	/// The actions of the axes are invoked first, in order of the axis indices,
+	/// followed by the actions of the buttons, in order of the button indices.
+	///
+	/// @param input the input instance passed to the actions
+	/// @param axes the current values of the gamepad axes
+	/// @param buttons the current states of the gamepad buttons
+	void dispatch(Input input, float[] axes, boolean[] buttons);
+}
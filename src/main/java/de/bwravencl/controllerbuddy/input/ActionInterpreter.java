@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.input;
+
+import de.bwravencl.controllerbuddy.input.action.IAction;
+
+/// [ActionDispatcher] that walks the dispatch tables and invokes each action
+/// through the [IAction] interface.
+///
+/// Serves as the fallback whenever profile compilation is disabled or the
+/// [ActionCompiler] fails.
+final class ActionInterpreter implements ActionDispatcher {
+
+	/// Actions of each gamepad axis, indexed by the SDL gamepad axis index.
+	private final IAction<Float>[][] axisDispatchTable;
+
+	/// Actions of each gamepad button, indexed by the SDL gamepad button index.
+	private final IAction<Boolean>[][] buttonDispatchTable;
+
+	/// Constructs an [ActionInterpreter] that walks the given dispatch tables.
+	///
+	/// The tables are not copied, changes to them take effect on the next
+	/// dispatch.
+	///
+	/// @param axisDispatchTable the actions of each gamepad axis
+	/// @param buttonDispatchTable the actions of each gamepad button
+	ActionInterpreter(final IAction<Float>[][] axisDispatchTable, final IAction<Boolean>[][] buttonDispatchTable) {
+		this.axisDispatchTable = axisDispatchTable;
+		this.buttonDispatchTable = buttonDispatchTable;
+	}
+
+	@Override
+	public void dispatch(final Input input, final float[] axes, final boolean[] buttons) {
+		for (var axis = 0; axis < axisDispatchTable.length; axis++) {
+			for (final var action : axisDispatchTable[axis]) {
+				action.doAction(input, axis, axes[axis]);
+			}
+		}
+
+		for (var button = 0; button < buttonDispatchTable.length; button++) {
+			for (final var action : buttonDispatchTable[button]) {
+				action.doAction(input, button, buttons[button]);
+			}
+		}
+	}
+}
@@ -21,21 +21,28 @@ import de.bwravencl.controllerbuddy.gui.Main;
 import de.bwravencl.controllerbuddy.gui.Main.Controller;
 import de.bwravencl.controllerbuddy.gui.OnScreenKeyboard;
 import de.bwravencl.controllerbuddy.input.action.ButtonToModeAction;
-import de.bwravencl.controllerbuddy.input.action.IAxisToDelayableAction;
+import de.bwravencl.controllerbuddy.input.action.DelayTracker;
+import de.bwravencl.controllerbuddy.input.action.IAction;
 import de.bwravencl.controllerbuddy.input.action.IButtonToDelayableAction;
 import de.bwravencl.controllerbuddy.input.action.IInitializationAction;
 import de.bwravencl.controllerbuddy.input.action.IResetableAction;
 import de.bwravencl.controllerbuddy.runmode.RunMode;
 import java.awt.EventQueue;
+import java.lang.constant.Constable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.EnumMap;
-import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Function;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.jspecify.annotations.Nullable;
 import org.lwjgl.sdl.SDLGamepad;
@@ -59,17 +66,18 @@ public final class Input {
 	/// Minimum axis movement required to abort a suspension action.
 	private static final float ABORT_SUSPENSION_ACTION_DEADZONE = 0.25f;
 
+	/// Minimum change of a gamepad axis value since the last detected motion that
+	/// counts as a moving stick or trigger, filtering out sensor noise.
+	private static final float AXIS_MOTION_THRESHOLD = 0.01f;
+
 	/// Maximum delta factor applied to axis movement per poll cycle.
 	private static final float AXIS_MOVEMENT_MAX_DELTA_FACTOR = 4f;
 
 	/// Minimum delta factor applied to axis movement per poll cycle.
 	private static final float AXIS_MOVEMENT_MIN_DELTA_FACTOR = 0.1f;
 
-	/// Duration in nanoseconds to suppress hot-swap polling after a swap.
-	private static final long HOT_SWAP_POLL_INITIAL_SUSPENSION_INTERVAL_NS = 2_000_000_000L;
-
-	/// Interval in nanoseconds between hot-swap button polls.
-	private static final long HOT_SWAP_POLL_INTERVAL_NS = 50_000_000L;
+	/// Duration in nanoseconds to ignore the hot-swap button after a swap.
+	private static final long HOT_SWAP_SUSPENSION_INTERVAL_NS = 2_000_000_000L;
 
 	/// Baseline value used to scale the minimum axis step size.
 	private static final float MIN_AXIS_STEP_BASE_VALUE = 2f;
@@ -77,27 +85,48 @@ public final class Input {
 	/// Duration in nanoseconds for which axis suspension is held.
 	private static final long SUSPENSION_TIME_NS = 500_000_000L;
 
+	/// All virtual axes, cached to avoid cloning the values array on every poll.
+	private static final VirtualAxis[] VIRTUAL_AXES = VirtualAxis.values();
+
 	private static final Logger logger = Logger.getLogger(Input.class.getName());
 
-	/// Current integer values for all virtual axes.
-	private final Map<VirtualAxis, Integer> axes;
+	/// Dispatcher that walks the dispatch tables, used whenever no compiled
+	/// dispatcher is available.
+	private final ActionInterpreter actionInterpreter;
+
+	/// Current integer values of all virtual axes, indexed by
+	/// [VirtualAxis#ordinal()].
+	private final int[] axes = new int[VIRTUAL_AXES.length];
+
+	/// Precompiled actions of each gamepad axis, resolved from the active mode and
+	/// the mode stack by [#updateDispatchTables()].
+	private final IAction<Float>[][] axisDispatchTable = newDispatchTable(SDLGamepad.SDL_GAMEPAD_AXIS_COUNT);
+
+	/// Gamepad axis values at which motion of each axis was last detected.
+	private final float[] axisMotionReferenceValues = new float[SDLGamepad.SDL_GAMEPAD_AXIS_COUNT];
+
+	/// Time in nanoseconds at which the suspension of each gamepad axis ends, only
+	/// meaningful for the axes contained in [#suspendedAxes].
+	private final long[] axisSuspensionEndNanoTimes = new long[SDLGamepad.SDL_GAMEPAD_AXIS_COUNT];
+
+	/// Precompiled actions of each gamepad button, resolved from the active mode
+	/// and the mode stack by [#updateDispatchTables()].
+	private final IAction<Boolean>[][] buttonDispatchTable = newDispatchTable(
+			SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT + 1);
+
+	/// Compiled dispatchers of [#compiledActionDispatchersProfile], keyed by the
+	/// effective modes they were compiled for.
+	private final Map<List<Mode>, ActionDispatcher> compiledActionDispatchers = new HashMap<>();
 
-	/// Map from axis index to the time in nanoseconds when its suspension shall
-	/// end.
-	private final Map<Integer, Long> axisToEndSuspensionTimeNanosMap = new HashMap<>();
+	/// Tracks the activation delays of the delayable actions of the profile.
+	private final DelayTracker delayTracker = new DelayTracker();
 
 	/// Keystrokes currently held down continuously.
 	private final Set<Keystroke> downKeystrokes = new HashSet<>();
 
-	/// Mouse buttons currently held down continuously.
-	private final Set<Integer> downMouseButtons = new HashSet<>();
-
 	/// Keystrokes to be pressed and immediately released this poll cycle.
 	private final Set<Keystroke> downUpKeystrokes = new HashSet<>();
 
-	/// Mouse buttons to be pressed and immediately released this poll cycle.
-	private final Set<Integer> downUpMouseButtons = new HashSet<>();
-
 	/// Instance IDs of non-selected controllers whose hot-swap button is currently
 	/// down.
 	private final Set<Integer> hotSwappingButtonDownInstanceIds = new HashSet<>();
@@ -111,15 +140,30 @@ public final class Input {
 	/// Lock keys that should be turned on this poll cycle.
 	private final Set<LockKey> onLockKeys = new HashSet<>();
 
+	/// The on-screen keyboard of [#main], polled on every poll cycle.
+	private final OnScreenKeyboard onScreenKeyboard;
+
+	/// Snapshot of the virtual axis values for the overlay, indexed by the
+	/// ordinal of the [VirtualAxis]. Written by the polling thread and read by
+	/// the overlay refresh on the event dispatch thread.
+	private final AtomicIntegerArray overlayAxisValues = new AtomicIntegerArray(VIRTUAL_AXES.length);
+
+	/// Whether [#overlayAxisValues] changed since the overlay was last refreshed.
+	private final AtomicBoolean overlayAxisValuesChanged = new AtomicBoolean(true);
+
 	/// Map from SDL gamepad handle to its current gamepad state.
 	private final Map<Long, GamepadState> sdlGamepadToGamepadStateMap = new HashMap<>();
 
 	/// The controller selected for primary input.
 	private final @Nullable Controller selectedController;
 
-	/// Map from virtual axis to its currently targeted integer value for smooth
-	/// movement.
-	private final Map<VirtualAxis, Integer> virtualAxisToTargetValueMap = new EnumMap<>(VirtualAxis.class);
+	/// Integer values that the virtual axes are smoothly moving towards, indexed
+	/// by [VirtualAxis#ordinal()] and only meaningful for the axes contained in
+	/// [#movingVirtualAxes].
+	private final int[] virtualAxisTargetValues = new int[VIRTUAL_AXES.length];
+
+	/// Dispatcher that invokes the actions of the dispatch tables.
+	private ActionDispatcher actionDispatcher;
 
 	/// Boolean state array for all virtual buttons.
 	private boolean[] buttons = new boolean[0];
@@ -128,6 +172,14 @@ public final class Input {
 	/// next poll.
 	private boolean clearOnNextPoll;
 
+	/// Whether the dispatch tables are compiled to bytecode by the
+	/// [ActionCompiler] instead of being walked by the [ActionInterpreter].
+	private boolean compileProfile;
+
+	/// Profile whose compiled dispatchers are held in
+	/// [#compiledActionDispatchers].
+	private @Nullable Profile compiledActionDispatchersProfile;
+
 	/// Horizontal mouse cursor movement delta, written by actions and read by the
 	/// output run mode.
 	private volatile int cursorDeltaX;
@@ -136,9 +188,24 @@ public final class Input {
 	/// output run mode.
 	private volatile int cursorDeltaY;
 
+	/// Flag indicating that the dispatch tables no longer reflect the active mode
+	/// and the mode stack and must be recompiled before they are used.
+	private volatile boolean dispatchTablesInvalid = true;
+
+	/// Bitmask of the mouse buttons currently held down continuously, where bit
+	/// `n` corresponds to mouse button `n`.
+	private int downMouseButtons;
+
+	/// Bitmask of the mouse buttons to be pressed and immediately released this
+	/// poll cycle, where bit `n` corresponds to mouse button `n`.
+	private int downUpMouseButtons;
+
 	/// Whether haptic feedback (rumble) is enabled on the selected controller.
 	private boolean hapticFeedback;
 
+	/// Time in nanoseconds until which the hot-swap button is ignored.
+	private long hotSwapSuspensionEndNanoTime;
+
 	/// The SDL button ID used for hot-swap detection, or
 	/// `HotSwappingButton.NONE.id` if disabled.
 	private int hotSwappingButtonId = HotSwappingButton.NONE.id;
@@ -146,9 +213,6 @@ public final class Input {
 	/// Whether the input system has been successfully initialized.
 	private boolean initialized;
 
-	/// Timestamp of the last hot-swap poll in nanoseconds.
-	private long lastHotSwapPollNanoTime;
-
 	/// Timestamp of the last input poll in nanoseconds.
 	private long lastPollNanoTime;
 
@@ -159,6 +223,11 @@ public final class Input {
 	/// range.
 	private float minAxisStep;
 
+	/// Bitmask of the virtual axes that are moving towards their value in
+	/// [#virtualAxisTargetValues], where bit `n` corresponds to the virtual axis
+	/// with ordinal `n`.
+	private int movingVirtualAxes;
+
 	/// The currently active input profile.
 	private Profile profile;
 
@@ -179,6 +248,10 @@ public final class Input {
 	/// Number of scroll wheel clicks to emit this poll cycle.
 	private volatile int scrollClicks;
 
+	/// State snapshot of the currently selected controller, or `null` if it has
+	/// not been opened.
+	private @Nullable GamepadState selectedGamepadState;
+
 	/// SDL gamepad handle for the currently selected controller.
 	private long selectedSdlGamepad;
 
@@ -186,6 +259,10 @@ public final class Input {
 	/// externally.
 	private boolean skipAxisInitialization;
 
+	/// Bitmask of the gamepad axes that are currently suspended, where bit `n`
+	/// corresponds to axis `n`.
+	private int suspendedAxes;
+
 	/// Whether the left and right sticks should be swapped during input processing.
 	private boolean swapLeftAndRightSticks;
 
@@ -198,18 +275,19 @@ public final class Input {
 			final @Nullable Map<VirtualAxis, Integer> axes) {
 		this.main = main;
 		this.selectedController = selectedController;
+		onScreenKeyboard = main.getOnScreenKeyboard();
 
 		if (axes != null) {
-			this.axes = axes;
+			axes.forEach((virtualAxis, value) -> this.axes[virtualAxis.ordinal()] = value);
 			skipAxisInitialization = true;
-		} else {
-			this.axes = new EnumMap<>(VirtualAxis.class);
-			EnumSet.allOf(VirtualAxis.class).forEach(virtualAxis -> this.axes.put(virtualAxis, 0));
 		}
 
-		resetLastHotSwapPollNanoTime();
+		resetHotSwapSuspension();
 
 		profile = new Profile();
+
+		actionInterpreter = new ActionInterpreter(axisDispatchTable, buttonDispatchTable);
+		actionDispatcher = actionInterpreter;
 	}
 
 	/// Clamps a float value to the range [-1, 1].
@@ -241,6 +319,17 @@ public final class Input {
 		return button > SDLGamepad.SDL_GAMEPAD_BUTTON_INVALID && button <= SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT;
 	}
 
+	/// Creates a dispatch table for the given number of components, initially
+	/// mapping every component to no actions.
+	///
+	/// @param <V> the type of the component values
+	/// @param numComponents the number of components
+	/// @return the new dispatch table
+	@SuppressWarnings("unchecked")
+	private static <V extends Constable> IAction<V>[][] newDispatchTable(final int numComponents) {
+		return (IAction<V>[][]) new IAction<?>[numComponents][0];
+	}
+
 	/// Normalizes a value from one range to another.
 	///
 	/// @param value the value to normalize
@@ -261,6 +350,54 @@ public final class Input {
 		return (value - inMin) * newRange / oldRange + outMin;
 	}
 
+	/// Resolves the actions that are effective for a component.
+	///
+	/// The effective modes are searched in order and the actions of the first
+	/// mode that maps the component are returned.
+	///
+	/// @param <V> the type of the component values
+	/// @param component the index of the axis or button
+	/// @param effectiveModes the effective modes, as returned by
+	/// [#getEffectiveModes()]
+	/// @param actionsMapFunction the function returning the component-to-actions
+	/// map of a mode
+	/// @return the effective actions, empty if the component is not mapped
+	@SuppressWarnings("unchecked")
+	private static <V extends Constable> IAction<V>[] resolveActions(final int component,
+			final List<Mode> effectiveModes, final Function<Mode, Map<Integer, List<IAction<V>>>> actionsMapFunction) {
+		final var noActions = (IAction<V>[]) new IAction<?>[0];
+
+		for (final var mode : effectiveModes) {
+			final var actions = actionsMapFunction.apply(mode).get(component);
+			if (actions != null) {
+				return actions.toArray(noActions);
+			}
+		}
+
+		return noActions;
+	}
+
+	/// Adds a mouse button to the mouse buttons to be pressed and immediately
+	/// released.
+	///
+	/// @param mouseButton the mouse button number
+	public void addDownUpMouseButton(final int mouseButton) {
+		downUpMouseButtons |= 1 << mouseButton;
+	}
+
+	/// Clears the mouse buttons to be pressed and immediately released.
+	public void clearDownUpMouseButtons() {
+		downUpMouseButtons = 0;
+	}
+
+	/// Checks whether the virtual axis values published for the overlay have
+	/// changed since the last call of this method, and clears the changed flag.
+	///
+	/// @return `true` if the overlay axis indicators need to be refreshed
+	public boolean consumeOverlayAxisValuesChanged() {
+		return overlayAxisValuesChanged.getAndSet(false);
+	}
+
 	/// Releases all SDL gamepad resources and clears player LED indices.
 	public void deInit() {
 		if (selectedSdlGamepad != 0) {
@@ -277,6 +414,8 @@ public final class Input {
 			SDLGamepad.SDL_CloseGamepad(sdlGamepad);
 			sdlGamepadsIterator.remove();
 		}
+
+		selectedGamepadState = null;
 	}
 
 	/// Converts a floating-point axis value in the range `[-1, 1]` to an integer
@@ -297,11 +436,48 @@ public final class Input {
 		return (int) normalize(value, -1f, 1f, minAxisValue, maxAxisValue);
 	}
 
-	/// Returns the map of virtual axes to their current integer values.
+	/// Returns a snapshot of the current integer values of all virtual axes.
 	///
-	/// @return the virtual axis value map
+	/// The returned map is newly created on each call and not backed by this
+	/// [Input], use [#getAxis(VirtualAxis)] to read single axes without
+	/// allocating.
+	///
+	/// @return a new map of virtual axes to their current integer values
 	public Map<VirtualAxis, Integer> getAxes() {
-		return axes;
+		final var axesMap = new EnumMap<VirtualAxis, Integer>(VirtualAxis.class);
+		for (final var virtualAxis : VIRTUAL_AXES) {
+			axesMap.put(virtualAxis, axes[virtualAxis.ordinal()]);
+		}
+
+		return axesMap;
+	}
+
+	/// Returns the current integer value of a virtual axis.
+	///
+	/// @param virtualAxis the virtual axis
+	/// @return the current integer value of the axis
+	public int getAxis(final VirtualAxis virtualAxis) {
+		return axes[virtualAxis.ordinal()];
+	}
+
+	/// Returns the effective actions of a gamepad axis under the active mode and
+	/// the mode stack.
+	///
+	/// @param axis the SDL gamepad axis index
+	/// @return the actions of the axis, empty if the axis is not mapped
+	IAction<Float>[] getAxisActions(final int axis) {
+		updateDispatchTables();
+		return axisDispatchTable[axis];
+	}
+
+	/// Returns the effective actions of a gamepad button under the active mode and
+	/// the mode stack.
+	///
+	/// @param button the SDL gamepad button index
+	/// @return the actions of the button, empty if the button is not mapped
+	IAction<Boolean>[] getButtonActions(final int button) {
+		updateDispatchTables();
+		return buttonDispatchTable[button];
 	}
 
 	/// Returns the current button state array.
@@ -325,6 +501,13 @@ public final class Input {
 		return cursorDeltaY;
 	}
 
+	/// Returns the tracker of the activation delays of the delayable actions.
+	///
+	/// @return the delay tracker of this input
+	public DelayTracker getDelayTracker() {
+		return delayTracker;
+	}
+
 	/// Returns the set of keystrokes currently held down.
 	///
 	/// @return the set of currently pressed keystrokes
@@ -332,10 +515,10 @@ public final class Input {
 		return downKeystrokes;
 	}
 
-	/// Returns the set of mouse buttons currently held down.
+	/// Returns the mouse buttons currently held down.
 	///
-	/// @return the set of currently pressed mouse button identifiers
-	public Set<Integer> getDownMouseButtons() {
+	/// @return a bitmask in which bit `n` is set if mouse button `n` is held down
+	public int getDownMouseButtons() {
 		return downMouseButtons;
 	}
 
@@ -346,13 +529,55 @@ public final class Input {
 		return downUpKeystrokes;
 	}
 
-	/// Returns the set of mouse buttons to be pressed and immediately released.
+	/// Returns the mouse buttons to be pressed and immediately released.
 	///
-	/// @return the set of down-up mouse button identifiers
-	public Set<Integer> getDownUpMouseButtons() {
+	/// @return a bitmask in which bit `n` is set if mouse button `n` is to be
+	/// pressed and released
+	public int getDownUpMouseButtons() {
 		return downUpMouseButtons;
 	}
 
+	/// Returns the modes whose actions are effective, in order of precedence.
+	///
+	/// The active mode takes precedence, followed by the modes of the mode
+	/// actions below the topmost one on the mode stack from top to bottom, and
+	/// finally the default mode.
+	///
+	/// @return the effective modes
+	private List<Mode> getEffectiveModes() {
+		final var effectiveModes = new ArrayList<Mode>();
+		effectiveModes.add(profile.getActiveMode());
+
+		final var buttonToModeActionIterator = ButtonToModeAction.getButtonToModeActionStack().iterator();
+		if (buttonToModeActionIterator.hasNext()) {
+			buttonToModeActionIterator.next();
+
+			while (buttonToModeActionIterator.hasNext()) {
+				effectiveModes.add(buttonToModeActionIterator.next().getMode(this));
+			}
+		}
+
+		effectiveModes.add(profile.getModes().getFirst());
+
+		return effectiveModes;
+	}
+
+	/// Returns the state snapshot of the opened gamepad with the given instance
+	/// ID.
+	///
+	/// @param instanceId the instance ID of the gamepad
+	/// @return the [GamepadState] of the gamepad, or `null` if it has not been
+	/// opened
+	private @Nullable GamepadState getGamepadState(final int instanceId) {
+		for (final var gamepadState : sdlGamepadToGamepadStateMap.values()) {
+			if (gamepadState.instanceId == instanceId) {
+				return gamepadState;
+			}
+		}
+
+		return null;
+	}
+
 	/// Returns the main application instance.
 	///
 	/// @return the [Main] instance
@@ -382,6 +607,16 @@ public final class Input {
 		return onLockKeys;
 	}
 
+	/// Returns the value of a virtual axis as last published for the overlay.
+	///
+	/// Unlike [#getAxes()], this method may safely be called from any thread.
+	///
+	/// @param virtualAxis the virtual axis
+	/// @return the published integer value of the axis
+	public int getOverlayAxisValue(final VirtualAxis virtualAxis) {
+		return overlayAxisValues.get(virtualAxis.ordinal());
+	}
+
 	/// Returns the current input profile.
 	///
 	/// @return the active [Profile]
@@ -393,8 +628,8 @@ public final class Input {
 	/// Used to scale time-dependent actions for frame-rate independence.
 	///
 	/// If this method is called while a [RunMode] is active, it will also invoke
-	/// [RunMode#useMaxPollingRate] to enable maximum polling rate for the
-	/// next cycle.
+	/// [RunMode#useMaxPollingRate] to report the running time-based action, which
+	/// keeps the maximum polling rate enabled.
 	///
 	/// @return the rate multiplier
 	public float getRateMultiplier() {
@@ -426,6 +661,107 @@ public final class Input {
 		return selectedController;
 	}
 
+	/// Applies an SDL gamepad axis motion event to the state snapshot of the
+	/// gamepad it originates from.
+	///
+	/// Events of gamepads that have not been opened by this [Input] are ignored.
+	///
+	/// @param instanceId the instance ID of the gamepad
+	/// @param axis the SDL gamepad axis that moved
+	/// @param value the new raw value of the axis
+	public void handleGamepadAxisEvent(final int instanceId, final int axis, final short value) {
+		final var gamepadState = getGamepadState(instanceId);
+		if (gamepadState != null && axis >= 0 && axis < gamepadState.rawAxes.length) {
+			gamepadState.rawAxes[axis] = value;
+		}
+	}
+
+	/// Applies an SDL gamepad button event to the state snapshot of the gamepad it
+	/// originates from.
+	///
+	/// Events of gamepads that have not been opened by this [Input] and of
+	/// buttons beyond the D-pad are ignored. Events of the hot-swap button of
+	/// non-selected gamepads are additionally passed on to
+	/// [#handleHotSwappingButtonEvent(int, boolean)], so that hot swapping does
+	/// not require polling these gamepads.
+	///
+	/// @param instanceId the instance ID of the gamepad
+	/// @param button the SDL gamepad button that changed
+	/// @param down whether the button is now pressed
+	public void handleGamepadButtonEvent(final int instanceId, final int button, final boolean down) {
+		final var gamepadState = getGamepadState(instanceId);
+		if (gamepadState == null || button < 0 || button >= gamepadState.rawButtons.length) {
+			return;
+		}
+
+		gamepadState.rawButtons[button] = down;
+
+		if (button == hotSwappingButtonId && gamepadState.sdlGamepad != selectedSdlGamepad) {
+			handleHotSwappingButtonEvent(instanceId, down);
+		}
+	}
+
+	/// Handles the removal of an opened gamepad.
+	///
+	/// The state snapshot of the selected gamepad is marked as disconnected, so
+	/// that the next poll fails. Non-selected gamepads are closed and forgotten
+	/// right away.
+	///
+	/// @param instanceId the instance ID of the removed gamepad
+	public void handleGamepadRemovedEvent(final int instanceId) {
+		final var gamepadState = getGamepadState(instanceId);
+		if (gamepadState == null) {
+			return;
+		}
+
+		gamepadState.connected = false;
+
+		if (gamepadState.sdlGamepad != selectedSdlGamepad) {
+			sdlGamepadToGamepadStateMap.remove(gamepadState.sdlGamepad);
+			SDLGamepad.SDL_CloseGamepad(gamepadState.sdlGamepad);
+			hotSwappingButtonDownInstanceIds.remove(instanceId);
+			updateHotSwappingButtonId();
+		}
+	}
+
+	/// Tracks the hot-swap button of a non-selected gamepad and initiates a hot
+	/// swap to that gamepad once its hot-swap button is released after having
+	/// been pressed.
+	///
+	/// The hot-swap button is ignored during the suspension interval that starts
+	/// with each swap.
+	///
+	/// @param instanceId the instance ID of the gamepad
+	/// @param down whether the hot-swap button is now pressed
+	private void handleHotSwappingButtonEvent(final int instanceId, final boolean down) {
+		if (System.nanoTime() - hotSwapSuspensionEndNanoTime < 0L) {
+			return;
+		}
+
+		if (down) {
+			hotSwappingButtonDownInstanceIds.add(instanceId);
+			return;
+		}
+
+		if (!hotSwappingButtonDownInstanceIds.remove(instanceId)) {
+			return;
+		}
+
+		main.getControllers().stream().filter(controller -> controller.instanceId() == instanceId).findFirst()
+				.ifPresent(controller -> {
+					logger.info(
+							Main.assembleControllerLoggingMessage("Initiating hot swap to controller ", controller));
+
+					hotSwappingButtonId = HotSwappingButton.NONE.id;
+					final var axesSnapshot = getAxes();
+					EventQueue.invokeLater(() -> {
+						main.setSelectedControllerAndUpdateInput(controller, axesSnapshot);
+						main.updateDeviceMenuSelection();
+						main.restartLast();
+					});
+				});
+	}
+
 	/// Initializes the input system by opening all controllers, computing the
 	/// minimum axis step, and invoking initialization actions defined in the
 	/// profile.
@@ -442,8 +778,11 @@ public final class Input {
 
 		swapLeftAndRightSticks = main.isSwapLeftAndRightSticks();
 		mapCircularAxesToSquareAxes = main.isMapCircularAxesToSquareAxes();
+		compileProfile = main.isCompileProfile();
+		invalidateDispatchTables();
 
 		sdlGamepadToGamepadStateMap.clear();
+		selectedGamepadState = null;
 		for (final var controller : main.getControllers()) {
 			if (!openController(controller) && controller.equals(selectedController)) {
 				Main.logSdlError("Could not open gamepad");
@@ -473,12 +812,20 @@ public final class Input {
 		buttons = new boolean[Math.min(runMode.getNumButtons(), MAX_N_BUTTONS)];
 	}
 
+	/// Marks the dispatch tables as outdated, so that they are recompiled from the
+	/// active mode and the mode stack before the next dispatch.
+	///
+	/// Must be called whenever the active mode or the mode stack changes.
+	public void invalidateDispatchTables() {
+		dispatchTablesInvalid = true;
+	}
+
 	/// Checks whether the specified axis is currently suspended.
 	///
 	/// @param axis the axis index to check
 	/// @return `true` if the axis is suspended
 	public boolean isAxisSuspended(final int axis) {
-		return axisToEndSuspensionTimeNanosMap.containsKey(axis);
+		return (suspendedAxes & 1 << axis) != 0;
 	}
 
 	/// Returns whether this input instance has been initialized.
@@ -488,6 +835,14 @@ public final class Input {
 		return initialized;
 	}
 
+	/// Checks whether a mouse button is currently held down.
+	///
+	/// @param mouseButton the mouse button number
+	/// @return `true` if the mouse button is held down
+	public boolean isMouseButtonDown(final int mouseButton) {
+		return (downMouseButtons & 1 << mouseButton) != 0;
+	}
+
 	/// Returns whether axis initialization should be skipped.
 	///
 	/// @return `true` if axis initialization should be skipped
@@ -502,8 +857,52 @@ public final class Input {
 	public void moveAxis(final VirtualAxis virtualAxis, final float targetValue) {
 		final var integerTargetValue = floatToIntAxisValue(targetValue);
 
-		if (axes.getOrDefault(virtualAxis, 0) != integerTargetValue) {
-			virtualAxisToTargetValueMap.put(virtualAxis, integerTargetValue);
+		final var ordinal = virtualAxis.ordinal();
+		if (axes[ordinal] != integerTargetValue) {
+			virtualAxisTargetValues[ordinal] = integerTargetValue;
+			movingVirtualAxes |= 1 << ordinal;
+		}
+	}
+
+	/// Moves all virtual axes contained in [#movingVirtualAxes] a step towards
+	/// their target value, scaled by the distance to the target and the
+	/// [#rateMultiplier], and removes the axes that have reached their target.
+	private void moveVirtualAxesTowardsTargetValues() {
+		Objects.requireNonNull(runMode, "Field runMode must not be null");
+
+		final var axisRange = runMode.getMaxAxisValue() - runMode.getMinAxisValue();
+
+		for (final var virtualAxis : VIRTUAL_AXES) {
+			final var ordinal = virtualAxis.ordinal();
+			final var axisBit = 1 << ordinal;
+			if ((movingVirtualAxes & axisBit) == 0) {
+				continue;
+			}
+
+			final var targetValue = virtualAxisTargetValues[ordinal];
+			final var currentValue = axes[ordinal];
+			final var delta = targetValue - currentValue;
+			if (delta != 0) {
+				final var deltaFactor = normalize(Math.abs(delta), 0, axisRange, AXIS_MOVEMENT_MIN_DELTA_FACTOR,
+						AXIS_MOVEMENT_MAX_DELTA_FACTOR);
+
+				final var d = Integer.signum(delta) * (int) (axisRange * deltaFactor * rateMultiplier);
+
+				var newValue = currentValue + d;
+				if (delta > 0) {
+					newValue = Math.min(newValue, targetValue);
+				} else {
+					newValue = Math.max(newValue, targetValue);
+				}
+
+				setAxis(virtualAxis, newValue);
+
+				if (newValue != targetValue) {
+					continue;
+				}
+			}
+
+			movingVirtualAxes &= ~axisBit;
 		}
 	}
 
@@ -519,13 +918,15 @@ public final class Input {
 			return false;
 		}
 
-		sdlGamepadToGamepadStateMap.put(sdlGamepad, new GamepadState(sdlGamepad));
+		final var gamepadState = new GamepadState(sdlGamepad, controller.instanceId());
+		sdlGamepadToGamepadStateMap.put(sdlGamepad, gamepadState);
 		updateHotSwappingButtonId();
 
 		final var gamepadProperties = SDLGamepad.SDL_GetGamepadProperties(sdlGamepad);
 
 		if (isSelectedController) {
 			selectedSdlGamepad = sdlGamepad;
+			selectedGamepadState = gamepadState;
 
 			if (main.isHapticFeedback()) {
 				hapticFeedback = SDLProperties.SDL_GetBooleanProperty(gamepadProperties,
@@ -557,7 +958,11 @@ public final class Input {
 
 		final var currentNanoTime = System.nanoTime();
 
-		axisToEndSuspensionTimeNanosMap.values().removeIf(timestamp -> timestamp < currentNanoTime);
+		for (var axis = 0; axis < axisSuspensionEndNanoTimes.length; axis++) {
+			if (currentNanoTime - axisSuspensionEndNanoTimes[axis] > 0L) {
+				suspendedAxes &= ~(1 << axis);
+			}
+		}
 
 		final long elapsedNanoTime;
 		if (lastPollNanoTime > 0L) {
@@ -568,65 +973,16 @@ public final class Input {
 		lastPollNanoTime = currentNanoTime;
 		rateMultiplier = (float) elapsedNanoTime / NANOS_PER_SECOND;
 
-		if (hotSwappingButtonId != HotSwappingButton.NONE.id
-				&& currentNanoTime - lastHotSwapPollNanoTime > HOT_SWAP_POLL_INTERVAL_NS) {
-			final var sdlGamepadToGamepadStateMapIterator = sdlGamepadToGamepadStateMap.entrySet().iterator();
-			while (sdlGamepadToGamepadStateMapIterator.hasNext()) {
-				final var entry = sdlGamepadToGamepadStateMapIterator.next();
-				final long sdlGamepad = entry.getKey();
-
-				if (sdlGamepad == selectedSdlGamepad) {
-					continue;
-				}
-
-				final var gamepadState = entry.getValue();
-
-				if (gamepadState.update()) {
-					final var instanceId = SDLGamepad.SDL_GetGamepadID(sdlGamepad);
-
-					if (gamepadState.buttons[hotSwappingButtonId]) {
-						hotSwappingButtonDownInstanceIds.add(instanceId);
-					} else if (hotSwappingButtonDownInstanceIds.contains(instanceId)) {
-						final var optionalController = main.getControllers().stream()
-								.filter(controller -> controller.instanceId() == instanceId).findFirst();
-
-						if (optionalController.isPresent()) {
-							final var controller = optionalController.get();
-
-							logger.info(Main.assembleControllerLoggingMessage("Initiating hot swap to controller ",
-									controller));
-
-							hotSwappingButtonId = HotSwappingButton.NONE.id;
-							EventQueue.invokeLater(() -> {
-								main.setSelectedControllerAndUpdateInput(controller, axes);
-								main.updateDeviceMenuSelection();
-								main.restartLast();
-							});
-
-							break;
-						}
-					}
-				} else {
-					sdlGamepadToGamepadStateMapIterator.remove();
-					updateHotSwappingButtonId();
-				}
-			}
-
-			lastHotSwapPollNanoTime = currentNanoTime;
-		}
-
-		final var gamepadState = sdlGamepadToGamepadStateMap.get(selectedSdlGamepad);
+		final var gamepadState = selectedGamepadState;
 		if (gamepadState == null || !gamepadState.update()) {
 			return false;
 		}
 
-		final var onScreenKeyboard = main.getOnScreenKeyboard();
-
 		if (clearOnNextPoll) {
 			Arrays.fill(buttons, false);
 
 			downKeystrokes.clear();
-			downMouseButtons.clear();
+			downMouseButtons = 0;
 
 			onScreenKeyboard.forceRepoll();
 
@@ -635,101 +991,32 @@ public final class Input {
 
 		onScreenKeyboard.poll(this);
 
-		virtualAxisToTargetValueMap.entrySet().removeIf(entry -> {
-			final var virtualAxis = entry.getKey();
-			final int targetValue = entry.getValue();
-
-			final int currentValue = axes.getOrDefault(virtualAxis, 0);
-			final var delta = targetValue - currentValue;
-			if (delta != 0) {
-				final var axisRange = runMode.getMaxAxisValue() - runMode.getMinAxisValue();
-
-				final var deltaFactor = normalize(Math.abs(delta), 0, axisRange, AXIS_MOVEMENT_MIN_DELTA_FACTOR,
-						AXIS_MOVEMENT_MAX_DELTA_FACTOR);
-
-				final var d = Integer.signum(delta) * (int) (axisRange * deltaFactor * rateMultiplier);
-
-				var newValue = currentValue + d;
-				if (delta > 0) {
-					newValue = Math.min(newValue, targetValue);
-				} else {
-					newValue = Math.max(newValue, targetValue);
-				}
-
-				setAxis(virtualAxis, newValue, false, (Integer) null, null, null);
-
-				return newValue == targetValue;
-			}
-
-			return true;
-		});
-
-		final var modes = profile.getModes();
-		final var activeMode = profile.getActiveMode();
-		final var axisToActionMap = activeMode.getAxisToActionsMap();
-		final var buttonToActionMap = activeMode.getButtonToActionsMap();
-		final var buttonToModeActionStack = ButtonToModeAction.getButtonToModeActionStack();
+		if (movingVirtualAxes != 0) {
+			moveVirtualAxesTowardsTargetValues();
+		}
 
+		var axisMotion = false;
 		for (var axis = 0; axis < SDLGamepad.SDL_GAMEPAD_AXIS_COUNT; axis++) {
 			final var axisValue = gamepadState.axes[axis];
-
 			if (Math.abs(axisValue) <= ABORT_SUSPENSION_ACTION_DEADZONE) {
-				axisToEndSuspensionTimeNanosMap.remove(axis);
+				suspendedAxes &= ~(1 << axis);
 			}
 
-			var actions = axisToActionMap.get(axis);
-			if (actions == null) {
-				final var buttonToModeActionIterator = buttonToModeActionStack.iterator();
-				if (buttonToModeActionIterator.hasNext()) {
-					buttonToModeActionIterator.next();
-
-					while (buttonToModeActionIterator.hasNext()) {
-						actions = buttonToModeActionIterator.next().getMode(this).getAxisToActionsMap().get(axis);
-						if (actions != null) {
-							break;
-						}
-					}
-				}
-			}
-
-			if (actions == null) {
-				actions = modes.getFirst().getAxisToActionsMap().get(axis);
-			}
-
-			if (actions != null) {
-				for (final var action : actions) {
-					action.doAction(this, axis, axisValue);
-				}
+			if (Math.abs(axisValue - axisMotionReferenceValues[axis]) > AXIS_MOTION_THRESHOLD) {
+				axisMotionReferenceValues[axis] = axisValue;
+				axisMotion = true;
 			}
 		}
 
-		for (var button = 0; button <= SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT; button++) {
-			var actions = buttonToActionMap.get(button);
-			if (actions == null) {
-				final var buttonToModeActionIterator = buttonToModeActionStack.iterator();
-				if (buttonToModeActionIterator.hasNext()) {
-					buttonToModeActionIterator.next();
-
-					while (buttonToModeActionIterator.hasNext()) {
-						actions = buttonToModeActionIterator.next().getMode(this).getButtonToActionsMap().get(button);
-						if (actions != null) {
-							break;
-						}
-					}
-				}
-			}
-
-			if (actions == null) {
-				actions = modes.getFirst().getButtonToActionsMap().get(button);
-			}
-
-			if (actions != null) {
-				for (final var action : actions) {
-					action.doAction(this, button, gamepadState.buttons[button]);
-				}
-			}
+		// moving sticks and triggers, as well as virtual axes that are still moving
+		// towards their target, benefit from the maximum polling rate
+		if (axisMotion || movingVirtualAxes != 0) {
+			runMode.useMaxPollingRate();
 		}
 
+		updateDispatchTables();
+		actionDispatcher.dispatch(this, gamepadState.axes, gamepadState.buttons);
+
 		for (;;) {
 			for (var button = 0; button <= SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT; button++) {
 				final var buttonToModeActions = profile.getButtonToModeActionsMap().get(button);
@@ -752,12 +1039,48 @@ public final class Input {
 			scheduledRumbleEffect = null;
 		}
 
-		EventQueue.invokeLater(() -> main.updateOverlayAxisIndicators(false));
-		main.handleOnScreenKeyboardModeChange();
+		publishOverlayAxisValues();
 
 		return true;
 	}
 
+	/// Presses a mouse button, holding it down until it is released.
+	///
+	/// @param mouseButton the mouse button number
+	public void pressMouseButton(final int mouseButton) {
+		downMouseButtons |= 1 << mouseButton;
+	}
+
+	/// Publishes the current virtual axis values to the overlay snapshot and
+	/// flags the snapshot as changed if any value differs from the previously
+	/// published one.
+	private void publishOverlayAxisValues() {
+		var changed = false;
+		for (var i = 0; i < axes.length; i++) {
+			final var value = axes[i];
+			if (overlayAxisValues.get(i) != value) {
+				overlayAxisValues.set(i, value);
+				changed = true;
+			}
+		}
+
+		if (changed) {
+			overlayAxisValuesChanged.set(true);
+		}
+	}
+
+	/// Releases all mouse buttons that are currently held down.
+	public void releaseAllMouseButtons() {
+		downMouseButtons = 0;
+	}
+
+	/// Releases a mouse button that is currently held down.
+	///
+	/// @param mouseButton the mouse button number
+	public void releaseMouseButton(final int mouseButton) {
+		downMouseButtons &= ~(1 << mouseButton);
+	}
+
 	/// Requests a repeated walk of mode actions on the next poll cycle.
 	public void repeatModeActionWalk() {
 		repeatModeActionWalk = true;
@@ -773,18 +1096,18 @@ public final class Input {
 		rateMultiplier = 0f;
 		buttons = new boolean[0];
 		sdlGamepadToGamepadStateMap.clear();
-		virtualAxisToTargetValueMap.clear();
-		axisToEndSuspensionTimeNanosMap.clear();
+		selectedGamepadState = null;
+		movingVirtualAxes = 0;
+		suspendedAxes = 0;
 		hotSwappingButtonDownInstanceIds.clear();
 		hotSwappingButtonId = HotSwappingButton.NONE.id;
 
-		resetLastHotSwapPollNanoTime();
+		resetHotSwapSuspension();
 
 		profile.setActiveMode(this, 0);
 		clearOnNextPoll = false;
 
-		IAxisToDelayableAction.reset();
-		IButtonToDelayableAction.reset();
+		delayTracker.reset();
 
 		profile.getButtonToModeActionsMap().values().forEach(buttonToModeActions -> buttonToModeActions
 				.forEach(buttonToModeAction -> buttonToModeAction.reset(this)));
@@ -796,10 +1119,10 @@ public final class Input {
 		}));
 	}
 
-	/// Resets the hot-swap poll timer by advancing it by the initial suspension
-	/// interval, suppressing hot-swap checks immediately after a swap.
-	private void resetLastHotSwapPollNanoTime() {
-		lastHotSwapPollNanoTime = System.nanoTime() + HOT_SWAP_POLL_INITIAL_SUSPENSION_INTERVAL_NS;
+	/// Starts the hot-swap suspension interval, ignoring the hot-swap button
+	/// immediately after a swap.
+	private void resetHotSwapSuspension() {
+		hotSwapSuspensionEndNanoTime = System.nanoTime() + HOT_SWAP_SUSPENSION_INTERVAL_NS;
 	}
 
 	/// Schedules a full state clear to be performed at the start of the next
@@ -810,6 +1133,9 @@ public final class Input {
 
 	/// Sets a virtual axis to the specified value with optional haptic feedback.
 	///
+	/// If haptic feedback is requested, a rumble effect is scheduled when the
+	/// value reaches a boundary or crosses the detent.
+	///
 	/// @param virtualAxis the virtual axis to set
 	/// @param value the value to set
 	/// @param hapticFeedback whether to trigger haptic feedback on value changes
@@ -818,41 +1144,37 @@ public final class Input {
 	/// @param detentValue the detent value for haptic feedback, or `null` if none
 	public void setAxis(final VirtualAxis virtualAxis, final float value, final boolean hapticFeedback,
 			final @Nullable Float minValue, final @Nullable Float maxValue, final @Nullable Float detentValue) {
-		setAxis(virtualAxis, floatToIntAxisValue(value), hapticFeedback,
-				minValue != null ? floatToIntAxisValue(minValue) : null,
-				maxValue != null ? floatToIntAxisValue(maxValue) : null,
-				detentValue != null ? floatToIntAxisValue(detentValue) : null);
+		final var prevValue = axes[virtualAxis.ordinal()];
+		final var newValue = setAxis(virtualAxis, floatToIntAxisValue(value));
+
+		if (!hapticFeedback || prevValue == newValue || minValue == null || maxValue == null) {
+			return;
+		}
+
+		if (newValue == floatToIntAxisValue(minValue) || newValue == floatToIntAxisValue(maxValue)) {
+			scheduledRumbleEffect = RumbleEffect.STRONG;
+		} else if (detentValue != null) {
+			final var integerDetentValue = floatToIntAxisValue(detentValue);
+			if ((prevValue > integerDetentValue && newValue <= integerDetentValue)
+					|| (prevValue < integerDetentValue && newValue >= integerDetentValue)) {
+				scheduledRumbleEffect = RumbleEffect.LIGHT;
+			}
+		}
 	}
 
 	/// Sets a virtual axis to the specified raw integer value, clamping it to the
-	/// run mode's axis range and optionally scheduling a rumble effect when the
-	/// value crosses a boundary or detent.
+	/// run mode's axis range.
 	///
 	/// @param virtualAxis the virtual axis to set
 	/// @param value the raw integer axis value to set
-	/// @param hapticFeedback whether to trigger haptic feedback on value changes
-	/// @param minValue the minimum axis value for boundary rumble, or `null` if
-	/// none
-	/// @param maxValue the maximum axis value for boundary rumble, or `null` if
-	/// none
-	/// @param detentValue the detent value for light rumble feedback, or `null` if
-	/// none
-	private void setAxis(final VirtualAxis virtualAxis, int value, final boolean hapticFeedback,
-			final @Nullable Integer minValue, final @Nullable Integer maxValue, final @Nullable Integer detentValue) {
+	/// @return the clamped value the axis has been set to
+	private int setAxis(final VirtualAxis virtualAxis, final int value) {
 		Objects.requireNonNull(runMode, "Field runMode must not be null");
 
-		value = Math.clamp(value, runMode.getMinAxisValue(), runMode.getMaxAxisValue());
-
-		final var prevValue = axes.put(virtualAxis, value);
+		final var clampedValue = Math.clamp(value, runMode.getMinAxisValue(), runMode.getMaxAxisValue());
+		axes[virtualAxis.ordinal()] = clampedValue;
 
-		if (hapticFeedback && prevValue != null && prevValue != value && minValue != null && maxValue != null) {
-			if (value == minValue || value == maxValue) {
-				scheduledRumbleEffect = RumbleEffect.STRONG;
-			} else if (detentValue != null && ((prevValue > detentValue && value <= detentValue)
-					|| (prevValue < detentValue && value >= detentValue))) {
-				scheduledRumbleEffect = RumbleEffect.LIGHT;
-			}
-		}
+		return clampedValue;
 	}
 
 	/// Sets the horizontal cursor movement delta.
@@ -950,6 +1272,9 @@ public final class Input {
 		}
 
 		this.profile = profile;
+		delayTracker.setProfile(profile);
+		invalidateDispatchTables();
+
 		return true;
 	}
 
@@ -971,7 +1296,59 @@ public final class Input {
 	///
 	/// @param axis the axis index to suspend
 	public void suspendAxis(final int axis) {
-		axisToEndSuspensionTimeNanosMap.put(axis, System.nanoTime() + SUSPENSION_TIME_NS);
+		axisSuspensionEndNanoTimes[axis] = System.nanoTime() + SUSPENSION_TIME_NS;
+		suspendedAxes |= 1 << axis;
+	}
+
+	/// Recompiles the dispatch tables if they have been invalidated since they
+	/// were last compiled, and selects the [ActionDispatcher] for them.
+	///
+	/// If profile compilation is enabled, the tables are compiled by the
+	/// [ActionCompiler]. Compiled dispatchers are cached per combination of
+	/// effective modes for as long as the profile stays the same, so that
+	/// switching back and forth between modes does not define new classes. If
+	/// compilation fails, profile compilation is disabled and the
+	/// [ActionInterpreter] is used instead.
+	private void updateDispatchTables() {
+		if (!dispatchTablesInvalid) {
+			return;
+		}
+		dispatchTablesInvalid = false;
+
+		final var effectiveModes = getEffectiveModes();
+
+		for (var axis = 0; axis < axisDispatchTable.length; axis++) {
+			axisDispatchTable[axis] = resolveActions(axis, effectiveModes, Mode::getAxisToActionsMap);
+		}
+
+		for (var button = 0; button < buttonDispatchTable.length; button++) {
+			buttonDispatchTable[button] = resolveActions(button, effectiveModes, Mode::getButtonToActionsMap);
+		}
+
+		if (compileProfile) {
+			if (compiledActionDispatchersProfile != profile) {
+				compiledActionDispatchers.clear();
+				compiledActionDispatchersProfile = profile;
+			}
+
+			final var compiledActionDispatcher = compiledActionDispatchers.get(effectiveModes);
+			if (compiledActionDispatcher != null) {
+				actionDispatcher = compiledActionDispatcher;
+				return;
+			}
+
+			try {
+				actionDispatcher = ActionCompiler.compile(axisDispatchTable, buttonDispatchTable);
+				compiledActionDispatchers.put(effectiveModes, actionDispatcher);
+
+				return;
+			} catch (final ReflectiveOperationException | IllegalArgumentException | LinkageError e) {
+				logger.log(Level.WARNING, "Could not compile profile, falling back to interpreter", e);
+				compileProfile = false;
+			}
+		}
+
+		actionDispatcher = actionInterpreter;
 	}
 
 	/// Updates the active hot-swapping button ID based on whether multiple
@@ -1026,11 +1403,16 @@ public final class Input {
 	/// Holds the most recently polled axis and button state for a single SDL
 	/// gamepad.
 	///
-	/// Wraps a native SDL gamepad handle and provides an [#update] method that
-	/// reads all axis and button values via SDL, applies optional transformations
-	/// such as stick-swap and circular-to-square axis remapping, and stores the
-	/// normalized results for use by the input pipeline on each polling cycle.
-	private final class GamepadState {
+	/// The raw axis and button values are kept in a preallocated snapshot that is
+	/// read from SDL once when the gamepad is opened and afterwards kept up to date
+	/// by the SDL gamepad events dispatched through
+	/// [Input#handleGamepadAxisEvent(int, int, short)] and
+	/// [Input#handleGamepadButtonEvent(int, int, boolean)]. The [#update] method
+	/// therefore does not call into SDL at all; it only applies optional
+	/// transformations such as stick-swap and circular-to-square axis remapping to
+	/// the snapshot and stores the normalized results for use by the input
+	/// pipeline on each polling cycle.
+	final class GamepadState {
 
 		/// Normalized axis values for all SDL gamepad axes.
 		private final float[] axes = new float[SDLGamepad.SDL_GAMEPAD_AXIS_COUNT];
@@ -1038,14 +1420,32 @@ public final class Input {
 		/// Button pressed states for all SDL gamepad buttons.
 		private final boolean[] buttons = new boolean[SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT + 1];
 
+		/// The instance ID of the gamepad, used to route SDL gamepad events.
+		private final int instanceId;
+
+		/// Raw SDL values of all gamepad axes, as last reported by SDL.
+		private final short[] rawAxes = new short[SDLGamepad.SDL_GAMEPAD_AXIS_COUNT];
+
+		/// Raw SDL pressed states of all gamepad buttons, as last reported by SDL.
+		private final boolean[] rawButtons = new boolean[SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT + 1];
+
 		/// The SDL gamepad handle associated with this state.
 		private final long sdlGamepad;
 
-		/// Constructs a [GamepadState] for the given SDL gamepad handle.
+		/// Whether the gamepad is still connected, cleared once SDL reports its
+		/// removal.
+		private boolean connected = true;
+
+		/// Constructs a [GamepadState] for the given SDL gamepad handle and reads
+		/// the initial snapshot of its state.
 		///
 		/// @param sdlGamepad the native SDL gamepad handle
-		private GamepadState(final long sdlGamepad) {
+		/// @param instanceId the instance ID of the gamepad
+		GamepadState(final long sdlGamepad, final int instanceId) {
 			this.sdlGamepad = sdlGamepad;
+			this.instanceId = instanceId;
+
+			readSnapshot();
 		}
 
 		/// Remaps the circular range of a pair of axes to a square range using disc to
@@ -1084,35 +1484,51 @@ public final class Input {
 			axes[yAxisIndex] = clamp((float) y);
 		}
 
-		/// Polls the SDL gamepad and refreshes all axis and button state arrays.
+		/// Reads the raw values of all axes and buttons from SDL into the snapshot,
+		/// using one SDL call per axis and button.
 		///
-		/// Reads normalized axis values for sticks and triggers, optionally swapping
-		/// left and right sticks and remapping circular to square axes, then reads
+		/// This is only required once after the gamepad has been opened, from then
+		/// on the snapshot is kept up to date by SDL gamepad events.
+		void readSnapshot() {
+			for (var axis = 0; axis < rawAxes.length; axis++) {
+				rawAxes[axis] = SDLGamepad.SDL_GetGamepadAxis(sdlGamepad, axis);
+			}
+
+			for (var button = 0; button < rawButtons.length; button++) {
+				rawButtons[button] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad, button);
+			}
+		}
+
+		/// Refreshes all axis and button state arrays from the snapshot.
+		///
+		/// Normalizes the axis values of sticks and triggers, optionally swapping
+		/// left and right sticks and remapping circular to square axes, then copies
 		/// all button states.
 		///
 		/// @return `true` if the gamepad is still connected and state was updated,
 		/// `false` if the gamepad has been disconnected
-		private boolean update() {
-			if (!SDLGamepad.SDL_GamepadConnected(sdlGamepad)) {
+		boolean update() {
+			if (!connected) {
 				return false;
 			}
 
-			axes[swapLeftAndRightSticks ? SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTX
-					: SDLGamepad.SDL_GAMEPAD_AXIS_LEFTX] = normalize(
-							SDLGamepad.SDL_GetGamepadAxis(sdlGamepad, SDLGamepad.SDL_GAMEPAD_AXIS_LEFTX),
-							Short.MIN_VALUE, Short.MAX_VALUE, -1f, 1f);
-			axes[swapLeftAndRightSticks ? SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTY
-					: SDLGamepad.SDL_GAMEPAD_AXIS_LEFTY] = normalize(
-							SDLGamepad.SDL_GetGamepadAxis(sdlGamepad, SDLGamepad.SDL_GAMEPAD_AXIS_LEFTY),
-							Short.MIN_VALUE, Short.MAX_VALUE, -1f, 1f);
-			axes[swapLeftAndRightSticks ? SDLGamepad.SDL_GAMEPAD_AXIS_LEFTX
-					: SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTX] = normalize(
-							SDLGamepad.SDL_GetGamepadAxis(sdlGamepad, SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTX),
-							Short.MIN_VALUE, Short.MAX_VALUE, -1f, 1f);
-			axes[swapLeftAndRightSticks ? SDLGamepad.SDL_GAMEPAD_AXIS_LEFTY
-					: SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTY] = normalize(
-							SDLGamepad.SDL_GetGamepadAxis(sdlGamepad, SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTY),
-							Short.MIN_VALUE, Short.MAX_VALUE, -1f, 1f);
+			final var leftXAxis = swapLeftAndRightSticks ? SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTX
+					: SDLGamepad.SDL_GAMEPAD_AXIS_LEFTX;
+			final var leftYAxis = swapLeftAndRightSticks ? SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTY
+					: SDLGamepad.SDL_GAMEPAD_AXIS_LEFTY;
+			final var rightXAxis = swapLeftAndRightSticks ? SDLGamepad.SDL_GAMEPAD_AXIS_LEFTX
+					: SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTX;
+			final var rightYAxis = swapLeftAndRightSticks ? SDLGamepad.SDL_GAMEPAD_AXIS_LEFTY
+					: SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTY;
+
+			axes[leftXAxis] = normalize(rawAxes[SDLGamepad.SDL_GAMEPAD_AXIS_LEFTX], Short.MIN_VALUE, Short.MAX_VALUE,
+					-1f, 1f);
+			axes[leftYAxis] = normalize(rawAxes[SDLGamepad.SDL_GAMEPAD_AXIS_LEFTY], Short.MIN_VALUE, Short.MAX_VALUE,
+					-1f, 1f);
+			axes[rightXAxis] = normalize(rawAxes[SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTX], Short.MIN_VALUE,
+					Short.MAX_VALUE, -1f, 1f);
+			axes[rightYAxis] = normalize(rawAxes[SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTY], Short.MIN_VALUE,
+					Short.MAX_VALUE, -1f, 1f);
 
 			if (mapCircularAxesToSquareAxes) {
 				mapCircularAxesToSquareAxes(SDLGamepad.SDL_GAMEPAD_AXIS_LEFTX, SDLGamepad.SDL_GAMEPAD_AXIS_LEFTY);
@@ -1120,51 +1536,17 @@ public final class Input {
 			}
 
 			axes[SDLGamepad.SDL_GAMEPAD_AXIS_LEFT_TRIGGER] = normalize(
-					SDLGamepad.SDL_GetGamepadAxis(sdlGamepad, SDLGamepad.SDL_GAMEPAD_AXIS_LEFT_TRIGGER), 0,
-					Short.MAX_VALUE, -1f, 1f);
-
+					rawAxes[SDLGamepad.SDL_GAMEPAD_AXIS_LEFT_TRIGGER], 0, Short.MAX_VALUE, -1f, 1f);
 			axes[SDLGamepad.SDL_GAMEPAD_AXIS_RIGHT_TRIGGER] = normalize(
-					SDLGamepad.SDL_GetGamepadAxis(sdlGamepad, SDLGamepad.SDL_GAMEPAD_AXIS_RIGHT_TRIGGER), 0,
-					Short.MAX_VALUE, -1f, 1f);
+					rawAxes[SDLGamepad.SDL_GAMEPAD_AXIS_RIGHT_TRIGGER], 0, Short.MAX_VALUE, -1f, 1f);
 
-			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH);
-			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_EAST] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_EAST);
-			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_WEST] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_WEST);
-			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_NORTH] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_NORTH);
-			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_BACK] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_BACK);
-			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_GUIDE] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_GUIDE);
-			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_START] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_START);
-			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_LEFT_STICK] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_LEFT_STICK);
-			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_RIGHT_STICK] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_RIGHT_STICK);
-
-			buttons[swapLeftAndRightSticks ? SDLGamepad.SDL_GAMEPAD_BUTTON_RIGHT_STICK
-					: SDLGamepad.SDL_GAMEPAD_BUTTON_LEFT_STICK] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-							SDLGamepad.SDL_GAMEPAD_BUTTON_LEFT_STICK);
-			buttons[swapLeftAndRightSticks ? SDLGamepad.SDL_GAMEPAD_BUTTON_LEFT_STICK
-					: SDLGamepad.SDL_GAMEPAD_BUTTON_RIGHT_STICK] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-							SDLGamepad.SDL_GAMEPAD_BUTTON_RIGHT_STICK);
-
-			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_LEFT_SHOULDER] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_LEFT_SHOULDER);
-			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_RIGHT_SHOULDER] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_RIGHT_SHOULDER);
-			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_UP] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_UP);
-			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_DOWN] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_DOWN);
-			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_LEFT] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_LEFT);
-			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT] = SDLGamepad.SDL_GetGamepadButton(sdlGamepad,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT);
+			System.arraycopy(rawButtons, 0, buttons, 0, buttons.length);
+
+			if (swapLeftAndRightSticks) {
+				final var leftStickDown = buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_LEFT_STICK];
+				buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_LEFT_STICK] = buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_RIGHT_STICK];
+				buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_RIGHT_STICK] = leftStickDown;
+			}
 
 			return true;
 		}
@@ -198,6 +198,7 @@ public final class Profile implements Cloneable {
 	void setActiveMode(final Input input, final int index) {
 		if (modes.size() > index) {
 			input.scheduleClearOnNextPoll();
+			input.invalidateDispatchTables();
 
 			final var newMode = modes.get(index);
 
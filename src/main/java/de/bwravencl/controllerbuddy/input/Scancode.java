@@ -25,6 +25,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
+import org.jspecify.annotations.Nullable;
 
 /// Represents a keyboard scancode mapping a display name to a DirectInput key
 /// code and a Linux input event.
@@ -346,6 +347,10 @@ public record Scancode(String name, int keyCode, Event event) {
 	/// Map from key names to their corresponding scancode instances.
 	public static final Map<String, Scancode> NAME_TO_SCAN_CODE_MAP;
 
+	/// Number of distinct key codes. Every DirectInput scancode fits into a single
+	/// byte, so all key codes are below this value.
+	public static final int NUM_KEY_CODES = 256;
+
 	private static final String DIK_CAPITAL = "CapsLock";
 
 	private static final String DIK_NEXTTRACK = "Next";
@@ -416,6 +421,9 @@ public record Scancode(String name, int keyCode, Event event) {
 			new Scancode(DIK_DELETE, 0xD3, Event.KEY_DELETE), new Scancode(DIK_LWIN, 0xDB, Event.KEY_LEFTMETA),
 			new Scancode(DIK_RWIN, 0xDC, Event.KEY_RIGHTMETA) };
 
+	/// Lookup table from key code to scancode, used to avoid boxing the key code.
+	private static final @Nullable Scancode[] KEY_CODE_TO_SCAN_CODE_TABLE = new Scancode[NUM_KEY_CODES];
+
 	static {
 		final var modifiableNameToScancodeMap = new TreeMap<String, Scancode>();
 		final var modifiableKeyCodeToScancodeMap = new HashMap<Integer, Scancode>();
@@ -423,6 +431,7 @@ public record Scancode(String name, int keyCode, Event event) {
 		for (final var scancode : KEY_CODES) {
 			modifiableNameToScancodeMap.put(scancode.name, scancode);
 			modifiableKeyCodeToScancodeMap.put(scancode.keyCode, scancode);
+			KEY_CODE_TO_SCAN_CODE_TABLE[scancode.keyCode] = scancode;
 		}
 
 		NAME_TO_SCAN_CODE_MAP = Collections.unmodifiableMap(modifiableNameToScancodeMap);
@@ -438,6 +447,17 @@ public record Scancode(String name, int keyCode, Event event) {
 		}).map(Entry::getKey).collect(Collectors.toUnmodifiableSet());
 	}
 
+	/// Returns the scancode for the given key code.
+	///
+	/// Unlike [#KEY_CODE_TO_SCAN_CODE_MAP], the lookup does not box the key code.
+	///
+	/// @param keyCode the key code to look up
+	/// @return the matching scancode, or `null` if no scancode exists for the key
+	/// code
+	public static @Nullable Scancode forKeyCode(final int keyCode) {
+		return keyCode >= 0 && keyCode < NUM_KEY_CODES ? KEY_CODE_TO_SCAN_CODE_TABLE[keyCode] : null;
+	}
+
 	/// Returns the display name of this scancode.
 	///
 	/// @return the human-readable key name
@@ -101,7 +101,7 @@ public final class AxisToRelativeAxisAction extends AxisToAxisAction {
 
 		final var runMode = input.getRunMode();
 		Objects.requireNonNull(runMode, "Variable runMode must not be null");
-		final var oldValue = Input.normalize(input.getAxes().getOrDefault(virtualAxis, 0), runMode.getMinAxisValue(),
+		final var oldValue = Input.normalize(input.getAxis(virtualAxis), runMode.getMinAxisValue(),
 				runMode.getMaxAxisValue(), -1f, 1f);
 
 		final var newValue = Math.clamp(oldValue + (invert ? -d : d), minValue, maxValue);
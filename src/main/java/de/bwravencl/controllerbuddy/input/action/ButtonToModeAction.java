@@ -87,11 +87,11 @@ public final class ButtonToModeAction implements IButtonToDelayableAction, IRese
 	private void activateMode(final Input input, final Profile profile) {
 		if (!BUTTON_TO_MODE_ACTION_STACK.contains(this) && modeUuid != null) {
 			BUTTON_TO_MODE_ACTION_STACK.push(this);
+			input.invalidateDispatchTables();
 			final var activeMode = profile.getActiveMode();
 
 			profile.getModeByUuid(modeUuid).ifPresent(newMode -> {
-				IAxisToDelayableAction.onModeActivated(activeMode, newMode);
-				IButtonToDelayableAction.onModeActivated(activeMode, newMode);
+				input.getDelayTracker().onModeActivated(activeMode, newMode);
 
 				profile.setActiveMode(input, newMode);
 			});
@@ -165,6 +165,7 @@ public final class ButtonToModeAction implements IButtonToDelayableAction, IRese
 		}
 
 		BUTTON_TO_MODE_ACTION_STACK.pop();
+		input.invalidateDispatchTables();
 
 		final Mode previousMode;
 		final var previousButtonToModeAction = BUTTON_TO_MODE_ACTION_STACK.peek();
@@ -188,8 +189,7 @@ public final class ButtonToModeAction implements IButtonToDelayableAction, IRese
 				.forEach(axis -> previousModeAxisToActionsMap.getOrDefault(axis, List.of()).stream()
 						.filter(action -> action instanceof IAxisToAction).forEach(_ -> input.suspendAxis(axis)));
 
-		IAxisToDelayableAction.onModeDeactivated(activeMode);
-		IButtonToDelayableAction.onModeDeactivated(activeMode);
+		input.getDelayTracker().onModeDeactivated(activeMode);
 
 		profile.setActiveMode(input, previousMode);
 
@@ -277,6 +277,7 @@ public final class ButtonToModeAction implements IButtonToDelayableAction, IRese
 	@Override
 	public void reset(final Input input) {
 		BUTTON_TO_MODE_ACTION_STACK.clear();
+		input.invalidateDispatchTables();
 
 		if (targetsOnScreenKeyboardMode()) {
 			input.getMain().setOnScreenKeyboardVisible(false);
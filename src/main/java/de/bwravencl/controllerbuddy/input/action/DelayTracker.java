@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.input.action;
+
+import de.bwravencl.controllerbuddy.input.Mode;
+import de.bwravencl.controllerbuddy.input.Profile;
+import de.bwravencl.controllerbuddy.input.action.IActivatableAction.Activatable;
+import de.bwravencl.controllerbuddy.input.action.IActivatableAction.Activation;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/// Tracks the activation delays of the [IDelayableAction]s of a profile on
+/// behalf of a single [de.bwravencl.controllerbuddy.input.Input].
+///
+/// Each delayable action is assigned its own [DelayState], which records since
+/// when the action's input has been held and which co-located actions must be
+/// denied activation once the delay has elapsed. The deniable actions are
+/// determined once per profile by [#setProfile(Profile)], so that handling a
+/// delay only requires a single lookup.
+public final class DelayTracker {
+
+	/// Maps each delayable action to its delay state.
+	private Map<IDelayableAction<?>, DelayState> actionToDelayStateMap = new IdentityHashMap<>();
+
+	/// Returns whether the given axis action is an undelayed action that fires
+	/// on release, and must therefore be denied activation by a co-located delayed
+	/// action.
+	///
+	/// @param action the action to check
+	/// @return `true` if the action must be denied activation
+	private static boolean isDeniableAxisAction(final IAction<?> action) {
+		var deniable = false;
+
+		switch (action) {
+		case final AxisToButtonAction axisToButtonAction -> {
+			if (!axisToButtonAction.isDelayed()) {
+				deniable = isOnReleaseAction(axisToButtonAction);
+			}
+		}
+		case final AxisToKeyAction axisToKeyAction -> {
+			if (!axisToKeyAction.isDelayed()) {
+				deniable = isOnReleaseAction(axisToKeyAction);
+			}
+		}
+		case final AxisToMouseButtonAction axisToMouseButtonAction -> {
+			if (!axisToMouseButtonAction.isDelayed()) {
+				deniable = isOnReleaseAction(axisToMouseButtonAction);
+			}
+		}
+		default -> {
+		}
+		}
+
+		return deniable;
+	}
+
+	/// Returns whether the given button action is an undelayed action that fires
+	/// on release, and must therefore be denied activation by a co-located delayed
+	/// action.
+	///
+	/// @param action the action to check
+	/// @return `true` if the action must be denied activation
+	private static boolean isDeniableButtonAction(final IAction<?> action) {
+		var deniable = false;
+
+		switch (action) {
+		case final ButtonToButtonAction buttonToButtonAction -> {
+			if (!buttonToButtonAction.isDelayed()) {
+				deniable = isOnReleaseAction(buttonToButtonAction);
+			}
+		}
+		case final ButtonToKeyAction buttonToKeyAction -> {
+			if (!buttonToKeyAction.isDelayed()) {
+				deniable = isOnReleaseAction(buttonToKeyAction);
+			}
+		}
+		case final ButtonToMouseButtonAction buttonToMouseButtonAction -> {
+			if (!buttonToMouseButtonAction.isDelayed()) {
+				deniable = isOnReleaseAction(buttonToMouseButtonAction);
+			}
+		}
+		case final ButtonToCycleAction buttonToCycleAction -> {
+			if (!buttonToCycleAction.isDelayed()) {
+				deniable = true;
+			}
+		}
+		default -> {
+		}
+		}
+
+		return deniable;
+	}
+
+	/// Returns whether the given action uses [Activation#ON_RELEASE] activation.
+	///
+	/// @param action the activatable action to check
+	/// @return `true` if the action fires on release
+	private static boolean isOnReleaseAction(final IActivatableAction<?> action) {
+		return action.getActivation() == Activation.ON_RELEASE;
+	}
+
+	/// Creates the delay states for the delayable actions that are mapped to the
+	/// same component.
+	///
+	/// @param actionToDelayStateMap the map to add the delay states to
+	/// @param actions the actions mapped to the component
+	/// @param isDeniableAction predicate that determines whether an action must
+	/// be denied activation by a co-located delayed action
+	private static void putDelayStates(final Map<IDelayableAction<?>, DelayState> actionToDelayStateMap,
+			final List<? extends IAction<?>> actions, final Predicate<IAction<?>> isDeniableAction) {
+		for (final var action : actions) {
+			if (!(action instanceof final IDelayableAction<?> delayableAction)
+					|| actionToDelayStateMap.containsKey(delayableAction)) {
+				continue;
+			}
+
+			final var deniableActions = actions.stream()
+					.filter(otherAction -> otherAction != action && isDeniableAction.test(otherAction))
+					.map(otherAction -> (IActivatableAction<?>) otherAction).toArray(IActivatableAction<?>[]::new);
+
+			actionToDelayStateMap.put(delayableAction, new DelayState(deniableActions));
+		}
+	}
+
+	/// Returns the delay state of the given action.
+	///
+	/// Actions that are not part of the profile, such as the actions of a
+	/// [ButtonToCycleAction] or [ButtonToModeAction]s, are assigned a delay state
+	/// without deniable actions on first use.
+	///
+	/// @param action the delayable action
+	/// @return the delay state of the action
+	DelayState getDelayState(final IDelayableAction<?> action) {
+		return actionToDelayStateMap.computeIfAbsent(action, _ -> new DelayState(new IActivatableAction<?>[0]));
+	}
+
+	/// Returns whether the delay of the given action is currently running, i.e.
+	/// whether its input is being held.
+	///
+	/// @param action the delayable action to check
+	/// @return `true` if the delay of the action is running
+	public boolean isTracking(final IDelayableAction<?> action) {
+		final var delayState = actionToDelayStateMap.get(action);
+		return delayState != null && delayState.down;
+	}
+
+	/// Handles mode activation by stopping the delays of the actions of the
+	/// active mode that are mapped to a component that is also mapped in the new
+	/// mode.
+	///
+	/// @param activeMode the currently active mode
+	/// @param newMode the mode being activated
+	public void onModeActivated(final Mode activeMode, final Mode newMode) {
+		final var newModeAxisToActionsMap = newMode.getAxisToActionsMap();
+		activeMode.getAxisToActionsMap().forEach((axis, actions) -> {
+			if (newModeAxisToActionsMap.containsKey(axis)) {
+				release(actions);
+			}
+		});
+
+		final var newModeButtonToActionsMap = newMode.getButtonToActionsMap();
+		activeMode.getButtonToActionsMap().forEach((button, actions) -> {
+			if (newModeButtonToActionsMap.containsKey(button)) {
+				release(actions);
+			}
+		});
+	}
+
+	/// Handles mode deactivation by stopping the delays of all actions of the
+	/// deactivated mode.
+	///
+	/// @param activeMode the mode being deactivated
+	public void onModeDeactivated(final Mode activeMode) {
+		release(activeMode.getAllActions());
+	}
+
+	/// Stops the delays of the given actions.
+	///
+	/// @param actions the actions whose delays are stopped
+	private void release(final Collection<? extends IAction<?>> actions) {
+		for (final var action : actions) {
+			final var delayState = actionToDelayStateMap.get(action);
+			if (delayState != null) {
+				delayState.release();
+			}
+		}
+	}
+
+	/// Stops the delays of all actions.
+	public void reset() {
+		actionToDelayStateMap.values().forEach(DelayState::release);
+	}
+
+	/// Creates the delay states for all delayable actions of the given profile,
+	/// discarding the delay states of the previous profile.
+	///
+	/// Must be called after the actions of the profile have been sorted.
+	///
+	/// @param profile the profile whose actions are tracked
+	public void setProfile(final Profile profile) {
+		final var newActionToDelayStateMap = new IdentityHashMap<IDelayableAction<?>, DelayState>();
+
+		for (final var mode : profile.getModes()) {
+			mode.getAxisToActionsMap().values().forEach(actions -> putDelayStates(newActionToDelayStateMap, actions,
+					DelayTracker::isDeniableAxisAction));
+			mode.getButtonToActionsMap().values().forEach(actions -> putDelayStates(newActionToDelayStateMap,
+					actions, DelayTracker::isDeniableButtonAction));
+		}
+
+		actionToDelayStateMap = newActionToDelayStateMap;
+	}
+
+	/// Delay state of a single delayable action.
+	static final class DelayState {
+
+		/// Co-located actions that are denied activation once the delay has
+		/// elapsed.
+		private final IActivatableAction<?>[] deniableActions;
+
+		/// Whether the input of the action is being held.
+		private boolean down;
+
+		/// Time in milliseconds since which the input of the action is being held.
+		private long downSinceMillis;
+
+		/// Constructs a [DelayState].
+		///
+		/// @param deniableActions the co-located actions that are denied activation
+		/// once the delay has elapsed
+		DelayState(final IActivatableAction<?>[] deniableActions) {
+			this.deniableActions = deniableActions;
+		}
+
+		/// Records that the input of the action is being held and checks whether
+		/// the delay has elapsed.
+		///
+		/// Once the delay has elapsed, all deniable actions are denied activation.
+		///
+		/// @param delay the delay in milliseconds
+		/// @return `true` if the input has been held for at least the delay
+		boolean hold(final long delay) {
+			final var currentTimeMillis = System.currentTimeMillis();
+
+			if (!down) {
+				down = true;
+				downSinceMillis = currentTimeMillis;
+
+				return false;
+			}
+
+			if (currentTimeMillis - downSinceMillis < delay) {
+				return false;
+			}
+
+			for (final var deniableAction : deniableActions) {
+				deniableAction.setActivatable(Activatable.DENIED_BY_OTHER_ACTION);
+			}
+
+			return true;
+		}
+
+		/// Records that the input of the action has been released, stopping the
+		/// delay.
+		void release() {
+			down = false;
+		}
+	}
+}
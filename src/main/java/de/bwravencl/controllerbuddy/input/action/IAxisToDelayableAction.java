@@ -18,11 +18,6 @@
 package de.bwravencl.controllerbuddy.input.action;
 
 import de.bwravencl.controllerbuddy.input.Input;
-import de.bwravencl.controllerbuddy.input.Mode;
-import de.bwravencl.controllerbuddy.input.action.IActivatableAction.Activatable;
-import de.bwravencl.controllerbuddy.input.action.IActivatableAction.Activation;
-import java.util.HashMap;
-import java.util.Map;
 
 /// Interface for axis-triggered actions that support an activation delay.
 ///
@@ -33,53 +28,6 @@ import java.util.Map;
 /// co-located undelayed on-release actions.
 public interface IAxisToDelayableAction extends IAxisToAction, IDelayableAction<Float> {
 
-	/// Maps each axis delayable action to the timestamp when it was first
-	/// activated.
-	Map<IAxisToDelayableAction, Long> ACTION_TO_DOWN_SINCE_MAP = new HashMap<>();
-
-	/// Maps actions to whether their activation must be denied by a delayed action.
-	Map<IAction<?>, Boolean> ACTION_TO_MUST_DENY_ACTIVATION_MAP = new HashMap<>();
-
-	/// Returns whether the given action uses [Activation#ON_RELEASE] activation.
-	///
-	/// @param action the activatable action to check
-	/// @return `true` if the action fires on release
-	private static boolean isOnReleaseAction(final IActivatableAction<?> action) {
-		return action.getActivation() == Activation.ON_RELEASE;
-	}
-
-	/// Handles mode activation by removing tracked delay entries for actions that
-	/// exist in both the active and new modes on the same axis.
-	///
-	/// @param activeMode the currently active mode
-	/// @param newMode the mode being activated
-	static void onModeActivated(final Mode activeMode, final Mode newMode) {
-		ACTION_TO_DOWN_SINCE_MAP.keySet().removeIf(action -> {
-			if (activeMode.getAllActions().contains(action)) {
-				final var optionalAxisId = activeMode.getAxisToActionsMap().entrySet().stream()
-						.filter(entry -> entry.getValue().contains(action)).map(Map.Entry::getKey).findFirst();
-
-				return optionalAxisId.map(axisId -> newMode.getAxisToActionsMap().containsKey(axisId)).orElse(false);
-			}
-
-			return false;
-		});
-	}
-
-	/// Handles mode deactivation by removing tracked delay entries for actions
-	/// belonging to the deactivated mode.
-	///
-	/// @param activeMode the mode being deactivated
-	static void onModeDeactivated(final Mode activeMode) {
-		ACTION_TO_DOWN_SINCE_MAP.keySet().removeIf(action -> activeMode.getAllActions().contains(action));
-	}
-
-	/// Clears all tracked delay state and denied activation state.
-	static void reset() {
-		ACTION_TO_DOWN_SINCE_MAP.clear();
-		ACTION_TO_MUST_DENY_ACTIVATION_MAP.clear();
-	}
-
 	/// Returns the upper bound of the axis range that triggers this action.
 	///
 	/// @return the maximum axis value
@@ -104,61 +52,14 @@ public interface IAxisToDelayableAction extends IAxisToAction, IDelayableAction<
 			return value;
 		}
 
-		final var currentTime = System.currentTimeMillis();
+		final var delayState = input.getDelayTracker().getDelayState(this);
 
 		if (value >= getMinAxisValue() && value <= getMaxAxisValue()) {
-			final var downSince = ACTION_TO_DOWN_SINCE_MAP.putIfAbsent(this, currentTime);
-			if (downSince != null && currentTime - downSince >= getDelay()) {
-				for (final var mode : input.getProfile().getModes()) {
-					final var actions = mode.getAxisToActionsMap().get(component);
-
-					if (actions != null && actions.contains(this)) {
-						for (final IAction<?> action : actions) {
-							if (action.equals(this)) {
-								continue;
-							}
-
-							var isUndelayedOnReleaseAction = ACTION_TO_MUST_DENY_ACTIVATION_MAP.get(action);
-
-							if (isUndelayedOnReleaseAction == null) {
-								isUndelayedOnReleaseAction = false;
-
-								switch (action) {
-								case final AxisToButtonAction axisToButtonAction -> {
-									if (!axisToButtonAction.isDelayed()) {
-										isUndelayedOnReleaseAction = isOnReleaseAction(axisToButtonAction);
-									}
-								}
-								case final AxisToKeyAction axisToKeyAction -> {
-									if (!axisToKeyAction.isDelayed()) {
-										isUndelayedOnReleaseAction = isOnReleaseAction(axisToKeyAction);
-									}
-								}
-								case final AxisToMouseButtonAction axisToMouseButtonAction -> {
-									if (!axisToMouseButtonAction.isDelayed()) {
-										isUndelayedOnReleaseAction = isOnReleaseAction(axisToMouseButtonAction);
-									}
-								}
-								default -> {
-								}
-								}
-
-								ACTION_TO_MUST_DENY_ACTIVATION_MAP.put(action, isUndelayedOnReleaseAction);
-							}
-
-							if (isUndelayedOnReleaseAction) {
-								((IActivatableAction<?>) action).setActivatable(Activatable.DENIED_BY_OTHER_ACTION);
-							}
-						}
-
-						break;
-					}
-				}
-
+			if (delayState.hold(getDelay())) {
 				return value;
 			}
 		} else {
-			ACTION_TO_DOWN_SINCE_MAP.remove(this);
+			delayState.release();
 		}
 
 		return Float.MIN_VALUE;
@@ -18,11 +18,6 @@
 package de.bwravencl.controllerbuddy.input.action;
 
 import de.bwravencl.controllerbuddy.input.Input;
-import de.bwravencl.controllerbuddy.input.Mode;
-import de.bwravencl.controllerbuddy.input.action.IActivatableAction.Activatable;
-import de.bwravencl.controllerbuddy.input.action.IActivatableAction.Activation;
-import java.util.HashMap;
-import java.util.Map;
 
 /// Interface for button-triggered actions that support an activation delay.
 ///
@@ -33,57 +28,13 @@ import java.util.Map;
 /// undelayed on-release actions.
 public interface IButtonToDelayableAction extends IDelayableAction<Boolean> {
 
-	/// Maps each delayable action to the timestamp when it was first activated.
-	Map<IButtonToDelayableAction, Long> ACTION_TO_DOWN_SINCE_MAP = new HashMap<>();
-
-	/// Maps actions to whether their activation must be denied by a delayed action.
-	Map<IAction<?>, Boolean> ACTION_TO_MUST_DENY_ACTIVATION_MAP = new HashMap<>();
-
-	/// Returns whether the given action uses [Activation#ON_RELEASE] activation.
-	///
-	/// @param action the activatable action to check
-	/// @return `true` if the action fires on release
-	private static boolean isOnReleaseAction(final IActivatableAction<?> action) {
-		return action.getActivation() == Activation.ON_RELEASE;
-	}
-
-	/// Handles mode activation by removing tracked delay entries for actions that
-	/// exist in both the active and new modes on the same button.
-	///
-	/// @param activeMode the currently active mode
-	/// @param newMode the mode being activated
-	static void onModeActivated(final Mode activeMode, final Mode newMode) {
-		ACTION_TO_DOWN_SINCE_MAP.keySet().removeIf(action -> {
-			if (activeMode.getAllActions().contains(action)) {
-				final var optionalButtonId = activeMode.getButtonToActionsMap().entrySet().stream()
-						.filter(entry -> entry.getValue().contains(action)).map(Map.Entry::getKey).findFirst();
-
-				return optionalButtonId.map(buttonId -> newMode.getButtonToActionsMap().containsKey(buttonId))
-						.orElse(false);
-			}
-
-			return false;
-		});
-	}
-
-	/// Handles mode deactivation by removing tracked delay entries for actions
-	/// belonging to the deactivated mode.
-	///
-	/// @param activeMode the mode being deactivated
-	static void onModeDeactivated(final Mode activeMode) {
-		ACTION_TO_DOWN_SINCE_MAP.keySet().removeIf(action -> activeMode.getAllActions().contains(action));
-	}
-
-	/// Clears all tracked delay state and denied activation state.
-	static void reset() {
-		ACTION_TO_DOWN_SINCE_MAP.clear();
-		ACTION_TO_MUST_DENY_ACTIVATION_MAP.clear();
-	}
-
 	/// Processes the delay logic for button input. If no delay is configured, the
 	/// value passes through unchanged. Otherwise, the button press is suppressed
 	/// until held for the configured delay duration.
 	///
+	/// The delay is tracked by the [DelayTracker] of the given input, so that each
+	/// input keeps its own delay state.
+	///
 	/// @param input the current input state
 	/// @param component the button component index
 	/// @param value the current button state (true if pressed)
@@ -93,68 +44,14 @@ public interface IButtonToDelayableAction extends IDelayableAction<Boolean> {
 			return value;
 		}
 
-		final var currentTime = System.currentTimeMillis();
+		final var delayState = input.getDelayTracker().getDelayState(this);
 
 		if (value) {
-			final var previousValue = ACTION_TO_DOWN_SINCE_MAP.putIfAbsent(this, currentTime);
-			if (previousValue != null && currentTime - previousValue >= getDelay()) {
-				for (final var mode : input.getProfile().getModes()) {
-					final var actions = mode.getButtonToActionsMap().get(component);
-
-					if (actions != null && actions.contains(this)) {
-						for (final IAction<?> action : actions) {
-							if (action.equals(this)) {
-								continue;
-							}
-
-							var isUndelayedOnReleaseAction = ACTION_TO_MUST_DENY_ACTIVATION_MAP.get(action);
-
-							if (isUndelayedOnReleaseAction == null) {
-								isUndelayedOnReleaseAction = false;
-
-								switch (action) {
-								case final ButtonToButtonAction buttonToButtonAction -> {
-									if (!buttonToButtonAction.isDelayed()) {
-										isUndelayedOnReleaseAction = isOnReleaseAction(buttonToButtonAction);
-									}
-								}
-								case final ButtonToKeyAction buttonToKeyAction -> {
-									if (!buttonToKeyAction.isDelayed()) {
-										isUndelayedOnReleaseAction = isOnReleaseAction(buttonToKeyAction);
-									}
-								}
-								case final ButtonToMouseButtonAction buttonToMouseButtonAction -> {
-									if (!buttonToMouseButtonAction.isDelayed()) {
-										isUndelayedOnReleaseAction = isOnReleaseAction(buttonToMouseButtonAction);
-									}
-								}
-								case final ButtonToCycleAction buttonToCycleAction -> {
-									if (!buttonToCycleAction.isDelayed()) {
-										isUndelayedOnReleaseAction = true;
-									}
-								}
-								default -> {
-								}
-								}
-
-								ACTION_TO_MUST_DENY_ACTIVATION_MAP.put(action, isUndelayedOnReleaseAction);
-							}
-
-							if (isUndelayedOnReleaseAction) {
-								((IActivatableAction<?>) action).setActivatable(Activatable.DENIED_BY_OTHER_ACTION);
-							}
-						}
-
-						break;
-					}
-				}
-
-				return true;
-			}
-		} else {
-			ACTION_TO_DOWN_SINCE_MAP.remove(this);
+			return delayState.hold(getDelay());
 		}
 
+		delayState.release();
+
 		return false;
 	}
 }
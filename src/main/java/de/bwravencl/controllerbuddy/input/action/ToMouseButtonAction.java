@@ -90,7 +90,7 @@ public abstract class ToMouseButtonAction<V extends Constable> extends Activatio
 	/// @param input the current input state
 	final void handleAction(boolean hot, final Input input) {
 		if (activatable == Activatable.ALWAYS) {
-			input.getDownUpMouseButtons().add(mouseButton);
+			input.addDownUpMouseButton(mouseButton);
 			return;
 		}
 
@@ -99,11 +99,11 @@ public abstract class ToMouseButtonAction<V extends Constable> extends Activatio
 			hot = handleActivationInterval(hot);
 			if (!hot) {
 				if (wasDown) {
-					input.getDownMouseButtons().remove(mouseButton);
+					input.releaseMouseButton(mouseButton);
 					wasDown = false;
 				}
 			} else {
-				input.getDownMouseButtons().add(mouseButton);
+				input.pressMouseButton(mouseButton);
 				wasDown = true;
 			}
 		}
@@ -114,11 +114,11 @@ public abstract class ToMouseButtonAction<V extends Constable> extends Activatio
 					activatable = Activatable.YES;
 				} else if (activatable == Activatable.YES) {
 					activatable = Activatable.NO;
-					input.getDownMouseButtons().add(mouseButton);
+					input.pressMouseButton(mouseButton);
 					wasDown = true;
 				}
 				if (wasDown && !hold) {
-					input.getDownMouseButtons().remove(mouseButton);
+					input.releaseMouseButton(mouseButton);
 					wasDown = false;
 				}
 			} else {
@@ -127,7 +127,7 @@ public abstract class ToMouseButtonAction<V extends Constable> extends Activatio
 					activatable = Activatable.YES;
 				} else if (activatable == Activatable.YES) {
 					activatable = Activatable.NO;
-					input.getDownUpMouseButtons().add(mouseButton);
+					input.addDownUpMouseButton(mouseButton);
 				}
 			}
 		}
@@ -142,11 +142,11 @@ public abstract class ToMouseButtonAction<V extends Constable> extends Activatio
 					}
 				} else if (activatable == Activatable.YES) {
 					activatable = Activatable.NO;
-					input.getDownMouseButtons().add(mouseButton);
+					input.pressMouseButton(mouseButton);
 					wasDown = true;
 				} else if (!hold) {
 					if (wasDown) {
-						input.getDownMouseButtons().remove(mouseButton);
+						input.releaseMouseButton(mouseButton);
 						wasDown = false;
 					}
 				}
@@ -160,7 +160,7 @@ public abstract class ToMouseButtonAction<V extends Constable> extends Activatio
 					}
 				} else if (activatable == Activatable.YES) {
 					activatable = Activatable.NO;
-					input.getDownUpMouseButtons().add(mouseButton);
+					input.addDownUpMouseButton(mouseButton);
 				}
 			}
 		}
@@ -19,40 +19,31 @@ package de.bwravencl.controllerbuddy.runmode;
 
 import de.bwravencl.controllerbuddy.gui.GuiUtils;
 import de.bwravencl.controllerbuddy.gui.Main;
-import de.bwravencl.controllerbuddy.input.Keystroke;
 import de.bwravencl.controllerbuddy.input.LockKey;
+import de.bwravencl.controllerbuddy.input.Scancode;
 import de.bwravencl.controllerbuddy.input.VirtualAxis;
 import de.bwravencl.controllerbuddy.runmode.ServerRunMode.MessageType;
+import de.bwravencl.controllerbuddy.runmode.UpdateMessage.ReadResult;
 import java.awt.EventQueue;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputFilter;
-import java.io.ObjectInputFilter.Status;
-import java.io.ObjectInputStream;
-import java.io.UncheckedIOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.SocketException;
-import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
-import java.util.EnumMap;
-import java.util.HashSet;
 import java.util.Objects;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import javax.crypto.Cipher;
-import javax.crypto.spec.GCMParameterSpec;
 import javax.swing.JOptionPane;
 import org.jspecify.annotations.Nullable;
 
@@ -60,8 +51,13 @@ import org.jspecify.annotations.Nullable;
 /// network.
 ///
 /// Connects to a remote [ServerRunMode] via an encrypted UDP channel,
-/// receives serialized input state updates, and writes them to the
+/// receives compactly encoded input state updates, and writes them to the
 /// local virtual output device.
+///
+/// The session ticket handed out by the server is retained, so that the
+/// client can resume the session without another password-based key
+/// derivation, both when the connection is lost and when the client is
+/// started again.
 public final class ClientRunMode extends OutputRunMode {
 
 	/// Number of retries when attempting to establish the initial connection.
@@ -70,43 +66,95 @@ public final class ClientRunMode extends OutputRunMode {
 	/// Number of retries when waiting to receive a packet from the server.
 	private static final int NUM_RECEIVE_PACKET_RETRIES = 10;
 
+	/// Number of attempts to resume a session before falling back to a full
+	/// handshake.
+	private static final int NUM_RESUME_RETRIES = 3;
+
+	/// Cached array of all virtual axes, indexed by ordinal.
+	private static final VirtualAxis[] VIRTUAL_AXES = VirtualAxis.values();
+
 	private static final Logger logger = Logger.getLogger(ClientRunMode.class.getName());
 
-	/// Cipher instance used for AES-GCM encryption and decryption.
-	private final Cipher cipher;
+	/// Session of the most recent successful connection, which subsequent client
+	/// run modes can resume, or `null` if there is none.
+	private static volatile @Nullable ResumableSession resumableSession;
+
+	/// Reusable array holding the axis values to be written, indexed by
+	/// [VirtualAxis#ordinal()].
+	private final int[] axes = new int[VIRTUAL_AXES.length];
+
+	/// Window over the counters of the received update messages, used to discard
+	/// duplicates and replays while tolerating reordering.
+	private final ReplayWindow counterWindow = new ReplayWindow();
 
 	/// Hostname or IP address of the remote server to connect to.
 	private final String host;
 
-	/// Buffer holding the initialization vector for AES-GCM decryption.
-	private final byte[] iv = new byte[ServerRunMode.IV_LENGTH];
+	/// Reusable set of the key codes of the modifier keys held down according to
+	/// the latest update.
+	private final DenseBitSet inputDownModifiers = new DenseBitSet(Scancode.NUM_KEY_CODES);
+
+	/// Reusable set of mouse buttons held down according to the latest update.
+	private final DenseBitSet inputDownMouseButtons = new DenseBitSet(MOUSE_BUTTON_CAPACITY);
 
-	/// Secret key derived from the salt used for encrypting and decrypting packets.
-	private final Key key;
+	/// Reusable set of the key codes of the normal keys held down according to
+	/// the latest update.
+	private final DenseBitSet inputDownNormalKeys = new DenseBitSet(Scancode.NUM_KEY_CODES);
+
+	/// Network statistics of the connection to the server.
+	private final LinkStatistics linkStatistics = new LinkStatistics(System.nanoTime());
+
+	/// Jitter buffer used for playing back axis values on the local clock, or
+	/// `null` if axis values are written as soon as they arrive.
+	private final @Nullable PlayoutBuffer playoutBuffer;
+
+	/// Password used for deriving the key of a new session.
+	private final String password;
 
 	/// UDP port number used to communicate with the server.
 	private final int port;
 
-	/// Reusable byte buffer for incoming UDP packets.
-	private final byte[] receiveBuf = new byte[1024];
-
 	/// Random salt sent to the server during the handshake for key derivation.
 	private final byte[] salt = new byte[ServerRunMode.SALT_LENGTH];
 
 	/// Socket timeout in milliseconds when waiting for incoming packets.
 	private final int timeout;
 
-	/// UDP socket used to send and receive packets to and from the server.
-	private @Nullable DatagramSocket clientSocket;
+	/// Reusable decoder state for incoming update messages.
+	private final UpdateMessage updateMessage = new UpdateMessage();
+
+	/// Encrypted UDP channel used to send and receive packets to and from the
+	/// server.
+	private volatile @Nullable EncryptedDatagramChannel channel;
 
 	/// Current connection state of the client.
 	private ClientState clientState = ClientState.CONNECTING;
 
-	/// Monotonically increasing counter used to discard out-of-order packets.
-	private long counter = -1;
+	/// Key of the session whose update messages [#counterWindow] has tracked, or
+	/// `null` if no session has been established yet.
+	private @Nullable Key counterWindowKey;
+
+	/// Secret key used for encrypting and decrypting packets, or `null` if the key
+	/// of a new session has not been derived yet.
+	private @Nullable Key key;
 
-	/// Resolved network address of the remote server host.
-	private @Nullable InetAddress hostAddress;
+	/// Time in nanoseconds at which the network statistics were last logged.
+	private long lastStatisticsLogTimeNanos;
+
+	/// Time in nanoseconds at which the network statistics were last published.
+	private long lastStatisticsPublishTimeNanos;
+
+	/// Whether the client is trying to resume its session after the connection
+	/// has been lost.
+	private boolean reconnecting;
+
+	/// Session ticket that allows resuming the current session, or `null` if none
+	/// has been obtained.
+	private byte @Nullable [] sessionTicket;
+
+	/// Most recently published network statistics of the connection to the
+	/// server, or `null` if none have been published yet.
+	private volatile @Nullable NetworkStatistics statistics;
 
 	/// Creates a [ClientRunMode] that will connect to the configured remote server.
 	///
@@ -118,35 +166,111 @@ public final class ClientRunMode extends OutputRunMode {
 		host = main.getHost();
 		port = main.getPort();
 		timeout = main.getTimeout();
+		password = main.getPassword();
+		playoutBuffer = main.isPlayout() ? new PlayoutBuffer() : null;
 
-		try {
-			cipher = Cipher.getInstance(ServerRunMode.CIPHER_TRANSFORMATION);
-		} catch (final GeneralSecurityException e) {
-			throw new RuntimeException(e);
+		main.getRandom().nextBytes(salt);
+
+		final var resumableSession = ClientRunMode.resumableSession;
+		if (resumableSession != null && resumableSession.matches(host, port, password)) {
+			key = resumableSession.key;
+			sessionTicket = resumableSession.sessionTicket;
 		}
+	}
 
-		main.getRandom().nextBytes(salt);
-		key = ServerRunMode.deriveKey(main, salt);
+	/// Replaces the contents of the given set with the key codes of an
+	/// [UpdateMessage.IntList].
+	///
+	/// @param source the key codes to copy from
+	/// @param target the set to copy into
+	/// @throws IOException if a key code does not correspond to a scancode
+	private static void copyKeyCodes(final UpdateMessage.IntList source, final DenseBitSet target)
+			throws IOException {
+		target.clear();
+		for (var i = 0; i < source.size(); i++) {
+			target.add(UpdateMessage.scancodeForKeyCode(source.get(i)).keyCode());
+		}
 	}
 
-	/// Decrypts the payload of the given datagram packet using AES-GCM.
+	/// Replaces the contents of the given set with the mouse buttons of an
+	/// [UpdateMessage.IntList].
 	///
-	/// Reads the initialization vector from the beginning of the packet data,
-	/// initializes the cipher in decrypt mode, and returns the decrypted bytes.
+	/// @param source the mouse buttons to copy from
+	/// @param target the set to copy into
+	/// @throws IOException if a mouse button number is out of range
+	private static void copyMouseButtons(final UpdateMessage.IntList source, final DenseBitSet target)
+			throws IOException {
+		target.clear();
+		for (var i = 0; i < source.size(); i++) {
+			final var mouseButton = source.get(i);
+			if (mouseButton < 0 || mouseButton >= MOUSE_BUTTON_CAPACITY) {
+				throw new IOException("Invalid mouse button: " + mouseButton);
+			}
+
+			target.add(mouseButton);
+		}
+	}
+
+	/// Replaces the contents of the given set with the lock keys corresponding to
+	/// the virtual key codes of an [UpdateMessage.IntList].
 	///
-	/// @param packet the datagram packet whose payload is to be decrypted
-	/// @return the decrypted byte array
-	/// @throws GeneralSecurityException if decryption fails
-	private byte[] decrypt(final DatagramPacket packet) throws GeneralSecurityException {
-		final var packetByteBuffer = ByteBuffer.wrap(packet.getData(), 0, packet.getLength());
+	/// @param source the virtual key codes to copy from
+	/// @param target the set to copy into
+	private static void copyLockKeys(final UpdateMessage.IntList source, final Set<LockKey> target) {
+		target.clear();
+		for (var i = 0; i < source.size(); i++) {
+			final var lockKey = LockKey.VIRTUAL_KEY_CODE_TO_LOCK_KEY_MAP.get(source.get(i));
+			if (lockKey != null) {
+				target.add(lockKey);
+			}
+		}
+	}
 
-		packetByteBuffer.get(iv);
-		cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(ServerRunMode.TAG_LENGTH, iv));
+	/// Discards the session of the most recent successful connection, so that
+	/// the next client run mode performs a full handshake.
+	///
+	/// Must be called whenever the host or the password changes.
+	public static void discardResumableSession() {
+		resumableSession = null;
+	}
 
-		final var encryptedBytes = new byte[packetByteBuffer.remaining()];
-		packetByteBuffer.get(encryptedBytes);
+	/// Sets the axis output values to the values held in [#axes].
+	private void applyAxes() {
+		axisX.set(axes[VirtualAxis.X.ordinal()]);
+		axisY.set(axes[VirtualAxis.Y.ordinal()]);
+		axisZ.set(axes[VirtualAxis.Z.ordinal()]);
+		axisRX.set(axes[VirtualAxis.RX.ordinal()]);
+		axisRY.set(axes[VirtualAxis.RY.ordinal()]);
+		axisRZ.set(axes[VirtualAxis.RZ.ordinal()]);
+		axisS0.set(axes[VirtualAxis.S0.ordinal()]);
+		axisS1.set(axes[VirtualAxis.S1.ordinal()]);
+	}
 
-		return cipher.doFinal(encryptedBytes);
+	/// Clears all one-shot events and button and key transitions after they have
+	/// been written, so that they are not written again by the next output tick.
+	///
+	/// Unless the output sink repeats held keys, held normal keys are kept so
+	/// that they continue to be repeated.
+	private void clearTransientOutput() {
+		cursorDeltaX = 0;
+		cursorDeltaY = 0;
+		scrollClicks = 0;
+
+		downUpMouseButtons.clear();
+		downUpKeystrokes.clear();
+
+		onLockKeys.clear();
+		offLockKeys.clear();
+
+		newUpMouseButtons.clear();
+		newDownMouseButtons.clear();
+		newUpModifiers.clear();
+		newDownModifiers.clear();
+		newUpNormalKeys.clear();
+
+		if (heldKeysRepeatedBySink) {
+			newDownNormalKeys.clear();
+		}
 	}
 
 	@Override
@@ -154,6 +278,37 @@ public final class ClientRunMode extends OutputRunMode {
 		return logger;
 	}
 
+	/// Handles the loss of the connection to the server.
+	///
+	/// If a session ticket is available, the client returns to the connecting
+	/// state and tries to resume the session. Otherwise, an error dialog is shown
+	/// and a stop is requested.
+	private void handleConnectionLost() {
+		logger.fine("Timeout while waiting for server update");
+
+		if (sessionTicket != null) {
+			clientState = ClientState.CONNECTING;
+			reconnecting = true;
+			return;
+		}
+
+		showConnectionLostDialog();
+
+		forceStop = true;
+		run = false;
+	}
+
+	/// Returns the network statistics of the connection to the server.
+	///
+	/// The statistics are updated about once per second, whenever the server
+	/// requests a keep-alive message.
+	///
+	/// @return the network statistics, or `null` if no statistics have been
+	/// measured yet
+	public @Nullable NetworkStatistics getStatistics() {
+		return statistics;
+	}
+
 	/// Handles a [GeneralSecurityException] that occurred during decryption by
 	/// logging the error, showing an error dialog, and requesting a stop.
 	///
@@ -169,10 +324,113 @@ public final class ClientRunMode extends OutputRunMode {
 		run = false;
 	}
 
-	@SuppressWarnings("unchecked")
+	/// Decrypts and handles the most recently received datagram.
+	///
+	/// [MessageType#UPDATE] messages are applied to the output state, with the
+	/// exception of the axis values, which are added to the [#playoutBuffer] if
+	/// playout is enabled. Update messages that arrive after a newer one only
+	/// contribute their one-shot events. [MessageType#REQUEST_ALIVE] messages are
+	/// answered with a timing record and the update reception counts of the
+	/// [#linkStatistics].
+	///
+	/// @param channel the channel the datagram was received on
+	/// @param receiveTimeNanos the local time in nanoseconds at which the datagram
+	/// was received
+	/// @return `true` if a new update was applied and should be written
+	/// @throws IOException if the message is malformed or a reply cannot be sent
+	/// @throws GeneralSecurityException if the datagram cannot be decrypted
+	private boolean handleMessage(final EncryptedDatagramChannel channel, final long receiveTimeNanos)
+			throws IOException, GeneralSecurityException {
+		final var key = Objects.requireNonNull(this.key, "Field key must not be null");
+
+		final var plaintextBuffer = channel.decrypt(key);
+		final var messageType = MessageType.fromId(plaintextBuffer.getInt());
+		if (messageType == null) {
+			throw new IOException("Invalid message type");
+		}
+
+		switch (messageType) {
+		case UPDATE -> {
+			final var messagePosition = plaintextBuffer.position();
+			final var sequenceNumber = UpdateMessage.getVarLong(plaintextBuffer);
+			plaintextBuffer.position(messagePosition);
+
+			final var readResult = updateMessage.read(plaintextBuffer, counterWindow);
+			if (readResult == ReadResult.DISCARDED) {
+				return false;
+			}
+			linkStatistics.addSequenceNumber(sequenceNumber);
+
+			// a message that arrived after a newer one only contributes its one-shot events,
+			// the held state of the newer message wins
+			if (readResult == ReadResult.NEWEST) {
+				linkStatistics.addPeerTimestamp(updateMessage.getTimestampMicros(), receiveTimeNanos);
+
+				if (playoutBuffer != null) {
+					playoutBuffer.add(updateMessage, receiveTimeNanos);
+				} else {
+					for (final var virtualAxis : VIRTUAL_AXES) {
+						axes[virtualAxis.ordinal()] = updateMessage.getAxis(virtualAxis);
+					}
+					applyAxes();
+				}
+
+				for (var i = 0; i < numButtons; i++) {
+					buttons[i].set(updateMessage.isButtonPressed(i) ? 1 : 0);
+				}
+
+				copyMouseButtons(updateMessage.getDownMouseButtons(), inputDownMouseButtons);
+				DenseBitSet.diff(inputDownMouseButtons, oldDownMouseButtons, newUpMouseButtons,
+						newDownMouseButtons, false);
+
+				copyKeyCodes(updateMessage.getDownModifierKeyCodes(), inputDownModifiers);
+				DenseBitSet.diff(inputDownModifiers, oldDownModifiers, newUpModifiers, newDownModifiers, false);
+
+				copyKeyCodes(updateMessage.getDownNormalKeyCodes(), inputDownNormalKeys);
+				DenseBitSet.diff(inputDownNormalKeys, oldDownNormalKeys, newUpNormalKeys, newDownNormalKeys,
+						!heldKeysRepeatedBySink);
+			} else if (!updateMessage.hasEvents()) {
+				return false;
+			}
+
+			cursorDeltaX = updateMessage.getCursorDeltaX();
+			cursorDeltaY = updateMessage.getCursorDeltaY();
+
+			copyMouseButtons(updateMessage.getDownUpMouseButtons(), downUpMouseButtons);
+
+			downUpKeystrokes.clear();
+			downUpKeystrokes.addAll(updateMessage.getDownUpKeystrokes());
+
+			scrollClicks = updateMessage.getScrollClicks();
+
+			copyLockKeys(updateMessage.getOnLockKeyCodes(), onLockKeys);
+			copyLockKeys(updateMessage.getOffLockKeyCodes(), offLockKeys);
+
+			return true;
+		}
+		case REQUEST_ALIVE -> {
+			linkStatistics.readTiming(plaintextBuffer, receiveTimeNanos);
+
+			final var messageBuffer = channel.beginMessage().putInt(MessageType.CLIENT_ALIVE.getId());
+			linkStatistics.writeTiming(messageBuffer, System.nanoTime());
+			UpdateMessage.putVarLong(messageBuffer, linkStatistics.getNumReceived());
+			UpdateMessage.putVarLong(messageBuffer, linkStatistics.getNumLost());
+			UpdateMessage.putVarLong(messageBuffer, linkStatistics.getNumReordered());
+			channel.sendEncrypted(key, null);
+
+			publishStatistics(receiveTimeNanos);
+		}
+		default -> {
+		}
+		}
+
+		return false;
+	}
+
 	@Override
 	boolean readInput() throws IOException {
-		Objects.requireNonNull(clientSocket, "Field clientSocket must not be null");
+		final var channel = this.channel;
+		Objects.requireNonNull(channel, "Field channel must not be null");
 
 		super.readInput();
 
@@ -180,213 +438,152 @@ public final class ClientRunMode extends OutputRunMode {
 
 		switch (clientState) {
 		case CONNECTING -> {
-			logger.info("Connecting to " + host + ":" + port);
+			logger.info((reconnecting ? "Reconnecting to " : "Connecting to ") + host + ":" + port);
 			EventQueue.invokeLater(() -> main.setStatusBarText(
 					MessageFormat.format(Main.strings.getString("STATUS_CONNECTING_TO_HOST"), host, port)));
 
-			try (final var byteArrayOutputStream = new ByteArrayOutputStream();
-					final var dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
-				dataOutputStream.writeInt(MessageType.CLIENT_HELLO.getId());
+			var success = false;
+			var retry = NUM_CONNECTION_RETRIES;
+			var resumeRetry = NUM_RESUME_RETRIES;
+			do {
+				var sessionTicket = this.sessionTicket;
+				if (sessionTicket != null && resumeRetry <= 0) {
+					if (reconnecting) {
+						break;
+					}
 
-				dataOutputStream.write(salt, 0, ServerRunMode.SALT_LENGTH);
+					logger.info("Could not resume session, performing full handshake");
+					sessionTicket = null;
+					this.sessionTicket = null;
+					this.key = null;
+					resumableSession = null;
+				}
 
-				dataOutputStream.writeInt(minAxisValue);
-				dataOutputStream.writeInt(maxAxisValue);
-				dataOutputStream.writeInt(numButtons);
+				var key = this.key;
+				if (key == null) {
+					key = ServerRunMode.deriveKey(main, salt);
+					this.key = key;
+				}
 
-				final var helloBuf = byteArrayOutputStream.toByteArray();
-				final var helloPacket = new DatagramPacket(helloBuf, helloBuf.length, hostAddress, port);
+				final var messageBuffer = channel.beginMessage();
+				if (sessionTicket != null) {
+					messageBuffer.putInt(MessageType.CLIENT_RESUME.getId()).putInt(minAxisValue).putInt(maxAxisValue)
+							.putInt(numButtons).put(ServerRunMode.PROTOCOL_VERSION).put(sessionTicket);
+				} else {
+					messageBuffer.putInt(MessageType.CLIENT_HELLO.getId()).put(salt).putInt(minAxisValue)
+							.putInt(maxAxisValue).putInt(numButtons).put(ServerRunMode.PROTOCOL_VERSION);
+				}
+				channel.sendPlaintext(null);
+
+				try {
+					final var packet = channel.receive(timeout);
+					if (packet == null) {
+						if (sessionTicket != null) {
+							logger.info("Timeout while waiting for server hello to resumed session");
+							resumeRetry--;
+							continue;
+						}
 
-				var success = false;
-				var retry = NUM_CONNECTION_RETRIES;
-				do {
-					clientSocket.send(helloPacket);
+						logger.info("Timeout while waiting for server hello");
+						retry--;
+						final var finalRetry = retry;
+						EventQueue.invokeLater(() -> main.setStatusBarText(
+								MessageFormat.format(Main.strings.getString("STATUS_TIMEOUT_RETRYING"),
+										NUM_CONNECTION_RETRIES - finalRetry, NUM_CONNECTION_RETRIES)));
+						continue;
+					}
 
-					final var receivePacket = new DatagramPacket(receiveBuf, receiveBuf.length);
-					try {
-						clientSocket.receive(receivePacket);
-
-						final var plaintextBuf = decrypt(receivePacket);
-						try (final var byteArrayInputStream = new ByteArrayInputStream(plaintextBuf);
-								final var dataInputStream = new DataInputStream(byteArrayInputStream)) {
-							final var messageType = dataInputStream.readInt();
-							if (messageType == MessageType.SERVER_HELLO.getId()) {
-								final var serverProtocolVersion = dataInputStream.readByte();
-								if (serverProtocolVersion != ServerRunMode.PROTOCOL_VERSION) {
-									logger.warning("Protocol version mismatch: client " + ServerRunMode.PROTOCOL_VERSION
-											+ " vs server " + serverProtocolVersion);
-									EventQueue.invokeLater(() -> GuiUtils.showMessageDialog(main, main,
-											MessageFormat.format(
-													Main.strings.getString("PROTOCOL_VERSION_MISMATCH_DIALOG_TEXT"),
-													ServerRunMode.PROTOCOL_VERSION, serverProtocolVersion),
-											Main.strings.getString("ERROR_DIALOG_TITLE"), JOptionPane.ERROR_MESSAGE));
-									retry = -1;
-								} else {
-									success = true;
-								}
-							} else {
-								retry--;
-								final var finalRetry = retry;
-								EventQueue.invokeLater(() -> main.setStatusBarText(
-										MessageFormat.format(Main.strings.getString("STATUS_INVALID_MESSAGE_RETRYING"),
-												NUM_CONNECTION_RETRIES - finalRetry, NUM_CONNECTION_RETRIES)));
+					final var plaintextBuffer = channel.decrypt(key);
+					final var messageType = plaintextBuffer.getInt();
+					if (messageType == MessageType.SERVER_HELLO.getId()) {
+						final var serverProtocolVersion = plaintextBuffer.get();
+						if (serverProtocolVersion != ServerRunMode.PROTOCOL_VERSION) {
+							logger.warning("Protocol version mismatch: client " + ServerRunMode.PROTOCOL_VERSION
+									+ " vs server " + serverProtocolVersion);
+							EventQueue.invokeLater(() -> GuiUtils.showMessageDialog(main, main,
+									MessageFormat.format(Main.strings.getString("PROTOCOL_VERSION_MISMATCH_DIALOG_TEXT"),
+											ServerRunMode.PROTOCOL_VERSION, serverProtocolVersion),
+									Main.strings.getString("ERROR_DIALOG_TITLE"), JOptionPane.ERROR_MESSAGE));
+							retry = -1;
+						} else {
+							if (plaintextBuffer.remaining() == SessionTickets.TICKET_LENGTH) {
+								final var newSessionTicket = new byte[SessionTickets.TICKET_LENGTH];
+								plaintextBuffer.get(newSessionTicket);
+								this.sessionTicket = newSessionTicket;
+								resumableSession = new ResumableSession(host, port, password, key, newSessionTicket,
+										main.getRandom());
 							}
+							success = true;
 						}
-					} catch (final GeneralSecurityException e) {
-						handleGeneralSecurityException(e);
-					} catch (final SocketTimeoutException e) {
-						logger.log(Level.INFO, e.getMessage(), e);
+					} else {
 						retry--;
 						final var finalRetry = retry;
 						EventQueue.invokeLater(() -> main.setStatusBarText(
-								MessageFormat.format(Main.strings.getString("STATUS_TIMEOUT_RETRYING"),
+								MessageFormat.format(Main.strings.getString("STATUS_INVALID_MESSAGE_RETRYING"),
 										NUM_CONNECTION_RETRIES - finalRetry, NUM_CONNECTION_RETRIES)));
 					}
-				} while (!success && retry > 0 && run);
-
-				if (success) {
-					clientState = ClientState.CONNECTED;
-					logger.info("Successfully connected");
-					EventQueue.invokeLater(() -> main.setStatusBarText(
-							MessageFormat.format(Main.strings.getString("STATUS_CONNECTED_TO"), host, port)));
-				} else {
-					if (retry != -1 && run) {
-						logger.info("Could not connect after " + NUM_CONNECTION_RETRIES + " retries");
-						EventQueue.invokeLater(() -> GuiUtils.showMessageDialog(main, main,
-								MessageFormat.format(Main.strings.getString("COULD_NOT_CONNECT_DIALOG_TEXT"),
-										NUM_CONNECTION_RETRIES),
-								Main.strings.getString("ERROR_DIALOG_TITLE"), JOptionPane.ERROR_MESSAGE));
+				} catch (final GeneralSecurityException e) {
+					if (sessionTicket != null) {
+						logger.log(Level.FINE, e.getMessage(), e);
+						resumeRetry = 0;
+						continue;
 					}
 
-					forceStop = true;
-					run = false;
+					handleGeneralSecurityException(e);
+				}
+			} while (!success && retry > 0 && run);
+
+			if (success) {
+				clientState = ClientState.CONNECTED;
+				// the server continues the counter of a resumed session, so keeping the window
+				// prevents messages of the previous connection from being replayed
+				final var key = this.key;
+				if (key == null || !key.equals(counterWindowKey)) {
+					counterWindow.reset();
+					counterWindowKey = key;
+				}
+				updateMessage.resetEventWindow();
+				linkStatistics.resetSession();
+				if (playoutBuffer != null) {
+					playoutBuffer.clear();
+				}
+
+				logger.info(reconnecting ? "Successfully reconnected" : "Successfully connected");
+				reconnecting = false;
+				EventQueue.invokeLater(() -> main.setStatusBarText(
+						MessageFormat.format(Main.strings.getString("STATUS_CONNECTED_TO"), host, port)));
+			} else {
+				if (reconnecting && retry != -1 && run) {
+					logger.info("Could not resume session after connection loss");
+					showConnectionLostDialog();
+				} else if (retry != -1 && run) {
+					logger.info("Could not connect after " + NUM_CONNECTION_RETRIES + " retries");
+					EventQueue.invokeLater(() -> GuiUtils.showMessageDialog(main, main,
+							MessageFormat.format(Main.strings.getString("COULD_NOT_CONNECT_DIALOG_TEXT"),
+									NUM_CONNECTION_RETRIES),
+							Main.strings.getString("ERROR_DIALOG_TITLE"), JOptionPane.ERROR_MESSAGE));
 				}
-			}
 
+				forceStop = true;
+				run = false;
+			}
 		}
 		case CONNECTED -> {
 			try {
-				final var receivePacket = new DatagramPacket(receiveBuf, receiveBuf.length);
-				SocketTimeoutException socketTimeoutException = null;
-				for (var i = 0; i < NUM_RECEIVE_PACKET_RETRIES; i++) {
-					try {
-						clientSocket.receive(receivePacket);
-						socketTimeoutException = null;
-						break;
-					} catch (final SocketTimeoutException e) {
-						socketTimeoutException = e;
-					}
+				ByteBuffer packet = null;
+				for (var i = 0; i < NUM_RECEIVE_PACKET_RETRIES && packet == null; i++) {
+					packet = channel.receive(timeout);
 				}
 
-				if (socketTimeoutException != null) {
-					throw socketTimeoutException;
-				}
-
-				final var plaintextBuf = decrypt(receivePacket);
-				try (final var byteArrayInputStream = new ByteArrayInputStream(plaintextBuf);
-						final var dataInputStream = new DataInputStream(byteArrayInputStream)) {
-					final var messageType = MessageType.fromId(dataInputStream.readInt());
-					if (messageType == null) {
-						throw new IOException("Invalid message type");
-					}
+				if (packet == null) {
+					handleConnectionLost();
 
-					switch (messageType) {
-					case UPDATE -> {
-						final var newCounter = dataInputStream.readLong();
-
-						try (final var objectInputStream = new ObjectInputStream(dataInputStream)) {
-							objectInputStream
-									.setObjectInputFilter(ObjectInputFilter.allowFilter(
-											clazz -> clazz == null || clazz.isArray() || clazz == Number.class
-													|| clazz == Integer.class || clazz == Enum.class
-													|| clazz == HashSet.class || clazz == EnumMap.class
-													|| clazz == VirtualAxis.class || clazz == Keystroke.class,
-											Status.REJECTED));
-
-							if (newCounter > counter) {
-								final var inputAxes = (EnumMap<VirtualAxis, Integer>) objectInputStream.readObject();
-								axisX.set(inputAxes.getOrDefault(VirtualAxis.X, 0));
-								axisY.set(inputAxes.getOrDefault(VirtualAxis.Y, 0));
-								axisZ.set(inputAxes.getOrDefault(VirtualAxis.Z, 0));
-								axisRX.set(inputAxes.getOrDefault(VirtualAxis.RX, 0));
-								axisRY.set(inputAxes.getOrDefault(VirtualAxis.RY, 0));
-								axisRZ.set(inputAxes.getOrDefault(VirtualAxis.RZ, 0));
-								axisS0.set(inputAxes.getOrDefault(VirtualAxis.S0, 0));
-								axisS1.set(inputAxes.getOrDefault(VirtualAxis.S1, 0));
-
-								final var inputButtons = (boolean[]) objectInputStream.readObject();
-								for (var i = 0; i < numButtons; i++) {
-									buttons[i].set(inputButtons[i] ? 1 : 0);
-									inputButtons[i] = false;
-								}
-
-								cursorDeltaX = objectInputStream.readInt();
-								cursorDeltaY = objectInputStream.readInt();
-
-								updateOutputSets((Set<Integer>) objectInputStream.readObject(), oldDownMouseButtons,
-										newUpMouseButtons, newDownMouseButtons, false);
-
-								downUpMouseButtons.clear();
-								downUpMouseButtons.addAll((Set<Integer>) objectInputStream.readObject());
-
-								final var downKeystrokes = (Set<Keystroke>) objectInputStream.readObject();
-								final var inputDownModifiers = downKeystrokes.stream().map(Keystroke::getModifierCodes)
-										.flatMap(Stream::of).collect(Collectors.toSet());
-								updateOutputSets(inputDownModifiers, oldDownModifiers, newUpModifiers, newDownModifiers,
-										false);
-
-								final var inputDownNormalKeys = downKeystrokes.stream().map(Keystroke::getKeyCodes)
-										.flatMap(Stream::of).collect(Collectors.toSet());
-								updateOutputSets(inputDownNormalKeys, oldDownNormalKeys, newUpNormalKeys,
-										newDownNormalKeys, true);
-
-								downUpKeystrokes.clear();
-								downUpKeystrokes.addAll((Set<Keystroke>) objectInputStream.readObject());
-
-								scrollClicks = objectInputStream.readInt();
-
-								onLockKeys.clear();
-								((Set<Integer>) objectInputStream.readObject()).stream()
-										.map(LockKey.VIRTUAL_KEY_CODE_TO_LOCK_KEY_MAP::get)
-										.forEachOrdered(onLockKeys::add);
-
-								offLockKeys.clear();
-								((Set<Integer>) objectInputStream.readObject()).stream()
-										.map(LockKey.VIRTUAL_KEY_CODE_TO_LOCK_KEY_MAP::get)
-										.forEachOrdered(offLockKeys::add);
-
-								counter = newCounter;
-								retVal = true;
-							}
-						}
-					}
-					case REQUEST_ALIVE -> {
-						try (final var byteArrayOutputStream = new ByteArrayOutputStream();
-								final var dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
-							dataOutputStream.writeInt(MessageType.CLIENT_ALIVE.getId());
-
-							final var keepAliveBuf = byteArrayOutputStream.toByteArray();
-							final var keepAlivePacket = new DatagramPacket(keepAliveBuf, keepAliveBuf.length,
-									hostAddress, port);
-							clientSocket.send(keepAlivePacket);
-						}
-					}
-					default -> {
-					}
-					}
-				} catch (final ClassNotFoundException e) {
-					throw new RuntimeException(e);
+					return false;
 				}
+
+				retVal = handleMessage(channel, System.nanoTime());
 			} catch (final GeneralSecurityException e) {
 				handleGeneralSecurityException(e);
-			} catch (final SocketTimeoutException e) {
-				logger.log(Level.FINE, e.getMessage(), e);
-				EventQueue.invokeLater(() -> GuiUtils.showMessageDialog(main, main,
-						Main.strings.getString("CONNECTION_LOST_DIALOG_TEXT"),
-						Main.strings.getString("ERROR_DIALOG_TITLE"), JOptionPane.ERROR_MESSAGE));
-
-				forceStop = true;
-				run = false;
 			}
 		}
 		}
@@ -394,19 +591,54 @@ public final class ClientRunMode extends OutputRunMode {
 		return retVal;
 	}
 
-	/// Requests this client run mode to stop by closing the UDP socket and
+	/// Publishes a snapshot of the network statistics, which can then be obtained
+	/// via [#getStatistics()], and shows it in the status bar.
+	///
+	/// Does nothing if the statistics have been published less than
+	/// [LinkStatistics#PUBLISH_INTERVAL_NANOS] ago. The statistics are also
+	/// logged every [LinkStatistics#LOG_INTERVAL_NANOS].
+	///
+	/// @param currentTimeNanos the current time in nanoseconds
+	private void publishStatistics(final long currentTimeNanos) {
+		if (currentTimeNanos - lastStatisticsPublishTimeNanos < LinkStatistics.PUBLISH_INTERVAL_NANOS) {
+			return;
+		}
+		lastStatisticsPublishTimeNanos = currentTimeNanos;
+
+		final var statistics = linkStatistics.snapshot();
+		this.statistics = statistics;
+
+		if (statistics.oneWayLatencyNanos() >= 0L) {
+			EventQueue.invokeLater(() -> main.setStatusBarText(
+					MessageFormat.format(Main.strings.getString("STATUS_CONNECTED_TO_WITH_STATISTICS"), host, port,
+							statistics.rttMillis(), statistics.oneWayLatencyMillis(), statistics.jitterMillis(),
+							statistics.lossRatio())));
+		}
+
+		if (currentTimeNanos - lastStatisticsLogTimeNanos >= LinkStatistics.LOG_INTERVAL_NANOS) {
+			logger.info("Network statistics: " + statistics);
+			lastStatisticsLogTimeNanos = currentTimeNanos;
+		}
+	}
+
+	/// Requests this client run mode to stop by closing the UDP channel and
 	/// signaling a forced stop.
 	@Override
 	public void requestStop() {
 		super.requestStop();
 
-		if (clientSocket != null) {
-			clientSocket.close();
+		final var channel = this.channel;
+		if (channel != null) {
+			try {
+				channel.close();
+			} catch (final IOException e) {
+				logger.log(Level.WARNING, e.getMessage(), e);
+			}
 			forceStop = true;
 		}
 	}
 
-	/// Runs the client loop: initializes the UDP socket, connects to the remote
+	/// Runs the client loop: initializes the UDP channel, connects to the remote
 	/// server, and repeatedly receives input state and writes it to the local
 	/// output device until stopped.
 	@Override
@@ -415,21 +647,20 @@ public final class ClientRunMode extends OutputRunMode {
 
 		try {
 			if (init()) {
-				clientSocket = new DatagramSocket(port + 1);
+				final var channel = new EncryptedDatagramChannel(port + 1, main.getRandom());
+				this.channel = channel;
 
 				IOException ioException = null;
 				for (final var hostAddress : InetAddress.getAllByName(host)) {
 					try {
-						clientSocket.connect(hostAddress, port);
-						this.hostAddress = hostAddress;
+						channel.connect(new InetSocketAddress(hostAddress, port));
+						ioException = null;
 						break;
-					} catch (final UncheckedIOException e) {
-						final var causingIoException = e.getCause();
-
+					} catch (final IOException e) {
 						if (ioException == null) {
-							ioException = causingIoException;
+							ioException = e;
 						} else {
-							ioException.addSuppressed(causingIoException);
+							ioException.addSuppressed(e);
 						}
 					}
 				}
@@ -438,11 +669,14 @@ public final class ClientRunMode extends OutputRunMode {
 					throw ioException;
 				}
 
-				clientSocket.setSoTimeout(timeout);
-
-				while (run) {
-					if (readInput()) {
-						writeOutput();
+				final var playoutBuffer = this.playoutBuffer;
+				if (playoutBuffer != null) {
+					runPlayout(channel, playoutBuffer);
+				} else {
+					while (run) {
+						if (readInput()) {
+							writeOutput();
+						}
 					}
 				}
 			} else {
@@ -455,7 +689,7 @@ public final class ClientRunMode extends OutputRunMode {
 			EventQueue.invokeLater(() -> GuiUtils.showMessageDialog(main, main,
 					MessageFormat.format(Main.strings.getString("INVALID_HOST_ADDRESS_DIALOG_TEXT"), host),
 					Main.strings.getString("ERROR_DIALOG_TITLE"), JOptionPane.ERROR_MESSAGE));
-		} catch (final SocketException e) {
+		} catch (final SocketException | ClosedChannelException e) {
 			if (forceStop) {
 				return;
 			}
@@ -469,16 +703,114 @@ public final class ClientRunMode extends OutputRunMode {
 		} catch (final IOException e) {
 			handleIOException(e);
 		} finally {
-			if (clientSocket != null) {
-				clientSocket.close();
+			final var channel = this.channel;
+			if (channel != null) {
+				try {
+					channel.close();
+				} catch (final IOException e) {
+					logger.log(Level.WARNING, e.getMessage(), e);
+				}
 			}
 
 			deInit();
 		}
 
+		if (linkStatistics.getNumReceived() > 0L) {
+			logger.info("Network statistics: " + linkStatistics.snapshot());
+		}
 		logStop();
 	}
 
+	/// Runs the client loop in playout mode.
+	///
+	/// Whenever the client is connecting, which includes resuming the session after
+	/// the connection has been lost, the handshake is performed first. Once
+	/// connected, output is written on a local clock running at the maximum
+	/// polling rate, with axis values taken from the [PlayoutBuffer]. Datagrams are
+	/// received in between output ticks, and every received update is written
+	/// immediately, so that buttons, keys and one-shot events are not delayed by
+	/// the jitter buffer.
+	///
+	/// @param channel the channel connected to the server
+	/// @param playoutBuffer the jitter buffer providing the axis values
+	/// @throws IOException if an I/O error occurs
+	private void runPlayout(final EncryptedDatagramChannel channel, final PlayoutBuffer playoutBuffer)
+			throws IOException {
+		useMaxPollingRate();
+
+		final var connectionTimeoutNanos = NUM_RECEIVE_PACKET_RETRIES * timeout * 1_000_000L;
+		var currentTimeNanos = System.nanoTime();
+		var lastReceiveTimeNanos = currentTimeNanos;
+		var nextOutputTimeNanos = currentTimeNanos;
+
+		while (run) {
+			if (clientState == ClientState.CONNECTING) {
+				readInput();
+
+				lastReceiveTimeNanos = System.nanoTime();
+				nextOutputTimeNanos = lastReceiveTimeNanos;
+				continue;
+			}
+
+			process();
+
+			final var packet = channel.receive(Math.max(0L, (nextOutputTimeNanos - System.nanoTime()) / 1_000_000L));
+			currentTimeNanos = System.nanoTime();
+
+			if (packet != null) {
+				lastReceiveTimeNanos = currentTimeNanos;
+				try {
+					if (handleMessage(channel, currentTimeNanos)) {
+						writePlayoutOutput(playoutBuffer, currentTimeNanos);
+					}
+				} catch (final GeneralSecurityException e) {
+					handleGeneralSecurityException(e);
+				}
+				continue;
+			}
+
+			if (currentTimeNanos - lastReceiveTimeNanos > connectionTimeoutNanos) {
+				handleConnectionLost();
+				continue;
+			}
+
+			final var remainingNanos = nextOutputTimeNanos - currentTimeNanos;
+			if (remainingNanos > 0L) {
+				LockSupport.parkNanos(remainingNanos);
+				continue;
+			}
+
+			writePlayoutOutput(playoutBuffer, currentTimeNanos);
+
+			nextOutputTimeNanos += pollingPeriodNanos;
+			if (nextOutputTimeNanos <= currentTimeNanos) {
+				nextOutputTimeNanos = currentTimeNanos + pollingPeriodNanos;
+			}
+		}
+	}
+
+	/// Shows an error dialog informing the user that the connection to the server
+	/// has been lost.
+	private void showConnectionLostDialog() {
+		EventQueue.invokeLater(
+				() -> GuiUtils.showMessageDialog(main, main, Main.strings.getString("CONNECTION_LOST_DIALOG_TEXT"),
+						Main.strings.getString("ERROR_DIALOG_TITLE"), JOptionPane.ERROR_MESSAGE));
+	}
+
+	/// Samples the axis values of the given jitter buffer for the given time and
+	/// writes the output state, then clears all transient output.
+	///
+	/// @param playoutBuffer the jitter buffer providing the axis values
+	/// @param currentTimeNanos the current local time in nanoseconds
+	private void writePlayoutOutput(final PlayoutBuffer playoutBuffer, final long currentTimeNanos) {
+		if (playoutBuffer.sample(currentTimeNanos, axes)) {
+			applyAxes();
+		}
+
+		writeOutput();
+		clearTransientOutput();
+	}
+
 	/// Represents the connection state of the client run mode.
 	///
 	/// Tracks whether the client is in the process of establishing a connection
@@ -490,4 +822,82 @@ public final class ClientRunMode extends OutputRunMode {
 		/// The client has successfully connected to the server
 		CONNECTED
 	}
+
+	/// Session that a [ClientRunMode] can resume with a session ticket instead of
+	/// performing a full handshake.
+	///
+	/// A session is only resumed by a client run mode that connects to the same
+	/// host and port with the same password. The password itself is not
+	/// retained, only a salted hash of it that is compared in constant time.
+	private static final class ResumableSession {
+
+		/// Algorithm of the message digest used for hashing the password.
+		private static final String PASSWORD_HASH_ALGORITHM = "SHA-256";
+
+		/// Hostname or IP address of the server.
+		private final String host;
+
+		/// Secret key of the session.
+		private final Key key;
+
+		/// Salted hash of the password the session key was derived from.
+		private final byte[] passwordHash;
+
+		/// Random salt of [#passwordHash].
+		private final byte[] passwordSalt = new byte[ServerRunMode.SALT_LENGTH];
+
+		/// UDP port number of the server.
+		private final int port;
+
+		/// Session ticket issued by the server.
+		private final byte[] sessionTicket;
+
+		/// Constructs a [ResumableSession].
+		///
+		/// @param host the hostname or IP address of the server
+		/// @param port the UDP port number of the server
+		/// @param password the password the session key was derived from
+		/// @param key the secret key of the session
+		/// @param sessionTicket the session ticket issued by the server
+		/// @param random the random number generator used for generating the salt
+		/// of the password hash
+		private ResumableSession(final String host, final int port, final String password, final Key key,
+				final byte[] sessionTicket, final Random random) {
+			this.host = host;
+			this.port = port;
+			this.key = key;
+			this.sessionTicket = sessionTicket;
+
+			random.nextBytes(passwordSalt);
+			passwordHash = hashPassword(passwordSalt, password);
+		}
+
+		/// Computes the salted hash of the given password.
+		///
+		/// @param salt the salt
+		/// @param password the password
+		/// @return the hash
+		private static byte[] hashPassword(final byte[] salt, final String password) {
+			final MessageDigest messageDigest;
+			try {
+				messageDigest = MessageDigest.getInstance(PASSWORD_HASH_ALGORITHM);
+			} catch (final NoSuchAlgorithmException e) {
+				throw new RuntimeException(e);
+			}
+
+			messageDigest.update(salt);
+			return messageDigest.digest(password.getBytes(StandardCharsets.UTF_8));
+		}
+
+		/// Checks whether this session belongs to the given connection settings.
+		///
+		/// @param host the hostname or IP address of the server
+		/// @param port the UDP port number of the server
+		/// @param password the password
+		/// @return `true` if the session can be resumed with these settings
+		private boolean matches(final String host, final int port, final String password) {
+			return this.host.equals(host) && this.port == port
+					&& MessageDigest.isEqual(passwordHash, hashPassword(passwordSalt, password));
+		}
+	}
 }
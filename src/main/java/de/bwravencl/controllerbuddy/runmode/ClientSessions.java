@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import de.bwravencl.controllerbuddy.runmode.ServerRunMode.Handshake;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+import org.jspecify.annotations.Nullable;
+
+/// Sessions of the clients of a [ServerRunMode].
+///
+/// Handshakes arrive in plaintext, so a client that completed a handshake is
+/// only added as a pending session at first. A pending session is confirmed
+/// once the client has sent a message that authenticates under the new key.
+/// Only then does it replace an existing session of the same client and
+/// receive update messages. This way, a spoofed or replayed handshake cannot
+/// evict a connected client, and only confirmed sessions count toward the
+/// maximum number of clients.
+///
+/// The message counter of a client never restarts under a key that has been
+/// used before: a confirmed session that replaces another one continues its
+/// counter, and so does a session that resumes the key of a session that timed
+/// out.
+final class ClientSessions {
+
+	private static final Logger logger = Logger.getLogger(ClientSessions.class.getName());
+
+	/// Sessions of the connected clients.
+	private final List<ClientSession> confirmedSessions = new ArrayList<>();
+
+	/// Unmodifiable view of [#confirmedSessions].
+	private final List<ClientSession> confirmedSessionsView = Collections.unmodifiableList(confirmedSessions);
+
+	/// Sessions of clients that timed out, holding at most one session per
+	/// client.
+	private final List<ClientSession> lostSessions = new ArrayList<>();
+
+	/// Maximum number of confirmed sessions.
+	private final int maxNumClients;
+
+	/// Maximum number of pending sessions.
+	private final int maxNumPendingSessions;
+
+	/// Sessions of clients that have completed a handshake but not yet sent an
+	/// authenticated message.
+	private final List<ClientSession> pendingSessions = new ArrayList<>();
+
+	/// Unmodifiable view of [#pendingSessions].
+	private final List<ClientSession> pendingSessionsView = Collections.unmodifiableList(pendingSessions);
+
+	/// Constructs an empty [ClientSessions] instance.
+	///
+	/// @param maxNumClients the maximum number of confirmed sessions
+	/// @param maxNumPendingSessions the maximum number of pending sessions
+	ClientSessions(final int maxNumClients, final int maxNumPendingSessions) {
+		this.maxNumClients = maxNumClients;
+		this.maxNumPendingSessions = maxNumPendingSessions;
+	}
+
+	/// Returns the session with the given address from the given list.
+	///
+	/// @param sessions the sessions to search
+	/// @param address the IP address of the client
+	/// @return the session, or `null` if the list contains no session with this
+	/// address
+	private static @Nullable ClientSession find(final List<ClientSession> sessions, final InetAddress address) {
+		for (var i = 0; i < sessions.size(); i++) {
+			final var session = sessions.get(i);
+			if (session.address.equals(address)) {
+				return session;
+			}
+		}
+
+		return null;
+	}
+
+	/// Adds a pending session for a client that has completed a handshake.
+	///
+	/// A pending session of the same client is replaced, a confirmed session of
+	/// the same client is kept until the new session is confirmed. If the key is
+	/// that of the session of the client that timed out, the new session
+	/// continues its message counter.
+	///
+	/// @param handshake the handshake parameters sent by the client
+	/// @param socketAddress the socket address of the client
+	/// @param key the session key of the client
+	/// @param originNanos the origin of the timestamps sent to the client in
+	/// nanoseconds
+	/// @param currentTimeNanos the current time in nanoseconds
+	/// @return the added pending session, or `null` if the client was rejected
+	@Nullable
+	ClientSession addPending(final Handshake handshake, final InetSocketAddress socketAddress, final Key key,
+			final long originNanos, final long currentTimeNanos) {
+		final var existingPendingSession = find(pendingSessions, handshake.address());
+		if (existingPendingSession != null) {
+			pendingSessions.remove(existingPendingSession);
+		}
+
+		if (!isAcceptable(handshake)) {
+			return null;
+		}
+
+		if (pendingSessions.size() >= maxNumPendingSessions) {
+			logger.warning("Rejecting client " + handshake.address().getHostAddress() + ": too many handshakes");
+			return null;
+		}
+
+		final var session = new ClientSession(handshake, socketAddress, key, originNanos, currentTimeNanos);
+		final var lostSession = find(lostSessions, session.address);
+		if (lostSession != null && lostSession.key.equals(key)) {
+			session.counter = lostSession.counter;
+		}
+		pendingSessions.add(session);
+
+		return session;
+	}
+
+	/// Removes all sessions.
+	void clear() {
+		confirmedSessions.clear();
+		lostSessions.clear();
+		pendingSessions.clear();
+	}
+
+	/// Confirms a pending session after the client has sent an authenticated
+	/// message under its key.
+	///
+	/// The session replaces the confirmed session of the same client, if any, and
+	/// continues its message counter, so that the counter never goes back for a
+	/// client. The session is removed from the pending sessions in any case.
+	///
+	/// @param pendingSession the pending session to confirm
+	/// @return `true` if the session was confirmed, `false` if it was rejected
+	/// because the confirmed sessions changed in the meantime
+	boolean confirm(final ClientSession pendingSession) {
+		if (!pendingSessions.remove(pendingSession) || !isAcceptable(pendingSession.handshake)) {
+			return false;
+		}
+
+		final var existingSession = find(confirmedSessions, pendingSession.address);
+		if (existingSession != null) {
+			confirmedSessions.remove(existingSession);
+			pendingSession.counter = existingSession.counter;
+		}
+
+		confirmedSessions.add(pendingSession);
+
+		return true;
+	}
+
+	/// Returns the confirmed session of the client with the given address.
+	///
+	/// @param address the IP address of the client
+	/// @return the confirmed session, or `null` if no client with this address
+	/// is connected
+	@Nullable
+	ClientSession getConfirmedSession(final InetAddress address) {
+		return find(confirmedSessions, address);
+	}
+
+	/// Returns the confirmed sessions.
+	///
+	/// @return an unmodifiable view of the confirmed sessions in the order in
+	/// which they were confirmed
+	List<ClientSession> getConfirmedSessions() {
+		return confirmedSessionsView;
+	}
+
+	/// Returns the pending session of the client with the given address.
+	///
+	/// @param address the IP address of the client
+	/// @return the pending session, or `null` if there is none
+	@Nullable
+	ClientSession getPendingSession(final InetAddress address) {
+		return find(pendingSessions, address);
+	}
+
+	/// Returns the pending sessions.
+	///
+	/// @return an unmodifiable view of the pending sessions
+	List<ClientSession> getPendingSessions() {
+		return pendingSessionsView;
+	}
+
+	/// Returns whether a client with the given handshake parameters can join the
+	/// confirmed sessions of all other clients.
+	///
+	/// The first client determines the axis range and number of buttons. Any
+	/// further client is only acceptable if it uses the same values and the
+	/// maximum number of clients has not been reached. The confirmed session of
+	/// the same client does not count, as it would be replaced.
+	///
+	/// @param handshake the handshake parameters sent by the client
+	/// @return `true` if the client is acceptable
+	private boolean isAcceptable(final Handshake handshake) {
+		var numOtherSessions = 0;
+		Handshake otherHandshake = null;
+		for (var i = 0; i < confirmedSessions.size(); i++) {
+			final var session = confirmedSessions.get(i);
+			if (!session.address.equals(handshake.address())) {
+				numOtherSessions++;
+				otherHandshake = session.handshake;
+			}
+		}
+
+		if (otherHandshake != null && (handshake.minAxisValue() != otherHandshake.minAxisValue()
+				|| handshake.maxAxisValue() != otherHandshake.maxAxisValue()
+				|| handshake.numButtons() != otherHandshake.numButtons())) {
+			logger.warning("Rejecting client " + handshake.address().getHostAddress()
+					+ ": axis range or number of buttons differs from the connected clients");
+			return false;
+		}
+
+		if (numOtherSessions >= maxNumClients) {
+			logger.warning("Rejecting client " + handshake.address().getHostAddress() + ": maximum number of "
+					+ maxNumClients + " clients reached");
+			return false;
+		}
+
+		return true;
+	}
+
+	/// Removes all sessions from which no authenticated message has been received
+	/// for longer than the given timeout.
+	///
+	/// A removed confirmed session is retained as the lost session of its client,
+	/// so that its message counter can be continued if the client resumes it.
+	///
+	/// @param currentTimeNanos the current time in nanoseconds
+	/// @param timeoutNanos the timeout in nanoseconds
+	/// @return `true` if a confirmed session was removed
+	boolean removeTimedOut(final long currentTimeNanos, final long timeoutNanos) {
+		for (var i = pendingSessions.size() - 1; i >= 0; i--) {
+			if (currentTimeNanos - pendingSessions.get(i).lastAliveTimeNanos > timeoutNanos) {
+				pendingSessions.remove(i);
+			}
+		}
+
+		var removed = false;
+		for (var i = confirmedSessions.size() - 1; i >= 0; i--) {
+			final var session = confirmedSessions.get(i);
+			if (currentTimeNanos - session.lastAliveTimeNanos > timeoutNanos) {
+				logger.info("Client " + session.address.getHostAddress() + " timed out, network statistics: "
+						+ session.statistics.snapshot());
+				confirmedSessions.remove(i);
+
+				final var lostSession = find(lostSessions, session.address);
+				if (lostSession != null) {
+					lostSessions.remove(lostSession);
+				}
+				lostSessions.add(session);
+
+				removed = true;
+			}
+		}
+
+		return removed;
+	}
+
+	/// State of the session of a single client.
+	///
+	/// Each client has its own key, derived from the salt it sent in its
+	/// [ServerRunMode.MessageType#CLIENT_HELLO], its own message counter, its own
+	/// liveness timestamp and its own network statistics.
+	static final class ClientSession {
+
+		/// IP address of the client.
+		final InetAddress address;
+
+		/// Handshake parameters sent by the client.
+		final Handshake handshake;
+
+		/// Secret key used for encrypting and decrypting packets of this client.
+		final Key key;
+
+		/// Socket address (IP address and client port) of the client.
+		final InetSocketAddress socketAddress;
+
+		/// Network statistics of the connection to this client.
+		final LinkStatistics statistics;
+
+		/// Counter of the next [ServerRunMode.MessageType#UPDATE] message sent to
+		/// this client.
+		long counter;
+
+		/// Time in nanoseconds at which the last authenticated packet was received
+		/// from the client, or at which the session was created.
+		long lastAliveTimeNanos;
+
+		/// Constructs a [ClientSession].
+		///
+		/// @param handshake the handshake parameters sent by the client
+		/// @param socketAddress the socket address of the client
+		/// @param key the secret key of the client
+		/// @param originNanos the origin of the timestamps sent to the client in
+		/// nanoseconds
+		/// @param currentTimeNanos the time in nanoseconds at which the session
+		/// was created
+		ClientSession(final Handshake handshake, final InetSocketAddress socketAddress, final Key key,
+				final long originNanos, final long currentTimeNanos) {
+			address = handshake.address();
+			this.handshake = handshake;
+			this.socketAddress = socketAddress;
+			this.key = key;
+			statistics = new LinkStatistics(originNanos);
+			lastAliveTimeNanos = currentTimeNanos;
+		}
+	}
+}
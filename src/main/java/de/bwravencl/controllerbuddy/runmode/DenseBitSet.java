@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import java.util.Arrays;
+
+/// Fixed-capacity set of small non-negative integers, such as key codes or
+/// mouse button numbers, backed by an array of 64-bit words.
+///
+/// Membership changes and the computation of the newly pressed and released
+/// elements work on whole words and neither box nor allocate. The elements are
+/// iterated in ascending order via [#nextSetBit(int)]:
+///
+/// ```java
+/// for (var i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+/// 	// ...
+/// }
+/// ```
+final class DenseBitSet {
+
+	/// Bits of the set, where bit `n % 64` of word `n / 64` corresponds to
+	/// element `n`.
+	private final long[] words;
+
+	/// Constructs an empty [DenseBitSet].
+	///
+	/// @param capacity the exclusive upper bound of the elements the set can hold
+	DenseBitSet(final int capacity) {
+		words = new long[Math.ceilDiv(capacity, Long.SIZE)];
+	}
+
+	/// Compares the elements that are currently down against those that were
+	/// down in the previous cycle to determine which elements are newly down and
+	/// which are newly up.
+	///
+	/// All sets must have the same capacity.
+	///
+	/// @param sourceSet the elements that are currently down
+	/// @param oldDownSet the elements that were down in the previous cycle,
+	/// replaced by the contents of `sourceSet`
+	/// @param newUpSet the set to populate with newly released elements
+	/// @param newDownSet the set to populate with newly pressed elements
+	/// @param keepStillDown if true, elements still held down are added to
+	/// newDownSet
+	static void diff(final DenseBitSet sourceSet, final DenseBitSet oldDownSet, final DenseBitSet newUpSet,
+			final DenseBitSet newDownSet, final boolean keepStillDown) {
+		for (var i = 0; i < sourceSet.words.length; i++) {
+			final var sourceWord = sourceSet.words[i];
+			final var oldDownWord = oldDownSet.words[i];
+			final var changedWord = sourceWord ^ oldDownWord;
+
+			newUpSet.words[i] = changedWord & oldDownWord;
+			newDownSet.words[i] = keepStillDown ? sourceWord : changedWord & sourceWord;
+			oldDownSet.words[i] = sourceWord;
+		}
+	}
+
+	/// Adds an element to the set.
+	///
+	/// @param element the element to add
+	void add(final int element) {
+		words[element >>> 6] |= 1L << element;
+	}
+
+	/// Removes all elements from the set.
+	void clear() {
+		Arrays.fill(words, 0L);
+	}
+
+	/// Checks whether the set contains the given element.
+	///
+	/// @param element the element to check
+	/// @return `true` if the element is contained
+	boolean contains(final int element) {
+		final var wordIndex = element >>> 6;
+		return wordIndex < words.length && (words[wordIndex] & (1L << element)) != 0L;
+	}
+
+	/// Checks whether the set contains no elements.
+	///
+	/// @return `true` if the set is empty
+	boolean isEmpty() {
+		for (final var word : words) {
+			if (word != 0L) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/// Returns the smallest element of the set that is greater than or equal to
+	/// the given index.
+	///
+	/// @param fromIndex the index to start searching from
+	/// @return the next element, or `-1` if there is none
+	int nextSetBit(final int fromIndex) {
+		var wordIndex = fromIndex >>> 6;
+		if (wordIndex >= words.length) {
+			return -1;
+		}
+
+		var word = words[wordIndex] & (-1L << fromIndex);
+		while (word == 0L) {
+			if (++wordIndex == words.length) {
+				return -1;
+			}
+
+			word = words[wordIndex];
+		}
+
+		return wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word);
+	}
+
+	/// Replaces the contents of the set with the indices of the bits set in the
+	/// given bitmask.
+	///
+	/// @param bitmask the bitmask in which bit `n` corresponds to element `n`
+	void setBits(final int bitmask) {
+		clear();
+		words[0] = Integer.toUnsignedLong(bitmask);
+	}
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.Random;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import org.jspecify.annotations.Nullable;
+
+/// UDP transport used by [ServerRunMode] and [ClientRunMode] that encrypts and
+/// decrypts datagrams with AES-GCM.
+///
+/// All I/O goes through a non-blocking [DatagramChannel] and a pair of
+/// preallocated direct buffers: one for plaintext messages and one for
+/// datagrams as they appear on the wire. Receive timeouts are implemented with
+/// a [Selector]. Callers obtain the plaintext buffer via [#beginMessage()],
+/// fill it, and then call [#sendEncrypted(Key, SocketAddress)] or
+/// [#sendPlaintext(SocketAddress)].
+///
+/// The channel itself creates no per-packet streams, arrays or
+/// [java.net.DatagramPacket] instances, but sending and receiving encrypted
+/// datagrams is not allocation-free: each initialization of the cipher creates
+/// a [GCMParameterSpec], which copies the IV, and the AES-GCM implementation of
+/// the JCE allocates internal state per operation. In addition,
+/// [DatagramChannel#receive(ByteBuffer)] may create a new source address for
+/// each received datagram, although the JDK reuses it as long as the sender
+/// does not change.
+///
+/// Encrypted datagrams consist of a random IV of [ServerRunMode#IV_LENGTH]
+/// bytes followed by the ciphertext and authentication tag.
+final class EncryptedDatagramChannel implements Closeable {
+
+	/// Maximum length in bytes of an encrypted datagram.
+	static final int MAX_DATAGRAM_LENGTH = ServerRunMode.IV_LENGTH + ServerRunMode.MAX_PACKET_LENGTH
+			+ ServerRunMode.TAG_LENGTH / Byte.SIZE;
+
+	/// AES-GCM cipher instance used for encryption and decryption.
+	private final Cipher cipher;
+
+	/// Underlying non-blocking UDP channel.
+	private final DatagramChannel datagramChannel;
+
+	/// Reusable buffer holding the current AES-GCM initialization vector.
+	private final byte[] iv = new byte[ServerRunMode.IV_LENGTH];
+
+	/// Preallocated direct buffer holding datagrams as sent or received on the
+	/// wire.
+	private final ByteBuffer packetBuffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_LENGTH);
+
+	/// Preallocated direct buffer holding plaintext messages.
+	private final ByteBuffer plaintextBuffer = ByteBuffer.allocateDirect(ServerRunMode.MAX_PACKET_LENGTH);
+
+	/// Random number generator used for generating IVs.
+	private final Random random;
+
+	/// Selector used to wait for incoming datagrams with a timeout.
+	private final Selector selector;
+
+	/// Address of the sender of the most recently received datagram.
+	private @Nullable InetSocketAddress sourceAddress;
+
+	/// Opens a channel bound to the given local port.
+	///
+	/// @param port the local UDP port to bind to, or `0` for an ephemeral port
+	/// @param random the random number generator used for generating IVs
+	/// @throws IOException if the channel cannot be opened or bound
+	EncryptedDatagramChannel(final int port, final Random random) throws IOException {
+		this.random = random;
+
+		try {
+			cipher = Cipher.getInstance(ServerRunMode.CIPHER_TRANSFORMATION);
+		} catch (final GeneralSecurityException e) {
+			throw new RuntimeException(e);
+		}
+
+		datagramChannel = DatagramChannel.open();
+		try {
+			datagramChannel.bind(new InetSocketAddress(port));
+			datagramChannel.configureBlocking(false);
+
+			selector = Selector.open();
+			datagramChannel.register(selector, SelectionKey.OP_READ);
+		} catch (final IOException e) {
+			datagramChannel.close();
+			throw e;
+		}
+	}
+
+	/// Clears the plaintext buffer and returns it so that the caller can write the
+	/// next outgoing message into it.
+	///
+	/// @return the cleared plaintext buffer
+	ByteBuffer beginMessage() {
+		return plaintextBuffer.clear();
+	}
+
+	/// Closes the selector and the underlying channel, causing any pending or
+	/// subsequent I/O operation to fail with a [ClosedChannelException].
+	///
+	/// @throws IOException if an I/O error occurs
+	@Override
+	public void close() throws IOException {
+		try {
+			selector.close();
+		} finally {
+			datagramChannel.close();
+		}
+	}
+
+	/// Connects the channel to the given remote address, so that it only exchanges
+	/// datagrams with that peer.
+	///
+	/// @param remoteAddress the address of the peer
+	/// @throws IOException if the channel cannot be connected
+	void connect(final SocketAddress remoteAddress) throws IOException {
+		datagramChannel.connect(remoteAddress);
+	}
+
+	/// Decrypts the most recently received datagram.
+	///
+	/// If decryption fails, the position of the received datagram buffer is reset
+	/// so that its content can still be read as plaintext.
+	///
+	/// @param key the symmetric key of the sender
+	/// @return the plaintext buffer, flipped for reading
+	/// @throws GeneralSecurityException if the datagram is too short or fails
+	/// authentication
+	ByteBuffer decrypt(final Key key) throws GeneralSecurityException {
+		if (packetBuffer.remaining() < iv.length + ServerRunMode.TAG_LENGTH / Byte.SIZE) {
+			throw new AEADBadTagException("Datagram too short");
+		}
+
+		final var packetStart = packetBuffer.position();
+		try {
+			packetBuffer.get(iv);
+			cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(ServerRunMode.TAG_LENGTH, iv));
+
+			plaintextBuffer.clear();
+			cipher.doFinal(packetBuffer, plaintextBuffer);
+		} catch (final GeneralSecurityException e) {
+			packetBuffer.position(packetStart);
+			throw e;
+		}
+
+		return plaintextBuffer.flip();
+	}
+
+	/// Returns the local port the channel is bound to.
+	///
+	/// @return the local port
+	/// @throws IOException if an I/O error occurs
+	int getLocalPort() throws IOException {
+		return ((InetSocketAddress) datagramChannel.getLocalAddress()).getPort();
+	}
+
+	/// Returns the address of the sender of the most recently received datagram.
+	///
+	/// @return the source address, or `null` if no datagram has been received
+	@Nullable
+	InetSocketAddress getSourceAddress() {
+		return sourceAddress;
+	}
+
+	/// Waits up to the given timeout for an incoming datagram.
+	///
+	/// The returned buffer is only valid until the next call to this method. Its
+	/// content can be read directly for plaintext messages or passed through
+	/// [#decrypt(Key)] for encrypted ones.
+	///
+	/// @param timeoutMillis the maximum time to wait in milliseconds
+	/// @return the received datagram flipped for reading, or `null` if the timeout
+	/// elapsed
+	/// @throws IOException if an I/O error occurs or the channel has been closed
+	@Nullable
+	ByteBuffer receive(final long timeoutMillis) throws IOException {
+		final var deadlineNanos = System.nanoTime() + timeoutMillis * 1_000_000L;
+
+		for (;;) {
+			packetBuffer.clear();
+			final var source = datagramChannel.receive(packetBuffer);
+			if (source != null) {
+				sourceAddress = (InetSocketAddress) source;
+				return packetBuffer.flip();
+			}
+
+			final var remainingMillis = (deadlineNanos - System.nanoTime()) / 1_000_000L;
+			if (remainingMillis <= 0L) {
+				return null;
+			}
+
+			try {
+				selector.select(remainingMillis);
+			} catch (final ClosedSelectorException _) {
+				throw new ClosedChannelException();
+			}
+			selector.selectedKeys().clear();
+		}
+	}
+
+	/// Sends the remaining content of the given buffer as a single datagram.
+	///
+	/// @param buffer the buffer to send
+	/// @param target the address to send to, or `null` if the channel is connected
+	/// @throws IOException if the datagram cannot be sent
+	private void send(final ByteBuffer buffer, final @Nullable SocketAddress target) throws IOException {
+		if (target == null) {
+			datagramChannel.write(buffer);
+		} else {
+			datagramChannel.send(buffer, target);
+		}
+	}
+
+	/// Encrypts the message in the plaintext buffer and sends it.
+	///
+	/// The message consists of all bytes between the start of the plaintext buffer
+	/// and its current position. A fresh random IV is generated for each call.
+	///
+	/// @param key the symmetric key of the receiver
+	/// @param target the address to send to, or `null` if the channel is connected
+	/// @throws IOException if the datagram cannot be sent
+	void sendEncrypted(final Key key, final @Nullable SocketAddress target) throws IOException {
+		plaintextBuffer.flip();
+		packetBuffer.clear();
+		try {
+			random.nextBytes(iv);
+			cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(ServerRunMode.TAG_LENGTH, iv));
+
+			packetBuffer.put(iv);
+			cipher.doFinal(plaintextBuffer, packetBuffer);
+		} catch (final GeneralSecurityException e) {
+			throw new RuntimeException(e);
+		}
+
+		send(packetBuffer.flip(), target);
+	}
+
+	/// Sends the message in the plaintext buffer without encrypting it.
+	///
+	/// @param target the address to send to, or `null` if the channel is connected
+	/// @throws IOException if the datagram cannot be sent
+	void sendPlaintext(final @Nullable SocketAddress target) throws IOException {
+		send(plaintextBuffer.flip(), target);
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import java.nio.ByteBuffer;
+
+/// Ring buffer holding the encoded one-shot events of the most recently sent
+/// [UpdateMessage] instances.
+///
+/// Every message that carries one-shot events is added as an event block with
+/// a new, strictly increasing event sequence number. Each block is then written
+/// into the next `redundancy + 1` update messages, so that a receiver still
+/// obtains the events of a lost datagram from one of the following ones
+/// without any retransmission. With a redundancy of `0`, every block is only
+/// sent once.
+///
+/// All block buffers are preallocated, so that adding and writing blocks does
+/// not allocate.
+final class EventHistory {
+
+	/// Maximum length in bytes of the header of an event block, consisting of the
+	/// varint event sequence number and the varint content length.
+	private static final int MAX_BLOCK_HEADER_LENGTH = 15;
+
+	/// Preallocated buffers holding the encoded content of the event blocks.
+	private final ByteBuffer[] blocks;
+
+	/// Event sequence numbers of the event blocks, indexed like [#blocks].
+	private final long[] eventSequences;
+
+	/// Number of update messages each event block still has to be written into,
+	/// indexed like [#blocks].
+	private final int[] remainingSends;
+
+	/// Index of the most recently added event block, or `-1` if no block has
+	/// been added yet.
+	private int newestIndex = -1;
+
+	/// Event sequence number assigned to the next added event block.
+	private long nextEventSequence;
+
+	/// Constructs an [EventHistory].
+	///
+	/// @param redundancy the number of additional update messages each event
+	/// block is repeated in
+	EventHistory(final int redundancy) {
+		if (redundancy < 0) {
+			throw new IllegalArgumentException("Parameter redundancy must not be negative");
+		}
+
+		blocks = new ByteBuffer[redundancy + 1];
+		for (var i = 0; i < blocks.length; i++) {
+			blocks[i] = ByteBuffer.allocate(ServerRunMode.MAX_PACKET_LENGTH);
+		}
+		eventSequences = new long[blocks.length];
+		remainingSends = new int[blocks.length];
+	}
+
+	/// Encodes the one-shot events of the given message as a new event block.
+	///
+	/// If the history is full, the oldest event block is replaced.
+	///
+	/// @param updateMessage the message whose one-shot events are added
+	void add(final UpdateMessage updateMessage) {
+		newestIndex = (newestIndex + 1) % blocks.length;
+
+		final var block = blocks[newestIndex].clear();
+		updateMessage.writeEvents(block);
+		block.flip();
+
+		eventSequences[newestIndex] = nextEventSequence++;
+		remainingSends[newestIndex] = blocks.length;
+	}
+
+	/// Checks whether any event block still has to be written into an update
+	/// message.
+	///
+	/// @return `true` if at least one event block is pending
+	boolean hasPending() {
+		for (final var remaining : remainingSends) {
+			if (remaining > 0) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/// Writes all pending event blocks into the given buffer, oldest first.
+	///
+	/// The newest event block is always written. Older blocks that do not fit into
+	/// the remaining space of the buffer are dropped.
+	///
+	/// @param buffer the buffer to write to
+	void write(final ByteBuffer buffer) {
+		var numBlocks = 0;
+		var length = 1;
+		for (var i = 0; i < blocks.length && newestIndex >= 0; i++) {
+			final var index = Math.floorMod(newestIndex - i, blocks.length);
+			if (remainingSends[index] == 0) {
+				break;
+			}
+
+			final var blockLength = MAX_BLOCK_HEADER_LENGTH + blocks[index].limit();
+			if (numBlocks > 0 && length + blockLength > buffer.remaining()) {
+				for (var j = i; j < blocks.length; j++) {
+					remainingSends[Math.floorMod(newestIndex - j, blocks.length)] = 0;
+				}
+				break;
+			}
+
+			length += blockLength;
+			numBlocks++;
+		}
+
+		UpdateMessage.putVarInt(buffer, numBlocks);
+		for (var i = numBlocks - 1; i >= 0; i--) {
+			final var index = Math.floorMod(newestIndex - i, blocks.length);
+			final var block = blocks[index];
+			final var blockLength = block.limit();
+
+			UpdateMessage.putVarLong(buffer, eventSequences[index]);
+			UpdateMessage.putVarInt(buffer, blockLength);
+			buffer.put(buffer.position(), block, 0, blockLength);
+			buffer.position(buffer.position() + blockLength);
+
+			remainingSends[index]--;
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import java.util.Arrays;
+
+/// Histogram of non-negative values with logarithmic buckets that are
+/// subdivided linearly.
+///
+/// Values below `2 * SUB_BUCKET_COUNT` are counted exactly. Larger values are
+/// counted in buckets whose width grows with the magnitude of the value, so
+/// that any recorded value can be reported with a relative error below
+/// `1 / SUB_BUCKET_COUNT`. Recording is allocation-free and takes constant
+/// time, which allows it to be done on every iteration of the polling loop.
+final class Histogram {
+
+	/// Number of linear sub-buckets per power of two; must be a power of two.
+	static final int SUB_BUCKET_COUNT = 32;
+
+	/// Number of bits needed to address a sub-bucket.
+	private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKET_COUNT);
+
+	/// Number of recorded values per bucket.
+	private final long[] counts = new long[(Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT];
+
+	/// Total number of recorded values.
+	private long count;
+
+	/// Largest recorded value.
+	private long max;
+
+	/// Sum of all recorded values.
+	private long sum;
+
+	/// Returns the index of the bucket that counts the given value.
+	///
+	/// @param value the non-negative value
+	/// @return the bucket index
+	static int bucketIndex(final long value) {
+		if (value < 2L * SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+
+		final var shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift * SUB_BUCKET_COUNT) + (int) (value >>> shift);
+	}
+
+	/// Returns the smallest value that is counted by the bucket with the given
+	/// index.
+	///
+	/// @param index the bucket index
+	/// @return the lower bound of the bucket
+	static long bucketLowerBound(final int index) {
+		if (index < 2 * SUB_BUCKET_COUNT) {
+			return index;
+		}
+
+		final var shift = (index / SUB_BUCKET_COUNT) - 1;
+		return (long) (index - (shift * SUB_BUCKET_COUNT)) << shift;
+	}
+
+	/// Returns the number of recorded values.
+	///
+	/// @return the number of recorded values
+	long getCount() {
+		return count;
+	}
+
+	/// Returns the largest recorded value.
+	///
+	/// @return the largest recorded value, or `0` if no value has been recorded
+	long getMax() {
+		return max;
+	}
+
+	/// Returns the arithmetic mean of the recorded values.
+	///
+	/// @return the mean, or `0` if no value has been recorded
+	double getMean() {
+		return count > 0L ? (double) sum / count : 0d;
+	}
+
+	/// Returns the value below or at which the given percentage of the recorded
+	/// values lie.
+	///
+	/// The result is the lower bound of the bucket containing that value.
+	///
+	/// @param percentile the percentage between `0` and `100`
+	/// @return the value at the percentile, or `0` if no value has been recorded
+	long getValueAtPercentile(final double percentile) {
+		if (count == 0L) {
+			return 0L;
+		}
+
+		final var rank = Math.max(1L, (long) Math.ceil((percentile / 100d) * count));
+		var cumulativeCount = 0L;
+		for (var i = 0; i < counts.length; i++) {
+			cumulativeCount += counts[i];
+			if (cumulativeCount >= rank) {
+				return bucketLowerBound(i);
+			}
+		}
+
+		return max;
+	}
+
+	/// Records a value. Negative values are recorded as `0`.
+	///
+	/// @param value the value to record
+	void record(final long value) {
+		final var clampedValue = Math.max(0L, value);
+
+		counts[bucketIndex(clampedValue)]++;
+		count++;
+		sum += clampedValue;
+		max = Math.max(max, clampedValue);
+	}
+
+	/// Removes all recorded values.
+	void reset() {
+		Arrays.fill(counts, 0L);
+		count = 0L;
+		max = 0L;
+		sum = 0L;
+	}
+}
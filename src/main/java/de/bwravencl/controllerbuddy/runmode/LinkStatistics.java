@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/// Accumulates the round-trip time, one-way latency, jitter, loss and reorder
+/// statistics of the connection to a single peer.
+///
+/// Both sides of a connection exchange timing records in their keep-alive
+/// messages. A timing record consists of the local send timestamp, the most
+/// recent send timestamp received from the peer (the echo), and the time that
+/// passed between receiving that timestamp and sending the record. From a
+/// received record, the round-trip time and the offset between the clocks of
+/// both sides are computed in the same way as in NTP. The offset then turns
+/// every timestamp sent by the peer into a one-way latency measurement.
+///
+/// Timestamps are sent as microseconds relative to an arbitrary origin of the
+/// sender's monotonic clock. Instances are not thread-safe; other threads
+/// obtain the statistics through immutable [NetworkStatistics] snapshots.
+final class LinkStatistics {
+
+	/// Interval in nanoseconds at which statistics are logged.
+	static final long LOG_INTERVAL_NANOS = 30_000_000_000L;
+
+	/// Interval in nanoseconds at which statistics snapshots are published.
+	static final long PUBLISH_INTERVAL_NANOS = 1_000_000_000L;
+
+	/// Gain of the exponential moving average of the jitter, expressed as a right
+	/// shift.
+	private static final int JITTER_GAIN_SHIFT = 4;
+
+	/// Gain of the exponential moving averages of the round-trip time and the
+	/// one-way latency, expressed as a right shift.
+	private static final int LATENCY_GAIN_SHIFT = 3;
+
+	/// Origin of the local timestamps in nanoseconds.
+	private final long originNanos;
+
+	/// Estimated offset in nanoseconds of the peer's clock relative to the local
+	/// clock.
+	private long clockOffsetNanos;
+
+	/// Whether [#clockOffsetNanos] has been estimated.
+	private boolean hasClockOffset;
+
+	/// Whether a timing record has been received from the peer since the last
+	/// reset.
+	private boolean hasEcho;
+
+	/// Whether [#lastTransitNanos] holds a valid value.
+	private boolean hasLastTransit;
+
+	/// Value of [#numLost] at the start of the current loss interval.
+	private long intervalStartNumLost;
+
+	/// Value of [#numReceived] at the start of the current loss interval.
+	private long intervalStartNumReceived;
+
+	/// Highest sequence number received since the last reset, or `-1` if none.
+	private long highestSequenceNumber = -1L;
+
+	/// Smoothed interarrival jitter in nanoseconds.
+	private long jitterNanos;
+
+	/// Local time in nanoseconds at which the most recent timing record of the
+	/// peer was received.
+	private long lastPeerReceiveTimeNanos;
+
+	/// Send timestamp of the most recent timing record of the peer in
+	/// microseconds.
+	private long lastPeerSendTimeMicros;
+
+	/// Transit time of the most recent peer timestamp in nanoseconds, including
+	/// the unknown clock offset.
+	private long lastTransitNanos;
+
+	/// Lowest round-trip time measured in nanoseconds, or `-1` if none.
+	private long minRttNanos = -1L;
+
+	/// Number of update messages that are expected to have been received.
+	private long numExpected;
+
+	/// Number of update messages that have been lost.
+	private long numLost;
+
+	/// Number of update messages that have been received.
+	private long numReceived;
+
+	/// Number of update messages that arrived after a newer one.
+	private long numReordered;
+
+	/// Smoothed one-way latency in nanoseconds, or `-1` if none.
+	private long oneWayLatencyNanos = -1L;
+
+	/// Smoothed round-trip time in nanoseconds, or `-1` if none.
+	private long rttNanos = -1L;
+
+	/// Constructs a [LinkStatistics] instance.
+	///
+	/// @param originNanos the origin of the local timestamps in nanoseconds
+	LinkStatistics(final long originNanos) {
+		this.originNanos = originNanos;
+	}
+
+	/// Adds a timestamp of the peer to the jitter and one-way latency estimates.
+	///
+	/// @param peerTimeMicros the timestamp of the peer in microseconds
+	/// @param receiveTimeNanos the local time in nanoseconds at which the
+	/// timestamp was received
+	void addPeerTimestamp(final long peerTimeMicros, final long receiveTimeNanos) {
+		final var transitNanos = receiveTimeNanos - peerTimeMicros * 1_000L;
+
+		if (hasLastTransit) {
+			jitterNanos += (Math.abs(transitNanos - lastTransitNanos) - jitterNanos) >> JITTER_GAIN_SHIFT;
+		}
+		lastTransitNanos = transitNanos;
+		hasLastTransit = true;
+
+		if (hasClockOffset) {
+			final var latencyNanos = Math.max(0L, transitNanos + clockOffsetNanos);
+			oneWayLatencyNanos = oneWayLatencyNanos < 0L ? latencyNanos
+					: oneWayLatencyNanos + ((latencyNanos - oneWayLatencyNanos) >> LATENCY_GAIN_SHIFT);
+		}
+	}
+
+	/// Adds the sequence number of a received update message to the loss and
+	/// reorder statistics.
+	///
+	/// @param sequenceNumber the sequence number of the message
+	void addSequenceNumber(final long sequenceNumber) {
+		numReceived++;
+
+		if (sequenceNumber > highestSequenceNumber) {
+			numExpected += highestSequenceNumber < 0L ? 1L : sequenceNumber - highestSequenceNumber;
+			highestSequenceNumber = sequenceNumber;
+		} else {
+			numReordered++;
+		}
+
+		numLost = Math.max(0L, numExpected - numReceived);
+	}
+
+	/// Returns the lowest round-trip time measured.
+	///
+	/// @return the lowest round-trip time in nanoseconds, or `-1` if none has
+	/// been measured yet
+	long getMinRttNanos() {
+		return minRttNanos;
+	}
+
+	/// Returns the number of update messages that have been lost.
+	///
+	/// @return the number of lost messages
+	long getNumLost() {
+		return numLost;
+	}
+
+	/// Returns the number of update messages that have been received.
+	///
+	/// @return the number of received messages
+	long getNumReceived() {
+		return numReceived;
+	}
+
+	/// Returns the number of update messages that arrived after a newer one.
+	///
+	/// @return the number of reordered messages
+	long getNumReordered() {
+		return numReordered;
+	}
+
+	/// Returns the smoothed round-trip time.
+	///
+	/// @return the round-trip time in nanoseconds, or `-1` if none has been
+	/// measured yet
+	long getRttNanos() {
+		return rttNanos;
+	}
+
+	/// Reads a timing record sent by the peer and updates the round-trip time,
+	/// clock offset, jitter and one-way latency estimates.
+	///
+	/// @param buffer the buffer positioned at the timing record
+	/// @param receiveTimeNanos the local time in nanoseconds at which the record
+	/// was received
+	/// @throws IOException if the record is malformed
+	void readTiming(final ByteBuffer buffer, final long receiveTimeNanos) throws IOException {
+		final var peerSendTimeMicros = UpdateMessage.getVarLong(buffer);
+		final var echoTimeMicros = UpdateMessage.getVarLong(buffer) - 1L;
+		final var echoDelayNanos = UpdateMessage.getVarLong(buffer) * 1_000L;
+
+		if (echoTimeMicros >= 0L) {
+			final var localSendTimeNanos = originNanos + echoTimeMicros * 1_000L;
+			final var sampleRttNanos = Math.max(0L, receiveTimeNanos - localSendTimeNanos - echoDelayNanos);
+
+			rttNanos = rttNanos < 0L ? sampleRttNanos : rttNanos + ((sampleRttNanos - rttNanos) >> LATENCY_GAIN_SHIFT);
+			minRttNanos = minRttNanos < 0L ? sampleRttNanos : Math.min(minRttNanos, sampleRttNanos);
+
+			// the offset is most accurate for exchanges with little queuing delay
+			if (!hasClockOffset || sampleRttNanos <= rttNanos) {
+				final var peerSendTimeNanos = peerSendTimeMicros * 1_000L;
+				final var peerReceiveTimeNanos = peerSendTimeNanos - echoDelayNanos;
+				clockOffsetNanos = (peerReceiveTimeNanos - localSendTimeNanos + peerSendTimeNanos - receiveTimeNanos)
+						/ 2L;
+				hasClockOffset = true;
+			}
+		}
+
+		addPeerTimestamp(peerSendTimeMicros, receiveTimeNanos);
+
+		lastPeerSendTimeMicros = peerSendTimeMicros;
+		lastPeerReceiveTimeNanos = receiveTimeNanos;
+		hasEcho = true;
+	}
+
+	/// Forgets all per-session state, so that the statistics can continue after
+	/// a reconnect to a peer whose sequence numbers and clock origin may have
+	/// changed.
+	///
+	/// Accumulated counts and latency estimates are kept.
+	void resetSession() {
+		hasClockOffset = false;
+		hasEcho = false;
+		hasLastTransit = false;
+		highestSequenceNumber = -1L;
+	}
+
+	/// Sets the loss and reorder counts as reported by the peer.
+	///
+	/// @param numReceived the number of update messages received by the peer
+	/// @param numLost the number of update messages lost on the way to the peer
+	/// @param numReordered the number of update messages reordered on the way to
+	/// the peer
+	void setPeerCounts(final long numReceived, final long numLost, final long numReordered) {
+		this.numReceived = numReceived;
+		this.numLost = numLost;
+		this.numReordered = numReordered;
+	}
+
+	/// Creates an immutable snapshot of the current statistics.
+	///
+	/// @return the snapshot
+	NetworkStatistics snapshot() {
+		return new NetworkStatistics(rttNanos, minRttNanos, oneWayLatencyNanos, jitterNanos, numReceived, numLost,
+				numReordered);
+	}
+
+	/// Returns the fraction of update messages lost since the previous call and
+	/// starts a new loss interval.
+	///
+	/// @return the loss ratio between `0` and `1` of the interval that ended
+	double takeIntervalLossRatio() {
+		final var intervalNumLost = Math.max(0L, numLost - intervalStartNumLost);
+		final var intervalNumReceived = Math.max(0L, numReceived - intervalStartNumReceived);
+		intervalStartNumLost = numLost;
+		intervalStartNumReceived = numReceived;
+
+		final var intervalNumExpected = intervalNumLost + intervalNumReceived;
+		return intervalNumExpected == 0L ? 0d : (double) intervalNumLost / intervalNumExpected;
+	}
+
+	/// Writes a timing record into the given buffer.
+	///
+	/// The echo timestamp is written offset by one, so that `0` indicates that no
+	/// timing record has been received from the peer yet.
+	///
+	/// @param buffer the buffer to write to
+	/// @param currentTimeNanos the current local time in nanoseconds
+	void writeTiming(final ByteBuffer buffer, final long currentTimeNanos) {
+		UpdateMessage.putVarLong(buffer, (currentTimeNanos - originNanos) / 1_000L);
+
+		if (hasEcho) {
+			UpdateMessage.putVarLong(buffer, lastPeerSendTimeMicros + 1L);
+			UpdateMessage.putVarLong(buffer, (currentTimeNanos - lastPeerReceiveTimeNanos) / 1_000L);
+		} else {
+			UpdateMessage.putVarLong(buffer, 0L);
+			UpdateMessage.putVarLong(buffer, 0L);
+		}
+	}
+}
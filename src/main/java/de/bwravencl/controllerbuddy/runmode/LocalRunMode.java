@@ -21,8 +21,6 @@ import de.bwravencl.controllerbuddy.gui.Main;
 import de.bwravencl.controllerbuddy.input.Scancode;
 import de.bwravencl.controllerbuddy.input.VirtualAxis;
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.logging.Logger;
 
 /// Run mode for local input processing on the same machine.
@@ -34,11 +32,15 @@ public final class LocalRunMode extends OutputRunMode {
 
 	private static final Logger logger = Logger.getLogger(LocalRunMode.class.getName());
 
-	/// Set of normal (non-modifier) scancodes active in the current output cycle.
-	private final HashSet<Scancode> sourceKeyCodes = new HashSet<>();
+	/// Key codes of the normal (non-modifier) keys active in the current output
+	/// cycle.
+	private final DenseBitSet sourceKeyCodes = new DenseBitSet(Scancode.NUM_KEY_CODES);
 
-	/// Set of modifier scancodes active in the current output cycle.
-	private final HashSet<Scancode> sourceModifiersCodes = new HashSet<>();
+	/// Key codes of the modifier keys active in the current output cycle.
+	private final DenseBitSet sourceModifiersCodes = new DenseBitSet(Scancode.NUM_KEY_CODES);
+
+	/// Mouse buttons held down in the current output cycle.
+	private final DenseBitSet sourceMouseButtons = new DenseBitSet(MOUSE_BUTTON_CAPACITY);
 
 	/// Constructs a [LocalRunMode].
 	///
@@ -47,6 +49,16 @@ public final class LocalRunMode extends OutputRunMode {
 		super(main);
 	}
 
+	/// Adds the key codes of the given scancodes to a set.
+	///
+	/// @param scancodes the scancodes to add
+	/// @param target the set to add the key codes to
+	private static void addKeyCodes(final Scancode[] scancodes, final DenseBitSet target) {
+		for (final var scancode : scancodes) {
+			target.add(scancode.keyCode());
+		}
+	}
+
 	@Override
 	Logger getLogger() {
 		return logger;
@@ -62,31 +74,14 @@ public final class LocalRunMode extends OutputRunMode {
 			return false;
 		}
 
-		final var inputAxes = input.getAxes();
-
-		final var inputAxisX = inputAxes.getOrDefault(VirtualAxis.X, 0);
-		axisX.set(inputAxisX);
-
-		final var inputAxisY = inputAxes.getOrDefault(VirtualAxis.Y, 0);
-		axisY.set(inputAxisY);
-
-		final var inputAxisZ = inputAxes.getOrDefault(VirtualAxis.Z, 0);
-		axisZ.set(inputAxisZ);
-
-		final var inputAxisRX = inputAxes.getOrDefault(VirtualAxis.RX, 0);
-		axisRX.set(inputAxisRX);
-
-		final var inputAxisRY = inputAxes.getOrDefault(VirtualAxis.RY, 0);
-		axisRY.set(inputAxisRY);
-
-		final var inputAxisRZ = inputAxes.getOrDefault(VirtualAxis.RZ, 0);
-		axisRZ.set(inputAxisRZ);
-
-		final var inputAxisS0 = inputAxes.getOrDefault(VirtualAxis.S0, 0);
-		axisS0.set(inputAxisS0);
-
-		final var inputAxisS1 = inputAxes.getOrDefault(VirtualAxis.S1, 0);
-		axisS1.set(inputAxisS1);
+		axisX.set(input.getAxis(VirtualAxis.X));
+		axisY.set(input.getAxis(VirtualAxis.Y));
+		axisZ.set(input.getAxis(VirtualAxis.Z));
+		axisRX.set(input.getAxis(VirtualAxis.RX));
+		axisRY.set(input.getAxis(VirtualAxis.RY));
+		axisRZ.set(input.getAxis(VirtualAxis.RZ));
+		axisS0.set(input.getAxis(VirtualAxis.S0));
+		axisS1.set(input.getAxis(VirtualAxis.S1));
 
 		final var inputButtons = input.getButtons();
 		for (var i = 0; i < numButtons; i++) {
@@ -99,23 +94,22 @@ public final class LocalRunMode extends OutputRunMode {
 		cursorDeltaY = input.getCursorDeltaY();
 		input.setCursorDeltaY(0);
 
-		updateOutputSets(input.getDownMouseButtons(), oldDownMouseButtons, newUpMouseButtons, newDownMouseButtons,
-				false);
+		sourceMouseButtons.setBits(input.getDownMouseButtons());
+		DenseBitSet.diff(sourceMouseButtons, oldDownMouseButtons, newUpMouseButtons, newDownMouseButtons, false);
 
-		downUpMouseButtons.clear();
-		final var inputDownUpMouseButtons = input.getDownUpMouseButtons();
-		downUpMouseButtons.addAll(inputDownUpMouseButtons);
-		inputDownUpMouseButtons.clear();
+		downUpMouseButtons.setBits(input.getDownUpMouseButtons());
+		input.clearDownUpMouseButtons();
 
 		sourceModifiersCodes.clear();
 		sourceKeyCodes.clear();
-		input.getDownKeystrokes().forEach(keystroke -> {
-			sourceModifiersCodes.addAll(Arrays.asList(keystroke.getModifierCodes()));
-			sourceKeyCodes.addAll(Arrays.asList(keystroke.getKeyCodes()));
-		});
+		for (final var keystroke : input.getDownKeystrokes()) {
+			addKeyCodes(keystroke.getModifierCodes(), sourceModifiersCodes);
+			addKeyCodes(keystroke.getKeyCodes(), sourceKeyCodes);
+		}
 
-		updateOutputSets(sourceModifiersCodes, oldDownModifiers, newUpModifiers, newDownModifiers, false);
-		updateOutputSets(sourceKeyCodes, oldDownNormalKeys, newUpNormalKeys, newDownNormalKeys, true);
+		DenseBitSet.diff(sourceModifiersCodes, oldDownModifiers, newUpModifiers, newDownModifiers, false);
+		DenseBitSet.diff(sourceKeyCodes, oldDownNormalKeys, newUpNormalKeys, newDownNormalKeys,
+				!heldKeysRepeatedBySink);
 
 		downUpKeystrokes.clear();
 		final var inputDownUpKeystrokes = input.getDownUpKeystrokes();
@@ -139,30 +133,23 @@ public final class LocalRunMode extends OutputRunMode {
 	}
 
 	/// Runs the local polling loop: initializes the output device, then repeatedly
-	/// polls the controller, and writes the input state to the output device at a
-	/// fixed rate until stopped.
+	/// polls the controller, and writes the input state to the output device until
+	/// stopped. Polls happen at the polling rate and additionally as soon as the
+	/// controller reports new input.
 	@Override
 	public void run() {
 		logStart();
 
 		try {
 			if (init()) {
-				var nextPollTimeNanos = System.nanoTime();
+				resetPollSchedule();
 
 				while (run) {
 					if (readInput()) {
 						writeOutput();
 					}
 
-					nextPollTimeNanos += pollingPeriodNanos;
-
-					final var sleepNanos = nextPollTimeNanos - System.nanoTime();
-					if (sleepNanos > 0L) {
-						// noinspection BusyWait
-						Thread.sleep(sleepNanos / 1_000_000L, (int) (sleepNanos % 1_000_000L));
-					} else {
-						nextPollTimeNanos = System.nanoTime();
-					}
+					awaitNextPoll();
 				}
 			} else {
 				forceStop = true;
@@ -172,6 +159,7 @@ public final class LocalRunMode extends OutputRunMode {
 		} catch (final InterruptedException _) {
 			Thread.currentThread().interrupt();
 		} finally {
+			closePacer();
 			deInit();
 		}
 
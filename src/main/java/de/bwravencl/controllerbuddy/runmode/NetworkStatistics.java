@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import java.util.Locale;
+
+/// Snapshot of the quality of the network connection between a
+/// [ServerRunMode] and a [ClientRunMode].
+///
+/// Durations are in nanoseconds, and are `-1` if no measurement is available
+/// yet. The counts refer to [ServerRunMode.MessageType#UPDATE] messages.
+///
+/// @param rttNanos the smoothed round-trip time
+/// @param minRttNanos the lowest round-trip time measured
+/// @param oneWayLatencyNanos the smoothed one-way latency from the peer to the
+/// local side, based on the clock offset estimated from the round-trip
+/// measurements
+/// @param jitterNanos the smoothed interarrival jitter
+/// @param numReceived the number of received update messages
+/// @param numLost the number of update messages that have not been received
+/// @param numReordered the number of update messages that arrived after a newer
+/// one
+public record NetworkStatistics(long rttNanos, long minRttNanos, long oneWayLatencyNanos, long jitterNanos,
+		long numReceived, long numLost, long numReordered) {
+
+	/// Converts a duration in nanoseconds to milliseconds.
+	///
+	/// @param nanos the duration in nanoseconds
+	/// @return the duration in milliseconds
+	private static double toMillis(final long nanos) {
+		return nanos / 1_000_000d;
+	}
+
+	/// Returns the jitter in milliseconds.
+	///
+	/// @return the jitter in milliseconds
+	public double jitterMillis() {
+		return toMillis(jitterNanos);
+	}
+
+	/// Returns the fraction of update messages that have been lost.
+	///
+	/// @return the loss ratio between `0` and `1`
+	public double lossRatio() {
+		final var numExpected = numReceived + numLost;
+		return numExpected == 0L ? 0d : (double) numLost / numExpected;
+	}
+
+	/// Returns the one-way latency in milliseconds.
+	///
+	/// @return the one-way latency in milliseconds, or a negative value if it has
+	/// not been measured yet
+	public double oneWayLatencyMillis() {
+		return toMillis(oneWayLatencyNanos);
+	}
+
+	/// Returns the smoothed round-trip time in milliseconds.
+	///
+	/// @return the round-trip time in milliseconds, or a negative value if it has
+	/// not been measured yet
+	public double rttMillis() {
+		return toMillis(rttNanos);
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT,
+				"RTT %.2f ms (min %.2f ms), one-way latency %.2f ms, jitter %.2f ms, received %d, lost %d (%.2f%%), reordered %d",
+				rttMillis(), toMillis(minRttNanos), oneWayLatencyMillis(), jitterMillis(), numReceived, numLost,
+				lossRatio() * 100d, numReordered);
+	}
+}
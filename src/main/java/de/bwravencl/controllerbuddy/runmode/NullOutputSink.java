@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import de.bwravencl.controllerbuddy.input.LockKey;
+import de.bwravencl.controllerbuddy.input.Scancode;
+import de.bwravencl.controllerbuddy.input.VirtualAxis;
+
+/// [OutputSink] that discards all output.
+///
+/// Used by an [OutputRunMode] as long as no virtual device has been opened,
+/// and for benchmarking the output stage without the cost of any backend.
+final class NullOutputSink implements OutputSink {
+
+	@Override
+	public void close() {
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	@Override
+	public void moveCursor(final int deltaX, final int deltaY) {
+	}
+
+	@Override
+	public void scroll(final int clicks) {
+	}
+
+	@Override
+	public void setAxis(final VirtualAxis virtualAxis, final int value) {
+	}
+
+	@Override
+	public void setButton(final int index, final boolean pressed) {
+	}
+
+	@Override
+	public void setKey(final Scancode scancode, final boolean down) {
+	}
+
+	@Override
+	public void setLockKeyState(final LockKey lockKey, final boolean on) {
+	}
+
+	@Override
+	public void setMouseButton(final int button, final boolean down) {
+	}
+
+	@Override
+	public void tapKey(final Scancode scancode) {
+	}
+
+	@Override
+	public void tapMouseButton(final int button) {
+	}
+}
@@ -17,10 +17,6 @@
 
 package de.bwravencl.controllerbuddy.runmode;
 
-import de.bwravencl.controllerbuddy.ffi.Kernel32;
-import de.bwravencl.controllerbuddy.ffi.User32;
-import de.bwravencl.controllerbuddy.ffi.User32.INPUT;
-import de.bwravencl.controllerbuddy.ffi.User32.INPUT.MOUSEINPUT;
 import de.bwravencl.controllerbuddy.ffi.VjoyInterface;
 import de.bwravencl.controllerbuddy.gui.GuiUtils;
 import de.bwravencl.controllerbuddy.gui.Main;
@@ -28,60 +24,40 @@ import de.bwravencl.controllerbuddy.input.Input;
 import de.bwravencl.controllerbuddy.input.Keystroke;
 import de.bwravencl.controllerbuddy.input.LockKey;
 import de.bwravencl.controllerbuddy.input.Scancode;
+import de.bwravencl.controllerbuddy.input.VirtualAxis;
 import de.bwravencl.controllerbuddy.input.action.ToButtonAction;
-import de.bwravencl.controllerbuddy.runmode.UinputDevice.DeviceType;
 import de.bwravencl.controllerbuddy.runmode.UinputDevice.Event;
 import java.awt.EventQueue;
-import java.awt.Toolkit;
-import java.io.File;
 import java.io.IOException;
 import java.lang.foreign.Arena;
-import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
-import java.nio.ByteBuffer;
-import java.nio.channels.FileChannel;
-import java.nio.channels.spi.AbstractInterruptibleChannel;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 import javax.swing.JOptionPane;
-import org.jspecify.annotations.Nullable;
 import org.lwjgl.sdl.SDLVideo;
 
 /// Abstract base class for run modes that produce output to a virtual device.
 ///
 /// OutputRunMode extends [RunMode] with support for writing axes, buttons,
-/// keyboard, mouse, and lock-key state to platform-specific virtual devices
-/// (vJoy on Windows, uinput on Linux). Both [LocalRunMode] and [ClientRunMode]
-/// inherit from this class.
+/// keyboard, mouse, and lock-key state to an [OutputSink]. During
+/// initialization, a sink for the platform-specific virtual devices (vJoy on
+/// Windows, uinput on Linux) is selected. Both [LocalRunMode] and
+/// [ClientRunMode] inherit from this class.
 public abstract class OutputRunMode extends RunMode {
 
 	/// The default vJoy device index.
 	public static final int VJOY_DEFAULT_DEVICE = 1;
 
-	/// Filename of the sysfs brightness file for keyboard LEDs.
-	private static final String SYSFS_BRIGHTNESS_FILENAME = "brightness";
-
-	/// Regex prefix used to match sysfs input subdirectory names.
-	private static final String SYSFS_INPUT_DIR_REGEX_PREFIX = "input\\d+::";
-
-	/// Path to the sysfs LED class directory.
-	private static final String SYSFS_LEDS_DIR = File.separator + "sys" + File.separator + "class" + File.separator
-			+ "leds";
-
-	/// The scroll wheel delta value used per scroll click on Windows.
-	private static final int WHEEL_DELTA = 120;
+	/// Exclusive upper bound of the mouse button numbers, matching the width of
+	/// the mouse button bitmasks of [Input].
+	static final int MOUSE_BUTTON_CAPACITY = Integer.SIZE;
 
 	private static final Logger logger = Logger.getLogger(OutputRunMode.class.getName());
 
@@ -113,40 +89,41 @@ public abstract class OutputRunMode extends RunMode {
 	final Set<Keystroke> downUpKeystrokes = new HashSet<>();
 
 	/// Mouse buttons that should be pressed and immediately released this cycle.
-	final Set<Integer> downUpMouseButtons = new HashSet<>();
+	final DenseBitSet downUpMouseButtons = new DenseBitSet(MOUSE_BUTTON_CAPACITY);
 
-	/// Modifier scancodes newly pressed since the last output cycle.
-	final Set<Scancode> newDownModifiers = new HashSet<>();
+	/// Key codes of the modifier keys newly pressed since the last output cycle.
+	final DenseBitSet newDownModifiers = new DenseBitSet(Scancode.NUM_KEY_CODES);
 
 	/// Mouse buttons newly pressed since the last output cycle.
-	final Set<Integer> newDownMouseButtons = new HashSet<>();
+	final DenseBitSet newDownMouseButtons = new DenseBitSet(MOUSE_BUTTON_CAPACITY);
 
-	/// Normal (non-modifier) key scancodes newly pressed since the last output
-	/// cycle.
-	final Set<Scancode> newDownNormalKeys = new HashSet<>();
+	/// Key codes of the normal (non-modifier) keys newly pressed since the last
+	/// output cycle.
+	final DenseBitSet newDownNormalKeys = new DenseBitSet(Scancode.NUM_KEY_CODES);
 
-	/// Modifier scancodes newly released since the last output cycle.
-	final Set<Scancode> newUpModifiers = new HashSet<>();
+	/// Key codes of the modifier keys newly released since the last output cycle.
+	final DenseBitSet newUpModifiers = new DenseBitSet(Scancode.NUM_KEY_CODES);
 
 	/// Mouse buttons newly released since the last output cycle.
-	final Set<Integer> newUpMouseButtons = new HashSet<>();
+	final DenseBitSet newUpMouseButtons = new DenseBitSet(MOUSE_BUTTON_CAPACITY);
 
-	/// Normal (non-modifier) key scancodes newly released since the last output
-	/// cycle.
-	final Set<Scancode> newUpNormalKeys = new HashSet<>();
+	/// Key codes of the normal (non-modifier) keys newly released since the last
+	/// output cycle.
+	final DenseBitSet newUpNormalKeys = new DenseBitSet(Scancode.NUM_KEY_CODES);
 
 	/// Lock keys that should be turned off this cycle.
 	final Set<LockKey> offLockKeys = new HashSet<>();
 
-	/// Modifier scancodes that were pressed in the previous output cycle.
-	final Set<Scancode> oldDownModifiers = new HashSet<>();
+	/// Key codes of the modifier keys that were pressed in the previous output
+	/// cycle.
+	final DenseBitSet oldDownModifiers = new DenseBitSet(Scancode.NUM_KEY_CODES);
 
 	/// Mouse buttons that were pressed in the previous output cycle.
-	final Set<Integer> oldDownMouseButtons = new HashSet<>();
+	final DenseBitSet oldDownMouseButtons = new DenseBitSet(MOUSE_BUTTON_CAPACITY);
 
-	/// Normal (non-modifier) key scancodes that were pressed in the previous
-	/// output cycle.
-	final Set<Scancode> oldDownNormalKeys = new HashSet<>();
+	/// Key codes of the normal (non-modifier) keys that were pressed in the
+	/// previous output cycle.
+	final DenseBitSet oldDownNormalKeys = new DenseBitSet(Scancode.NUM_KEY_CODES);
 
 	/// Lock keys that should be turned on this cycle.
 	final Set<LockKey> onLockKeys = new HashSet<>();
@@ -163,23 +140,15 @@ public abstract class OutputRunMode extends RunMode {
 	/// Flag indicating that the output loop should stop immediately.
 	boolean forceStop;
 
-	/// Number of scroll wheel clicks to emit this output cycle.
-	int scrollClicks;
-
-	/// Buffer used when writing brightness values to sysfs LED files.
-	private @Nullable ByteBuffer brightnessByteBuffer;
-
-	/// uinput device representing the virtual joystick.
-	private @Nullable UinputDevice joystickUinputDevice;
+	/// Whether held normal keys are repeated by the output sink, so that only
+	/// their presses and releases are emitted.
+	boolean heldKeysRepeatedBySink;
 
-	/// uinput device representing the virtual keyboard.
-	private @Nullable UinputDevice keyboardUinputDevice;
+	/// Destination of the output, selected during initialization.
+	OutputSink outputSink = new NullOutputSink();
 
-	/// Maps lock keys to the sysfs file channels used to control their LEDs.
-	private @Nullable Map<LockKey, FileChannel> lockKeyToBrightnessFileChannelMap;
-
-	/// uinput device representing the virtual mouse.
-	private @Nullable UinputDevice mouseUinputDevice;
+	/// Number of scroll wheel clicks to emit this output cycle.
+	int scrollClicks;
 
 	/// Timestamp of the previous keyboard input event in nanoseconds.
 	private long prevKeyInputTime;
@@ -202,15 +171,6 @@ public abstract class OutputRunMode extends RunMode {
 		}
 	}
 
-	/// Builds an [IllegalArgumentException] describing an invalid mouse button
-	/// number.
-	///
-	/// @param button the invalid mouse button value
-	/// @return the constructed exception
-	private static IllegalArgumentException buildInvalidMouseButtonException(final int button) {
-		return new IllegalArgumentException("Parameter button has invalid value: " + button);
-	}
-
 	/// Builds an [UnsupportedOperationException] indicating that the current
 	/// platform is not supported.
 	///
@@ -219,54 +179,9 @@ public abstract class OutputRunMode extends RunMode {
 		return new UnsupportedOperationException("Not implemented");
 	}
 
-	/// Sends a single Windows [INPUT] structure via `SendInput` and throws an
-	/// [IOException] if the call fails.
-	///
-	/// @param input the [INPUT] memory segment to send
-	/// @throws IOException if `SendInput` returns 0 indicating failure
-	private static void sendInputChecked(final MemorySegment input) throws IOException {
-		if (User32.SendInput(1, MemorySegment.ofAddress(input.address()), (int) INPUT.LAYOUT.byteSize()) == 0) {
-			throw new IOException("SendInput failed: " + Kernel32.GetLastError());
-		}
-	}
-
-	/// Updates the output key/button sets by computing newly pressed and released
-	/// elements.
-	///
-	/// Compares the current source set against the previous down set to determine
-	/// which elements are newly down, still down, or newly up.
-	///
-	/// @param sourceSet the current set of active elements
-	/// @param oldDownSet the set of elements that were down in the previous cycle
-	/// (mutated in place)
-	/// @param newUpSet the set to populate with newly released elements
-	/// @param newDownSet the set to populate with newly pressed elements
-	/// @param keepStillDown if true, elements still held down are added to
-	/// newDownSet
-	/// @param <T> the element type
-	static <T> void updateOutputSets(final Set<T> sourceSet, final Set<T> oldDownSet, final Set<T> newUpSet,
-			final Set<T> newDownSet, final boolean keepStillDown) {
-		newUpSet.clear();
-		newDownSet.clear();
-
-		newUpSet.addAll(oldDownSet);
-		newUpSet.removeAll(sourceSet);
-
-		oldDownSet.removeAll(newUpSet);
-
-		newDownSet.addAll(sourceSet);
-		newDownSet.removeAll(oldDownSet);
-
-		if (keepStillDown) {
-			newDownSet.addAll(oldDownSet);
-		}
-
-		oldDownSet.addAll(newDownSet);
-	}
-
 	/// Tears down the output device, releases all held keys and mouse buttons,
-	/// relinquishes the virtual device, and schedules any necessary follow-up
-	/// actions on the event dispatch thread.
+	/// closes the output sink, and schedules any necessary follow-up actions on
+	/// the event dispatch thread.
 	final void deInit() {
 		input.reset();
 		input.deInit();
@@ -277,67 +192,39 @@ public abstract class OutputRunMode extends RunMode {
 			}
 		}
 
-		for (final var mouseButton : oldDownMouseButtons) {
-			try {
-				doMouseButtonInput(mouseButton, false);
-			} catch (final IOException e) {
-				logger.log(Level.WARNING, e.getMessage(), e);
-			}
+		try {
+			doMouseButtonInput(oldDownMouseButtons, false);
+		} catch (final IOException e) {
+			logger.log(Level.WARNING, e.getMessage(), e);
 		}
 
-		for (final var scancode : oldDownNormalKeys) {
-			try {
-				doKeyboardInput(scancode, false);
-			} catch (final IOException e) {
-				logger.log(Level.WARNING, e.getMessage(), e);
-			}
+		try {
+			doKeyboardInput(oldDownNormalKeys, false);
+		} catch (final IOException e) {
+			logger.log(Level.WARNING, e.getMessage(), e);
 		}
 
-		for (final var scancode : oldDownModifiers) {
-			try {
-				doKeyboardInput(scancode, false);
-			} catch (final IOException e) {
-				logger.log(Level.WARNING, e.getMessage(), e);
-			}
+		try {
+			doKeyboardInput(oldDownModifiers, false);
+		} catch (final IOException e) {
+			logger.log(Level.WARNING, e.getMessage(), e);
 		}
 
-		if (Main.IS_WINDOWS) {
-			if (VjoyInterface.isInitialized()) {
-				VjoyInterface.ResetButtons(vJoyDevice);
-				VjoyInterface.ResetVJD(vJoyDevice);
-				VjoyInterface.RelinquishVJD(vJoyDevice);
-			}
+		try {
+			outputSink.close();
+		} catch (final IOException e) {
+			logger.log(Level.WARNING, e.getMessage(), e);
+		}
+		outputSink = new NullOutputSink();
 
+		if (Main.IS_WINDOWS) {
 			EventQueue.invokeLater(() -> main.setStatusBarText(
 					MessageFormat.format(Main.strings.getString("STATUS_DISCONNECTED_FROM_VJOY_DEVICE"), vJoyDevice)));
 		} else if (Main.IS_LINUX) {
-			if (joystickUinputDevice != null) {
-				for (final var event : Event.joystickEvents) {
-					try {
-						joystickUinputDevice.emit(event, 0, true);
-					} catch (final IOException e) {
-						logger.log(Level.WARNING, e.getMessage(), e);
-					}
-				}
-			}
-
 			EventQueue.invokeLater(
 					() -> main.setStatusBarText(Main.strings.getString("STATUS_DISCONNECTED_FROM_UINPUT_DEVICES")));
 		}
 
-		if (lockKeyToBrightnessFileChannelMap != null) {
-			lockKeyToBrightnessFileChannelMap.values().stream().filter(AbstractInterruptibleChannel::isOpen)
-					.forEach(channel -> {
-						try {
-							channel.close();
-						} catch (final IOException e) {
-							logger.log(Level.WARNING, e.getMessage(), e);
-						}
-					});
-			lockKeyToBrightnessFileChannelMap = null;
-		}
-		brightnessByteBuffer = null;
-
 		EventQueue.invokeLater(() -> {
 			if (forceStop || restart) {
 				main.stopAll(false, !restart, true);
@@ -351,91 +238,27 @@ public abstract class OutputRunMode extends RunMode {
 		});
 	}
 
-	/// Sends a keyboard key press or release event for the given scancode.
-	///
-	/// On Windows this uses `SendInput` with the scancode; on Linux it emits
-	/// the corresponding uinput event to the keyboard device.
+	/// Sends a keyboard key press or release event for each key code contained in
+	/// the given set.
 	///
-	/// @param scancode the scancode of the key to press or release
-	/// @param down `true` to press the key, `false` to release it
-	/// @throws IOException if sending the input event fails
-	private void doKeyboardInput(final Scancode scancode, final boolean down) throws IOException {
-		if (Main.IS_WINDOWS) {
-			try (final var arena = Arena.ofConfined()) {
-				final var input = arena.allocate(INPUT.LAYOUT);
-				INPUT.setType(input, INPUT.INPUT_KEYBOARD);
-				final var ki = INPUT.getKi(input);
-				INPUT.KEYBDINPUT.setWScan(ki, (short) scancode.keyCode());
-				var flags = (down ? 0 : INPUT.KEYBDINPUT.KEYEVENTF_KEYUP) | INPUT.KEYBDINPUT.KEYEVENTF_SCANCODE;
-				if (Scancode.EXTENDED_KEY_SCAN_CODES_SET.contains(scancode.keyCode())) {
-					flags |= INPUT.KEYBDINPUT.KEYEVENTF_EXTENDEDKEY;
-				}
-				INPUT.KEYBDINPUT.setDwFlags(ki, flags);
-
-				sendInputChecked(input);
-			}
-		} else if (Main.IS_LINUX) {
-			Objects.requireNonNull(keyboardUinputDevice, "Field keyboardUinputDevice must not be null");
-
-			keyboardUinputDevice.emit(scancode.event(), down ? 1 : 0, true);
-		} else {
-			throw buildNotImplementedException();
+	/// @param keyCodes the key codes of the keys to press or release
+	/// @param down `true` to press the keys, `false` to release them
+	/// @throws IOException if sending an input event fails
+	private void doKeyboardInput(final DenseBitSet keyCodes, final boolean down) throws IOException {
+		for (var keyCode = keyCodes.nextSetBit(0); keyCode >= 0; keyCode = keyCodes.nextSetBit(keyCode + 1)) {
+			outputSink.setKey(Objects.requireNonNull(Scancode.forKeyCode(keyCode), "Invalid key code"), down);
 		}
 	}
 
-	/// Sends a mouse button press or release event for the given button number.
-	///
-	/// Button numbers 1-5 correspond to left, right, middle, side, and extra
-	/// buttons. On Windows this uses `SendInput`; on Linux it emits the
-	/// corresponding uinput event to the mouse device.
+	/// Sends a mouse button press or release event for each button number
+	/// contained in the given set.
 	///
-	/// @param button the mouse button number (1-5)
-	/// @param down `true` to press the button, `false` to release it
-	/// @throws IOException if sending the input event fails
-	private void doMouseButtonInput(final int button, final boolean down) throws IOException {
-		if (Main.IS_WINDOWS) {
-			try (final var arena = Arena.ofConfined()) {
-				final var input = arena.allocate(INPUT.LAYOUT);
-				INPUT.setType(input, INPUT.INPUT_MOUSE);
-				final var mi = INPUT.getMi(input);
-
-				switch (button) {
-				case 1 -> INPUT.MOUSEINPUT.setDwFlags(mi,
-						down ? INPUT.MOUSEINPUT.MOUSEEVENTF_LEFTDOWN : INPUT.MOUSEINPUT.MOUSEEVENTF_LEFTUP);
-				case 2 -> INPUT.MOUSEINPUT.setDwFlags(mi,
-						down ? INPUT.MOUSEINPUT.MOUSEEVENTF_RIGHTDOWN : INPUT.MOUSEINPUT.MOUSEEVENTF_RIGHTUP);
-				case 3 -> INPUT.MOUSEINPUT.setDwFlags(mi,
-						down ? INPUT.MOUSEINPUT.MOUSEEVENTF_MIDDLEDOWN : INPUT.MOUSEINPUT.MOUSEEVENTF_MIDDLEUP);
-				case 4 -> {
-					INPUT.MOUSEINPUT.setMouseData(mi, MOUSEINPUT.XBUTTON1);
-					INPUT.MOUSEINPUT.setDwFlags(mi,
-							down ? INPUT.MOUSEINPUT.MOUSEEVENTF_XDOWN : INPUT.MOUSEINPUT.MOUSEEVENTF_XUP);
-				}
-				case 5 -> {
-					INPUT.MOUSEINPUT.setMouseData(mi, MOUSEINPUT.XBUTTON2);
-					INPUT.MOUSEINPUT.setDwFlags(mi,
-							down ? INPUT.MOUSEINPUT.MOUSEEVENTF_XDOWN : INPUT.MOUSEINPUT.MOUSEEVENTF_XUP);
-				}
-				default -> throw buildInvalidMouseButtonException(button);
-				}
-
-				sendInputChecked(input);
-			}
-		} else if (Main.IS_LINUX) {
-			Objects.requireNonNull(mouseUinputDevice, "Field mouseUinputDevice must not be null");
-
-			final var eventCode = switch (button) {
-			case 1 -> Event.BTN_LEFT;
-			case 2 -> Event.BTN_RIGHT;
-			case 3 -> Event.BTN_MIDDLE;
-			case 4 -> Event.BTN_SIDE;
-			case 5 -> Event.BTN_EXTRA;
-			default -> throw buildInvalidMouseButtonException(button);
-			};
-
-			mouseUinputDevice.emit(eventCode, down ? 1 : 0, true);
-		} else {
-			throw buildNotImplementedException();
+	/// @param buttons the numbers of the mouse buttons to press or release
+	/// @param down `true` to press the buttons, `false` to release them
+	/// @throws IOException if sending an input event fails
+	private void doMouseButtonInput(final DenseBitSet buttons, final boolean down) throws IOException {
+		for (var button = buttons.nextSetBit(0); button >= 0; button = buttons.nextSetBit(button + 1)) {
+			outputSink.setMouseButton(button, down);
 		}
 	}
 
@@ -604,6 +427,8 @@ public abstract class OutputRunMode extends RunMode {
 				return false;
 			}
 
+			outputSink = new VjoyOutputSink(vJoyDevice);
+
 			if (!VjoyInterface.ResetVJD(vJoyDevice)) {
 				logger.warning("Could not reset vJoy device");
 				EventQueue
@@ -649,12 +474,19 @@ public abstract class OutputRunMode extends RunMode {
 				return false;
 			}
 
+			final UinputOutputSink uinputOutputSink;
 			try {
-				joystickUinputDevice = UinputDevice.openUinputDevice(DeviceType.JOYSTICK);
+				uinputOutputSink = new UinputOutputSink();
+				outputSink = uinputOutputSink;
 				minAxisValue = Short.MIN_VALUE;
 				maxAxisValue = Short.MAX_VALUE;
-				mouseUinputDevice = UinputDevice.openUinputDevice(DeviceType.MOUSE);
-				keyboardUinputDevice = UinputDevice.openUinputDevice(DeviceType.KEYBOARD);
+
+				try {
+					uinputOutputSink.setKeyRepeatRate(input.getProfile().getKeyRepeatRate());
+				} catch (final IOException e) {
+					logger.log(Level.WARNING, "Falling back to repeating keys in userspace", e);
+				}
+				heldKeysRepeatedBySink = uinputOutputSink.repeatsHeldKeys();
 
 				EventQueue.invokeLater(
 						() -> main.setStatusBarText(Main.strings.getString("STATUS_CONNECTED_TO_UINPUT_DEVICES")));
@@ -668,27 +500,7 @@ public abstract class OutputRunMode extends RunMode {
 			}
 
 			try {
-				lockKeyToBrightnessFileChannelMap = LockKey.LOCK_KEYS.stream()
-						.collect(Collectors.toUnmodifiableMap(lockKey -> lockKey, lockKey -> {
-							try (final var filesStream = Files.list(Path.of(SYSFS_LEDS_DIR))) {
-								final var brightnessPath = filesStream.sorted().filter(p -> {
-									final var fileName = p.getFileName();
-									return fileName != null && fileName.toString()
-											.matches(SYSFS_INPUT_DIR_REGEX_PREFIX + lockKey.sysfsLedName());
-								}).findFirst()
-										.orElseThrow(() -> new RuntimeException(
-												"No brightness file for " + lockKey.sysfsLedName() + " LED"))
-										.resolve(SYSFS_BRIGHTNESS_FILENAME);
-
-								if (!Files.isRegularFile(brightnessPath) || !Files.isReadable(brightnessPath)) {
-									throw new IOException("Unable to read: " + brightnessPath);
-								}
-
-								return FileChannel.open(brightnessPath, StandardOpenOption.READ);
-							} catch (final IOException e) {
-								throw new RuntimeException(e);
-							}
-						}));
+				uinputOutputSink.openLockKeyLeds();
 			} catch (final Exception e) {
 				logger.log(Level.WARNING, e.getMessage(), e);
 
@@ -697,8 +509,6 @@ public abstract class OutputRunMode extends RunMode {
 						Main.strings.getString("ERROR_DIALOG_TITLE"), JOptionPane.ERROR_MESSAGE));
 				return false;
 			}
-
-			brightnessByteBuffer = ByteBuffer.allocateDirect(1);
 		} else {
 			throw buildNotImplementedException();
 		}
@@ -730,57 +540,6 @@ public abstract class OutputRunMode extends RunMode {
 		return true;
 	}
 
-	/// Ensures the given lock key (Caps Lock, Num Lock, Scroll Lock) is in the
-	/// requested state.
-	///
-	/// On Windows the locking state is toggled via the Java [Toolkit] if it does
-	/// not already match. On Linux the sysfs LED brightness file is read to
-	/// determine the current state, and a key-press/release pair is emitted if
-	/// a change is needed.
-	///
-	/// @param lockKey the lock key to control
-	/// @param on `true` to turn the lock key on, `false` to turn it off
-	/// @throws IOException if reading the sysfs brightness file or emitting
-	/// the uinput event fails
-	private void setLockKeyState(final LockKey lockKey, final boolean on) throws IOException {
-		if (Main.IS_WINDOWS) {
-			final var virtualKeyCode = lockKey.virtualKeyCode();
-
-			final var state = (User32.GetKeyState(virtualKeyCode) & 0x1) != 0;
-			if (state != on) {
-				final var toolkit = Toolkit.getDefaultToolkit();
-
-				toolkit.setLockingKeyState(virtualKeyCode, true);
-				toolkit.setLockingKeyState(virtualKeyCode, false);
-			}
-		} else if (Main.IS_LINUX) {
-			Objects.requireNonNull(brightnessByteBuffer, "Field brightnessByteBuffer must not be null");
-			Objects.requireNonNull(keyboardUinputDevice, "Field keyboardUinputDevice must not be null");
-			Objects.requireNonNull(lockKeyToBrightnessFileChannelMap,
-					"Field lockKeyToBrightnessFileChannelMap must not be null");
-
-			final var brightnessFileChannel = lockKeyToBrightnessFileChannelMap.get(lockKey);
-			if (brightnessFileChannel == null) {
-				throw new IllegalStateException("No brightness file channel for " + lockKey.sysfsLedName() + " LED");
-			}
-
-			brightnessByteBuffer.clear();
-
-			final var bytesRead = brightnessFileChannel.read(brightnessByteBuffer, 0);
-			if (bytesRead == -1) {
-				throw new IOException("Brightness file is empty");
-			}
-
-			final var ledState = brightnessByteBuffer.get(0);
-			if (ledState != (on ? (byte) '1' : (byte) '0')) {
-				keyboardUinputDevice.emit(lockKey.event(), 1, true);
-				keyboardUinputDevice.emit(lockKey.event(), 0, true);
-			}
-		} else {
-			throw buildNotImplementedException();
-		}
-	}
-
 	@Override
 	final void setNumButtons(final int numButtons) {
 		super.setNumButtons(numButtons);
@@ -793,236 +552,118 @@ public abstract class OutputRunMode extends RunMode {
 		}
 	}
 
-	/// Writes all changed axis, button, keyboard, mouse, and lock-key values to
-	/// the virtual output device.
+	/// Reconfigures the output sink with the key repeat rate of the current
+	/// profile, if the sink repeats held keys by itself.
 	///
-	/// Only values that have changed since the last write operation are sent;
-	/// unchanged values are skipped. On Windows, a warning is shown if any vJoy
-	/// write operation fails.
-	@SuppressWarnings("NullAway")
-	final void writeOutput() {
-		if (Main.IS_LINUX) {
-			Objects.requireNonNull(joystickUinputDevice, "Field joystickUinputDevice must not be null");
-			Objects.requireNonNull(keyboardUinputDevice, "Field keyboardUinputDevice must not be null");
-			Objects.requireNonNull(mouseUinputDevice, "Field mouseUinputDevice must not be null");
-			Objects.requireNonNull(brightnessByteBuffer, "Field brightnessByteBuffer must not be null");
+	/// The rate is configured once by [#init()], this only needs to be called
+	/// after the key repeat rate of the profile has been changed while the run
+	/// mode is active. Must be called from the main loop thread.
+	public final void updateKeyRepeatRate() {
+		if (!heldKeysRepeatedBySink) {
+			return;
 		}
 
-		var writeSucessful = true;
-
 		try {
-			if (axisX.isChanged()) {
-				if (Main.IS_WINDOWS) {
-					writeSucessful &= VjoyInterface.SetAxis(axisX.get(), vJoyDevice, VjoyInterface.HID_USAGE_X);
-				} else if (Main.IS_LINUX) {
-					joystickUinputDevice.emit(Event.ABS_X, axisX.get(), true);
-				} else {
-					throw buildNotImplementedException();
-				}
-
-				axisX.setUnchanged();
-			}
-
-			if (axisY.isChanged()) {
-				if (Main.IS_WINDOWS) {
-					writeSucessful &= VjoyInterface.SetAxis(axisY.get(), vJoyDevice, VjoyInterface.HID_USAGE_Y);
-				} else if (Main.IS_LINUX) {
-					joystickUinputDevice.emit(Event.ABS_Y, axisY.get(), true);
-				} else {
-					throw buildNotImplementedException();
-				}
-
-				axisY.setUnchanged();
-			}
-
-			if (axisZ.isChanged()) {
-				if (Main.IS_WINDOWS) {
-					writeSucessful &= VjoyInterface.SetAxis(axisZ.get(), vJoyDevice, VjoyInterface.HID_USAGE_Z);
-				} else if (Main.IS_LINUX) {
-					joystickUinputDevice.emit(Event.ABS_Z, axisZ.get(), true);
-				} else {
-					throw buildNotImplementedException();
-				}
-
-				axisZ.setUnchanged();
-			}
-
-			if (axisRX.isChanged()) {
-				if (Main.IS_WINDOWS) {
-					writeSucessful &= VjoyInterface.SetAxis(axisRX.get(), vJoyDevice, VjoyInterface.HID_USAGE_RX);
-				} else if (Main.IS_LINUX) {
-					joystickUinputDevice.emit(Event.ABS_RX, axisRX.get(), true);
-				} else {
-					throw buildNotImplementedException();
-				}
-
-				axisRX.setUnchanged();
-			}
-
-			if (axisRY.isChanged()) {
-				if (Main.IS_WINDOWS) {
-					writeSucessful &= VjoyInterface.SetAxis(axisRY.get(), vJoyDevice, VjoyInterface.HID_USAGE_RY);
-				} else if (Main.IS_LINUX) {
-					joystickUinputDevice.emit(Event.ABS_RY, axisRY.get(), true);
-				} else {
-					throw buildNotImplementedException();
-				}
-
-				axisRY.setUnchanged();
-			}
-
-			if (axisRZ.isChanged()) {
-				if (Main.IS_WINDOWS) {
-					writeSucessful &= VjoyInterface.SetAxis(axisRZ.get(), vJoyDevice, VjoyInterface.HID_USAGE_RZ);
-				} else if (Main.IS_LINUX) {
-					joystickUinputDevice.emit(Event.ABS_RZ, axisRZ.get(), true);
-				} else {
-					throw buildNotImplementedException();
-				}
-
-				axisRZ.setUnchanged();
-			}
-
-			if (axisS0.isChanged()) {
-				if (Main.IS_WINDOWS) {
-					writeSucessful &= VjoyInterface.SetAxis(axisS0.get(), vJoyDevice, VjoyInterface.HID_USAGE_SL0);
-				} else if (Main.IS_LINUX) {
-					joystickUinputDevice.emit(Event.ABS_THROTTLE, axisS0.get(), true);
-				} else {
-					throw buildNotImplementedException();
-				}
+			outputSink.setKeyRepeatRate(input.getProfile().getKeyRepeatRate());
+		} catch (final IOException e) {
+			logger.log(Level.WARNING, e.getMessage(), e);
+		}
+	}
 
-				axisS0.setUnchanged();
-			}
+	/// Writes the given axis value to the output sink if it has changed.
+	///
+	/// @param virtualAxis the axis to write
+	/// @param axisValue the current value of the axis
+	/// @throws IOException if writing the axis value fails
+	private void writeAxis(final VirtualAxis virtualAxis, final DeviceValue axisValue) throws IOException {
+		if (axisValue.isChanged()) {
+			outputSink.setAxis(virtualAxis, axisValue.get());
+			axisValue.setUnchanged();
+		}
+	}
 
-			if (axisS1.isChanged()) {
-				if (Main.IS_WINDOWS) {
-					writeSucessful &= VjoyInterface.SetAxis(axisS1.get(), vJoyDevice, VjoyInterface.HID_USAGE_SL1);
-				} else if (Main.IS_LINUX) {
-					joystickUinputDevice.emit(Event.ABS_RUDDER, axisS1.get(), true);
-				} else {
-					throw buildNotImplementedException();
-				}
+	/// Writes all changed axis, button, keyboard, mouse, and lock-key values to
+	/// the output sink.
+	///
+	/// Only values that have changed since the last write operation are sent;
+	/// unchanged values are skipped. The frame is ended by flushing the sink, so
+	/// that buffering sinks can deliver the changes of a frame at once. If
+	/// writing fails, the user is asked whether the run mode should restart.
+	final void writeOutput() {
+		var writeSucessful = true;
 
-				axisS1.setUnchanged();
-			}
+		try {
+			writeAxis(VirtualAxis.X, axisX);
+			writeAxis(VirtualAxis.Y, axisY);
+			writeAxis(VirtualAxis.Z, axisZ);
+			writeAxis(VirtualAxis.RX, axisRX);
+			writeAxis(VirtualAxis.RY, axisRY);
+			writeAxis(VirtualAxis.RZ, axisRZ);
+			writeAxis(VirtualAxis.S0, axisS0);
+			writeAxis(VirtualAxis.S1, axisS1);
 
 			for (var i = 0; i < buttons.length; i++) {
 				if (buttons[i].isChanged()) {
-					if (Main.IS_WINDOWS) {
-						writeSucessful &= VjoyInterface.SetBtn(buttons[i].get() != 0, vJoyDevice, (byte) (i + 1));
-					} else if (Main.IS_LINUX) {
-						joystickUinputDevice.emit(Event.joystickButtonEvents[i], buttons[i].get(), true);
-					} else {
-						throw buildNotImplementedException();
-					}
-
+					outputSink.setButton(i, buttons[i].get() != 0);
 					buttons[i].setUnchanged();
 				}
 			}
 
-			final var moveCursorOnXAxis = cursorDeltaX != 0;
-			final var moveCursorOnYAxis = cursorDeltaY != 0;
-			if (moveCursorOnXAxis || moveCursorOnYAxis) {
-				if (Main.IS_WINDOWS) {
-					try (final var arena = Arena.ofConfined()) {
-						final var input = arena.allocate(INPUT.LAYOUT);
-						INPUT.setType(input, INPUT.INPUT_MOUSE);
-						final var mi = INPUT.getMi(input);
-						INPUT.MOUSEINPUT.setDx(mi, cursorDeltaX);
-						INPUT.MOUSEINPUT.setDy(mi, cursorDeltaY);
-						INPUT.MOUSEINPUT.setDwFlags(mi, INPUT.MOUSEINPUT.MOUSEEVENTF_MOVE);
-
-						sendInputChecked(input);
-					}
-				} else if (Main.IS_LINUX) {
-					if (moveCursorOnXAxis) {
-						mouseUinputDevice.emit(Event.REL_X, cursorDeltaX, false);
-					}
-					if (moveCursorOnYAxis) {
-						mouseUinputDevice.emit(Event.REL_Y, cursorDeltaY, false);
-					}
-					mouseUinputDevice.syn();
-				} else {
-					throw buildNotImplementedException();
-				}
-			}
-
-			for (final var mouseButton : newUpMouseButtons) {
-				doMouseButtonInput(mouseButton, false);
-			}
-
-			for (final var mouseButton : newDownMouseButtons) {
-				doMouseButtonInput(mouseButton, true);
+			if (cursorDeltaX != 0 || cursorDeltaY != 0) {
+				outputSink.moveCursor(cursorDeltaX, cursorDeltaY);
 			}
 
-			for (final var mouseButton : downUpMouseButtons) {
-				doMouseButtonInput(mouseButton, true);
-				doMouseButtonInput(mouseButton, false);
-			}
+			doMouseButtonInput(newUpMouseButtons, false);
+			doMouseButtonInput(newDownMouseButtons, true);
 
-			for (final var scancode : newUpNormalKeys) {
-				doKeyboardInput(scancode, false);
+			for (var mouseButton = downUpMouseButtons.nextSetBit(0); mouseButton >= 0; mouseButton = downUpMouseButtons
+					.nextSetBit(mouseButton + 1)) {
+				outputSink.tapMouseButton(mouseButton);
 			}
 
-			for (final var scancode : newUpModifiers) {
-				doKeyboardInput(scancode, false);
-			}
+			doKeyboardInput(newUpNormalKeys, false);
+			doKeyboardInput(newUpModifiers, false);
 
-			for (final var scancode : offLockKeys) {
-				setLockKeyState(scancode, false);
+			for (final var lockKey : offLockKeys) {
+				outputSink.setLockKeyState(lockKey, false);
 			}
 
-			for (final var scancode : onLockKeys) {
-				setLockKeyState(scancode, true);
+			for (final var lockKey : onLockKeys) {
+				outputSink.setLockKeyState(lockKey, true);
 			}
 
-			for (final var scancode : newDownModifiers) {
-				doKeyboardInput(scancode, true);
-			}
+			doKeyboardInput(newDownModifiers, true);
 
-			final var currentTimeNanos = System.nanoTime();
-			final var keyRepeatIntervalNanos = Input.NANOS_PER_SECOND / input.getProfile().getKeyRepeatRate();
-			if (currentTimeNanos - prevKeyInputTime > keyRepeatIntervalNanos) {
-				for (final var scancode : newDownNormalKeys) {
-					doKeyboardInput(scancode, true);
+			if (heldKeysRepeatedBySink) {
+				doKeyboardInput(newDownNormalKeys, true);
+			} else {
+				final var currentTimeNanos = System.nanoTime();
+				final var keyRepeatIntervalNanos = Input.NANOS_PER_SECOND / input.getProfile().getKeyRepeatRate();
+				if (currentTimeNanos - prevKeyInputTime > keyRepeatIntervalNanos) {
+					doKeyboardInput(newDownNormalKeys, true);
+					prevKeyInputTime = currentTimeNanos;
 				}
-
-				prevKeyInputTime = currentTimeNanos;
 			}
 
 			for (final var keystroke : downUpKeystrokes) {
 				for (final var scancode : keystroke.getModifierCodes()) {
-					doKeyboardInput(scancode, true);
+					outputSink.setKey(scancode, true);
 				}
 
 				for (final var scancode : keystroke.getKeyCodes()) {
-					doKeyboardInput(scancode, true);
-					doKeyboardInput(scancode, false);
+					outputSink.tapKey(scancode);
 				}
 
 				for (final var scancode : keystroke.getModifierCodes()) {
-					doKeyboardInput(scancode, false);
+					outputSink.setKey(scancode, false);
 				}
 			}
 
 			if (scrollClicks != 0) {
-				if (Main.IS_WINDOWS) {
-					try (final var arena = Arena.ofConfined()) {
-						final var input = arena.allocate(INPUT.LAYOUT);
-						INPUT.setType(input, INPUT.INPUT_MOUSE);
-						final var mi = INPUT.getMi(input);
-						INPUT.MOUSEINPUT.setMouseData(mi, scrollClicks * WHEEL_DELTA);
-						INPUT.MOUSEINPUT.setDwFlags(mi, INPUT.MOUSEINPUT.MOUSEEVENTF_WHEEL);
-
-						sendInputChecked(input);
-					}
-				} else if (Main.IS_LINUX) {
-					mouseUinputDevice.emit(Event.REL_WHEEL, scrollClicks, true);
-				} else {
-					throw buildNotImplementedException();
-				}
+				outputSink.scroll(scrollClicks);
 			}
+
+			outputSink.flush();
 		} catch (final IOException e) {
 			logger.log(Level.WARNING, e.getMessage(), e);
 			writeSucessful = false;
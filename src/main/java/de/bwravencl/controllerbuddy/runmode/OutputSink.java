@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import de.bwravencl.controllerbuddy.input.LockKey;
+import de.bwravencl.controllerbuddy.input.Scancode;
+import de.bwravencl.controllerbuddy.input.VirtualAxis;
+import java.io.Closeable;
+import java.io.IOException;
+
+/// Destination of the output of an [OutputRunMode].
+///
+/// An [OutputRunMode] selects its sink once during initialization, so that
+/// writing the output of a frame does not depend on the platform. Besides the
+/// sinks for the virtual devices of each platform, there are sinks that record
+/// or discard the output, which allow the output stage to run without any
+/// virtual device.
+///
+/// Implementations may buffer the output of a frame until [#flush()] is
+/// called.
+interface OutputSink extends Closeable {
+
+	/// Builds an [IllegalArgumentException] describing an invalid mouse button
+	/// number.
+	///
+	/// @param button the invalid mouse button value
+	/// @return the constructed exception
+	static IllegalArgumentException buildInvalidMouseButtonException(final int button) {
+		return new IllegalArgumentException("Parameter button has invalid value: " + button);
+	}
+
+	/// Ends the current frame and writes all buffered output.
+	///
+	/// @throws IOException if writing the output fails
+	void flush() throws IOException;
+
+	/// Moves the mouse cursor relative to its current position.
+	///
+	/// @param deltaX the horizontal movement
+	/// @param deltaY the vertical movement
+	/// @throws IOException if the movement cannot be sent
+	void moveCursor(int deltaX, int deltaY) throws IOException;
+
+	/// Returns whether the sink repeats held keys by itself, so that only their
+	/// presses and releases must be sent.
+	///
+	/// @return `true` if held keys are repeated by the sink
+	default boolean repeatsHeldKeys() {
+		return false;
+	}
+
+	/// Turns the scroll wheel by the given number of clicks.
+	///
+	/// @param clicks the number of clicks, positive values scroll up
+	/// @throws IOException if the scroll event cannot be sent
+	void scroll(int clicks) throws IOException;
+
+	/// Sets the value of a virtual joystick axis.
+	///
+	/// @param virtualAxis the axis to set
+	/// @param value the new axis value
+	/// @throws IOException if the value cannot be written
+	void setAxis(VirtualAxis virtualAxis, int value) throws IOException;
+
+	/// Sets the state of a virtual joystick button.
+	///
+	/// @param index the zero-based index of the button
+	/// @param pressed `true` if the button is pressed
+	/// @throws IOException if the state cannot be written
+	void setButton(int index, boolean pressed) throws IOException;
+
+	/// Presses or releases a keyboard key.
+	///
+	/// @param scancode the scancode of the key
+	/// @param down `true` to press the key, `false` to release it
+	/// @throws IOException if the key event cannot be sent
+	void setKey(Scancode scancode, boolean down) throws IOException;
+
+	/// Sets the rate at which held keys are repeated, if the sink repeats held
+	/// keys by itself.
+	///
+	/// @param keyRepeatRate the key repeat rate in hertz
+	/// @throws IOException if the rate cannot be configured
+	default void setKeyRepeatRate(final long keyRepeatRate) throws IOException {
+	}
+
+	/// Ensures that a lock key is in the requested state, toggling it if
+	/// necessary.
+	///
+	/// @param lockKey the lock key
+	/// @param on `true` to turn the lock key on, `false` to turn it off
+	/// @throws IOException if the state cannot be determined or changed
+	void setLockKeyState(LockKey lockKey, boolean on) throws IOException;
+
+	/// Presses or releases a mouse button.
+	///
+	/// Button numbers 1-5 correspond to left, right, middle, side, and extra
+	/// buttons.
+	///
+	/// @param button the mouse button number
+	/// @param down `true` to press the button, `false` to release it
+	/// @throws IOException if the button event cannot be sent
+	void setMouseButton(int button, boolean down) throws IOException;
+
+	/// Presses and immediately releases a keyboard key, such that the press and
+	/// the release are observed separately.
+	///
+	/// @param scancode the scancode of the key
+	/// @throws IOException if the key events cannot be sent
+	void tapKey(Scancode scancode) throws IOException;
+
+	/// Presses and immediately releases a mouse button, such that the press and
+	/// the release are observed separately.
+	///
+	/// @param button the mouse button number
+	/// @throws IOException if the button events cannot be sent
+	void tapMouseButton(int button) throws IOException;
+}
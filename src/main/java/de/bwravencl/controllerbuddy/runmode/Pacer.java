@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/// Strategy for blocking the polling loop until the next poll is due.
+///
+/// Implementations differ in how closely they meet the deadline and in the
+/// amount of CPU time they spend doing so. A pacer may hold native resources
+/// and must be closed once the run mode stops.
+interface Pacer extends Closeable {
+
+	/// Blocks until the given deadline has passed.
+	///
+	/// Returns immediately if the deadline has already passed.
+	///
+	/// @param deadlineNanos the deadline as a [System#nanoTime] value
+	/// @throws IOException if the underlying timer fails
+	/// @throws InterruptedException if the current thread was interrupted while
+	/// waiting
+	void await(long deadlineNanos) throws IOException, InterruptedException;
+
+	@Override
+	default void close() throws IOException {
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import java.util.Locale;
+
+/// Records how punctually the polling loop of a [RunMode] meets its schedule.
+///
+/// For every pair of consecutive polls that were both paced to a deadline, the
+/// achieved period between the two wake-ups and the jitter, i.e. the absolute
+/// difference between the achieved and the scheduled period, are recorded in
+/// [Histogram]s. Polls that were triggered early by input restart the
+/// measurement, as their timing is intentionally irregular. Deadlines that
+/// were missed by one or more whole periods are counted separately.
+final class PacingStatistics {
+
+	/// Nanoseconds per microsecond, used for formatting.
+	private static final double NANOS_PER_MICRO = 1_000d;
+
+	/// Histogram of the absolute differences between achieved and scheduled
+	/// periods in nanoseconds.
+	private final Histogram jitterHistogram = new Histogram();
+
+	/// Histogram of the achieved periods in nanoseconds.
+	private final Histogram periodHistogram = new Histogram();
+
+	/// Whether [#previousDeadlineNanos] and [#previousWakeUpTimeNanos] refer to a
+	/// paced wake-up that directly preceded the next one.
+	private boolean hasPrevious;
+
+	/// Number of periods that were skipped because their deadline was missed.
+	private long numMissedPeriods;
+
+	/// Deadline of the previous paced wake-up in nanoseconds.
+	private long previousDeadlineNanos;
+
+	/// Time of the previous paced wake-up in nanoseconds.
+	private long previousWakeUpTimeNanos;
+
+	/// Returns the histogram of the jitter in nanoseconds.
+	///
+	/// @return the jitter histogram
+	Histogram getJitterHistogram() {
+		return jitterHistogram;
+	}
+
+	/// Returns the number of periods that were skipped because their deadline was
+	/// missed.
+	///
+	/// @return the number of missed periods
+	long getNumMissedPeriods() {
+		return numMissedPeriods;
+	}
+
+	/// Returns the histogram of the achieved periods in nanoseconds.
+	///
+	/// @return the period histogram
+	Histogram getPeriodHistogram() {
+		return periodHistogram;
+	}
+
+	/// Records a wake-up that was paced to the given deadline.
+	///
+	/// @param deadlineNanos the deadline in nanoseconds
+	/// @param wakeUpTimeNanos the time in nanoseconds at which the wait ended
+	void record(final long deadlineNanos, final long wakeUpTimeNanos) {
+		if (hasPrevious) {
+			final var periodNanos = wakeUpTimeNanos - previousWakeUpTimeNanos;
+			periodHistogram.record(periodNanos);
+			jitterHistogram.record(Math.abs(periodNanos - (deadlineNanos - previousDeadlineNanos)));
+		}
+
+		previousDeadlineNanos = deadlineNanos;
+		previousWakeUpTimeNanos = wakeUpTimeNanos;
+		hasPrevious = true;
+	}
+
+	/// Records that the given number of periods were skipped because their
+	/// deadline was missed, and restarts the measurement.
+	///
+	/// @param numPeriods the number of skipped periods
+	void recordMissedPeriods(final long numPeriods) {
+		numMissedPeriods += numPeriods;
+		restart();
+	}
+
+	/// Restarts the measurement, so that the next paced wake-up is not related to
+	/// the previous one.
+	void restart() {
+		hasPrevious = false;
+	}
+
+	@Override
+	public String toString() {
+		final var meanPeriodNanos = periodHistogram.getMean();
+
+		return String.format(Locale.ROOT,
+				"Achieved period: mean %.1f us (%.1f Hz), p50 %.1f us, p99 %.1f us, max %.1f us; jitter: p50 %.1f us, p99 %.1f us, max %.1f us; missed periods: %d",
+				meanPeriodNanos / NANOS_PER_MICRO, meanPeriodNanos > 0d ? 1_000_000_000d / meanPeriodNanos : 0d,
+				periodHistogram.getValueAtPercentile(50d) / NANOS_PER_MICRO,
+				periodHistogram.getValueAtPercentile(99d) / NANOS_PER_MICRO,
+				periodHistogram.getMax() / NANOS_PER_MICRO, jitterHistogram.getValueAtPercentile(50d) / NANOS_PER_MICRO,
+				jitterHistogram.getValueAtPercentile(99d) / NANOS_PER_MICRO,
+				jitterHistogram.getMax() / NANOS_PER_MICRO, numMissedPeriods);
+	}
+}
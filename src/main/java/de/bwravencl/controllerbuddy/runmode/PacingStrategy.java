@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import de.bwravencl.controllerbuddy.gui.Main;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/// Enumeration of the strategies a [RunMode] can use to pace its polling loop.
+///
+/// Each constant stores a numeric ID, which is persisted in the user
+/// preferences, and a localized label.
+public enum PacingStrategy {
+
+	/// Sleeps until the deadline.
+	SLEEP(0, "PACING_STRATEGY_SLEEP"),
+	/// Parks the thread and spins for the last few microseconds before the
+	/// deadline.
+	PARK_SPIN(1, "PACING_STRATEGY_PARK_SPIN"),
+	/// Blocks on a Linux `timerfd`.
+	TIMERFD(2, "PACING_STRATEGY_TIMERFD");
+
+	/// The strategy used if none has been selected or the selected one is not
+	/// available.
+	public static final PacingStrategy DEFAULT = PARK_SPIN;
+
+	private static final Logger logger = Logger.getLogger(PacingStrategy.class.getName());
+
+	/// Numeric ID persisted in user preferences.
+	private final int id;
+
+	/// Localized display label for this strategy.
+	private final String label;
+
+	/// Constructs a [PacingStrategy] constant with the given numeric ID and
+	/// localization key.
+	///
+	/// @param id the numeric ID persisted in user preferences
+	/// @param labelKey the resource-bundle key for the localized display label
+	PacingStrategy(final int id, final String labelKey) {
+		this.id = id;
+		label = Main.strings.getString(labelKey);
+	}
+
+	/// Returns the [PacingStrategy] constant whose ID matches the given value, or
+	/// [#DEFAULT] if no available strategy matches.
+	///
+	/// @param id the numeric ID to look up
+	/// @return the matching [PacingStrategy] constant, or [#DEFAULT]
+	public static PacingStrategy fromId(final int id) {
+		return Arrays.stream(getAvailableValues()).filter(pacingStrategy -> pacingStrategy.id == id).findFirst()
+				.orElse(DEFAULT);
+	}
+
+	/// Returns the strategies that are available on the current platform.
+	///
+	/// @return the available [PacingStrategy] constants
+	public static PacingStrategy[] getAvailableValues() {
+		return Arrays.stream(values()).filter(PacingStrategy::isAvailable).toArray(PacingStrategy[]::new);
+	}
+
+	/// Creates a new [Pacer] implementing this strategy.
+	///
+	/// Falls back to the [#DEFAULT] strategy if the pacer cannot be created.
+	///
+	/// @return the new pacer
+	Pacer createPacer() {
+		return switch (this) {
+		case SLEEP -> new SleepPacer();
+		case PARK_SPIN -> new ParkSpinPacer();
+		case TIMERFD -> {
+			try {
+				yield new TimerFdPacer();
+			} catch (final IOException e) {
+				logger.log(Level.WARNING, e.getMessage(), e);
+				yield DEFAULT.createPacer();
+			}
+		}
+		};
+	}
+
+	/// Returns the numeric ID persisted in user preferences.
+	///
+	/// @return the numeric ID
+	public int getId() {
+		return id;
+	}
+
+	/// Returns whether this strategy is available on the current platform.
+	///
+	/// @return `true` if the strategy can be used
+	private boolean isAvailable() {
+		return this != TIMERFD || Main.IS_LINUX;
+	}
+
+	@Override
+	public String toString() {
+		return label;
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import java.util.concurrent.locks.LockSupport;
+
+/// [Pacer] that parks the thread until shortly before the deadline and then
+/// spins for the remainder.
+///
+/// Parking covers the bulk of the wait without consuming CPU time, while the
+/// final spin window of [#SPIN_WINDOW_NANOS] absorbs the wake-up latency of
+/// the scheduler, so that the deadline is met to within a few microseconds.
+final class ParkSpinPacer implements Pacer {
+
+	/// Time in nanoseconds before the deadline at which parking stops and
+	/// spinning begins.
+	static final long SPIN_WINDOW_NANOS = 100_000L;
+
+	@Override
+	public void await(final long deadlineNanos) throws InterruptedException {
+		for (;;) {
+			final var remainingNanos = deadlineNanos - System.nanoTime();
+			if (remainingNanos <= 0L) {
+				return;
+			}
+
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+
+			if (remainingNanos > SPIN_WINDOW_NANOS) {
+				LockSupport.parkNanos(this, remainingNanos - SPIN_WINDOW_NANOS);
+			} else {
+				Thread.onSpinWait();
+			}
+		}
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import de.bwravencl.controllerbuddy.input.VirtualAxis;
+
+/// Jitter buffer that decouples the axis values written by [ClientRunMode]
+/// from the arrival times of [UpdateMessage] datagrams.
+///
+/// Received axis states are stored together with the capture timestamp of the
+/// server. Output is then played back on the local clock with a delay, and axis
+/// values are linearly interpolated between the two states surrounding the
+/// playout time. The delay adapts to the measured network jitter: it is kept
+/// just large enough that the state following the playout time has usually
+/// arrived, so that late datagrams do not show up as stutter.
+///
+/// The server only sends a state when the input changes, so a long gap between
+/// two states means that the axes were at rest in between. Interpolation is
+/// therefore limited to [#MAX_INTERPOLATION_NANOS] before the newer state.
+///
+/// All storage is preallocated, so that adding and sampling states does not
+/// allocate.
+final class PlayoutBuffer {
+
+	/// Number of states the buffer can hold.
+	private static final int CAPACITY = 64;
+
+	/// Gain of the exponential moving averages used for the jitter and the send
+	/// interval estimates, expressed as a right shift.
+	private static final int ESTIMATE_GAIN_SHIFT = 4;
+
+	/// Factor applied to the jitter estimate when computing the target delay.
+	private static final int JITTER_MULTIPLIER = 3;
+
+	/// Maximum time in nanoseconds over which an axis is interpolated towards a
+	/// newer state.
+	private static final long MAX_INTERPOLATION_NANOS = 20_000_000L;
+
+	/// Maximum playout delay in nanoseconds.
+	private static final long MAX_PLAYOUT_DELAY_NANOS = 100_000_000L;
+
+	/// Gain of the slow upward correction of the base transit time that
+	/// compensates for drift between the clocks of server and client, expressed
+	/// as a right shift.
+	private static final int TRANSIT_DRIFT_GAIN_SHIFT = 10;
+
+	/// Cached array of all virtual axes, indexed by ordinal.
+	private static final VirtualAxis[] VIRTUAL_AXES = VirtualAxis.values();
+
+	/// Number of virtual axes stored per state.
+	private static final int NUM_AXES = VIRTUAL_AXES.length;
+
+	/// Axis values of the buffered states, indexed by slot and
+	/// [VirtualAxis#ordinal()].
+	private final int[][] axes = new int[CAPACITY][NUM_AXES];
+
+	/// Capture timestamps of the buffered states in nanoseconds on the server
+	/// clock, indexed by slot.
+	private final long[] senderTimesNanos = new long[CAPACITY];
+
+	/// Transit time of the state with the shortest transit time seen, corrected
+	/// for clock drift.
+	private long baseTransitNanos;
+
+	/// Current playout delay in nanoseconds, on top of the base transit time.
+	private long delayNanos;
+
+	/// Smoothed interarrival jitter in nanoseconds.
+	private long jitterNanos;
+
+	/// Transit time of the most recently added state.
+	private long lastTransitNanos;
+
+	/// Slot of the newest buffered state.
+	private int newestSlot = -1;
+
+	/// Smoothed interval in nanoseconds between consecutive states sent while the
+	/// input is changing.
+	private long sendIntervalNanos;
+
+	/// Number of buffered states.
+	private int size;
+
+	/// Adds the axis state of a received message.
+	///
+	/// States that are not newer than the newest buffered state are ignored.
+	///
+	/// @param updateMessage the received message
+	/// @param arrivalTimeNanos the local time in nanoseconds at which the message
+	/// arrived
+	void add(final UpdateMessage updateMessage, final long arrivalTimeNanos) {
+		final var senderTimeNanos = updateMessage.getTimestampMicros() * 1_000L;
+		final var transitNanos = arrivalTimeNanos - senderTimeNanos;
+
+		if (size == 0) {
+			baseTransitNanos = transitNanos;
+		} else {
+			final var lastSenderTimeNanos = senderTimesNanos[newestSlot];
+			if (senderTimeNanos <= lastSenderTimeNanos) {
+				return;
+			}
+
+			final var transitDeltaNanos = Math.abs(transitNanos - lastTransitNanos);
+			jitterNanos += (transitDeltaNanos - jitterNanos) >> ESTIMATE_GAIN_SHIFT;
+
+			final var intervalNanos = senderTimeNanos - lastSenderTimeNanos;
+			if (intervalNanos <= MAX_INTERPOLATION_NANOS) {
+				sendIntervalNanos += (intervalNanos - sendIntervalNanos) >> ESTIMATE_GAIN_SHIFT;
+			}
+
+			if (transitNanos < baseTransitNanos) {
+				baseTransitNanos = transitNanos;
+			} else {
+				baseTransitNanos += (transitNanos - baseTransitNanos) >> TRANSIT_DRIFT_GAIN_SHIFT;
+			}
+		}
+		lastTransitNanos = transitNanos;
+
+		final var targetDelayNanos = Math.clamp(sendIntervalNanos + JITTER_MULTIPLIER * jitterNanos, 0L,
+				MAX_PLAYOUT_DELAY_NANOS);
+		delayNanos += (targetDelayNanos - delayNanos) >> ESTIMATE_GAIN_SHIFT;
+
+		newestSlot = (newestSlot + 1) % CAPACITY;
+		size = Math.min(size + 1, CAPACITY);
+
+		senderTimesNanos[newestSlot] = senderTimeNanos;
+		final var slotAxes = axes[newestSlot];
+		for (final var virtualAxis : VIRTUAL_AXES) {
+			slotAxes[virtualAxis.ordinal()] = updateMessage.getAxis(virtualAxis);
+		}
+	}
+
+	/// Removes all buffered states and resets the jitter estimate.
+	void clear() {
+		newestSlot = -1;
+		size = 0;
+		delayNanos = 0L;
+		jitterNanos = 0L;
+		sendIntervalNanos = 0L;
+	}
+
+	/// Returns the current playout delay on top of the shortest observed transit
+	/// time.
+	///
+	/// @return the playout delay in nanoseconds
+	long getDelayNanos() {
+		return delayNanos;
+	}
+
+	/// Computes the axis values for the given local time.
+	///
+	/// If the playout time lies after the newest buffered state, the newest state
+	/// is held. If it lies before the oldest buffered state, the oldest state is
+	/// used.
+	///
+	/// @param currentTimeNanos the current local time in nanoseconds
+	/// @param target the array receiving the axis values, indexed by
+	/// [VirtualAxis#ordinal()]
+	/// @return `false` if the buffer is empty and `target` was not modified
+	boolean sample(final long currentTimeNanos, final int[] target) {
+		if (size == 0) {
+			return false;
+		}
+
+		final var playoutTimeNanos = currentTimeNanos - baseTransitNanos - delayNanos;
+
+		var slot = newestSlot;
+		var nextSlot = -1;
+		for (var i = 1; i < size && senderTimesNanos[slot] > playoutTimeNanos; i++) {
+			nextSlot = slot;
+			slot = Math.floorMod(slot - 1, CAPACITY);
+		}
+
+		final var slotAxes = axes[slot];
+		if (nextSlot == -1 || senderTimesNanos[slot] > playoutTimeNanos) {
+			System.arraycopy(slotAxes, 0, target, 0, NUM_AXES);
+			return true;
+		}
+
+		final var nextSenderTimeNanos = senderTimesNanos[nextSlot];
+		final var rampStartNanos = Math.max(senderTimesNanos[slot], nextSenderTimeNanos - MAX_INTERPOLATION_NANOS);
+		if (playoutTimeNanos <= rampStartNanos) {
+			System.arraycopy(slotAxes, 0, target, 0, NUM_AXES);
+			return true;
+		}
+
+		final var nextSlotAxes = axes[nextSlot];
+		final var rampNanos = nextSenderTimeNanos - rampStartNanos;
+		final var elapsedNanos = playoutTimeNanos - rampStartNanos;
+		for (var i = 0; i < NUM_AXES; i++) {
+			final var delta = (long) nextSlotAxes[i] - slotAxes[i];
+			target[i] = (int) (slotAxes[i] + Math.round((double) delta * elapsedNanos / rampNanos));
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/// Decides at which rate a [RunMode] polls its input.
+///
+/// The rate jumps to its upper bound as soon as activity is reported, i.e.
+/// when a stick or trigger moves or a time-based action is running, so that
+/// activity never waits for the rate to ramp up. Only after no activity has
+/// been reported for the idle timeout, the rate decays towards its lower
+/// bound, halving once per [#DECAY_STEP_NANOS]. This hysteresis keeps the rate
+/// from flipping between the bounds on every poll, while an idle controller
+/// costs as little CPU time and battery as possible.
+///
+/// Every rate change is logged at [Level#FINE], and the statistics gathered
+/// over the lifetime of the governor are available via [#toString()].
+final class PollingRateGovernor {
+
+	/// Time in nanoseconds between two decay steps once the input is idle.
+	static final long DECAY_STEP_NANOS = 50_000_000L;
+
+	private static final Logger logger = Logger.getLogger(PollingRateGovernor.class.getName());
+
+	/// Time in nanoseconds without activity after which the rate starts to decay.
+	private final long idleTimeoutNanos;
+
+	/// Upper bound of the polling rate in hertz.
+	private final int maxPollingRate;
+
+	/// Lower bound of the polling rate in hertz.
+	private final int minPollingRate;
+
+	/// Whether activity has been reported since the last update.
+	private boolean activity;
+
+	/// Total time in nanoseconds covered by updates.
+	private long elapsedNanos;
+
+	/// Total time in nanoseconds spent at the lower bound of the polling rate.
+	private long idleNanos;
+
+	/// Time in nanoseconds of the last update that saw activity.
+	private long lastActivityTimeNanos;
+
+	/// Time in nanoseconds of the last decay step.
+	private long lastDecayTimeNanos;
+
+	/// Time in nanoseconds of the last update, or `-1` if there was none yet.
+	private long lastUpdateTimeNanos = -1L;
+
+	/// Number of times the polling rate was decreased.
+	private long numDecaySteps;
+
+	/// Number of times the polling rate was raised because of activity.
+	private long numRampUps;
+
+	/// Current polling rate in hertz.
+	private int pollingRate;
+
+	/// Sum of the polling rate in hertz multiplied by the time in nanoseconds it
+	/// was in effect.
+	private double rateTimeProduct;
+
+	/// Constructs a [PollingRateGovernor] that starts at the lower bound of the
+	/// polling rate.
+	///
+	/// @param minPollingRate the lower bound of the polling rate in hertz
+	/// @param maxPollingRate the upper bound of the polling rate in hertz
+	/// @param idleTimeoutNanos the time in nanoseconds without activity after
+	/// which the rate starts to decay
+	PollingRateGovernor(final int minPollingRate, final int maxPollingRate, final long idleTimeoutNanos) {
+		if (minPollingRate < 1) {
+			throw new IllegalArgumentException("Parameter minPollingRate must be positive");
+		}
+		if (maxPollingRate < minPollingRate) {
+			throw new IllegalArgumentException("Parameter maxPollingRate must not be less than minPollingRate");
+		}
+		if (idleTimeoutNanos < 0L) {
+			throw new IllegalArgumentException("Parameter idleTimeoutNanos must not be negative");
+		}
+
+		this.minPollingRate = minPollingRate;
+		this.maxPollingRate = maxPollingRate;
+		this.idleTimeoutNanos = idleTimeoutNanos;
+		pollingRate = minPollingRate;
+	}
+
+	/// Returns the current polling rate.
+	///
+	/// @return the polling rate in hertz
+	int getPollingRate() {
+		return pollingRate;
+	}
+
+	/// Returns whether any update has been performed.
+	///
+	/// @return `true` if statistics have been gathered
+	boolean hasStatistics() {
+		return elapsedNanos > 0L;
+	}
+
+	/// Reports activity that requires the maximum polling rate and raises the
+	/// polling rate to its upper bound right away.
+	void reportActivity() {
+		activity = true;
+
+		if (pollingRate != maxPollingRate) {
+			numRampUps++;
+			setPollingRate(maxPollingRate);
+		}
+	}
+
+	/// Sets the polling rate and logs the change.
+	///
+	/// @param pollingRate the new polling rate in hertz
+	private void setPollingRate(final int pollingRate) {
+		logger.log(Level.FINE, () -> "Polling rate changed from " + this.pollingRate + " Hz to " + pollingRate + " Hz");
+		this.pollingRate = pollingRate;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT,
+				"Polling rate: mean %.1f Hz, idle %.1f%% of the time, %d ramp-ups, %d decay steps",
+				elapsedNanos > 0L ? rateTimeProduct / elapsedNanos : pollingRate,
+				elapsedNanos > 0L ? (idleNanos * 100d) / elapsedNanos : 0d, numRampUps, numDecaySteps);
+	}
+
+	/// Updates the polling rate after a poll.
+	///
+	/// Consumes the activity reported since the previous update. If there was
+	/// none for at least the idle timeout, the polling rate is halved, but at most
+	/// once per [#DECAY_STEP_NANOS] and not below its lower bound.
+	///
+	/// @param currentTimeNanos the current time in nanoseconds
+	/// @return `true` if the polling rate has changed
+	boolean update(final long currentTimeNanos) {
+		if (lastUpdateTimeNanos != -1L) {
+			final var intervalNanos = currentTimeNanos - lastUpdateTimeNanos;
+			elapsedNanos += intervalNanos;
+			rateTimeProduct += (double) pollingRate * intervalNanos;
+			if (pollingRate == minPollingRate) {
+				idleNanos += intervalNanos;
+			}
+		}
+		lastUpdateTimeNanos = currentTimeNanos;
+
+		if (activity) {
+			activity = false;
+			lastActivityTimeNanos = currentTimeNanos;
+			lastDecayTimeNanos = currentTimeNanos;
+
+			return false;
+		}
+
+		if (pollingRate == minPollingRate || currentTimeNanos - lastActivityTimeNanos < idleTimeoutNanos
+				|| currentTimeNanos - lastDecayTimeNanos < DECAY_STEP_NANOS) {
+			return false;
+		}
+
+		lastDecayTimeNanos = currentTimeNanos;
+		numDecaySteps++;
+		setPollingRate(Math.max(minPollingRate, pollingRate / 2));
+
+		return true;
+	}
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import de.bwravencl.controllerbuddy.input.LockKey;
+import de.bwravencl.controllerbuddy.input.Scancode;
+import de.bwravencl.controllerbuddy.input.VirtualAxis;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/// [OutputSink] that records all output in memory as timestamped events.
+///
+/// Allows the output stage of an [OutputRunMode] to be inspected without any
+/// virtual device. Taps are recorded as a press followed by a release, and
+/// each call to [#flush()] is recorded as an event of type [Type#FLUSH], so
+/// that the events can be attributed to their frames.
+final class RecordingOutputSink implements OutputSink {
+
+	/// Clock providing the timestamps of the recorded events in nanoseconds.
+	private final LongSupplier clock;
+
+	/// The recorded events in the order in which they were received.
+	private final List<OutputEvent> events = new ArrayList<>();
+
+	/// Constructs a [RecordingOutputSink] that timestamps the recorded events
+	/// with [System#nanoTime()].
+	RecordingOutputSink() {
+		this(System::nanoTime);
+	}
+
+	/// Constructs a [RecordingOutputSink] that timestamps the recorded events
+	/// with the given clock.
+	///
+	/// @param clock the clock providing the timestamps in nanoseconds
+	RecordingOutputSink(final LongSupplier clock) {
+		this.clock = clock;
+	}
+
+	/// Discards all recorded events.
+	void clear() {
+		events.clear();
+	}
+
+	@Override
+	public void close() {
+	}
+
+	@Override
+	public void flush() {
+		record(Type.FLUSH, 0, 0);
+	}
+
+	/// Returns the recorded events.
+	///
+	/// @return an unmodifiable view of the recorded events in the order in which
+	/// they were received
+	List<OutputEvent> getEvents() {
+		return Collections.unmodifiableList(events);
+	}
+
+	/// Records a [Type#CURSOR_X] or [Type#CURSOR_Y] event for each axis with a
+	/// non-zero delta, just as [UinputOutputSink] only emits relative events for
+	/// moved axes.
+	///
+	/// @param deltaX the horizontal movement
+	/// @param deltaY the vertical movement
+	@Override
+	public void moveCursor(final int deltaX, final int deltaY) {
+		if (deltaX != 0) {
+			record(Type.CURSOR_X, 0, deltaX);
+		}
+		if (deltaY != 0) {
+			record(Type.CURSOR_Y, 0, deltaY);
+		}
+	}
+
+	/// Records an event, timestamped with the current time of the clock.
+	///
+	/// @param type the type of the event
+	/// @param code the code of the event
+	/// @param value the value of the event
+	private void record(final Type type, final int code, final int value) {
+		events.add(new OutputEvent(clock.getAsLong(), type, code, value));
+	}
+
+	@Override
+	public void scroll(final int clicks) {
+		record(Type.SCROLL, 0, clicks);
+	}
+
+	@Override
+	public void setAxis(final VirtualAxis virtualAxis, final int value) {
+		record(Type.AXIS, virtualAxis.ordinal(), value);
+	}
+
+	@Override
+	public void setButton(final int index, final boolean pressed) {
+		record(Type.BUTTON, index, pressed ? 1 : 0);
+	}
+
+	@Override
+	public void setKey(final Scancode scancode, final boolean down) {
+		record(Type.KEY, scancode.keyCode(), down ? 1 : 0);
+	}
+
+	@Override
+	public void setKeyRepeatRate(final long keyRepeatRate) {
+		record(Type.KEY_REPEAT_RATE, 0, (int) keyRepeatRate);
+	}
+
+	@Override
+	public void setLockKeyState(final LockKey lockKey, final boolean on) {
+		record(Type.LOCK_KEY, lockKey.virtualKeyCode(), on ? 1 : 0);
+	}
+
+	@Override
+	public void setMouseButton(final int button, final boolean down) {
+		record(Type.MOUSE_BUTTON, button, down ? 1 : 0);
+	}
+
+	@Override
+	public void tapKey(final Scancode scancode) {
+		setKey(scancode, true);
+		setKey(scancode, false);
+	}
+
+	@Override
+	public void tapMouseButton(final int button) {
+		setMouseButton(button, true);
+		setMouseButton(button, false);
+	}
+
+	/// Types of the events recorded by a [RecordingOutputSink].
+	enum Type {
+
+		/// A joystick axis was set. The code is the ordinal of the [VirtualAxis].
+		AXIS,
+
+		/// A joystick button was set. The code is the zero-based button index.
+		BUTTON,
+
+		/// The mouse cursor was moved horizontally. The value is the non-zero
+		/// delta.
+		CURSOR_X,
+
+		/// The mouse cursor was moved vertically. The value is the non-zero delta.
+		CURSOR_Y,
+
+		/// A frame was ended.
+		FLUSH,
+
+		/// A keyboard key was pressed or released. The code is the key code of
+		/// the [Scancode].
+		KEY,
+
+		/// The key repeat rate was configured. The value is the rate in hertz.
+		KEY_REPEAT_RATE,
+
+		/// A lock key was set. The code is the virtual key code of the
+		/// [LockKey].
+		LOCK_KEY,
+
+		/// A mouse button was pressed or released. The code is the mouse button
+		/// number.
+		MOUSE_BUTTON,
+
+		/// The scroll wheel was turned.
+		SCROLL
+	}
+
+	/// An event recorded by a [RecordingOutputSink].
+	///
+	/// @param timeNanos the time at which the event was recorded in nanoseconds
+	/// @param type the type of the event
+	/// @param code the type specific code of the event, or `0` if unused
+	/// @param value the value of the event, where `1` and `0` denote pressed and
+	/// released states
+	record OutputEvent(long timeNanos, Type type, int code, int value) {
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+/// Sliding anti-replay window over sequence numbers, in the manner of the
+/// anti-replay bitmaps of DTLS and IPsec.
+///
+/// The window tracks the highest sequence number accepted so far and which of
+/// the [#SIZE] sequence numbers below it have been accepted. A sequence number
+/// is acceptable if it is higher than all accepted ones, or if it lies within
+/// the window and has not been accepted before. Duplicates, replays and
+/// sequence numbers that have fallen out of the window are rejected.
+///
+/// Checking and accepting are separate steps, so that a sequence number is
+/// only consumed once the message carrying it has been processed successfully.
+final class ReplayWindow {
+
+	/// Number of sequence numbers covered by the window, including the highest
+	/// accepted one.
+	static final int SIZE = Long.SIZE;
+
+	/// Bitmap of the accepted sequence numbers, where bit `n` corresponds to the
+	/// sequence number [#highest] minus `n`.
+	private long bitmap;
+
+	/// Highest sequence number accepted so far, or `-1` if none.
+	private long highest = -1L;
+
+	/// Marks the given sequence number as accepted and advances the window if it
+	/// is the highest one so far.
+	///
+	/// The sequence number must have been checked with [#canAccept(long)].
+	///
+	/// @param sequenceNumber the sequence number to accept
+	void accept(final long sequenceNumber) {
+		if (sequenceNumber > highest) {
+			final var shift = sequenceNumber - highest;
+			bitmap = shift >= SIZE ? 1L : (bitmap << shift) | 1L;
+			highest = sequenceNumber;
+		} else {
+			bitmap |= 1L << (highest - sequenceNumber);
+		}
+	}
+
+	/// Checks whether the given sequence number is acceptable.
+	///
+	/// @param sequenceNumber the sequence number to check
+	/// @return `true` if the sequence number is higher than all accepted ones, or
+	/// lies within the window and has not been accepted before
+	boolean canAccept(final long sequenceNumber) {
+		if (sequenceNumber < 0L) {
+			return false;
+		}
+
+		if (sequenceNumber > highest) {
+			return true;
+		}
+
+		final var offset = highest - sequenceNumber;
+		return offset < SIZE && (bitmap & (1L << offset)) == 0L;
+	}
+
+	/// Returns the highest sequence number accepted so far.
+	///
+	/// @return the highest accepted sequence number, or `-1` if none has been
+	/// accepted yet
+	long getHighest() {
+		return highest;
+	}
+
+	/// Forgets all accepted sequence numbers.
+	void reset() {
+		bitmap = 0L;
+		highest = -1L;
+	}
+}
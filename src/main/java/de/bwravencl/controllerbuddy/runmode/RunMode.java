@@ -21,9 +21,13 @@ import de.bwravencl.controllerbuddy.gui.GuiUtils;
 import de.bwravencl.controllerbuddy.gui.Main;
 import de.bwravencl.controllerbuddy.input.Input;
 import java.awt.EventQueue;
+import java.io.IOException;
 import java.util.Objects;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.JOptionPane;
+import org.jspecify.annotations.Nullable;
+import org.lwjgl.sdl.SDLEvents;
 
 /// Abstract base class for all run modes in the ControllerBuddy application.
 ///
@@ -39,6 +43,14 @@ public abstract class RunMode implements Runnable {
 	/// The default minimum polling rate in hertz.
 	public static final int DEFAULT_MIN_POLLING_RATE_HZ = 125;
 
+	/// The default time in milliseconds without input activity after which the
+	/// polling rate starts to decay towards the minimum polling rate.
+	public static final int DEFAULT_POLLING_RATE_IDLE_TIMEOUT_MILLIS = 500;
+
+	/// Minimum time in nanoseconds before a deadline that is left to the [Pacer]
+	/// instead of waiting on the SDL event queue.
+	private static final long SDL_WAIT_MARGIN_NANOS = 1_000_000L;
+
 	private static final Logger logger = Logger.getLogger(RunMode.class.getName());
 
 	/// The input instance providing controller state to this run mode.
@@ -47,11 +59,15 @@ public abstract class RunMode implements Runnable {
 	/// The main application instance.
 	final Main main;
 
-	/// The maximum polling rate.
-	private final int maxPollingRate;
+	/// The shortest polling period in nanoseconds, corresponding to the maximum
+	/// polling rate.
+	private final long minPollingPeriodNanos;
+
+	/// Statistics on how punctually polls meet their schedule.
+	private final PacingStatistics pacingStatistics = new PacingStatistics();
 
-	/// The minimum polling rate.
-	private final int minPollingRate;
+	/// Governor deciding the polling rate.
+	private final PollingRateGovernor pollingRateGovernor;
 
 	/// The maximum axis value reported by the output device.
 	int maxAxisValue;
@@ -68,6 +84,16 @@ public abstract class RunMode implements Runnable {
 	/// Flag controlling whether the run loop continues; set to `false` to stop.
 	volatile boolean run = true;
 
+	/// Time in nanoseconds at which the input was last polled.
+	private long lastPollTimeNanos;
+
+	/// The pacer used by [#awaitNextPoll], created on first use.
+	private @Nullable Pacer pacer;
+
+	/// Time in nanoseconds at which the latest poll was scheduled, from which the
+	/// next periodic deadline is derived.
+	private long pollTimeNanos;
+
 	/// Flag set when the run mode is in the process of stopping.
 	private boolean stopping;
 
@@ -79,14 +105,131 @@ public abstract class RunMode implements Runnable {
 		this.main = main;
 		input = Objects.requireNonNull(main.getInput(), "Field input must not be null");
 
-		minPollingRate = main.getMinPollingRate();
-		maxPollingRate = main.getMaxPollingRate();
-
-		useMinPollingRate();
+		final var maxPollingRate = main.getMaxPollingRate();
+		minPollingPeriodNanos = Input.NANOS_PER_SECOND / maxPollingRate;
+		pollingRateGovernor = new PollingRateGovernor(main.getMinPollingRate(), maxPollingRate,
+				main.getPollingRateIdleTimeout() * 1_000_000L);
+		setPollingRate(pollingRateGovernor.getPollingRate());
 
 		input.setRunMode(this);
 	}
 
+	/// Blocks until the given deadline has passed or the controller has reported
+	/// new input, whichever comes first.
+	///
+	/// Instead of sleeping for the whole polling period, this waits on the SDL
+	/// event queue, so that a button press or an axis motion is picked up by the
+	/// next poll right away. Such early polls are spaced at least one period of
+	/// the maximum polling rate apart, which bounds the load caused by noisy
+	/// axes. Unrelated events that wake up the wait are processed and the wait is
+	/// resumed. Because SDL only waits with millisecond resolution, the last
+	/// [#SDL_WAIT_MARGIN_NANOS] or more before the deadline are left to the
+	/// given [Pacer].
+	///
+	/// @param pacer the pacer that waits for the final stretch
+	/// @param deadlineNanos the time in nanoseconds at which the next periodic
+	/// poll is due
+	/// @return `true` if the wait ended early because of new input
+	/// @throws IOException if the pacer fails
+	/// @throws InterruptedException if the current thread was interrupted while
+	/// waiting
+	private boolean awaitInput(final Pacer pacer, final long deadlineNanos)
+			throws IOException, InterruptedException {
+		var wakeUpTimeNanos = deadlineNanos;
+		var inputPending = false;
+
+		for (;;) {
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+
+			final var timeoutMillis = (wakeUpTimeNanos - System.nanoTime() - SDL_WAIT_MARGIN_NANOS) / 1_000_000L;
+			if (timeoutMillis <= 0L) {
+				pacer.await(wakeUpTimeNanos);
+				return inputPending;
+			}
+
+			if (!SDLEvents.SDL_WaitEventTimeout(null, (int) timeoutMillis)) {
+				continue;
+			}
+
+			if (SDLEvents.SDL_HasEvents(SDLEvents.SDL_EVENT_GAMEPAD_AXIS_MOTION,
+					SDLEvents.SDL_EVENT_GAMEPAD_BUTTON_UP)) {
+				final var earliestPollTimeNanos = lastPollTimeNanos + minPollingPeriodNanos;
+				if (System.nanoTime() - earliestPollTimeNanos >= 0L) {
+					return true;
+				}
+
+				if (earliestPollTimeNanos - wakeUpTimeNanos < 0L) {
+					wakeUpTimeNanos = earliestPollTimeNanos;
+					inputPending = true;
+				}
+			}
+
+			// pending events would end the next wait immediately
+			main.pollSdlEvents();
+		}
+	}
+
+	/// Blocks until the next poll is due, either because the polling period has
+	/// elapsed or because the controller has reported new input.
+	///
+	/// Periodic deadlines are derived from the previous deadline rather than from
+	/// the time at which the previous wait ended, so that wake-up latency does
+	/// not accumulate into drift. If deadlines have been missed by one or more
+	/// whole periods, these periods are skipped instead of being caught up on
+	/// in a burst, without shifting the phase of the schedule. A poll triggered
+	/// by input restarts the schedule. The punctuality of every periodic wake-up
+	/// is recorded in the [PacingStatistics].
+	///
+	/// Must be called from the main loop thread.
+	///
+	/// @throws IOException if the pacer fails
+	/// @throws InterruptedException if the current thread was interrupted while
+	/// waiting
+	final void awaitNextPoll() throws IOException, InterruptedException {
+		var pacer = this.pacer;
+		if (pacer == null) {
+			pacer = main.getPacingStrategy().createPacer();
+			this.pacer = pacer;
+		}
+
+		var deadlineNanos = pollTimeNanos + pollingPeriodNanos;
+
+		final var missedPeriods = (System.nanoTime() - deadlineNanos) / pollingPeriodNanos;
+		if (missedPeriods > 0L) {
+			deadlineNanos += missedPeriods * pollingPeriodNanos;
+			pacingStatistics.recordMissedPeriods(missedPeriods);
+		}
+
+		if (awaitInput(pacer, deadlineNanos)) {
+			pollTimeNanos = System.nanoTime();
+			pacingStatistics.restart();
+		} else {
+			pollTimeNanos = deadlineNanos;
+			pacingStatistics.record(deadlineNanos, System.nanoTime());
+		}
+	}
+
+	/// Logs the [PacingStatistics] and closes the [Pacer], if one has been
+	/// created.
+	final void closePacer() {
+		final var pacer = this.pacer;
+		if (pacer == null) {
+			return;
+		}
+
+		getLogger().info(pacingStatistics.toString());
+
+		try {
+			pacer.close();
+		} catch (final IOException e) {
+			getLogger().log(Level.WARNING, e.getMessage(), e);
+		}
+
+		this.pacer = null;
+	}
+
 	/// Handles a controller disconnection by stopping the run mode, logging a
 	/// warning, and optionally showing a dialog to the user.
 	///
@@ -152,16 +295,26 @@ public abstract class RunMode implements Runnable {
 
 	/// Logs an informational message indicating that output has stopped.
 	final void logStop() {
+		if (pollingRateGovernor.hasStatistics()) {
+			getLogger().info(pollingRateGovernor.toString());
+		}
+
 		getLogger().info("Stopped output");
 	}
 
-	/// Resets polling rate to minimum and then polls the input device for new
-	/// state.
+	/// Polls the input device for new state and lets the [PollingRateGovernor]
+	/// adapt the polling rate to the activity reported during the poll.
 	///
 	/// @return `true` if the input device is available, `false` otherwise
 	final boolean pollInput() {
-		useMinPollingRate();
-		return input.poll();
+		lastPollTimeNanos = System.nanoTime();
+		final var available = input.poll();
+
+		if (pollingRateGovernor.update(lastPollTimeNanos)) {
+			setPollingRate(pollingRateGovernor.getPollingRate());
+		}
+
+		return available;
 	}
 
 	/// Polls SDL events and yields the main loop, advancing the application event
@@ -178,6 +331,13 @@ public abstract class RunMode implements Runnable {
 		run = false;
 	}
 
+	/// Restarts the polling schedule, so that the next periodic poll is due one
+	/// polling period from now.
+	final void resetPollSchedule() {
+		pollTimeNanos = System.nanoTime();
+		pacingStatistics.restart();
+	}
+
 	/// Sets the number of buttons and reinitializes the button state in the input.
 	///
 	/// @param numButtons the number of buttons available on the virtual device
@@ -194,13 +354,14 @@ public abstract class RunMode implements Runnable {
 		pollingPeriodNanos = Input.NANOS_PER_SECOND / pollingRate;
 	}
 
-	/// Enables the maximum polling rate.
+	/// Reports input activity that requires the maximum polling rate, such as a
+	/// moving stick or a running time-based action, and enables the maximum
+	/// polling rate right away.
+	///
+	/// The polling rate decays again once no activity has been reported for the
+	/// configured idle timeout.
 	public final void useMaxPollingRate() {
-		setPollingRate(maxPollingRate);
-	}
-
-	/// Enables the minimum polling rate.
-	final void useMinPollingRate() {
-		setPollingRate(minPollingRate);
+		pollingRateGovernor.reportActivity();
+		setPollingRate(pollingRateGovernor.getPollingRate());
 	}
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+/// Decides when [ServerRunMode] sends [UpdateMessage]s, independently of the
+/// rate at which the input is polled.
+///
+/// Updates are sent at most once per send interval, all changes captured in
+/// between are merged into the next update. The send rate starts at its upper
+/// bound and is adapted once per [LinkStatistics#PUBLISH_INTERVAL_NANOS] in an
+/// additive-increase, multiplicative-decrease manner: it is halved whenever a
+/// client reports a loss ratio above [#LOSS_RATIO_THRESHOLD] or its round-trip
+/// time indicates queuing, and otherwise raised by [#RATE_INCREASE_HZ].
+final class SendScheduler {
+
+	/// Ratio of lost update messages during an adaptation interval above which
+	/// the send rate is decreased.
+	static final double LOSS_RATIO_THRESHOLD = 0.02;
+
+	/// Minimum amount of round-trip time in nanoseconds above the lowest measured
+	/// round-trip time that is interpreted as queuing delay.
+	static final long QUEUING_DELAY_THRESHOLD_NANOS = 5_000_000L;
+
+	/// Amount in hertz by which the send rate is increased per adaptation
+	/// interval without congestion.
+	static final int RATE_INCREASE_HZ = 25;
+
+	/// Upper bound of the send rate in hertz.
+	private final int maxSendRate;
+
+	/// Lower bound of the send rate in hertz.
+	private final int minSendRate;
+
+	/// Time in nanoseconds at which the next update message may be sent.
+	private long nextSendTimeNanos;
+
+	/// Current send rate in hertz.
+	private int sendRate;
+
+	/// Constructs a [SendScheduler].
+	///
+	/// @param minSendRate the lower bound of the send rate in hertz
+	/// @param maxSendRate the upper bound of the send rate in hertz
+	SendScheduler(final int minSendRate, final int maxSendRate) {
+		if (minSendRate < 1) {
+			throw new IllegalArgumentException("Parameter minSendRate must be positive");
+		}
+		if (maxSendRate < minSendRate) {
+			throw new IllegalArgumentException("Parameter maxSendRate must not be less than minSendRate");
+		}
+
+		this.minSendRate = minSendRate;
+		this.maxSendRate = maxSendRate;
+		sendRate = maxSendRate;
+	}
+
+	/// Checks whether the given measurements indicate that the connection to a
+	/// client is congested.
+	///
+	/// @param lossRatio the ratio of update messages lost during the last
+	/// adaptation interval
+	/// @param rttNanos the smoothed round-trip time in nanoseconds, or `-1` if
+	/// not measured yet
+	/// @param minRttNanos the lowest measured round-trip time in nanoseconds, or
+	/// `-1` if not measured yet
+	/// @return `true` if the connection is congested
+	static boolean isCongested(final double lossRatio, final long rttNanos, final long minRttNanos) {
+		if (lossRatio > LOSS_RATIO_THRESHOLD) {
+			return true;
+		}
+
+		if (rttNanos < 0L || minRttNanos < 0L) {
+			return false;
+		}
+
+		return rttNanos - minRttNanos > Math.max(QUEUING_DELAY_THRESHOLD_NANOS, minRttNanos);
+	}
+
+	/// Adapts the send rate to the congestion state of the last adaptation
+	/// interval.
+	///
+	/// @param congested whether any client connection was congested
+	void adapt(final boolean congested) {
+		sendRate = congested ? Math.max(minSendRate, sendRate / 2)
+				: Math.min(maxSendRate, sendRate + RATE_INCREASE_HZ);
+	}
+
+	/// Returns the current send rate.
+	///
+	/// @return the send rate in hertz
+	int getSendRate() {
+		return sendRate;
+	}
+
+	/// Checks whether the send interval has passed since the last update message
+	/// was sent.
+	///
+	/// @param currentTimeNanos the current time in nanoseconds
+	/// @return `true` if an update message may be sent
+	boolean isSendDue(final long currentTimeNanos) {
+		return currentTimeNanos - nextSendTimeNanos >= 0L;
+	}
+
+	/// Records that an update message has been sent and schedules the next one.
+	///
+	/// If sending fell behind, for example because the input was idle, the
+	/// schedule restarts from the current time instead of sending a burst of
+	/// catch-up messages.
+	///
+	/// @param currentTimeNanos the current time in nanoseconds
+	void onSend(final long currentTimeNanos) {
+		final var sendIntervalNanos = 1_000_000_000L / sendRate;
+
+		nextSendTimeNanos += sendIntervalNanos;
+		if (nextSendTimeNanos - currentTimeNanos <= 0L) {
+			nextSendTimeNanos = currentTimeNanos + sendIntervalNanos;
+		}
+	}
+
+	/// Resets the send rate to its upper bound and allows the next update message
+	/// to be sent immediately.
+	///
+	/// @param currentTimeNanos the current time in nanoseconds
+	void reset(final long currentTimeNanos) {
+		sendRate = maxSendRate;
+		nextSendTimeNanos = currentTimeNanos;
+	}
+}
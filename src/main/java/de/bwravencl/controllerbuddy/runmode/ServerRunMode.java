@@ -19,62 +19,113 @@ package de.bwravencl.controllerbuddy.runmode;
 
 import de.bwravencl.controllerbuddy.gui.GuiUtils;
 import de.bwravencl.controllerbuddy.gui.Main;
-import de.bwravencl.controllerbuddy.input.LockKey;
+import de.bwravencl.controllerbuddy.runmode.ClientSessions.ClientSession;
 import java.awt.EventQueue;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.net.BindException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.SocketException;
-import java.net.SocketTimeoutException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
 import java.security.GeneralSecurityException;
 import java.security.Key;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
-import javax.crypto.Cipher;
 import javax.crypto.SecretKeyFactory;
-import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
 import javax.swing.JOptionPane;
 import org.jspecify.annotations.Nullable;
 
-/// Server-side run mode that streams input state to a remote client.
+/// Server-side run mode that streams input state to remote clients.
 ///
 /// Polls a locally connected controller and sends encrypted input
-/// state updates to a remote [ClientRunMode] over UDP. The server
-/// listens for client connections, performs a handshake, and then
-/// continuously streams serialized input data.
+/// state updates to up to [#MAX_NUM_CLIENTS] remote [ClientRunMode]
+/// instances over UDP. The server listens for client connections,
+/// performs a handshake with each client, and then continuously streams
+/// compactly encoded input state updates. Every update is encoded only
+/// once and then encrypted separately for each client with the client's
+/// own key.
+///
+/// The password-based derivation of a client's key runs on a separate thread,
+/// so that handshakes never stall the polling of the controller. Every
+/// accepted client receives a session ticket, which it can present in a
+/// [MessageType#CLIENT_RESUME] message to reconnect without another key
+/// derivation. A handshaking client only starts to receive updates once it has
+/// answered a [MessageType#REQUEST_ALIVE] under its new key.
 public final class ServerRunMode extends RunMode {
 
+	/// The default number of additional update messages that repeat the one-shot
+	/// events of an update message.
+	public static final int DEFAULT_EVENT_REDUNDANCY = 0;
+
+	/// The default upper bound in hertz of the rate at which update messages are
+	/// sent.
+	public static final int DEFAULT_MAX_SEND_RATE_HZ = 250;
+
+	/// The default lower bound in hertz of the rate at which update messages are
+	/// sent.
+	public static final int DEFAULT_MIN_SEND_RATE_HZ = 30;
+
 	/// The default UDP port used for server communication.
 	public static final int DEFAULT_PORT = 28_789;
 
 	/// The default timeout in milliseconds for server operations.
 	public static final int DEFAULT_TIMEOUT = 100;
 
+	/// The maximum number of additional update messages that repeat the one-shot
+	/// events of an update message.
+	public static final int MAX_EVENT_REDUNDANCY = 8;
+
+	/// The highest configurable bound in hertz of the rate at which update
+	/// messages are sent.
+	public static final int MAX_SEND_RATE_HZ = 1000;
+
+	/// The lowest configurable bound in hertz of the rate at which update
+	/// messages are sent.
+	public static final int MIN_SEND_RATE_HZ = 10;
+
 	/// AES-GCM cipher transformation string used for encrypting UDP packets.
 	static final String CIPHER_TRANSFORMATION = "AES/GCM/NoPadding";
 
 	/// Length in bytes of the AES-GCM initialization vector.
 	static final int IV_LENGTH = 12;
 
+	/// Length in bytes of the AES keys used for encrypting packets.
+	static final int KEY_LENGTH = 32;
+
+	/// Maximum length in bytes of the plaintext of a message exchanged between
+	/// client and server.
+	static final int MAX_PACKET_LENGTH = 1024;
+
 	/// Protocol version byte included in handshake packets.
-	static final byte PROTOCOL_VERSION = 4;
+	///
+	/// Version 5 replaced Java object serialization of [MessageType#UPDATE]
+	/// messages with the compact binary encoding implemented by [UpdateMessage]
+	/// and added the protocol version to [MessageType#CLIENT_HELLO]. Version 6
+	/// encrypts [MessageType#CLIENT_ALIVE] so that it can be authenticated.
+	/// Version 7 transmits one-shot events as event blocks keyed by an event
+	/// sequence number, so that they can be sent redundantly. Version 8 adds the
+	/// capture timestamp to [MessageType#UPDATE] messages. Version 9 adds session
+	/// tickets to [MessageType#SERVER_HELLO] and introduces
+	/// [MessageType#CLIENT_RESUME]. Version 10 adds timing records to
+	/// [MessageType#REQUEST_ALIVE] and [MessageType#CLIENT_ALIVE], and update
+	/// reception counts to [MessageType#CLIENT_ALIVE].
+	static final byte PROTOCOL_VERSION = 10;
 
 	/// Length in bytes of the password-based key derivation salt.
 	static final int SALT_LENGTH = 100;
@@ -82,7 +133,27 @@ public final class ServerRunMode extends RunMode {
 	/// AES-GCM authentication tag length in bits.
 	static final int TAG_LENGTH = 128;
 
-	/// Number of keep-alive request retries before considering the client lost.
+	/// Number of update messages after which a keyframe carrying all axes is
+	/// sent.
+	private static final int KEYFRAME_INTERVAL = 50;
+
+	/// Maximum number of clients that can be connected at the same time.
+	private static final int MAX_NUM_CLIENTS = 8;
+
+	/// Maximum number of clients that can have completed a handshake without
+	/// having been confirmed yet.
+	private static final int MAX_NUM_PENDING_CLIENT_SESSIONS = MAX_NUM_CLIENTS;
+
+	/// Maximum number of key derivations that can be in progress at the same
+	/// time.
+	private static final int MAX_NUM_PENDING_KEY_DERIVATIONS = MAX_NUM_CLIENTS;
+
+	/// Maximum length in bytes of an encoded [UpdateMessage] body, leaving room
+	/// for the message type and the longest possible varint counter.
+	private static final int MAX_UPDATE_BODY_LENGTH = MAX_PACKET_LENGTH - Integer.BYTES - 10;
+
+	/// Number of unanswered keep-alive intervals after which a client is
+	/// considered lost.
 	private static final int NUM_REQUEST_ALIVE_RETRIES = 10;
 
 	/// Interval in milliseconds between consecutive keep-alive requests.
@@ -90,29 +161,43 @@ public final class ServerRunMode extends RunMode {
 
 	private static final Logger logger = Logger.getLogger(ServerRunMode.class.getName());
 
-	/// AES-GCM cipher instance used to encrypt outgoing packets.
-	private final Cipher cipher;
+	/// Sessions of all connected and handshaking clients.
+	private final ClientSessions clientSessions = new ClientSessions(MAX_NUM_CLIENTS,
+			MAX_NUM_PENDING_CLIENT_SESSIONS);
+
+	/// History of the one-shot events of the most recently sent update messages.
+	private final EventHistory eventHistory;
 
-	/// Reusable buffer holding the current AES-GCM initialization vector.
-	private final byte[] iv = new byte[IV_LENGTH];
+	/// Executor running the password-based key derivations of handshaking
+	/// clients.
+	private final ExecutorService keyDerivationExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+	/// Key derivations of handshaking clients that have not been completed yet.
+	private final List<PendingKeyDerivation> pendingKeyDerivations = new ArrayList<>();
 
 	/// UDP port on which the server listens for client connections.
 	private final int port;
 
-	/// Random number generator used for generating salts and IVs.
+	/// Random number generator used for generating IVs.
 	private final Random random;
 
+	/// Scheduler deciding when update messages are sent.
+	private final SendScheduler sendScheduler;
+
+	/// Issuer of the session tickets handed out to accepted clients.
+	private final SessionTickets sessionTickets;
+
+	/// Origin of the timestamps sent to the clients in nanoseconds.
+	private final long startTimeNanos = System.nanoTime();
+
 	/// Socket receive timeout in milliseconds.
 	private final int timeout;
 
-	/// IP address of the currently connected client.
-	private @Nullable InetAddress clientAddress;
-
-	/// Symmetric encryption key derived from the shared password.
-	private @Nullable Key key;
+	/// Encrypted UDP channel used to communicate with the clients.
+	private volatile @Nullable EncryptedDatagramChannel channel;
 
-	/// UDP socket used to communicate with the client.
-	private @Nullable DatagramSocket serverSocket;
+	/// Most recently published network statistics of the connected clients.
+	private volatile Map<InetAddress, NetworkStatistics> statistics = Map.of();
 
 	/// Constructs a [ServerRunMode].
 	///
@@ -124,22 +209,132 @@ public final class ServerRunMode extends RunMode {
 		port = main.getPort();
 		timeout = main.getTimeout();
 		random = main.getRandom();
+		eventHistory = new EventHistory(main.getEventRedundancy());
+		sendScheduler = new SendScheduler(main.getMinSendRate(), main.getMaxSendRate());
+		sessionTickets = new SessionTickets(random);
+	}
 
-		try {
-			cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
-		} catch (final GeneralSecurityException e) {
-			throw new RuntimeException(e);
+	/// Accepts a client whose key has been established and, if the client is
+	/// accepted, adds a pending session for it and replies with a
+	/// [MessageType#SERVER_HELLO] carrying a new session ticket, followed by a
+	/// [MessageType#REQUEST_ALIVE].
+	///
+	/// The pending session is only confirmed once the client answers under its
+	/// key, see [#handlePacket]. If the client presents the key of its confirmed
+	/// session, as a client does that resumes a session the server has not yet
+	/// considered lost, the confirmed session is kept and its message counter
+	/// continues.
+	///
+	/// @param channel the channel to reply on
+	/// @param handshake the handshake parameters sent by the client
+	/// @param key the session key of the client
+	/// @param currentTimeNanos the current time in nanoseconds
+	/// @return `true` if the client resumed its confirmed session
+	/// @throws IOException if the reply cannot be sent
+	private boolean acceptClient(final EncryptedDatagramChannel channel, final Handshake handshake, final Key key,
+			final long currentTimeNanos) throws IOException {
+		final var clientAddress = handshake.address();
+		final var clientSocketAddress = new InetSocketAddress(clientAddress, port + 1);
+
+		if (handshake.protocolVersion() != PROTOCOL_VERSION) {
+			channel.beginMessage().putInt(MessageType.SERVER_HELLO.getId()).put(PROTOCOL_VERSION);
+			channel.sendEncrypted(key, clientSocketAddress);
+
+			logger.warning("Protocol version mismatch: server " + PROTOCOL_VERSION + " vs client "
+					+ handshake.protocolVersion());
+			return false;
+		}
+
+		final var confirmedClientSession = clientSessions.getConfirmedSession(clientAddress);
+
+		final ClientSession clientSession;
+		final boolean resumed;
+		if (confirmedClientSession != null && confirmedClientSession.key.equals(key)) {
+			clientSession = confirmedClientSession;
+			resumed = true;
+		} else {
+			final var pendingClientSession = clientSessions.addPending(handshake, clientSocketAddress, key,
+					startTimeNanos, currentTimeNanos);
+			if (pendingClientSession == null) {
+				return false;
+			}
+			clientSession = pendingClientSession;
+			resumed = false;
+		}
+
+		final var messageBuffer = channel.beginMessage().putInt(MessageType.SERVER_HELLO.getId())
+				.put(PROTOCOL_VERSION);
+		sessionTickets.issue(key, clientAddress, currentTimeNanos, messageBuffer);
+		channel.sendEncrypted(key, clientSocketAddress);
+
+		sendRequestAlive(channel, clientSession, currentTimeNanos);
+
+		return resumed;
+	}
+
+	/// Adapts the rate at which update messages are sent to the loss and
+	/// round-trip time measured for every connected client since the previous
+	/// adaptation.
+	private void adaptSendRate() {
+		final var confirmedClientSessions = clientSessions.getConfirmedSessions();
+
+		var congested = false;
+		for (var i = 0; i < confirmedClientSessions.size(); i++) {
+			final var clientStatistics = confirmedClientSessions.get(i).statistics;
+			congested |= SendScheduler.isCongested(clientStatistics.takeIntervalLossRatio(),
+					clientStatistics.getRttNanos(), clientStatistics.getMinRttNanos());
+		}
+
+		sendScheduler.adapt(congested);
+	}
+
+	/// Completes the handshakes of all clients whose key derivation has finished.
+	///
+	/// @param channel the channel to reply on
+	/// @param currentTimeNanos the current time in nanoseconds
+	/// @return `true` if a client resumed its confirmed session
+	/// @throws IOException if a reply cannot be sent
+	private boolean completePendingKeyDerivations(final EncryptedDatagramChannel channel,
+			final long currentTimeNanos) throws IOException {
+		if (pendingKeyDerivations.isEmpty()) {
+			return false;
+		}
+
+		var clientResumed = false;
+
+		for (final var iterator = pendingKeyDerivations.iterator(); iterator.hasNext();) {
+			final var pendingKeyDerivation = iterator.next();
+			final var keyFuture = pendingKeyDerivation.keyFuture();
+			if (!keyFuture.isDone()) {
+				continue;
+			}
+			iterator.remove();
+
+			if (keyFuture.state() != Future.State.SUCCESS) {
+				logger.warning("Key derivation for client "
+						+ pendingKeyDerivation.handshake().address().getHostAddress() + " failed");
+				continue;
+			}
+
+			clientResumed |= acceptClient(channel, pendingKeyDerivation.handshake(), keyFuture.resultNow(),
+					currentTimeNanos);
 		}
+
+		return clientResumed;
 	}
 
 	/// Derives an AES secret key from the application password and the given salt
 	/// using PBKDF2 with HMAC-SHA-256.
 	///
+	/// This method is deliberately expensive and must not be called on the thread
+	/// that polls the controller.
+	///
 	/// @param main the main application instance providing the password
 	/// @param saltBytes the salt bytes used during key derivation
 	/// @return the derived [Key]
 	static Key deriveKey(final Main main, final byte[] saltBytes) {
-		final var pbeKeySpec = new PBEKeySpec(main.getPassword().toCharArray(), saltBytes, 1000, 256);
+		final var pbeKeySpec = new PBEKeySpec(main.getPassword().toCharArray(), saltBytes, 1000,
+				KEY_LENGTH * Byte.SIZE);
 		try {
 			final var secretKeyFactory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
 			final var secretKey = secretKeyFactory.generateSecret(pbeKeySpec);
@@ -155,41 +350,272 @@ public final class ServerRunMode extends RunMode {
 		return logger;
 	}
 
-	/// Requests this server run mode to stop by closing the UDP socket.
+	/// Returns the network statistics of the connected clients.
+	///
+	/// The statistics are measured by the server from the keep-alive exchanges
+	/// with each client, except for the loss and reorder counts, which are
+	/// reported by the clients. They are updated about once per second.
+	///
+	/// @return an unmodifiable map from the IP address of each connected client to
+	/// its network statistics
+	public Map<InetAddress, NetworkStatistics> getStatistics() {
+		return statistics;
+	}
+
+	/// Decrypts the most recently received datagram with the key of the given
+	/// session and, if that succeeds, handles it as a sign of life of the client.
+	///
+	/// The timing record and the update reception counts of a
+	/// [MessageType#CLIENT_ALIVE] message are added to the network statistics of
+	/// the session.
+	///
+	/// @param channel the channel the datagram was received on
+	/// @param clientSession the session of the client that sent the datagram
+	/// @param currentTimeNanos the current time in nanoseconds
+	/// @return `true` if the datagram authenticates under the key of the session
+	private static boolean handleAuthenticatedMessage(final EncryptedDatagramChannel channel,
+			final ClientSession clientSession, final long currentTimeNanos) {
+		final ByteBuffer plaintextBuffer;
+		try {
+			plaintextBuffer = channel.decrypt(clientSession.key);
+		} catch (final GeneralSecurityException e) {
+			logger.log(Level.FINE, e.getMessage(), e);
+			return false;
+		}
+
+		clientSession.lastAliveTimeNanos = currentTimeNanos;
+
+		try {
+			if (plaintextBuffer.getInt() == MessageType.CLIENT_ALIVE.getId()) {
+				final var clientStatistics = clientSession.statistics;
+				clientStatistics.readTiming(plaintextBuffer, currentTimeNanos);
+				clientStatistics.setPeerCounts(UpdateMessage.getVarLong(plaintextBuffer),
+						UpdateMessage.getVarLong(plaintextBuffer), UpdateMessage.getVarLong(plaintextBuffer));
+			}
+		} catch (final BufferUnderflowException | IOException e) {
+			logger.log(Level.FINE, e.getMessage(), e);
+		}
+
+		return true;
+	}
+
+	/// Handles a [MessageType#CLIENT_HELLO] message by starting the derivation of
+	/// the client's key on the [#keyDerivationExecutor].
+	///
+	/// The handshake is completed by [#completePendingKeyDerivations] once the key
+	/// is available. A key derivation that is still in progress for the same
+	/// client is cancelled.
+	///
+	/// @param packet the received packet positioned directly after the message
+	/// type
+	/// @param clientAddress the IP address of the client
+	private void handleClientHello(final ByteBuffer packet, final InetAddress clientAddress) {
+		final var salt = new byte[SALT_LENGTH];
+		packet.get(salt);
+
+		final var handshake = Handshake.read(packet, clientAddress);
+
+		for (var i = 0; i < pendingKeyDerivations.size(); i++) {
+			final var pendingKeyDerivation = pendingKeyDerivations.get(i);
+			if (pendingKeyDerivation.handshake().address().equals(clientAddress)) {
+				pendingKeyDerivation.keyFuture().cancel(false);
+				pendingKeyDerivations.remove(i);
+				break;
+			}
+		}
+
+		if (pendingKeyDerivations.size() >= MAX_NUM_PENDING_KEY_DERIVATIONS) {
+			logger.warning("Ignoring hello of client " + clientAddress.getHostAddress() + ": too many handshakes");
+			return;
+		}
+
+		pendingKeyDerivations.add(new PendingKeyDerivation(handshake,
+				keyDerivationExecutor.submit(() -> deriveKey(main, salt))));
+	}
+
+	/// Handles a [MessageType#CLIENT_RESUME] message by redeeming the session
+	/// ticket it carries and, if the ticket is valid, accepting the client with
+	/// the key contained in the ticket.
+	///
+	/// @param channel the channel to reply on
+	/// @param packet the received packet positioned directly after the message
+	/// type
+	/// @param clientAddress the IP address of the client
+	/// @param currentTimeNanos the current time in nanoseconds
+	/// @return `true` if the client resumed its confirmed session
+	/// @throws IOException if the reply cannot be sent
+	private boolean handleClientResume(final EncryptedDatagramChannel channel, final ByteBuffer packet,
+			final InetAddress clientAddress, final long currentTimeNanos) throws IOException {
+		final var handshake = Handshake.read(packet, clientAddress);
+
+		final var key = sessionTickets.redeem(packet, clientAddress, currentTimeNanos);
+		if (key == null) {
+			logger.info("Rejecting invalid session ticket of client " + clientAddress.getHostAddress());
+			return false;
+		}
+
+		return acceptClient(channel, handshake, key, currentTimeNanos);
+	}
+
+	/// Handles a single received datagram.
+	///
+	/// A datagram from a connected client that can be decrypted with the client's
+	/// key counts as a sign of life, regardless of its message type. A datagram
+	/// that can be decrypted with the key of a pending session confirms that
+	/// session. Any other datagram is interpreted as a plaintext
+	/// [MessageType#CLIENT_HELLO] or [MessageType#CLIENT_RESUME].
+	///
+	/// @param channel the channel the datagram was received on
+	/// @param packet the received datagram
+	/// @param currentTimeNanos the current time in nanoseconds
+	/// @return `true` if a client session was confirmed or a client resumed its
+	/// confirmed session
+	/// @throws IOException if an I/O error occurs
+	private boolean handlePacket(final EncryptedDatagramChannel channel, final ByteBuffer packet,
+			final long currentTimeNanos) throws IOException {
+		final var sourceAddress = channel.getSourceAddress();
+		if (sourceAddress == null) {
+			return false;
+		}
+		final var clientAddress = sourceAddress.getAddress();
+		if (clientAddress == null) {
+			return false;
+		}
+
+		final var confirmedClientSession = clientSessions.getConfirmedSession(clientAddress);
+		if (confirmedClientSession != null
+				&& handleAuthenticatedMessage(channel, confirmedClientSession, currentTimeNanos)) {
+			return false;
+		}
+
+		final var pendingClientSession = clientSessions.getPendingSession(clientAddress);
+		if (pendingClientSession != null
+				&& handleAuthenticatedMessage(channel, pendingClientSession, currentTimeNanos)) {
+			if (!clientSessions.confirm(pendingClientSession)) {
+				return false;
+			}
+
+			if (clientSessions.getConfirmedSessions().size() == 1) {
+				final var handshake = pendingClientSession.handshake;
+				minAxisValue = handshake.minAxisValue();
+				maxAxisValue = handshake.maxAxisValue();
+				setNumButtons(handshake.numButtons());
+			}
+
+			logger.info("Client " + clientAddress.getHostAddress() + " connected");
+			return true;
+		}
+
+		try {
+			final var messageType = MessageType.fromId(packet.getInt());
+			if (messageType == MessageType.CLIENT_HELLO) {
+				handleClientHello(packet, clientAddress);
+			} else if (messageType == MessageType.CLIENT_RESUME) {
+				return handleClientResume(channel, packet, clientAddress, currentTimeNanos);
+			}
+		} catch (final BufferUnderflowException e) {
+			logger.log(Level.FINE, e.getMessage(), e);
+		}
+
+		return false;
+	}
+
+	/// Logs the most recently published network statistics of every connected
+	/// client, and the current send rate.
+	private void logStatistics() {
+		statistics.forEach((address, clientStatistics) -> logger
+				.info("Network statistics of client " + address.getHostAddress() + ": " + clientStatistics));
+		logger.info("Send rate: " + sendScheduler.getSendRate() + " Hz");
+	}
+
+	/// Publishes a snapshot of the network statistics of all connected clients,
+	/// which can then be obtained via [#getStatistics()].
+	private void publishStatistics() {
+		final var confirmedClientSessions = clientSessions.getConfirmedSessions();
+
+		final var newStatistics = new HashMap<InetAddress, NetworkStatistics>(confirmedClientSessions.size());
+		for (var i = 0; i < confirmedClientSessions.size(); i++) {
+			final var clientSession = confirmedClientSessions.get(i);
+			newStatistics.put(clientSession.address, clientSession.statistics.snapshot());
+		}
+
+		statistics = Map.copyOf(newStatistics);
+	}
+
+	/// Drains all datagrams that are currently queued on the channel without
+	/// blocking, handles each of them, and completes all handshakes whose key
+	/// derivation has finished in the meantime.
+	///
+	/// @param channel the channel to read from
+	/// @param currentTimeNanos the current time in nanoseconds
+	/// @return `true` if a client session was confirmed or a client resumed its
+	/// confirmed session
+	/// @throws IOException if an I/O error occurs
+	private boolean receiveFromClients(final EncryptedDatagramChannel channel, final long currentTimeNanos)
+			throws IOException {
+		var clientSessionsChanged = false;
+
+		ByteBuffer packet;
+		while ((packet = channel.receive(0L)) != null) {
+			clientSessionsChanged |= handlePacket(channel, packet, currentTimeNanos);
+		}
+
+		clientSessionsChanged |= completePendingKeyDerivations(channel, currentTimeNanos);
+
+		return clientSessionsChanged;
+	}
+
+	/// Requests this server run mode to stop by closing the UDP channel.
 	@Override
 	public void requestStop() {
 		super.requestStop();
 
-		if (serverSocket != null) {
-			serverSocket.close();
+		final var channel = this.channel;
+		if (channel != null) {
+			try {
+				channel.close();
+			} catch (final IOException e) {
+				logger.log(Level.WARNING, e.getMessage(), e);
+			}
 		}
 	}
 
-	/// Runs the server loop: binds a UDP socket, waits for a client handshake, then
-	/// repeatedly polls the controller, and - only when the input state has
-	/// actually changed since the last packet - serializes it, encrypts it, and
-	/// sends it to the connected client. Periodically checks that the client is
-	/// still alive.
+	/// Runs the server loop: binds a UDP channel, waits for client handshakes,
+	/// then repeatedly polls the controller, and - only when the input state has
+	/// actually changed since the last packet - encodes it once and sends it
+	/// encrypted to every connected client.
+	///
+	/// Sending is paced by the [#sendScheduler] rather than by the polling rate.
+	/// The send rate adapts to the loss and round-trip time measured for the
+	/// clients, within the bounds configured by the user.
+	///
+	/// Liveness of the clients is tracked without ever blocking the poll loop:
+	/// keep-alive requests are sent periodically, and every poll cycle drains the
+	/// datagrams the clients sent in the meantime, which includes handshakes of
+	/// joining clients. A client is considered lost once no authenticated packet
+	/// has been received from it for [#NUM_REQUEST_ALIVE_RETRIES] keep-alive
+	/// intervals. The server returns to listening once the last client is lost.
 	@Override
 	public void run() {
 		logStart();
 
-		final var clientPort = port + 1;
+		final var clientTimeoutNanos = (long) NUM_REQUEST_ALIVE_RETRIES * Math.max(timeout, REQUEST_ALIVE_INTERVAL)
+				* 1_000_000L;
 		var serverState = ServerState.LISTENING;
-		DatagramPacket receivePacket;
-		var counter = 0L;
-		var pollCycle = 0L;
-		var nextPollTimeNanos = 0L;
-
-		var lastSentAxesHash = 0;
-		var lastSentButtonsHash = 0;
-		var lastSentDownMouseButtonsHash = 0;
-		var lastSentDownKeystrokesHash = 0;
+		var lastRequestAliveTimeNanos = 0L;
+		var lastStatisticsLogTimeNanos = 0L;
+		var lastStatisticsPublishTimeNanos = 0L;
+		var numUpdatesSinceKeyframe = 0;
+
+		final var bodyBuffer = ByteBuffer.allocateDirect(MAX_UPDATE_BODY_LENGTH);
+		var updateMessage = new UpdateMessage();
+		var lastSentUpdateMessage = new UpdateMessage();
 		var hasLastSent = false;
+		var keyframePending = false;
 
 		try {
-			serverSocket = new DatagramSocket(port);
-			final var receiveBuf = new byte[1024];
+			final var channel = new EncryptedDatagramChannel(port, random);
+			this.channel = channel;
 
 			EventQueue.invokeLater(() -> main
 					.setStatusBarText(MessageFormat.format(Main.strings.getString("STATUS_LISTENING"), port)));
@@ -199,196 +625,153 @@ public final class ServerRunMode extends RunMode {
 
 				switch (serverState) {
 				case LISTENING -> {
-					counter = 0;
-					pollCycle = 0;
-					lastSentAxesHash = 0;
-					lastSentButtonsHash = 0;
-					lastSentDownMouseButtonsHash = 0;
-					lastSentDownKeystrokesHash = 0;
-					hasLastSent = false;
-
-					receivePacket = new DatagramPacket(receiveBuf, receiveBuf.length);
-					serverSocket.setSoTimeout(100);
-					for (;;) {
-						try {
-							serverSocket.receive(receivePacket);
-							break;
-						} catch (final SocketTimeoutException _) {
-							// expected when waiting for a client
-						}
+					final var packet = channel.receive(pendingKeyDerivations.isEmpty() ? 100L : 1L);
 
-						process();
+					final var connectTimeNanos = System.nanoTime();
+					if (packet != null) {
+						handlePacket(channel, packet, connectTimeNanos);
 					}
-					clientAddress = receivePacket.getAddress();
-					if (clientAddress == null) {
-						clientAddress = serverSocket.getInetAddress();
+					completePendingKeyDerivations(channel, connectTimeNanos);
+
+					// handshaking clients are asked to confirm their session until they answer or
+					// time out
+					if (connectTimeNanos - lastRequestAliveTimeNanos >= REQUEST_ALIVE_INTERVAL * 1_000_000L) {
+						sendRequestAlive(channel, clientSessions.getPendingSessions(), connectTimeNanos);
+						lastRequestAliveTimeNanos = connectTimeNanos;
 					}
-					if (clientAddress == null) {
+					clientSessions.removeTimedOut(connectTimeNanos, clientTimeoutNanos);
+
+					if (clientSessions.getConfirmedSessions().isEmpty()) {
 						break;
 					}
 
-					try (final var dataInputStream = new DataInputStream(
-							new ByteArrayInputStream(receivePacket.getData()))) {
-						final var messageType = dataInputStream.readInt();
-
-						if (messageType == MessageType.CLIENT_HELLO.getId()) {
-							final var salt = dataInputStream.readNBytes(SALT_LENGTH);
-							key = deriveKey(main, salt);
-
-							minAxisValue = dataInputStream.readInt();
-							maxAxisValue = dataInputStream.readInt();
-							setNumButtons(dataInputStream.readInt());
-
-							try (final var byteArrayOutputStream = new ByteArrayOutputStream();
-									final var dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
-								dataOutputStream.writeInt(MessageType.SERVER_HELLO.getId());
-								dataOutputStream.writeByte(PROTOCOL_VERSION);
-
-								sendEncrypted(byteArrayOutputStream, clientPort);
-							}
-
-							serverState = ServerState.CONNECTED;
-							nextPollTimeNanos = System.nanoTime() + pollingPeriodNanos;
-							if (!input.init()) {
-								controllerDisconnected();
-								return;
-							}
-							final var clientHostName = clientAddress.getCanonicalHostName();
-							EventQueue.invokeLater(() -> main.setStatusBarText(MessageFormat.format(
-									Main.strings.getString("STATUS_CONNECTED_TO"), clientHostName, clientPort)));
-						}
+					serverState = ServerState.CONNECTED;
+					resetPollSchedule();
+					lastRequestAliveTimeNanos = connectTimeNanos;
+					hasLastSent = false;
+					updateMessage.clearEvents();
+					sendScheduler.reset(connectTimeNanos);
+					if (!input.init()) {
+						controllerDisconnected();
+						return;
 					}
+					updateConnectedStatusBarText();
 				}
 				case CONNECTED -> {
-					final var sleepNanos = nextPollTimeNanos - System.nanoTime();
-					if (sleepNanos > 0L) {
-						// noinspection BusyWait
-						Thread.sleep(sleepNanos / 1_000_000L, (int) (sleepNanos % 1_000_000L));
-						nextPollTimeNanos += pollingPeriodNanos;
-					} else {
-						nextPollTimeNanos = System.nanoTime() + pollingPeriodNanos;
-					}
-
-					pollCycle++;
+					awaitNextPoll();
+					// the gamepad state only reflects the input that woke up the wait once the
+					// pending events have been processed
+					main.pollSdlEvents();
 
 					if (!pollInput()) {
 						controllerDisconnected();
 						return;
 					}
 
-					final var currentAxes = input.getAxes();
-					final var currentButtons = input.getButtons();
-					final var currentDownMouseButtons = input.getDownMouseButtons();
-					final var currentDownKeystrokes = input.getDownKeystrokes();
-					final var currentDownUpMouseButtons = input.getDownUpMouseButtons();
-					final var currentDownUpKeystrokes = input.getDownUpKeystrokes();
-					final var currentScrollClicks = input.getScrollClicks();
-					final var currentCursorDeltaX = input.getCursorDeltaX();
-					final var currentCursorDeltaY = input.getCursorDeltaY();
-					final var currentOnLockKeys = input.getOnLockKeys().stream().map(LockKey::virtualKeyCode)
-							.collect(Collectors.toSet());
-					final var currentOffLockKeys = input.getOffLockKeys().stream().map(LockKey::virtualKeyCode)
-							.collect(Collectors.toSet());
-
-					final var currentAxesHash = currentAxes.hashCode();
-					final var currentButtonsHash = Arrays.hashCode(currentButtons);
-					final var currentDownMouseButtonsHash = currentDownMouseButtons.hashCode();
-					final var currentDownKeystrokesHash = currentDownKeystrokes.hashCode();
-
-					final var stateChanged = !hasLastSent || currentAxesHash != lastSentAxesHash
-							|| currentButtonsHash != lastSentButtonsHash
-							|| currentDownMouseButtonsHash != lastSentDownMouseButtonsHash
-							|| currentDownKeystrokesHash != lastSentDownKeystrokesHash
-							|| !currentDownUpMouseButtons.isEmpty() || !currentDownUpKeystrokes.isEmpty()
-							|| !currentOnLockKeys.isEmpty() || !currentOffLockKeys.isEmpty() || currentCursorDeltaX != 0
-							|| currentCursorDeltaY != 0 || currentScrollClicks != 0;
-
-					if (stateChanged) {
-						try (final var byteArrayOutputStream = new ByteArrayOutputStream();
-								final var dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
-							dataOutputStream.writeInt(MessageType.UPDATE.getId());
-							dataOutputStream.writeLong(counter);
-
-							try (final var objectOutputStream = new ObjectOutputStream(dataOutputStream)) {
-								objectOutputStream.writeObject(currentAxes);
-								objectOutputStream.writeObject(currentButtons);
-								objectOutputStream.writeInt(currentCursorDeltaX);
-								objectOutputStream.writeInt(currentCursorDeltaY);
-								objectOutputStream.writeObject(currentDownMouseButtons);
-								objectOutputStream.writeObject(currentDownUpMouseButtons);
-								objectOutputStream.writeObject(currentDownKeystrokes);
-								objectOutputStream.writeObject(currentDownUpKeystrokes);
-
-								objectOutputStream.writeInt(currentScrollClicks);
-
-								objectOutputStream.writeObject(currentOnLockKeys);
-								objectOutputStream.writeObject(currentOffLockKeys);
-
-								input.setCursorDeltaX(0);
-								input.setCursorDeltaY(0);
-
-								input.getDownUpMouseButtons().clear();
-								input.getDownUpKeystrokes().clear();
-
-								input.setScrollClicks(0);
-
-								input.getOnLockKeys().clear();
-								input.getOffLockKeys().clear();
-
-								sendEncrypted(byteArrayOutputStream, clientPort);
-								counter++;
-							}
+					final var currentTimeNanos = System.nanoTime();
+					final var requestAlive = currentTimeNanos
+							- lastRequestAliveTimeNanos >= REQUEST_ALIVE_INTERVAL * 1_000_000L;
+
+					// input is polled at the polling rate, but updates are only sent at the send
+					// rate: every poll replaces the held state of the next update, while one-shot
+					// events accumulate until it is sent
+					updateMessage.accumulate(input);
+					updateMessage.setTimestampMicros((currentTimeNanos - startTimeNanos) / 1_000L);
+
+					input.setCursorDeltaX(0);
+					input.setCursorDeltaY(0);
+
+					input.clearDownUpMouseButtons();
+					input.getDownUpKeystrokes().clear();
+
+					input.setScrollClicks(0);
+
+					input.getOnLockKeys().clear();
+					input.getOffLockKeys().clear();
+
+					// a keyframe is sent along with every keep-alive request so that the clients
+					// recover the full state even if the input has been idle, and messages keep
+					// being sent while event blocks still need to be repeated
+					keyframePending |= requestAlive;
+					if (!hasLastSent || (sendScheduler.isSendDue(currentTimeNanos) && (keyframePending
+							|| updateMessage.hasEvents() || eventHistory.hasPending()
+							|| !updateMessage.heldStateEquals(lastSentUpdateMessage)))) {
+						final var keyframe = !hasLastSent || keyframePending
+								|| numUpdatesSinceKeyframe >= KEYFRAME_INTERVAL - 1;
+						numUpdatesSinceKeyframe = keyframe ? 0 : numUpdatesSinceKeyframe + 1;
+						keyframePending = false;
+
+						if (updateMessage.hasEvents()) {
+							eventHistory.add(updateMessage);
+						}
+
+						bodyBuffer.clear();
+						updateMessage.writeBody(bodyBuffer, keyframe ? null : lastSentUpdateMessage, eventHistory);
+						final var bodyLength = bodyBuffer.position();
+
+						final var confirmedClientSessions = clientSessions.getConfirmedSessions();
+						for (var i = 0; i < confirmedClientSessions.size(); i++) {
+							final var clientSession = confirmedClientSessions.get(i);
+
+							final var messageBuffer = channel.beginMessage();
+							messageBuffer.putInt(MessageType.UPDATE.getId());
+							UpdateMessage.putVarLong(messageBuffer, clientSession.counter);
+							messageBuffer.put(messageBuffer.position(), bodyBuffer, 0, bodyLength);
+							messageBuffer.position(messageBuffer.position() + bodyLength);
+
+							channel.sendEncrypted(clientSession.key, clientSession.socketAddress);
+							clientSession.counter++;
 						}
+						sendScheduler.onSend(currentTimeNanos);
 
-						lastSentAxesHash = currentAxesHash;
-						lastSentButtonsHash = currentButtonsHash;
-						lastSentDownMouseButtonsHash = currentDownMouseButtonsHash;
-						lastSentDownKeystrokesHash = currentDownKeystrokesHash;
+						final var previousUpdateMessage = lastSentUpdateMessage;
+						lastSentUpdateMessage = updateMessage;
+						updateMessage = previousUpdateMessage;
+						updateMessage.clearEvents();
 						hasLastSent = true;
 					}
 
-					if (pollCycle % REQUEST_ALIVE_INTERVAL == 0) {
-						var gotClientAlive = false;
-						for (var i = 0; i < NUM_REQUEST_ALIVE_RETRIES; i++) {
-							try (final var byteArrayOutputStream = new ByteArrayOutputStream();
-									final var dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
-								dataOutputStream.writeInt(MessageType.REQUEST_ALIVE.getId());
-
-								sendEncrypted(byteArrayOutputStream, clientPort);
-							}
-
-							receivePacket = new DatagramPacket(receiveBuf, receiveBuf.length);
-							serverSocket.setSoTimeout(timeout);
-							try {
-								serverSocket.receive(receivePacket);
-
-								if (clientAddress != null && clientAddress.equals(receivePacket.getAddress())) {
-									try (final var byteArrayInputStream = new ByteArrayInputStream(
-											receivePacket.getData());
-											final var dataInputStream = new DataInputStream(byteArrayInputStream)) {
-										final var messageType = dataInputStream.readInt();
-										if (messageType == MessageType.CLIENT_ALIVE.getId()) {
-											gotClientAlive = true;
-											break;
-										}
-									}
-								}
-							} catch (final SocketTimeoutException _) {
-								// handled below
-							}
-						}
+					if (requestAlive) {
+						sendRequestAlive(channel, clientSessions.getConfirmedSessions(), currentTimeNanos);
+						sendRequestAlive(channel, clientSessions.getPendingSessions(), currentTimeNanos);
+						lastRequestAliveTimeNanos = currentTimeNanos;
+					}
 
-						if (! gotClientAlive) {
-							input.reset();
-							input.deInit();
+					// a joining or resuming client needs a keyframe to obtain the full state
+					var clientSessionsChanged = receiveFromClients(channel, currentTimeNanos);
+					if (clientSessionsChanged) {
+						hasLastSent = false;
+					}
 
-							main.setStatusBarText(Main.strings.getString("STATUS_TIMEOUT"));
-							main.scheduleStatusBarText(
-									MessageFormat.format(Main.strings.getString("STATUS_LISTENING"), port));
+					clientSessionsChanged |= clientSessions.removeTimedOut(currentTimeNanos, clientTimeoutNanos);
 
-							serverState = ServerState.LISTENING;
+					// the status bar shows the statistics of a single client, so it is refreshed
+					// whenever they are published
+					var statusBarTextChanged = clientSessionsChanged;
+					if (currentTimeNanos - lastStatisticsPublishTimeNanos >= LinkStatistics.PUBLISH_INTERVAL_NANOS) {
+						publishStatistics();
+						adaptSendRate();
+						lastStatisticsPublishTimeNanos = currentTimeNanos;
+						statusBarTextChanged |= clientSessions.getConfirmedSessions().size() == 1;
+
+						if (currentTimeNanos - lastStatisticsLogTimeNanos >= LinkStatistics.LOG_INTERVAL_NANOS) {
+							logStatistics();
+							lastStatisticsLogTimeNanos = currentTimeNanos;
 						}
 					}
+
+					if (clientSessions.getConfirmedSessions().isEmpty()) {
+						input.reset();
+						input.deInit();
+
+						main.setStatusBarText(Main.strings.getString("STATUS_TIMEOUT"));
+						main.scheduleStatusBarText(
+								MessageFormat.format(Main.strings.getString("STATUS_LISTENING"), port));
+
+						serverState = ServerState.LISTENING;
+					} else if (statusBarTextChanged) {
+						updateConnectedStatusBarText();
+					}
 				}
 				}
 			}
@@ -397,7 +780,7 @@ public final class ServerRunMode extends RunMode {
 			EventQueue.invokeLater(() -> GuiUtils.showMessageDialog(main, main,
 					MessageFormat.format(Main.strings.getString("COULD_NOT_OPEN_SOCKET_DIALOG_TEXT"), port),
 					Main.strings.getString("ERROR_DIALOG_TITLE"), JOptionPane.ERROR_MESSAGE));
-		} catch (final SocketException e) {
+		} catch (final SocketException | ClosedChannelException e) {
 			logger.log(Level.FINE, e.getMessage(), e);
 		} catch (final IOException e) {
 			logger.log(Level.SEVERE, e.getMessage(), e);
@@ -407,10 +790,20 @@ public final class ServerRunMode extends RunMode {
 		} catch (final InterruptedException _) {
 			Thread.currentThread().interrupt();
 		} finally {
+			closePacer();
+			clientSessions.clear();
+			statistics = Map.of();
+			pendingKeyDerivations.clear();
+			keyDerivationExecutor.shutdownNow();
 			input.reset();
 
-			if (serverSocket != null) {
-				serverSocket.close();
+			final var channel = this.channel;
+			if (channel != null) {
+				try {
+					channel.close();
+				} catch (final IOException e) {
+					logger.log(Level.WARNING, e.getMessage(), e);
+				}
 			}
 
 			EventQueue.invokeLater(() -> {
@@ -422,36 +815,57 @@ public final class ServerRunMode extends RunMode {
 		logStop();
 	}
 
-	/// Encrypts the contents of the given output stream with AES-GCM and sends the
-	/// resulting datagram to the client.
-	///
-	/// A fresh random IV is generated for each call. The IV is prepended to the
-	/// encrypted payload in the datagram.
+	/// Sends a [MessageType#REQUEST_ALIVE] carrying a timing record to the client
+	/// of the given session.
 	///
-	/// @param byteArrayOutputStream the buffer holding the plaintext message
-	/// @param clientPort the UDP port of the client
-	/// @throws IOException if the datagram cannot be sent
-	private void sendEncrypted(final ByteArrayOutputStream byteArrayOutputStream, final int clientPort)
-			throws IOException {
-		Objects.requireNonNull(cipher, "Field cipher must not be null");
-		Objects.requireNonNull(serverSocket, "Field serverSocket must not be null");
-
-		final var messageBytes = byteArrayOutputStream.toByteArray();
-		try {
-			random.nextBytes(iv);
-			cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, iv));
+	/// @param channel the channel to send on
+	/// @param clientSession the session of the client
+	/// @param currentTimeNanos the current time in nanoseconds
+	/// @throws IOException if the message cannot be sent
+	private static void sendRequestAlive(final EncryptedDatagramChannel channel, final ClientSession clientSession,
+			final long currentTimeNanos) throws IOException {
+		final var messageBuffer = channel.beginMessage().putInt(MessageType.REQUEST_ALIVE.getId());
+		clientSession.statistics.writeTiming(messageBuffer, currentTimeNanos);
+		channel.sendEncrypted(clientSession.key, clientSession.socketAddress);
+	}
 
-			final var encryptedBytes = cipher.doFinal(messageBytes);
-			final var packetByteBuffer = ByteBuffer.allocate(iv.length + encryptedBytes.length);
-			packetByteBuffer.put(iv);
-			packetByteBuffer.put(encryptedBytes);
-			final var packetBytes = packetByteBuffer.array();
+	/// Sends a [MessageType#REQUEST_ALIVE] to the clients of all given sessions.
+	///
+	/// @param channel the channel to send on
+	/// @param clientSessions the sessions of the clients
+	/// @param currentTimeNanos the current time in nanoseconds
+	/// @throws IOException if a message cannot be sent
+	private static void sendRequestAlive(final EncryptedDatagramChannel channel,
+			final List<ClientSession> clientSessions, final long currentTimeNanos) throws IOException {
+		for (var i = 0; i < clientSessions.size(); i++) {
+			sendRequestAlive(channel, clientSessions.get(i), currentTimeNanos);
+		}
+	}
 
-			final var datagramPacket = new DatagramPacket(packetBytes, packetBytes.length, clientAddress, clientPort);
-			serverSocket.send(datagramPacket);
-		} catch (final GeneralSecurityException e) {
-			throw new RuntimeException(e);
+	/// Shows the connected client together with its network statistics, or the
+	/// number of connected clients if there is more than one, in the status bar.
+	private void updateConnectedStatusBarText() {
+		final var confirmedClientSessions = clientSessions.getConfirmedSessions();
+
+		final String statusBarText;
+		if (confirmedClientSessions.size() == 1) {
+			final var clientSession = confirmedClientSessions.getFirst();
+			final var clientStatistics = statistics.get(clientSession.address);
+			if (clientStatistics != null && clientStatistics.oneWayLatencyNanos() >= 0L) {
+				statusBarText = MessageFormat.format(Main.strings.getString("STATUS_CONNECTED_TO_WITH_STATISTICS"),
+						clientSession.address.getCanonicalHostName(), clientSession.socketAddress.getPort(),
+						clientStatistics.rttMillis(), clientStatistics.oneWayLatencyMillis(),
+						clientStatistics.jitterMillis(), clientStatistics.lossRatio());
+			} else {
+				statusBarText = MessageFormat.format(Main.strings.getString("STATUS_CONNECTED_TO"),
+						clientSession.address.getCanonicalHostName(), clientSession.socketAddress.getPort());
+			}
+		} else {
+			statusBarText = MessageFormat.format(Main.strings.getString("STATUS_CONNECTED_TO_CLIENTS"),
+					confirmedClientSessions.size());
 		}
+
+		EventQueue.invokeLater(() -> main.setStatusBarText(statusBarText));
 	}
 
 	/// Identifies the type of message exchanged between client and server.
@@ -469,13 +883,16 @@ public final class ServerRunMode extends RunMode {
 		/// Periodic input-state update sent from the server to the client
 		UPDATE(2),
 
-		/// Keep-alive probe sent by the server when no update has been transmitted
-		/// recently
+		/// Keep-alive probe periodically sent by the server
 		REQUEST_ALIVE(3),
 
-		/// Keep-alive reply sent by the client in response to
+		/// Encrypted keep-alive reply sent by the client in response to
 		/// [MessageType#REQUEST_ALIVE]
-		CLIENT_ALIVE(4);
+		CLIENT_ALIVE(4),
+
+		/// Handshake message sent by a client that resumes a session with a
+		/// session ticket instead of a key derivation salt
+		CLIENT_RESUME(5);
 
 		/// Map from numeric ID to [MessageType] constant for fast lookup.
 		private static final Map<Integer, MessageType> ID_TO_MESSAGE_TYPE_MAP = Arrays.stream(values())
@@ -510,12 +927,47 @@ public final class ServerRunMode extends RunMode {
 	/// The possible states of the server run mode.
 	///
 	/// Indicates whether the server is waiting for a client or
-	/// actively streaming input data to a connected client.
+	/// actively streaming input data to connected clients.
 	public enum ServerState {
 		/// The server is listening for incoming client connections.
 		LISTENING,
 
-		/// The server is connected to a client.
+		/// The server is connected to at least one client.
 		CONNECTED
 	}
+
+	/// Parameters sent by a client in a [MessageType#CLIENT_HELLO] or
+	/// [MessageType#CLIENT_RESUME] message.
+	///
+	/// @param address the IP address of the client
+	/// @param minAxisValue the minimum axis value of the client's output device
+	/// @param maxAxisValue the maximum axis value of the client's output device
+	/// @param numButtons the number of buttons of the client's output device
+	/// @param protocolVersion the protocol version of the client, or `-1` if the
+	/// client did not send one
+	record Handshake(InetAddress address, int minAxisValue, int maxAxisValue, int numButtons,
+			int protocolVersion) {
+
+		/// Reads the handshake parameters from the given packet.
+		///
+		/// @param packet the packet positioned at the handshake parameters
+		/// @param address the IP address of the client
+		/// @return the handshake parameters
+		static Handshake read(final ByteBuffer packet, final InetAddress address) {
+			final var minAxisValue = packet.getInt();
+			final var maxAxisValue = packet.getInt();
+			final var numButtons = packet.getInt();
+			final var protocolVersion = packet.hasRemaining() ? packet.get() : -1;
+
+			return new Handshake(address, minAxisValue, maxAxisValue, numButtons, protocolVersion);
+		}
+	}
+
+	/// Key derivation of a handshaking client that runs on the
+	/// [#keyDerivationExecutor].
+	///
+	/// @param handshake the handshake parameters sent by the client
+	/// @param keyFuture the future completed with the derived key
+	private record PendingKeyDerivation(Handshake handshake, Future<Key> keyFuture) {
+	}
 }
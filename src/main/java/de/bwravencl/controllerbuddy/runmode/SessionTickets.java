@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.Random;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.jspecify.annotations.Nullable;
+
+/// Issues and redeems the session tickets that allow a [ClientRunMode] to
+/// resume a session with a [ServerRunMode] without repeating the
+/// password-based key derivation.
+///
+/// A ticket contains the session key of the client and an expiry time,
+/// encrypted with AES-GCM under a random ticket key that never leaves the
+/// server. The IP address of the client is authenticated along with the
+/// ticket, so that a ticket can only be redeemed from the address it was issued
+/// to. The ticket key is generated anew for every instance, therefore all
+/// tickets become invalid once the server is restarted.
+final class SessionTickets {
+
+	/// Length in bytes of an encoded session ticket.
+	static final int TICKET_LENGTH = ServerRunMode.IV_LENGTH + ServerRunMode.KEY_LENGTH + Long.BYTES
+			+ ServerRunMode.TAG_LENGTH / Byte.SIZE;
+
+	/// Time in nanoseconds after which an issued ticket can no longer be
+	/// redeemed.
+	private static final long TICKET_LIFETIME_NANOS = 60L * 60L * 1_000_000_000L;
+
+	/// AES-GCM cipher instance used for sealing and opening tickets.
+	private final Cipher cipher;
+
+	/// Reusable buffer holding the current AES-GCM initialization vector.
+	private final byte[] iv = new byte[ServerRunMode.IV_LENGTH];
+
+	/// Random number generator used for generating IVs.
+	private final Random random;
+
+	/// Secret key used for sealing and opening tickets.
+	private final Key ticketKey;
+
+	/// Constructs a [SessionTickets] instance with a fresh random ticket key.
+	///
+	/// @param random the random number generator used for generating the ticket
+	/// key and IVs
+	SessionTickets(final Random random) {
+		this.random = random;
+
+		try {
+			cipher = Cipher.getInstance(ServerRunMode.CIPHER_TRANSFORMATION);
+		} catch (final GeneralSecurityException e) {
+			throw new RuntimeException(e);
+		}
+
+		final var ticketKeyBytes = new byte[ServerRunMode.KEY_LENGTH];
+		random.nextBytes(ticketKeyBytes);
+		ticketKey = new SecretKeySpec(ticketKeyBytes, "AES");
+	}
+
+	/// Issues a ticket for the given session key and writes it into the given
+	/// buffer.
+	///
+	/// @param key the session key of the client
+	/// @param clientAddress the IP address of the client the ticket is issued to
+	/// @param currentTimeNanos the current time in nanoseconds
+	/// @param buffer the buffer to write the ticket to
+	void issue(final Key key, final InetAddress clientAddress, final long currentTimeNanos,
+			final ByteBuffer buffer) {
+		final var plaintext = ByteBuffer.allocate(ServerRunMode.KEY_LENGTH + Long.BYTES).put(key.getEncoded())
+				.putLong(currentTimeNanos + TICKET_LIFETIME_NANOS).flip();
+
+		try {
+			random.nextBytes(iv);
+			cipher.init(Cipher.ENCRYPT_MODE, ticketKey, new GCMParameterSpec(ServerRunMode.TAG_LENGTH, iv));
+			cipher.updateAAD(clientAddress.getAddress());
+
+			buffer.put(iv);
+			cipher.doFinal(plaintext, buffer);
+		} catch (final GeneralSecurityException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/// Redeems the ticket contained in the remaining content of the given buffer.
+	///
+	/// @param buffer the buffer positioned at the start of the ticket
+	/// @param clientAddress the IP address of the client redeeming the ticket
+	/// @param currentTimeNanos the current time in nanoseconds
+	/// @return the session key, or `null` if the ticket is malformed, has been
+	/// tampered with, has expired, or was issued to a different address
+	@Nullable
+	Key redeem(final ByteBuffer buffer, final InetAddress clientAddress, final long currentTimeNanos) {
+		if (buffer.remaining() != TICKET_LENGTH) {
+			return null;
+		}
+
+		final var plaintext = ByteBuffer.allocate(ServerRunMode.KEY_LENGTH + Long.BYTES);
+		try {
+			buffer.get(iv);
+			cipher.init(Cipher.DECRYPT_MODE, ticketKey, new GCMParameterSpec(ServerRunMode.TAG_LENGTH, iv));
+			cipher.updateAAD(clientAddress.getAddress());
+
+			cipher.doFinal(buffer, plaintext);
+		} catch (final GeneralSecurityException _) {
+			return null;
+		}
+		plaintext.flip();
+
+		final var keyBytes = new byte[ServerRunMode.KEY_LENGTH];
+		plaintext.get(keyBytes);
+		if (currentTimeNanos - plaintext.getLong() > 0L) {
+			return null;
+		}
+
+		return new SecretKeySpec(keyBytes, "AES");
+	}
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+/// [Pacer] that sleeps until the deadline using [Thread#sleep(long, int)].
+///
+/// Consumes no CPU time while waiting, but depending on the platform and its
+/// timer slack it typically wakes up tens to hundreds of microseconds late.
+final class SleepPacer implements Pacer {
+
+	@Override
+	public void await(final long deadlineNanos) throws InterruptedException {
+		final var sleepNanos = deadlineNanos - System.nanoTime();
+		if (sleepNanos > 0L) {
+			Thread.sleep(sleepNanos / 1_000_000L, (int) (sleepNanos % 1_000_000L));
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import de.bwravencl.controllerbuddy.ffi.Linux;
+import de.bwravencl.controllerbuddy.ffi.Linux.itimerspec;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/// [Pacer] that blocks on a Linux `timerfd` until the deadline.
+///
+/// The timer is backed by a high-resolution kernel timer on the monotonic
+/// clock, which usually wakes up the thread more punctually than
+/// [Thread#sleep(long, int)] without spending CPU time on spinning. All native
+/// memory needed for arming and reading the timer is allocated once.
+final class TimerFdPacer implements Pacer {
+
+	/// Linux `EINTR` error number, returned when a blocking call was interrupted
+	/// by a signal.
+	private static final int EINTR = 4;
+
+	/// Arena owning the native memory of this pacer.
+	private final Arena arena = Arena.ofShared();
+
+	/// Segment capturing the `errno` value of `read` calls.
+	private final MemorySegment errno = arena.allocate(Linker.Option.captureStateLayout());
+
+	/// Buffer receiving the number of timer expirations.
+	private final MemorySegment expirations = arena.allocate(ValueLayout.JAVA_LONG);
+
+	/// The timer file descriptor.
+	private final int fd;
+
+	/// The `itimerspec` used to arm the timer.
+	private final MemorySegment timerSpec = arena.allocate(itimerspec.LAYOUT);
+
+	/// Constructs a [TimerFdPacer] and creates its timer.
+	///
+	/// @throws IOException if the timer cannot be created
+	TimerFdPacer() throws IOException {
+		fd = Linux.timerfd_create(Linux.CLOCK_MONOTONIC, Linux.TFD_CLOEXEC);
+		if (fd == -1) {
+			arena.close();
+			throw new IOException("timerfd_create() failed");
+		}
+	}
+
+	@Override
+	public void await(final long deadlineNanos) throws IOException, InterruptedException {
+		final var remainingNanos = deadlineNanos - System.nanoTime();
+		if (remainingNanos <= 0L) {
+			return;
+		}
+
+		itimerspec.setItValueNanos(timerSpec, remainingNanos);
+		if (Linux.timerfd_settime(fd, 0, timerSpec, MemorySegment.NULL) == -1) {
+			throw new IOException("timerfd_settime() failed");
+		}
+
+		while (Linux.read(fd, expirations, expirations.byteSize(), errno) == -1) {
+			final var errnoValue = Linux.getErrno(errno);
+			if (errnoValue != EINTR) {
+				throw new IOException("read() failed: " + errnoValue);
+			}
+		}
+
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+	}
+
+	/// Closes the timer file descriptor and releases the native memory.
+	///
+	/// @throws IOException if the timer file descriptor cannot be closed
+	@Override
+	public void close() throws IOException {
+		try {
+			if (Linux.close(fd) == -1) {
+				throw new IOException("close() failed");
+			}
+		} finally {
+			arena.close();
+		}
+	}
+}
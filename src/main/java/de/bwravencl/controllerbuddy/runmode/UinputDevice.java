@@ -47,6 +47,11 @@ import java.util.stream.Stream;
 /// uinput kernel interface, emitting input events, and tearing down
 /// the device on close. Device instances are cached per [DeviceType]
 /// and shared across callers.
+///
+/// Emitted events are not written one by one, but collected in a frame buffer
+/// that is written to the device with a single `write()` call by [#flush()].
+/// Unless a report is explicitly ended by [#syn()], all events of a frame form
+/// a single report, so that the kernel applies them atomically.
 public final class UinputDevice implements Closeable {
 
 	/// USB bus type identifier used when registering the virtual device.
@@ -64,9 +69,17 @@ public final class UinputDevice implements Closeable {
 	/// Linux event type constant for relative axis events.
 	private static final short EV_REL = 2;
 
+	/// Linux event type constant for autorepeat events.
+	private static final short EV_REP = 0x14;
+
 	/// Linux event type constant for synchronization events.
 	private static final short EV_SYN = 0;
 
+	/// Maximum number of events held in the frame buffer. If a frame grows
+	/// beyond this size, the buffered events are written before the frame is
+	/// complete.
+	private static final int FRAME_CAPACITY = 64;
+
 	/// USB product code reported by the virtual device.
 	private static final short PRODUCT_CODE = 0x5678;
 
@@ -78,12 +91,28 @@ public final class UinputDevice implements Closeable {
 
 	private static final Logger logger = Logger.getLogger(UinputDevice.class.getName());
 
+	/// Whether the kernel autorepeats the keys of this device.
+	private final boolean autoRepeat;
+
 	/// File descriptor for the open uinput device node.
 	private final int fd;
 
+	/// Call state segment that captures the `errno` value of failed `ioctl`
+	/// calls.
+	private final MemorySegment errnoState = Arena.ofAuto().allocate(Linker.Option.captureStateLayout());
+
+	/// Buffer of `input_event` structs collected for the current frame.
+	private final MemorySegment frameBuffer = Arena.ofAuto().allocate(input_event.LAYOUT, FRAME_CAPACITY);
+
 	/// Human-readable name of this virtual device.
 	private final String name;
 
+	/// Number of events in [#frameBuffer].
+	private int numFrameEvents;
+
+	/// Whether events have been emitted since the last `SYN_REPORT`.
+	private boolean reportPending;
+
 	/// Constructs a [UinputDevice] instance.
 	///
 	/// Opens the `/dev/uinput` device, configures the supported event codes, and
@@ -97,6 +126,7 @@ public final class UinputDevice implements Closeable {
 		}
 
 		name = deviceType.name;
+		autoRepeat = deviceType.autoRepeat;
 
 		try (final var arena = Arena.ofConfined()) {
 			fd = Linux.open(arena.allocateFrom(DEVICE_PATH.toString()), Linux.O_WRONLY | Linux.O_NONBLOCK);
@@ -125,6 +155,10 @@ public final class UinputDevice implements Closeable {
 				}
 			}
 
+			if (autoRepeat) {
+				ioctlChecked(fd, Linux.UI_SET_EVBIT, MemorySegment.ofAddress(EV_REP));
+			}
+
 			final var uinputSetup = arena.allocate(uinput_setup.LAYOUT);
 			final var uinputSetupName = uinput_setup.getName(uinputSetup);
 			uinputSetupName.setString(0L, name);
@@ -140,6 +174,20 @@ public final class UinputDevice implements Closeable {
 		ioctlChecked(fd, Linux.UI_DEV_CREATE, MemorySegment.NULL);
 	}
 
+	/// Constructs a [UinputDevice] that writes its events to an already open file
+	/// descriptor, without creating a virtual input device.
+	///
+	/// Intended for benchmarks, which write to a stand-in file descriptor such as
+	/// one of `/dev/null`.
+	///
+	/// @param fd the open file descriptor to write the events to
+	/// @param name the human-readable name of the device
+	UinputDevice(final int fd, final String name) {
+		this.fd = fd;
+		this.name = name;
+		autoRepeat = false;
+	}
+
 	/// Returns an open [UinputDevice] for the given device type, creating it if
 	/// it does not already exist in the device cache.
 	///
@@ -171,6 +219,26 @@ public final class UinputDevice implements Closeable {
 		});
 	}
 
+	/// Appends an input event to the frame buffer.
+	///
+	/// If the frame buffer is full, the buffered events are written to the
+	/// device first.
+	///
+	/// @param event the event type and code
+	/// @param value the event value
+	/// @throws IOException if the frame buffer is full and writing it fails
+	private void append(final Event event, final int value) throws IOException {
+		if (numFrameEvents == FRAME_CAPACITY) {
+			writeFrameBuffer();
+		}
+
+		input_event.setCode(frameBuffer, numFrameEvents, event.code);
+		input_event.setType(frameBuffer, numFrameEvents, event.type);
+		input_event.setValue(frameBuffer, numFrameEvents, value);
+
+		numFrameEvents++;
+	}
+
 	/// Destroys the uinput device and closes the underlying file descriptor.
 	///
 	/// @throws IOException if the device cannot be destroyed or closed
@@ -185,27 +253,31 @@ public final class UinputDevice implements Closeable {
 		logger.info("Closed uinput device: " + this);
 	}
 
-	/// Writes a single input event to the uinput device, optionally followed by a
-	/// synchronization report.
+	/// Adds an input event to the current report of the frame.
+	///
+	/// The event is not written until the frame is flushed by [#flush()].
 	///
 	/// @param event the event type and code to emit
 	/// @param value the event value (e.g. 1 for key-down, 0 for key-up)
-	/// @param syn `true` to follow the event with a `SYN_REPORT`
-	/// @throws IOException if the write fails
-	void emit(final Event event, final int value, final boolean syn) throws IOException {
-		try (final var arena = Arena.ofConfined()) {
-			final var inputEvent = arena.allocate(input_event.LAYOUT);
-			input_event.setCode(inputEvent, event.code);
-			input_event.setType(inputEvent, event.type);
-			input_event.setValue(inputEvent, value);
+	/// @throws IOException if the frame buffer is full and writing it fails
+	void emit(final Event event, final int value) throws IOException {
+		append(event, value);
+		reportPending = true;
+	}
 
-			if (Linux.write(fd, inputEvent, inputEvent.byteSize()) == -1) {
-				throw new IOException("write() failed");
-			}
+	/// Ends the current report of the frame, if any events have been emitted,
+	/// and writes all buffered events to the device in a single `write()` call.
+	///
+	/// Does nothing if no events have been buffered.
+	///
+	/// @throws IOException if the write fails
+	void flush() throws IOException {
+		if (reportPending) {
+			syn();
 		}
 
-		if (syn) {
-			syn();
+		if (numFrameEvents > 0) {
+			writeFrameBuffer();
 		}
 	}
 
@@ -216,22 +288,45 @@ public final class UinputDevice implements Closeable {
 	/// @param argp the argument memory segment passed to the call
 	/// @throws IOException if the `ioctl` call returns -1
 	private void ioctlChecked(final int fd, final long request, final MemorySegment argp) throws IOException {
-		try (final var arena = Arena.ofConfined()) {
-			final var errno = arena.allocate(Linker.Option.captureStateLayout());
+		if (Linux.ioctl(fd, request, argp, errnoState) == -1) {
+			final var errnoValue = Linux.getErrno(errnoState);
+			throw new IOException("ioctl() failed: " + errnoValue);
+		}
+	}
 
-			if (Linux.ioctl(fd, request, argp, errno) == -1) {
-				final var errnoValue = Linux.getErrno(errno);
-				throw new IOException("ioctl() failed: " + errnoValue);
-			}
+	/// Configures the kernel's autorepeat of held keys and writes the
+	/// configuration to the device immediately.
+	///
+	/// While a key is held, the kernel repeats it after the given delay with the
+	/// given period, so that only the actual presses and releases of keys need to
+	/// be emitted.
+	///
+	/// @param delayMillis the time in milliseconds a key must be held before it
+	/// is repeated
+	/// @param periodMillis the time in milliseconds between two repeats
+	/// @throws IOException if the write fails
+	/// @throws UnsupportedOperationException if the device type does not support
+	/// autorepeat
+	void setKeyRepeat(final int delayMillis, final int periodMillis) throws IOException {
+		if (!autoRepeat) {
+			throw new UnsupportedOperationException("Autorepeat is not supported by uinput device: " + this);
 		}
+
+		emit(Event.REP_DELAY, delayMillis);
+		emit(Event.REP_PERIOD, periodMillis);
+		flush();
 	}
 
-	/// Emits a `SYN_REPORT` event to signal the end of an event batch to the
-	/// kernel.
+	/// Ends the current report of the frame with a `SYN_REPORT` event.
+	///
+	/// Only needs to be called if events of the same frame must be reported
+	/// separately, for example the press and the release of a key, as
+	/// [#flush()] ends the last report automatically.
 	///
-	/// @throws IOException if the event cannot be written
+	/// @throws IOException if the frame buffer is full and writing it fails
 	void syn() throws IOException {
-		emit(Event.SYN_REPORT, 0, false);
+		append(Event.SYN_REPORT, 0);
+		reportPending = false;
 	}
 
 	/// Returns the human-readable name of this uinput device.
@@ -242,6 +337,19 @@ public final class UinputDevice implements Closeable {
 		return name;
 	}
 
+	/// Writes the events in the frame buffer to the device and empties the
+	/// buffer.
+	///
+	/// @throws IOException if the write fails
+	private void writeFrameBuffer() throws IOException {
+		final var byteCount = numFrameEvents * input_event.LAYOUT.byteSize();
+		numFrameEvents = 0;
+
+		if (Linux.write(fd, frameBuffer, byteCount) != byteCount) {
+			throw new IOException("write() failed");
+		}
+	}
+
 	/// Classifies a uinput virtual device by its function.
 	///
 	/// Determines which set of [Event] values the device registers with the
@@ -251,13 +359,17 @@ public final class UinputDevice implements Closeable {
 
 		/// A virtual joystick/gamepad device that supports absolute axes and joystick
 		/// buttons
-		JOYSTICK(Event.joystickEvents),
+		JOYSTICK(Event.joystickEvents, false),
 
-		/// A virtual keyboard device that supports key events
-		KEYBOARD(Event.keyboardEvents),
+		/// A virtual keyboard device that supports key events and the kernel's
+		/// autorepeat of held keys
+		KEYBOARD(Event.keyboardEvents, true),
 
 		/// A virtual mouse device that supports relative axes and mouse buttons
-		MOUSE(Event.mouseEvents);
+		MOUSE(Event.mouseEvents, false);
+
+		/// Whether the kernel autorepeats the held keys of the device.
+		private final boolean autoRepeat;
 
 		/// Human-readable name of the virtual device derived from the enum constant.
 		private final String name;
@@ -269,18 +381,22 @@ public final class UinputDevice implements Closeable {
 		/// application name and the enum constant name.
 		///
 		/// @param supportedEvents the events that the device registers with the kernel
-		DeviceType(final Event[] supportedEvents) {
+		/// @param autoRepeat whether the kernel autorepeats the held keys of the
+		/// device
+		DeviceType(final Event[] supportedEvents, final boolean autoRepeat) {
 			final var enumName = name();
 			name = Constants.APPLICATION_NAME + " " + enumName.charAt(0)
 					+ enumName.substring(1).toLowerCase(Locale.ROOT);
 			this.supportedEvents = Set.of(supportedEvents);
+			this.autoRepeat = autoRepeat;
 		}
 	}
 
 	/// Linux input event codes used with uinput.
 	///
 	/// Covers keyboard keys, mouse buttons, joystick buttons,
-	/// absolute axes, relative axes, and the synchronization report.
+	/// absolute axes, relative axes, the synchronization report, and the
+	/// autorepeat configuration.
 	public enum Event {
 
 		/// Escape key
@@ -778,6 +894,12 @@ public final class UinputDevice implements Closeable {
 		/// Synchronization report
 		SYN_REPORT((short) 0, EV_SYN),
 
+		/// Autorepeat delay in milliseconds
+		REP_DELAY((short) 0x0, EV_REP),
+
+		/// Autorepeat period in milliseconds
+		REP_PERIOD((short) 0x1, EV_REP),
+
 		/// Absolute X axis
 		ABS_X((short) 0x0, EV_ABS),
 
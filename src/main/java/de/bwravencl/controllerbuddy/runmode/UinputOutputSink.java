@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import de.bwravencl.controllerbuddy.input.LockKey;
+import de.bwravencl.controllerbuddy.input.Scancode;
+import de.bwravencl.controllerbuddy.input.VirtualAxis;
+import de.bwravencl.controllerbuddy.runmode.UinputDevice.DeviceType;
+import de.bwravencl.controllerbuddy.runmode.UinputDevice.Event;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.spi.AbstractInterruptibleChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import org.jspecify.annotations.Nullable;
+
+/// [OutputSink] for Linux that writes the output to virtual uinput joystick,
+/// keyboard and mouse devices.
+///
+/// The events of a frame are buffered per device and written by [#flush()], so
+/// that each device receives the changes of a frame as one report. The state
+/// of the lock keys is determined from the keyboard LEDs in sysfs.
+final class UinputOutputSink implements OutputSink {
+
+	/// Filename of the sysfs brightness file for keyboard LEDs.
+	private static final String SYSFS_BRIGHTNESS_FILENAME = "brightness";
+
+	/// Regex prefix used to match sysfs input subdirectory names.
+	private static final String SYSFS_INPUT_DIR_REGEX_PREFIX = "input\\d+::";
+
+	/// Path to the sysfs LED class directory.
+	private static final String SYSFS_LEDS_DIR = File.separator + "sys" + File.separator + "class" + File.separator
+			+ "leds";
+
+	private static final Logger logger = Logger.getLogger(UinputOutputSink.class.getName());
+
+	/// Buffer used when reading brightness values from sysfs LED files.
+	private final ByteBuffer brightnessByteBuffer = ByteBuffer.allocateDirect(1);
+
+	/// uinput device representing the virtual joystick.
+	private final UinputDevice joystickUinputDevice;
+
+	/// uinput device representing the virtual keyboard.
+	private final UinputDevice keyboardUinputDevice;
+
+	/// uinput device representing the virtual mouse.
+	private final UinputDevice mouseUinputDevice;
+
+	/// Key repeat rate in hertz that the kernel's autorepeat is configured with,
+	/// or `0` if it has not been configured yet.
+	private long keyRepeatRate;
+
+	/// Maps lock keys to the sysfs file channels used to read their LEDs.
+	private @Nullable Map<LockKey, FileChannel> lockKeyToBrightnessFileChannelMap;
+
+	/// Constructs a [UinputOutputSink], opening the virtual joystick, mouse and
+	/// keyboard devices.
+	///
+	/// @throws IOException if a uinput device cannot be opened
+	UinputOutputSink() throws IOException {
+		joystickUinputDevice = UinputDevice.openUinputDevice(DeviceType.JOYSTICK);
+		mouseUinputDevice = UinputDevice.openUinputDevice(DeviceType.MOUSE);
+		keyboardUinputDevice = UinputDevice.openUinputDevice(DeviceType.KEYBOARD);
+	}
+
+	/// Returns the uinput event of the given mouse button.
+	///
+	/// @param button the mouse button number
+	/// @return the uinput event of the mouse button
+	/// @throws IllegalArgumentException if the mouse button number is invalid
+	private static Event mouseButtonEvent(final int button) {
+		return switch (button) {
+		case 1 -> Event.BTN_LEFT;
+		case 2 -> Event.BTN_RIGHT;
+		case 3 -> Event.BTN_MIDDLE;
+		case 4 -> Event.BTN_SIDE;
+		case 5 -> Event.BTN_EXTRA;
+		default -> throw OutputSink.buildInvalidMouseButtonException(button);
+		};
+	}
+
+	/// Resets all axes and buttons of the virtual joystick, writes the buffered
+	/// events of all devices and closes the sysfs LED files.
+	///
+	/// The uinput devices themselves stay open, as they are shared via the
+	/// device cache of [UinputDevice].
+	///
+	/// @throws IOException if writing to a device fails
+	@Override
+	public void close() throws IOException {
+		try {
+			for (final var event : Event.joystickEvents) {
+				joystickUinputDevice.emit(event, 0);
+			}
+
+			flush();
+		} finally {
+			if (lockKeyToBrightnessFileChannelMap != null) {
+				lockKeyToBrightnessFileChannelMap.values().stream().filter(AbstractInterruptibleChannel::isOpen)
+						.forEach(channel -> {
+							try {
+								channel.close();
+							} catch (final IOException e) {
+								logger.log(Level.WARNING, e.getMessage(), e);
+							}
+						});
+				lockKeyToBrightnessFileChannelMap = null;
+			}
+		}
+	}
+
+	/// Writes the events buffered for the current frame to the uinput devices.
+	///
+	/// Each device that has buffered events receives them in a single `write()`
+	/// call, ending with a `SYN_REPORT`.
+	///
+	/// @throws IOException if writing to a device fails
+	@Override
+	public void flush() throws IOException {
+		joystickUinputDevice.flush();
+		keyboardUinputDevice.flush();
+		mouseUinputDevice.flush();
+	}
+
+	@Override
+	public void moveCursor(final int deltaX, final int deltaY) throws IOException {
+		if (deltaX != 0) {
+			mouseUinputDevice.emit(Event.REL_X, deltaX);
+		}
+		if (deltaY != 0) {
+			mouseUinputDevice.emit(Event.REL_Y, deltaY);
+		}
+	}
+
+	/// Opens the sysfs brightness files of the LEDs of all lock keys, which are
+	/// read to determine the state of the lock keys.
+	///
+	/// @throws RuntimeException if a brightness file cannot be found or opened
+	void openLockKeyLeds() {
+		lockKeyToBrightnessFileChannelMap = LockKey.LOCK_KEYS.stream()
+				.collect(Collectors.toUnmodifiableMap(lockKey -> lockKey, lockKey -> {
+					try (final var filesStream = Files.list(Path.of(SYSFS_LEDS_DIR))) {
+						final var brightnessPath = filesStream.sorted().filter(p -> {
+							final var fileName = p.getFileName();
+							return fileName != null && fileName.toString()
+									.matches(SYSFS_INPUT_DIR_REGEX_PREFIX + lockKey.sysfsLedName());
+						}).findFirst()
+								.orElseThrow(() -> new RuntimeException(
+										"No brightness file for " + lockKey.sysfsLedName() + " LED"))
+								.resolve(SYSFS_BRIGHTNESS_FILENAME);
+
+						if (!Files.isRegularFile(brightnessPath) || !Files.isReadable(brightnessPath)) {
+							throw new IOException("Unable to read: " + brightnessPath);
+						}
+
+						return FileChannel.open(brightnessPath, StandardOpenOption.READ);
+					} catch (final IOException e) {
+						throw new RuntimeException(e);
+					}
+				}));
+	}
+
+	/// Returns whether the kernel's autorepeat of the virtual keyboard has been
+	/// configured by [#setKeyRepeatRate(long)].
+	///
+	/// @return `true` if held keys are repeated by the kernel
+	@Override
+	public boolean repeatsHeldKeys() {
+		return keyRepeatRate != 0L;
+	}
+
+	@Override
+	public void scroll(final int clicks) throws IOException {
+		mouseUinputDevice.emit(Event.REL_WHEEL, clicks);
+	}
+
+	@Override
+	public void setAxis(final VirtualAxis virtualAxis, final int value) throws IOException {
+		final var event = switch (virtualAxis) {
+		case X -> Event.ABS_X;
+		case Y -> Event.ABS_Y;
+		case Z -> Event.ABS_Z;
+		case RX -> Event.ABS_RX;
+		case RY -> Event.ABS_RY;
+		case RZ -> Event.ABS_RZ;
+		case S0 -> Event.ABS_THROTTLE;
+		case S1 -> Event.ABS_RUDDER;
+		};
+
+		joystickUinputDevice.emit(event, value);
+	}
+
+	@Override
+	public void setButton(final int index, final boolean pressed) throws IOException {
+		joystickUinputDevice.emit(Event.joystickButtonEvents[index], pressed ? 1 : 0);
+	}
+
+	@Override
+	public void setKey(final Scancode scancode, final boolean down) throws IOException {
+		keyboardUinputDevice.emit(scancode.event(), down ? 1 : 0);
+	}
+
+	/// Configures the kernel's autorepeat of the virtual keyboard with the given
+	/// key repeat rate, unless it is already configured with that rate.
+	///
+	/// Since profiles do not define a separate repeat delay, the delay before
+	/// the first repeat equals the repeat period.
+	///
+	/// @param keyRepeatRate the key repeat rate in hertz
+	/// @throws IOException if writing the configuration to the device fails
+	@Override
+	public void setKeyRepeatRate(final long keyRepeatRate) throws IOException {
+		if (keyRepeatRate == this.keyRepeatRate) {
+			return;
+		}
+
+		final var keyRepeatPeriodMillis = (int) (1_000L / keyRepeatRate);
+		keyboardUinputDevice.setKeyRepeat(keyRepeatPeriodMillis, keyRepeatPeriodMillis);
+		this.keyRepeatRate = keyRepeatRate;
+	}
+
+	/// Reads the sysfs LED brightness file of the lock key to determine its
+	/// current state, and emits a key press and release if a change is needed.
+	///
+	/// @param lockKey the lock key
+	/// @param on `true` to turn the lock key on, `false` to turn it off
+	/// @throws IOException if reading the sysfs brightness file or emitting the
+	/// uinput events fails
+	@Override
+	public void setLockKeyState(final LockKey lockKey, final boolean on) throws IOException {
+		Objects.requireNonNull(lockKeyToBrightnessFileChannelMap,
+				"Field lockKeyToBrightnessFileChannelMap must not be null");
+
+		final var brightnessFileChannel = lockKeyToBrightnessFileChannelMap.get(lockKey);
+		if (brightnessFileChannel == null) {
+			throw new IllegalStateException("No brightness file channel for " + lockKey.sysfsLedName() + " LED");
+		}
+
+		brightnessByteBuffer.clear();
+
+		final var bytesRead = brightnessFileChannel.read(brightnessByteBuffer, 0);
+		if (bytesRead == -1) {
+			throw new IOException("Brightness file is empty");
+		}
+
+		final var ledState = brightnessByteBuffer.get(0);
+		if (ledState != (on ? (byte) '1' : (byte) '0')) {
+			keyboardUinputDevice.emit(lockKey.event(), 1);
+			keyboardUinputDevice.syn();
+			keyboardUinputDevice.emit(lockKey.event(), 0);
+		}
+	}
+
+	@Override
+	public void setMouseButton(final int button, final boolean down) throws IOException {
+		mouseUinputDevice.emit(mouseButtonEvent(button), down ? 1 : 0);
+	}
+
+	@Override
+	public void tapKey(final Scancode scancode) throws IOException {
+		keyboardUinputDevice.emit(scancode.event(), 1);
+		keyboardUinputDevice.syn();
+		keyboardUinputDevice.emit(scancode.event(), 0);
+	}
+
+	@Override
+	public void tapMouseButton(final int button) throws IOException {
+		final var event = mouseButtonEvent(button);
+
+		mouseUinputDevice.emit(event, 1);
+		mouseUinputDevice.syn();
+		mouseUinputDevice.emit(event, 0);
+	}
+}
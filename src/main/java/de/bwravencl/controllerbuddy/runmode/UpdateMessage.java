@@ -0,0 +1,1036 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import de.bwravencl.controllerbuddy.input.Input;
+import de.bwravencl.controllerbuddy.input.Keystroke;
+import de.bwravencl.controllerbuddy.input.LockKey;
+import de.bwravencl.controllerbuddy.input.Scancode;
+import de.bwravencl.controllerbuddy.input.VirtualAxis;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/// Reusable container and codec for the payload of an
+/// [ServerRunMode.MessageType#UPDATE] message.
+///
+/// The wire format is a compact binary delta encoding: only the axes that
+/// changed since the previously sent message are transmitted (selected by a
+/// bitmask), buttons are packed into a bitfield, and all integer lists such as
+/// mouse buttons, key codes and lock keys are written as LEB128 varints. Signed
+/// values use zigzag encoding so that small negative numbers stay short.
+///
+/// The sender periodically writes keyframes that carry all axes, so that a
+/// receiver recovers from lost datagrams. One-shot events such as cursor
+/// movement, scroll clicks and down-up keystrokes cannot be recovered this
+/// way. They are therefore written as event blocks taken from an
+/// [EventHistory], each keyed by an event sequence number, so that a sender
+/// can repeat the blocks of previous messages and a receiver applies every
+/// block exactly once.
+///
+/// Receivers tolerate reordering: messages are admitted through a
+/// [ReplayWindow] over their counters, so that a message arriving shortly
+/// after a newer one still contributes the event blocks that have not been
+/// applied yet, while its held state is ignored in favor of the newer one.
+///
+/// The counter precedes the body on the wire, which allows a sender to encode
+/// the body once with [#writeBody(ByteBuffer, UpdateMessage, EventHistory)] and
+/// prefix it with a different counter for every receiver. Instances are
+/// mutable and are meant to be reused for every message to avoid allocations
+/// in the send and receive paths.
+final class UpdateMessage {
+
+	/// Flag bit set in the flags byte of keyframe messages.
+	private static final int FLAG_KEYFRAME = 1;
+
+	/// Maximum number of event blocks accepted when decoding a message.
+	private static final int MAX_EVENT_BLOCKS = 64;
+
+	/// Maximum number of entries accepted when decoding a list.
+	private static final int MAX_LIST_SIZE = 256;
+
+	/// Cached array of all virtual axes, indexed by ordinal.
+	private static final VirtualAxis[] VIRTUAL_AXES = VirtualAxis.values();
+
+	/// Bitmask with one bit set for every virtual axis.
+	private static final int ALL_AXES_MASK = (1 << VIRTUAL_AXES.length) - 1;
+
+	/// Values of all virtual axes, indexed by [VirtualAxis#ordinal()].
+	private final int[] axes = new int[VIRTUAL_AXES.length];
+
+	/// Pressed state of all buttons.
+	private final boolean[] buttons = new boolean[Input.MAX_N_BUTTONS];
+
+	/// Key codes of all currently held modifier keys.
+	private final IntList downModifierKeyCodes = new IntList();
+
+	/// Mouse buttons that are currently held down.
+	private final IntList downMouseButtons = new IntList();
+
+	/// Key codes of all currently held non-modifier keys.
+	private final IntList downNormalKeyCodes = new IntList();
+
+	/// Keystrokes that are to be pressed and released once.
+	private final List<Keystroke> downUpKeystrokes = new ArrayList<>();
+
+	/// Mouse buttons that are to be pressed and released once.
+	private final IntList downUpMouseButtons = new IntList();
+
+	/// Virtual key codes of lock keys that are to be switched off.
+	private final IntList offLockKeyCodes = new IntList();
+
+	/// Virtual key codes of lock keys that are to be switched on.
+	private final IntList onLockKeyCodes = new IntList();
+
+	/// Window over the event sequence numbers of the event blocks applied by
+	/// [#read(ByteBuffer, ReplayWindow)].
+	private final ReplayWindow eventWindow = new ReplayWindow();
+
+	/// Bitmask of the axes that were contained in the last decoded message.
+	private int changedAxesMask;
+
+	/// Sequence number of this message.
+	private long counter;
+
+	/// Horizontal cursor movement delta.
+	private int cursorDeltaX;
+
+	/// Vertical cursor movement delta.
+	private int cursorDeltaY;
+
+	/// Whether this message is a keyframe.
+	private boolean keyframe;
+
+	/// Number of valid entries in [#buttons].
+	private int numButtons;
+
+	/// Number of scroll clicks to perform.
+	private int scrollClicks;
+
+	/// Time in microseconds at which the sender captured this message, relative
+	/// to an arbitrary origin of the sender's monotonic clock.
+	private long timestampMicros;
+
+	/// Reads a LEB128 encoded unsigned variable-length integer.
+	///
+	/// @param buffer the buffer to read from
+	/// @return the decoded value
+	/// @throws IOException if the encoding is longer than five bytes or does not
+	/// fit into 32 bits
+	static int getVarInt(final ByteBuffer buffer) throws IOException {
+		var value = 0;
+		for (var shift = 0; shift < 35; shift += 7) {
+			final var b = buffer.get();
+			// the fifth byte only holds the 4 most significant bits
+			if (shift == 28 && (b & 0xF0) != 0) {
+				break;
+			}
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+
+		throw new IOException("Malformed varint");
+	}
+
+	/// Reads a LEB128 encoded unsigned variable-length long.
+	///
+	/// @param buffer the buffer to read from
+	/// @return the decoded value
+	/// @throws IOException if the encoding is longer than ten bytes or does not
+	/// fit into 64 bits
+	static long getVarLong(final ByteBuffer buffer) throws IOException {
+		var value = 0L;
+		for (var shift = 0; shift < 70; shift += 7) {
+			final var b = buffer.get();
+			// the tenth byte only holds the most significant bit
+			if (shift == 63 && (b & 0xFE) != 0) {
+				break;
+			}
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+
+		throw new IOException("Malformed varlong");
+	}
+
+	/// Reads a zigzag and LEB128 encoded signed variable-length integer.
+	///
+	/// @param buffer the buffer to read from
+	/// @return the decoded value
+	/// @throws IOException if the encoding is malformed
+	static int getZigZagVarInt(final ByteBuffer buffer) throws IOException {
+		final var value = getVarInt(buffer);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/// Writes an unsigned variable-length integer in LEB128 encoding.
+	///
+	/// @param buffer the buffer to write to
+	/// @param value the value to write, interpreted as unsigned
+	static void putVarInt(final ByteBuffer buffer, final int value) {
+		var remaining = value;
+		while ((remaining & ~0x7F) != 0) {
+			buffer.put((byte) ((remaining & 0x7F) | 0x80));
+			remaining >>>= 7;
+		}
+		buffer.put((byte) remaining);
+	}
+
+	/// Writes an unsigned variable-length long in LEB128 encoding.
+	///
+	/// @param buffer the buffer to write to
+	/// @param value the value to write, interpreted as unsigned
+	static void putVarLong(final ByteBuffer buffer, final long value) {
+		var remaining = value;
+		while ((remaining & ~0x7FL) != 0L) {
+			buffer.put((byte) ((remaining & 0x7F) | 0x80));
+			remaining >>>= 7;
+		}
+		buffer.put((byte) remaining);
+	}
+
+	/// Writes a signed variable-length integer using zigzag and LEB128 encoding.
+	///
+	/// @param buffer the buffer to write to
+	/// @param value the signed value to write
+	static void putZigZagVarInt(final ByteBuffer buffer, final int value) {
+		putVarInt(buffer, (value << 1) ^ (value >> 31));
+	}
+
+	/// Reads a varint length-prefixed list of key codes and resolves them to
+	/// scancodes.
+	///
+	/// @param buffer the buffer to read from
+	/// @return the decoded scancodes
+	/// @throws IOException if the list is malformed or contains unknown key codes
+	private static Scancode[] readScancodes(final ByteBuffer buffer) throws IOException {
+		final var size = getVarInt(buffer);
+		if (size < 0 || size > MAX_LIST_SIZE) {
+			throw new IOException("Invalid number of key codes: " + size);
+		}
+
+		final var scancodes = new Scancode[size];
+		for (var i = 0; i < size; i++) {
+			scancodes[i] = scancodeForKeyCode(getVarInt(buffer));
+		}
+
+		return scancodes;
+	}
+
+	/// Returns the [Scancode] for the given key code.
+	///
+	/// @param keyCode the key code to look up
+	/// @return the matching scancode
+	/// @throws IOException if no scancode exists for the key code
+	static Scancode scancodeForKeyCode(final int keyCode) throws IOException {
+		final var scancode = Scancode.forKeyCode(keyCode);
+		if (scancode == null) {
+			throw new IOException("Invalid key code: " + keyCode);
+		}
+
+		return scancode;
+	}
+
+	/// Validates the event blocks of a message without decoding them.
+	///
+	/// @param buffer the buffer positioned at the number of event blocks
+	/// @throws IOException if an event block is malformed
+	private static void skipEventBlocks(final ByteBuffer buffer) throws IOException {
+		final var numEventBlocks = getVarInt(buffer);
+		if (numEventBlocks < 0 || numEventBlocks > MAX_EVENT_BLOCKS) {
+			throw new IOException("Invalid number of event blocks: " + numEventBlocks);
+		}
+		for (var i = 0; i < numEventBlocks; i++) {
+			getVarLong(buffer);
+			final var blockLength = getVarInt(buffer);
+			if (blockLength < 0 || blockLength > buffer.remaining()) {
+				throw new IOException("Invalid event block length: " + blockLength);
+			}
+
+			final var blockEnd = buffer.position() + blockLength;
+			skipEvents(buffer);
+			if (buffer.position() != blockEnd) {
+				throw new IOException("Malformed event block");
+			}
+		}
+	}
+
+	/// Validates the content of a single event block without decoding it.
+	///
+	/// @param buffer the buffer positioned at the start of the event block content
+	/// @throws IOException if the event block is malformed
+	private static void skipEvents(final ByteBuffer buffer) throws IOException {
+		getZigZagVarInt(buffer);
+		getZigZagVarInt(buffer);
+
+		IntList.skip(buffer);
+
+		final var numDownUpKeystrokes = getVarInt(buffer);
+		if (numDownUpKeystrokes < 0 || numDownUpKeystrokes > MAX_LIST_SIZE) {
+			throw new IOException("Invalid number of keystrokes: " + numDownUpKeystrokes);
+		}
+		for (var i = 0; i < numDownUpKeystrokes; i++) {
+			skipKeyCodes(buffer);
+			skipKeyCodes(buffer);
+		}
+
+		getZigZagVarInt(buffer);
+
+		skipLockKeyCodes(buffer);
+		skipLockKeyCodes(buffer);
+	}
+
+	/// Skips the held state of a message without decoding it, validating its
+	/// key codes.
+	///
+	/// @param buffer the buffer positioned directly after the counter
+	/// @throws IOException if the held state is malformed
+	private static void skipHeldState(final ByteBuffer buffer) throws IOException {
+		final var keyframe = (buffer.get() & FLAG_KEYFRAME) != 0;
+		getVarLong(buffer);
+
+		final var changedAxesMask = buffer.get() & ALL_AXES_MASK;
+		final var containedAxesMask = keyframe ? ALL_AXES_MASK : changedAxesMask;
+		for (var i = 0; i < VIRTUAL_AXES.length; i++) {
+			if ((containedAxesMask & (1 << i)) != 0) {
+				getZigZagVarInt(buffer);
+			}
+		}
+
+		final var numButtons = getVarInt(buffer);
+		final var numButtonBytes = (numButtons + 7) / 8;
+		if (numButtons < 0 || numButtons > Input.MAX_N_BUTTONS || numButtonBytes > buffer.remaining()) {
+			throw new IOException("Invalid number of buttons: " + numButtons);
+		}
+		buffer.position(buffer.position() + numButtonBytes);
+
+		IntList.skip(buffer);
+		skipKeyCodes(buffer);
+		skipKeyCodes(buffer);
+	}
+
+	/// Skips a varint length-prefixed list of key codes, validating that every
+	/// key code corresponds to a scancode.
+	///
+	/// @param buffer the buffer to read from
+	/// @throws IOException if the list is malformed or contains unknown key codes
+	private static void skipKeyCodes(final ByteBuffer buffer) throws IOException {
+		final var size = getVarInt(buffer);
+		if (size < 0 || size > MAX_LIST_SIZE) {
+			throw new IOException("Invalid number of key codes: " + size);
+		}
+
+		for (var i = 0; i < size; i++) {
+			scancodeForKeyCode(getVarInt(buffer));
+		}
+	}
+
+	/// Skips a varint length-prefixed list of lock key codes, validating that
+	/// every key code belongs to a known [LockKey].
+	///
+	/// @param buffer the buffer to read from
+	/// @throws IOException if the list is malformed or contains unknown lock key
+	/// codes
+	private static void skipLockKeyCodes(final ByteBuffer buffer) throws IOException {
+		final var numValues = getVarInt(buffer);
+		if (numValues < 0 || numValues > MAX_LIST_SIZE) {
+			throw new IOException("Invalid list size: " + numValues);
+		}
+
+		for (var i = 0; i < numValues; i++) {
+			validateLockKeyCode(getVarInt(buffer));
+		}
+	}
+
+	/// Ensures that a decoded virtual key code belongs to a known [LockKey].
+	///
+	/// @param virtualKeyCode the virtual key code
+	/// @throws IOException if the key code does not belong to a lock key
+	private static void validateLockKeyCode(final int virtualKeyCode) throws IOException {
+		if (!LockKey.VIRTUAL_KEY_CODE_TO_LOCK_KEY_MAP.containsKey(virtualKeyCode)) {
+			throw new IOException("Invalid lock key code: " + virtualKeyCode);
+		}
+	}
+
+	/// Writes a varint length-prefixed list of the key codes of the given
+	/// scancodes.
+	///
+	/// @param buffer the buffer to write to
+	/// @param scancodes the scancodes to write
+	private static void writeScancodes(final ByteBuffer buffer, final Scancode[] scancodes) {
+		putVarInt(buffer, scancodes.length);
+		for (final var scancode : scancodes) {
+			putVarInt(buffer, scancode.keyCode());
+		}
+	}
+
+	/// Captures the current held state of the given [Input] into this message
+	/// and adds its one-shot events to the events already contained in this
+	/// message.
+	///
+	/// This allows the input to be captured at a higher rate than messages are
+	/// sent: the held state always reflects the most recent capture, while no
+	/// one-shot event is lost. Cursor movement and scroll clicks are summed up,
+	/// and down-up events and lock key changes are merged without duplicates.
+	///
+	/// @param input the input whose state is captured
+	/// @see #capture(Input)
+	void accumulate(final Input input) {
+		captureHeldState(input);
+
+		cursorDeltaX += input.getCursorDeltaX();
+		cursorDeltaY += input.getCursorDeltaY();
+
+		downUpMouseButtons.addBits(input.getDownUpMouseButtons());
+
+		for (final var keystroke : input.getDownUpKeystrokes()) {
+			if (!downUpKeystrokes.contains(keystroke)) {
+				downUpKeystrokes.add(keystroke);
+			}
+		}
+
+		scrollClicks += input.getScrollClicks();
+
+		for (final var lockKey : input.getOnLockKeys()) {
+			onLockKeyCodes.addUnique(lockKey.virtualKeyCode());
+		}
+
+		for (final var lockKey : input.getOffLockKeys()) {
+			offLockKeyCodes.addUnique(lockKey.virtualKeyCode());
+		}
+	}
+
+	/// Captures the current output state of the given [Input] into this message,
+	/// replacing all one-shot events contained in this message.
+	///
+	/// Held keystrokes are flattened into sorted, duplicate-free lists of modifier
+	/// and normal key codes, so that two messages describing the same held state
+	/// always compare equal in [#heldStateEquals(UpdateMessage)].
+	///
+	/// @param input the input whose state is captured
+	void capture(final Input input) {
+		clearEvents();
+		accumulate(input);
+	}
+
+	/// Captures the held state (axes, buttons, mouse buttons and keys) of the
+	/// given [Input] into this message.
+	///
+	/// @param input the input whose held state is captured
+	private void captureHeldState(final Input input) {
+		for (final var virtualAxis : VIRTUAL_AXES) {
+			axes[virtualAxis.ordinal()] = input.getAxis(virtualAxis);
+		}
+
+		final var inputButtons = input.getButtons();
+		numButtons = Math.min(inputButtons.length, buttons.length);
+		System.arraycopy(inputButtons, 0, buttons, 0, numButtons);
+
+		downMouseButtons.clear();
+		downMouseButtons.addBits(input.getDownMouseButtons());
+
+		downModifierKeyCodes.clear();
+		downNormalKeyCodes.clear();
+		for (final var keystroke : input.getDownKeystrokes()) {
+			for (final var modifierCode : keystroke.getModifierCodes()) {
+				downModifierKeyCodes.addUnique(modifierCode.keyCode());
+			}
+			for (final var keyCode : keystroke.getKeyCodes()) {
+				downNormalKeyCodes.addUnique(keyCode.keyCode());
+			}
+		}
+		downModifierKeyCodes.sort();
+		downNormalKeyCodes.sort();
+	}
+
+	/// Removes all one-shot events from this message.
+	void clearEvents() {
+		cursorDeltaX = 0;
+		cursorDeltaY = 0;
+		downUpMouseButtons.clear();
+		downUpKeystrokes.clear();
+		scrollClicks = 0;
+		onLockKeyCodes.clear();
+		offLockKeyCodes.clear();
+	}
+
+	/// Returns the value of the given axis.
+	///
+	/// @param virtualAxis the axis to query
+	/// @return the axis value
+	int getAxis(final VirtualAxis virtualAxis) {
+		return axes[virtualAxis.ordinal()];
+	}
+
+	/// Returns the bitmask of the axes contained in the last decoded message.
+	///
+	/// Bit `n` corresponds to the [VirtualAxis] with ordinal `n`.
+	///
+	/// @return the changed axes bitmask
+	int getChangedAxesMask() {
+		return changedAxesMask;
+	}
+
+	/// Returns the sequence number of this message.
+	///
+	/// @return the counter
+	long getCounter() {
+		return counter;
+	}
+
+	/// Returns the horizontal cursor movement delta.
+	///
+	/// @return the horizontal cursor delta
+	int getCursorDeltaX() {
+		return cursorDeltaX;
+	}
+
+	/// Returns the vertical cursor movement delta.
+	///
+	/// @return the vertical cursor delta
+	int getCursorDeltaY() {
+		return cursorDeltaY;
+	}
+
+	/// Returns the key codes of all currently held modifier keys.
+	///
+	/// @return the modifier key codes
+	IntList getDownModifierKeyCodes() {
+		return downModifierKeyCodes;
+	}
+
+	/// Returns the mouse buttons that are currently held down.
+	///
+	/// @return the held mouse buttons
+	IntList getDownMouseButtons() {
+		return downMouseButtons;
+	}
+
+	/// Returns the key codes of all currently held non-modifier keys.
+	///
+	/// @return the normal key codes
+	IntList getDownNormalKeyCodes() {
+		return downNormalKeyCodes;
+	}
+
+	/// Returns the keystrokes that are to be pressed and released once.
+	///
+	/// @return the down-up keystrokes
+	List<Keystroke> getDownUpKeystrokes() {
+		return downUpKeystrokes;
+	}
+
+	/// Returns the mouse buttons that are to be pressed and released once.
+	///
+	/// @return the down-up mouse buttons
+	IntList getDownUpMouseButtons() {
+		return downUpMouseButtons;
+	}
+
+	/// Returns the event sequence number of the newest event block that has been
+	/// applied by [#read(ByteBuffer, ReplayWindow)].
+	///
+	/// @return the event sequence number, or `-1` if no event block has been
+	/// applied yet
+	long getEventSequence() {
+		return eventWindow.getHighest();
+	}
+
+	/// Returns the number of buttons contained in this message.
+	///
+	/// @return the number of buttons
+	int getNumButtons() {
+		return numButtons;
+	}
+
+	/// Returns the virtual key codes of lock keys that are to be switched off.
+	///
+	/// @return the off lock key codes
+	IntList getOffLockKeyCodes() {
+		return offLockKeyCodes;
+	}
+
+	/// Returns the virtual key codes of lock keys that are to be switched on.
+	///
+	/// @return the on lock key codes
+	IntList getOnLockKeyCodes() {
+		return onLockKeyCodes;
+	}
+
+	/// Returns the number of scroll clicks to perform.
+	///
+	/// @return the scroll clicks
+	int getScrollClicks() {
+		return scrollClicks;
+	}
+
+	/// Returns the time at which the sender captured this message.
+	///
+	/// Only differences between the timestamps of messages from the same sender
+	/// are meaningful.
+	///
+	/// @return the sender timestamp in microseconds
+	long getTimestampMicros() {
+		return timestampMicros;
+	}
+
+	/// Returns whether this message carries one-shot events that must be delivered
+	/// even if the held state did not change.
+	///
+	/// @return `true` if cursor movement, scroll clicks, down-up events or lock key
+	/// changes are present
+	boolean hasEvents() {
+		return cursorDeltaX != 0 || cursorDeltaY != 0 || scrollClicks != 0 || downUpMouseButtons.size() > 0
+				|| !downUpKeystrokes.isEmpty() || onLockKeyCodes.size() > 0 || offLockKeyCodes.size() > 0;
+	}
+
+	/// Checks whether the held state (axes, buttons, mouse buttons and keys) of
+	/// this message equals that of another message.
+	///
+	/// @param other the message to compare with
+	/// @return `true` if the held state is identical
+	boolean heldStateEquals(final UpdateMessage other) {
+		return Arrays.equals(axes, other.axes)
+				&& Arrays.equals(buttons, 0, numButtons, other.buttons, 0, other.numButtons)
+				&& downMouseButtons.contentEquals(other.downMouseButtons)
+				&& downModifierKeyCodes.contentEquals(other.downModifierKeyCodes)
+				&& downNormalKeyCodes.contentEquals(other.downNormalKeyCodes);
+	}
+
+	/// Returns whether the given button is pressed.
+	///
+	/// @param button the button index
+	/// @return `true` if the button is pressed
+	boolean isButtonPressed(final int button) {
+		return button < numButtons && buttons[button];
+	}
+
+	/// Returns whether this message is a keyframe carrying all axes.
+	///
+	/// @return `true` if this is a keyframe
+	boolean isKeyframe() {
+		return keyframe;
+	}
+
+	/// Decodes a message from the given buffer into this instance.
+	///
+	/// The counter of the message is checked against `counterWindow`. Duplicates,
+	/// replays and messages that are too old for the window are discarded without
+	/// modifying this instance. Otherwise the whole message is validated before
+	/// anything is decoded, so that a malformed message leaves this instance and
+	/// both windows untouched. Only then is the counter accepted into the window.
+	///
+	/// The held state (axes, buttons, mouse buttons and keys) is only decoded if
+	/// the message is newer than every message accepted before, so that the
+	/// newest state always wins. Axes that are not contained in the message keep
+	/// the value of the previously decoded message, so the same instance must be
+	/// used for all messages of a connection.
+	///
+	/// The one-shot events of this instance are set to the sum of all event
+	/// blocks of the message that have not been applied before, regardless of
+	/// whether the message arrived late. Event blocks are tracked in a
+	/// [ReplayWindow] of their own, so every block is applied exactly once even
+	/// if the messages repeating it are reordered.
+	///
+	/// @param buffer the buffer positioned directly after the message type
+	/// @param counterWindow the window over the counters of the messages of the
+	/// connection
+	/// @return the outcome of decoding the message
+	/// @throws IOException if the message is malformed
+	ReadResult read(final ByteBuffer buffer, final ReplayWindow counterWindow) throws IOException {
+		final boolean newest;
+		try {
+			final var newCounter = getVarLong(buffer);
+			if (!counterWindow.canAccept(newCounter)) {
+				return ReadResult.DISCARDED;
+			}
+
+			final var bodyPosition = buffer.position();
+			skipHeldState(buffer);
+			skipEventBlocks(buffer);
+			buffer.position(bodyPosition);
+
+			newest = newCounter > counterWindow.getHighest();
+			if (newest) {
+				counter = newCounter;
+				readHeldState(buffer);
+			} else {
+				skipHeldState(buffer);
+			}
+
+			clearEvents();
+
+			final var numEventBlocks = getVarInt(buffer);
+			for (var i = 0; i < numEventBlocks; i++) {
+				final var blockEventSequence = getVarLong(buffer);
+				final var blockLength = getVarInt(buffer);
+
+				final var blockEnd = buffer.position() + blockLength;
+				if (eventWindow.canAccept(blockEventSequence)) {
+					readEvents(buffer);
+					eventWindow.accept(blockEventSequence);
+				} else {
+					buffer.position(blockEnd);
+				}
+			}
+
+			counterWindow.accept(newCounter);
+		} catch (final BufferUnderflowException e) {
+			throw new IOException("Truncated update message", e);
+		}
+
+		return newest ? ReadResult.NEWEST : ReadResult.LATE;
+	}
+
+	/// Decodes the held state of a message into this instance.
+	///
+	/// @param buffer the buffer positioned directly after the counter
+	/// @throws IOException if the held state is malformed
+	private void readHeldState(final ByteBuffer buffer) throws IOException {
+		keyframe = (buffer.get() & FLAG_KEYFRAME) != 0;
+		timestampMicros = getVarLong(buffer);
+
+		changedAxesMask = buffer.get() & ALL_AXES_MASK;
+		if (keyframe) {
+			changedAxesMask = ALL_AXES_MASK;
+		}
+		for (var i = 0; i < axes.length; i++) {
+			if ((changedAxesMask & (1 << i)) != 0) {
+				axes[i] = getZigZagVarInt(buffer);
+			}
+		}
+
+		numButtons = getVarInt(buffer);
+		if (numButtons < 0 || numButtons > buttons.length) {
+			throw new IOException("Too many buttons: " + numButtons);
+		}
+		for (var i = 0; i < numButtons; i += 8) {
+			final var bits = buffer.get();
+			for (var j = 0; j < 8 && i + j < numButtons; j++) {
+				buttons[i + j] = (bits & (1 << j)) != 0;
+			}
+		}
+
+		downMouseButtons.read(buffer);
+		downModifierKeyCodes.read(buffer);
+		downNormalKeyCodes.read(buffer);
+		for (var i = 0; i < downModifierKeyCodes.size(); i++) {
+			scancodeForKeyCode(downModifierKeyCodes.get(i));
+		}
+		for (var i = 0; i < downNormalKeyCodes.size(); i++) {
+			scancodeForKeyCode(downNormalKeyCodes.get(i));
+		}
+	}
+
+	/// Decodes the content of a single event block and adds its one-shot events
+	/// to those of this instance.
+	///
+	/// @param buffer the buffer positioned at the start of the event block content
+	/// @throws IOException if the event block is malformed
+	private void readEvents(final ByteBuffer buffer) throws IOException {
+		cursorDeltaX += getZigZagVarInt(buffer);
+		cursorDeltaY += getZigZagVarInt(buffer);
+
+		downUpMouseButtons.addAll(buffer);
+
+		final var numDownUpKeystrokes = getVarInt(buffer);
+		if (numDownUpKeystrokes < 0 || numDownUpKeystrokes > MAX_LIST_SIZE) {
+			throw new IOException("Invalid number of keystrokes: " + numDownUpKeystrokes);
+		}
+		for (var i = 0; i < numDownUpKeystrokes; i++) {
+			final var modifierCodes = readScancodes(buffer);
+			final var keyCodes = readScancodes(buffer);
+			downUpKeystrokes.add(new Keystroke(keyCodes, modifierCodes));
+		}
+
+		scrollClicks += getZigZagVarInt(buffer);
+
+		onLockKeyCodes.addAll(buffer);
+		offLockKeyCodes.addAll(buffer);
+	}
+
+	/// Resets the window over the event sequence numbers, so that the event
+	/// blocks of a new connection are applied even if their event sequence
+	/// numbers start over.
+	void resetEventWindow() {
+		eventWindow.reset();
+	}
+
+	/// Sets the sequence number of this message.
+	///
+	/// @param counter the counter
+	void setCounter(final long counter) {
+		this.counter = counter;
+	}
+
+	/// Sets the time at which the sender captured this message.
+	///
+	/// @param timestampMicros the sender timestamp in microseconds
+	void setTimestampMicros(final long timestampMicros) {
+		this.timestampMicros = timestampMicros;
+	}
+
+	/// Encodes this message including its counter into the given buffer.
+	///
+	/// @param buffer the buffer positioned directly after the message type
+	/// @param previous the previously sent message, or `null` to write a keyframe
+	/// @param eventHistory the history providing the event blocks to write
+	/// @see #writeBody(ByteBuffer, UpdateMessage, EventHistory)
+	void write(final ByteBuffer buffer, final @Nullable UpdateMessage previous, final EventHistory eventHistory) {
+		putVarLong(buffer, counter);
+		writeBody(buffer, previous, eventHistory);
+	}
+
+	/// Encodes everything of this message except for its counter into the given
+	/// buffer.
+	///
+	/// If `previous` is `null`, a keyframe containing all axes is written.
+	/// Otherwise only the axes whose values differ from `previous` are written.
+	///
+	/// The one-shot events of this message are not written directly. Instead,
+	/// the pending event blocks of `eventHistory` are appended, so the caller must
+	/// [EventHistory#add(UpdateMessage)] this message to the history beforehand if
+	/// it [#hasEvents()].
+	///
+	/// @param buffer the buffer positioned directly after the counter
+	/// @param previous the previously sent message, or `null` to write a keyframe
+	/// @param eventHistory the history providing the event blocks to write
+	void writeBody(final ByteBuffer buffer, final @Nullable UpdateMessage previous,
+			final EventHistory eventHistory) {
+		keyframe = previous == null;
+
+		changedAxesMask = ALL_AXES_MASK;
+		if (previous != null) {
+			changedAxesMask = 0;
+			for (var i = 0; i < axes.length; i++) {
+				if (axes[i] != previous.axes[i]) {
+					changedAxesMask |= 1 << i;
+				}
+			}
+		}
+
+		buffer.put((byte) (keyframe ? FLAG_KEYFRAME : 0));
+		putVarLong(buffer, timestampMicros);
+		buffer.put((byte) changedAxesMask);
+		for (var i = 0; i < axes.length; i++) {
+			if ((changedAxesMask & (1 << i)) != 0) {
+				putZigZagVarInt(buffer, axes[i]);
+			}
+		}
+
+		putVarInt(buffer, numButtons);
+		for (var i = 0; i < numButtons; i += 8) {
+			var bits = 0;
+			for (var j = 0; j < 8 && i + j < numButtons; j++) {
+				if (buttons[i + j]) {
+					bits |= 1 << j;
+				}
+			}
+			buffer.put((byte) bits);
+		}
+
+		downMouseButtons.write(buffer);
+		downModifierKeyCodes.write(buffer);
+		downNormalKeyCodes.write(buffer);
+
+		eventHistory.write(buffer);
+	}
+
+	/// Encodes the one-shot events of this message as the content of an event
+	/// block.
+	///
+	/// @param buffer the buffer to write to
+	void writeEvents(final ByteBuffer buffer) {
+		putZigZagVarInt(buffer, cursorDeltaX);
+		putZigZagVarInt(buffer, cursorDeltaY);
+
+		downUpMouseButtons.write(buffer);
+
+		putVarInt(buffer, downUpKeystrokes.size());
+		for (var i = 0; i < downUpKeystrokes.size(); i++) {
+			final var keystroke = downUpKeystrokes.get(i);
+			writeScancodes(buffer, keystroke.getModifierCodes());
+			writeScancodes(buffer, keystroke.getKeyCodes());
+		}
+
+		putZigZagVarInt(buffer, scrollClicks);
+
+		onLockKeyCodes.write(buffer);
+		offLockKeyCodes.write(buffer);
+	}
+
+	/// Minimal growable list of primitive `int` values used to avoid boxing in the
+	/// encode and decode paths.
+	static final class IntList {
+
+		/// Backing array holding the list values.
+		private int[] values = new int[8];
+
+		/// Number of valid entries in [#values].
+		private int size;
+
+		/// Appends a value to the end of the list.
+		///
+		/// @param value the value to append
+		void add(final int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		/// Appends all values of a varint length-prefixed list read from the given
+		/// buffer.
+		///
+		/// @param buffer the buffer to read from
+		/// @throws IOException if the list is malformed
+		private void addAll(final ByteBuffer buffer) throws IOException {
+			final var numValues = getVarInt(buffer);
+			if (numValues < 0 || numValues > MAX_LIST_SIZE) {
+				throw new IOException("Invalid list size: " + numValues);
+			}
+
+			for (var i = 0; i < numValues; i++) {
+				add(getVarInt(buffer));
+			}
+		}
+
+		/// Merges the indices of the bits set in the given bitmask into the list,
+		/// skipping indices that are already contained, and sorts the list in
+		/// ascending order.
+		///
+		/// @param bitmask the bitmask whose set bit indices are merged
+		void addBits(final int bitmask) {
+			var remainingBits = bitmask;
+			while (remainingBits != 0) {
+				addUnique(Integer.numberOfTrailingZeros(remainingBits));
+				remainingBits &= remainingBits - 1;
+			}
+			sort();
+		}
+
+		/// Appends a value unless it is already contained in the list.
+		///
+		/// @param value the value to append
+		void addUnique(final int value) {
+			for (var i = 0; i < size; i++) {
+				if (values[i] == value) {
+					return;
+				}
+			}
+			add(value);
+		}
+
+		/// Removes all values from the list.
+		void clear() {
+			size = 0;
+		}
+
+		/// Checks whether this list contains the same values in the same order as
+		/// another list.
+		///
+		/// @param other the list to compare with
+		/// @return `true` if both lists are equal
+		boolean contentEquals(final IntList other) {
+			return Arrays.equals(values, 0, size, other.values, 0, other.size);
+		}
+
+		/// Returns the value at the given index.
+		///
+		/// @param index the index of the value
+		/// @return the value
+		int get(final int index) {
+			if (index >= size) {
+				throw new IndexOutOfBoundsException(index);
+			}
+
+			return values[index];
+		}
+
+		/// Replaces the list contents with a varint length-prefixed list read from
+		/// the given buffer.
+		///
+		/// @param buffer the buffer to read from
+		/// @throws IOException if the list is malformed
+		private void read(final ByteBuffer buffer) throws IOException {
+			clear();
+			addAll(buffer);
+		}
+
+		/// Returns the number of values in the list.
+		///
+		/// @return the size
+		int size() {
+			return size;
+		}
+
+		/// Skips a varint length-prefixed list in the given buffer without decoding
+		/// it.
+		///
+		/// @param buffer the buffer to read from
+		/// @throws IOException if the list is malformed
+		private static void skip(final ByteBuffer buffer) throws IOException {
+			final var numValues = getVarInt(buffer);
+			if (numValues < 0 || numValues > MAX_LIST_SIZE) {
+				throw new IOException("Invalid list size: " + numValues);
+			}
+
+			for (var i = 0; i < numValues; i++) {
+				getVarInt(buffer);
+			}
+		}
+
+		/// Sorts the list values in ascending order.
+		void sort() {
+			Arrays.sort(values, 0, size);
+		}
+
+		/// Writes the list as a varint length-prefixed sequence of varints.
+		///
+		/// @param buffer the buffer to write to
+		private void write(final ByteBuffer buffer) {
+			putVarInt(buffer, size);
+			for (var i = 0; i < size; i++) {
+				putVarInt(buffer, values[i]);
+			}
+		}
+	}
+
+	/// Outcome of decoding a message with [#read(ByteBuffer, ReplayWindow)].
+	enum ReadResult {
+		/// The message is a duplicate, a replay, or too old for the replay window,
+		/// and has been discarded
+		DISCARDED,
+
+		/// The message arrived after a newer one, only its event blocks that had
+		/// not been applied before have been decoded
+		LATE,
+
+		/// The message is newer than all messages received before, its held state
+		/// and its new event blocks have been decoded
+		NEWEST
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import de.bwravencl.controllerbuddy.ffi.Kernel32;
+import de.bwravencl.controllerbuddy.ffi.User32;
+import de.bwravencl.controllerbuddy.ffi.User32.INPUT;
+import de.bwravencl.controllerbuddy.ffi.User32.INPUT.MOUSEINPUT;
+import de.bwravencl.controllerbuddy.ffi.VjoyInterface;
+import de.bwravencl.controllerbuddy.input.LockKey;
+import de.bwravencl.controllerbuddy.input.Scancode;
+import de.bwravencl.controllerbuddy.input.VirtualAxis;
+import java.awt.Toolkit;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+/// [OutputSink] for Windows that writes the joystick output to a vJoy device
+/// and sends keyboard and mouse input via `SendInput`.
+///
+/// The vJoy device must have been acquired before the sink is constructed. It
+/// is reset and relinquished when the sink is closed.
+final class VjoyOutputSink implements OutputSink {
+
+	/// The scroll wheel delta value used per scroll click.
+	private static final int WHEEL_DELTA = 120;
+
+	/// Index of the acquired vJoy device.
+	private final int vJoyDevice;
+
+	/// Constructs a [VjoyOutputSink] for an acquired vJoy device.
+	///
+	/// @param vJoyDevice the index of the vJoy device
+	VjoyOutputSink(final int vJoyDevice) {
+		this.vJoyDevice = vJoyDevice;
+	}
+
+	/// Sends a single Windows [INPUT] structure via `SendInput` and throws an
+	/// [IOException] if the call fails.
+	///
+	/// @param input the [INPUT] memory segment to send
+	/// @throws IOException if `SendInput` returns 0 indicating failure
+	private static void sendInputChecked(final MemorySegment input) throws IOException {
+		if (User32.SendInput(1, MemorySegment.ofAddress(input.address()), (int) INPUT.LAYOUT.byteSize()) == 0) {
+			throw new IOException("SendInput failed: " + Kernel32.GetLastError());
+		}
+	}
+
+	/// Resets all axes and buttons of the vJoy device and relinquishes it.
+	@Override
+	public void close() {
+		VjoyInterface.ResetButtons(vJoyDevice);
+		VjoyInterface.ResetVJD(vJoyDevice);
+		VjoyInterface.RelinquishVJD(vJoyDevice);
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	@Override
+	public void moveCursor(final int deltaX, final int deltaY) throws IOException {
+		try (final var arena = Arena.ofConfined()) {
+			final var input = arena.allocate(INPUT.LAYOUT);
+			INPUT.setType(input, INPUT.INPUT_MOUSE);
+			final var mi = INPUT.getMi(input);
+			INPUT.MOUSEINPUT.setDx(mi, deltaX);
+			INPUT.MOUSEINPUT.setDy(mi, deltaY);
+			INPUT.MOUSEINPUT.setDwFlags(mi, INPUT.MOUSEINPUT.MOUSEEVENTF_MOVE);
+
+			sendInputChecked(input);
+		}
+	}
+
+	@Override
+	public void scroll(final int clicks) throws IOException {
+		try (final var arena = Arena.ofConfined()) {
+			final var input = arena.allocate(INPUT.LAYOUT);
+			INPUT.setType(input, INPUT.INPUT_MOUSE);
+			final var mi = INPUT.getMi(input);
+			INPUT.MOUSEINPUT.setMouseData(mi, clicks * WHEEL_DELTA);
+			INPUT.MOUSEINPUT.setDwFlags(mi, INPUT.MOUSEINPUT.MOUSEEVENTF_WHEEL);
+
+			sendInputChecked(input);
+		}
+	}
+
+	@Override
+	public void setAxis(final VirtualAxis virtualAxis, final int value) throws IOException {
+		final var hidUsage = switch (virtualAxis) {
+		case X -> VjoyInterface.HID_USAGE_X;
+		case Y -> VjoyInterface.HID_USAGE_Y;
+		case Z -> VjoyInterface.HID_USAGE_Z;
+		case RX -> VjoyInterface.HID_USAGE_RX;
+		case RY -> VjoyInterface.HID_USAGE_RY;
+		case RZ -> VjoyInterface.HID_USAGE_RZ;
+		case S0 -> VjoyInterface.HID_USAGE_SL0;
+		case S1 -> VjoyInterface.HID_USAGE_SL1;
+		};
+
+		if (!VjoyInterface.SetAxis(value, vJoyDevice, hidUsage)) {
+			throw new IOException("Could not set axis " + virtualAxis + " of vJoy device " + vJoyDevice);
+		}
+	}
+
+	@Override
+	public void setButton(final int index, final boolean pressed) throws IOException {
+		if (!VjoyInterface.SetBtn(pressed, vJoyDevice, (byte) (index + 1))) {
+			throw new IOException("Could not set button " + index + " of vJoy device " + vJoyDevice);
+		}
+	}
+
+	@Override
+	public void setKey(final Scancode scancode, final boolean down) throws IOException {
+		try (final var arena = Arena.ofConfined()) {
+			final var input = arena.allocate(INPUT.LAYOUT);
+			INPUT.setType(input, INPUT.INPUT_KEYBOARD);
+			final var ki = INPUT.getKi(input);
+			INPUT.KEYBDINPUT.setWScan(ki, (short) scancode.keyCode());
+			var flags = (down ? 0 : INPUT.KEYBDINPUT.KEYEVENTF_KEYUP) | INPUT.KEYBDINPUT.KEYEVENTF_SCANCODE;
+			if (Scancode.EXTENDED_KEY_SCAN_CODES_SET.contains(scancode.keyCode())) {
+				flags |= INPUT.KEYBDINPUT.KEYEVENTF_EXTENDEDKEY;
+			}
+			INPUT.KEYBDINPUT.setDwFlags(ki, flags);
+
+			sendInputChecked(input);
+		}
+	}
+
+	/// Toggles the lock key via the Java [Toolkit] if its locking state does not
+	/// already match.
+	///
+	/// @param lockKey the lock key
+	/// @param on `true` to turn the lock key on, `false` to turn it off
+	@Override
+	public void setLockKeyState(final LockKey lockKey, final boolean on) {
+		final var virtualKeyCode = lockKey.virtualKeyCode();
+
+		final var state = (User32.GetKeyState(virtualKeyCode) & 0x1) != 0;
+		if (state != on) {
+			final var toolkit = Toolkit.getDefaultToolkit();
+
+			toolkit.setLockingKeyState(virtualKeyCode, true);
+			toolkit.setLockingKeyState(virtualKeyCode, false);
+		}
+	}
+
+	@Override
+	public void setMouseButton(final int button, final boolean down) throws IOException {
+		try (final var arena = Arena.ofConfined()) {
+			final var input = arena.allocate(INPUT.LAYOUT);
+			INPUT.setType(input, INPUT.INPUT_MOUSE);
+			final var mi = INPUT.getMi(input);
+
+			switch (button) {
+			case 1 -> INPUT.MOUSEINPUT.setDwFlags(mi,
+					down ? INPUT.MOUSEINPUT.MOUSEEVENTF_LEFTDOWN : INPUT.MOUSEINPUT.MOUSEEVENTF_LEFTUP);
+			case 2 -> INPUT.MOUSEINPUT.setDwFlags(mi,
+					down ? INPUT.MOUSEINPUT.MOUSEEVENTF_RIGHTDOWN : INPUT.MOUSEINPUT.MOUSEEVENTF_RIGHTUP);
+			case 3 -> INPUT.MOUSEINPUT.setDwFlags(mi,
+					down ? INPUT.MOUSEINPUT.MOUSEEVENTF_MIDDLEDOWN : INPUT.MOUSEINPUT.MOUSEEVENTF_MIDDLEUP);
+			case 4 -> {
+				INPUT.MOUSEINPUT.setMouseData(mi, MOUSEINPUT.XBUTTON1);
+				INPUT.MOUSEINPUT.setDwFlags(mi,
+						down ? INPUT.MOUSEINPUT.MOUSEEVENTF_XDOWN : INPUT.MOUSEINPUT.MOUSEEVENTF_XUP);
+			}
+			case 5 -> {
+				INPUT.MOUSEINPUT.setMouseData(mi, MOUSEINPUT.XBUTTON2);
+				INPUT.MOUSEINPUT.setDwFlags(mi,
+						down ? INPUT.MOUSEINPUT.MOUSEEVENTF_XDOWN : INPUT.MOUSEINPUT.MOUSEEVENTF_XUP);
+			}
+			default -> throw OutputSink.buildInvalidMouseButtonException(button);
+			}
+
+			sendInputChecked(input);
+		}
+	}
+
+	@Override
+	public void tapKey(final Scancode scancode) throws IOException {
+		setKey(scancode, true);
+		setKey(scancode, false);
+	}
+
+	@Override
+	public void tapMouseButton(final int button) throws IOException {
+		setMouseButton(button, true);
+		setMouseButton(button, false);
+	}
+}
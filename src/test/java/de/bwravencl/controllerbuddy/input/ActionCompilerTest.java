@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.input;
+
+import de.bwravencl.controllerbuddy.gui.Main;
+import de.bwravencl.controllerbuddy.input.action.IAction;
+import java.lang.constant.Constable;
+import java.util.ArrayList;
+import java.util.List;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.lwjgl.sdl.SDLGamepad;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@NullMarked
+@ExtendWith(MockitoExtension.class)
+final class ActionCompilerTest {
+
+	@Mock
+	IAction<Float> mockAxisAction;
+
+	@Mock
+	Main mockMain;
+
+	@SafeVarargs
+	private static <V extends Constable> IAction<V>[] actions(final IAction<V>... actions) {
+		return actions;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <V extends Constable> IAction<V>[][] newDispatchTable(final int numComponents) {
+		return (IAction<V>[][]) new IAction<?>[numComponents][0];
+	}
+
+	@Nested
+	@DisplayName("compile()")
+	final class CompileTests {
+
+		@Test
+		@DisplayName("invokes actions that cannot be named through the interface")
+		void invokesUnnameableActionsThroughInterface() throws ReflectiveOperationException {
+			final var input = new Input(mockMain, null, null);
+			final IAction<Float>[][] axisDispatchTable = newDispatchTable(SDLGamepad.SDL_GAMEPAD_AXIS_COUNT);
+			axisDispatchTable[SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTY] = actions(mockAxisAction);
+
+			final var axes = new float[SDLGamepad.SDL_GAMEPAD_AXIS_COUNT];
+			axes[SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTY] = 0.5f;
+
+			ActionCompiler.compile(axisDispatchTable, newDispatchTable(SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT + 1))
+					.dispatch(input, axes, new boolean[SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT + 1]);
+
+			Mockito.verify(mockAxisAction).doAction(input, SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTY, 0.5f);
+		}
+
+		@Test
+		@DisplayName("invokes the same actions in the same order as the interpreter")
+		void invokesActionsLikeInterpreter() throws ReflectiveOperationException {
+			final var input = new Input(mockMain, null, null);
+			final var invocations = new ArrayList<String>();
+
+			final IAction<Float>[][] axisDispatchTable = newDispatchTable(SDLGamepad.SDL_GAMEPAD_AXIS_COUNT);
+			axisDispatchTable[SDLGamepad.SDL_GAMEPAD_AXIS_LEFTX] = actions(new RecordingAction<>("a", invocations),
+					new RecordingAction<>("b", invocations));
+			axisDispatchTable[SDLGamepad.SDL_GAMEPAD_AXIS_RIGHT_TRIGGER] = actions(
+					new RecordingAction<>("c", invocations));
+
+			final IAction<Boolean>[][] buttonDispatchTable = newDispatchTable(
+					SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT + 1);
+			buttonDispatchTable[SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH] = actions(new RecordingAction<>("d", invocations));
+			buttonDispatchTable[SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT] = actions(
+					new RecordingAction<>("e", invocations), new RecordingAction<>("f", invocations));
+
+			final var axes = new float[SDLGamepad.SDL_GAMEPAD_AXIS_COUNT];
+			axes[SDLGamepad.SDL_GAMEPAD_AXIS_LEFTX] = -0.25f;
+			axes[SDLGamepad.SDL_GAMEPAD_AXIS_RIGHT_TRIGGER] = 1f;
+			final var buttons = new boolean[SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT + 1];
+			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT] = true;
+
+			new ActionInterpreter(axisDispatchTable, buttonDispatchTable).dispatch(input, axes, buttons);
+			final var expectedInvocations = List.copyOf(invocations);
+			invocations.clear();
+
+			ActionCompiler.compile(axisDispatchTable, buttonDispatchTable).dispatch(input, axes, buttons);
+
+			Assertions.assertEquals(6, expectedInvocations.size());
+			Assertions.assertEquals(expectedInvocations, invocations);
+		}
+
+		@Test
+		@DisplayName("returns a dispatcher that is not affected by later changes to the tables")
+		void returnsDispatcherUnaffectedByTableChanges() throws ReflectiveOperationException {
+			final var input = new Input(mockMain, null, null);
+			final var invocations = new ArrayList<String>();
+
+			final IAction<Boolean>[][] buttonDispatchTable = newDispatchTable(
+					SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT + 1);
+			buttonDispatchTable[SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH] = actions(new RecordingAction<>("a", invocations));
+
+			final var actionDispatcher = ActionCompiler.compile(newDispatchTable(SDLGamepad.SDL_GAMEPAD_AXIS_COUNT),
+					buttonDispatchTable);
+			buttonDispatchTable[SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH] = actions(new RecordingAction<>("b", invocations));
+
+			actionDispatcher.dispatch(input, new float[SDLGamepad.SDL_GAMEPAD_AXIS_COUNT],
+					new boolean[SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT + 1]);
+
+			Assertions.assertEquals(List.of("a:" + SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH + "=false"), invocations);
+		}
+	}
+
+	private static final class RecordingAction<V extends Constable> implements IAction<V> {
+
+		private final List<String> invocations;
+
+		private final String name;
+
+		private RecordingAction(final String name, final List<String> invocations) {
+			this.name = name;
+			this.invocations = invocations;
+		}
+
+		@Override
+		public Object clone() throws CloneNotSupportedException {
+			return super.clone();
+		}
+
+		@Override
+		public void doAction(final Input input, final int component, final V value) {
+			invocations.add(name + ":" + component + "=" + value);
+		}
+
+		@Override
+		public String getDescription(final Input input) {
+			return name;
+		}
+	}
+}
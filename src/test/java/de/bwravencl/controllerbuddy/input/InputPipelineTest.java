@@ -17,6 +17,7 @@
 
 package de.bwravencl.controllerbuddy.input;
 
+import com.sun.management.ThreadMXBean;
 import de.bwravencl.controllerbuddy.gui.Main;
 import de.bwravencl.controllerbuddy.gui.Main.Controller;
 import de.bwravencl.controllerbuddy.gui.OnScreenKeyboard;
@@ -42,15 +43,14 @@ import de.bwravencl.controllerbuddy.input.action.ButtonToScrollAction;
 import de.bwravencl.controllerbuddy.input.action.ButtonToSelectOnScreenKeyboardKeyAction;
 import de.bwravencl.controllerbuddy.input.action.IAction;
 import de.bwravencl.controllerbuddy.input.action.IActivatableAction.Activation;
-import de.bwravencl.controllerbuddy.input.action.IAxisToDelayableAction;
-import de.bwravencl.controllerbuddy.input.action.IButtonToDelayableAction;
 import de.bwravencl.controllerbuddy.input.action.NullAction;
 import de.bwravencl.controllerbuddy.input.action.ToCursorAction.MouseAxis;
 import de.bwravencl.controllerbuddy.runmode.RunMode;
 import java.lang.constant.Constable;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -59,6 +59,7 @@ import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -278,8 +279,6 @@ final class InputPipelineTest {
 	@BeforeEach
 	void setUp() {
 		ButtonToModeAction.getButtonToModeActionStack().clear();
-		IAxisToDelayableAction.reset();
-		IButtonToDelayableAction.reset();
 		Profile.defaultMode.getAxisToActionsMap().clear();
 		Profile.defaultMode.getButtonToActionsMap().clear();
 		final var mockMain = Mockito.mock(Main.class);
@@ -306,10 +305,7 @@ final class InputPipelineTest {
 
 		sdlGamepadMock = Mockito.mockStatic(SDLGamepad.class);
 
-		injector = new GamepadStateInjector(input, sdlGamepadMock);
-
-		sdlGamepadMock.when(() -> SDLGamepad.SDL_GamepadConnected(injector.getDummySdlGamepadHandle()))
-				.thenReturn(true);
+		injector = new GamepadStateInjector(input, mockController.instanceId(), sdlGamepadMock);
 	}
 
 	private void setUpAxisProfile(final int sdlAxis, final VirtualAxis virtualAxis) {
@@ -371,10 +367,14 @@ final class InputPipelineTest {
 
 		private static final long DUMMY_SDL_GAMEPAD_HANDLE = 1L;
 
-		private final MockedStatic<SDLGamepad> sdlGamepadMock;
+		private final Input input;
+
+		private final int instanceId;
 
-		private GamepadStateInjector(final Input input, final MockedStatic<SDLGamepad> sdlGamepadMock) {
-			this.sdlGamepadMock = sdlGamepadMock;
+		private GamepadStateInjector(final Input input, final int instanceId,
+				final MockedStatic<SDLGamepad> sdlGamepadMock) {
+			this.input = input;
+			this.instanceId = instanceId;
 
 			sdlGamepadMock.when(() -> SDLGamepad.SDL_OpenGamepad(Mockito.anyInt()))
 					.thenReturn(DUMMY_SDL_GAMEPAD_HANDLE);
@@ -389,31 +389,19 @@ final class InputPipelineTest {
 			return (short) Math.round(Input.normalize(value, -1f, 1f, Short.MIN_VALUE, Short.MAX_VALUE));
 		}
 
-		private long getDummySdlGamepadHandle() {
-			return DUMMY_SDL_GAMEPAD_HANDLE;
+		private void injectRemoval() {
+			input.handleGamepadRemovedEvent(instanceId);
 		}
 
 		private void injectState(final float[] axes, final boolean[] buttons) {
-			for (var i = 0; i < SDLGamepad.SDL_GAMEPAD_AXIS_COUNT; i++) {
-				final var axis = i;
+			for (var axis = 0; axis < SDLGamepad.SDL_GAMEPAD_AXIS_COUNT; axis++) {
 				final var isTrigger = axis == SDLGamepad.SDL_GAMEPAD_AXIS_LEFT_TRIGGER
 						|| axis == SDLGamepad.SDL_GAMEPAD_AXIS_RIGHT_TRIGGER;
-				final var shortValue = floatToShortAxis(axes[axis], isTrigger);
-				sdlGamepadMock.when(() -> SDLGamepad.SDL_GetGamepadAxis(DUMMY_SDL_GAMEPAD_HANDLE, axis))
-						.thenReturn(shortValue);
+				input.handleGamepadAxisEvent(instanceId, axis, floatToShortAxis(axes[axis], isTrigger));
 			}
 
-			for (final var buttonId : new int[] { SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_EAST, SDLGamepad.SDL_GAMEPAD_BUTTON_WEST,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_NORTH, SDLGamepad.SDL_GAMEPAD_BUTTON_BACK,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_GUIDE, SDLGamepad.SDL_GAMEPAD_BUTTON_START,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_LEFT_STICK, SDLGamepad.SDL_GAMEPAD_BUTTON_RIGHT_STICK,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_LEFT_SHOULDER, SDLGamepad.SDL_GAMEPAD_BUTTON_RIGHT_SHOULDER,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_UP, SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_DOWN,
-					SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_LEFT, SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT }) {
-				final var pressed = buttonId < buttons.length && buttons[buttonId];
-				sdlGamepadMock.when(() -> SDLGamepad.SDL_GetGamepadButton(DUMMY_SDL_GAMEPAD_HANDLE, buttonId))
-						.thenReturn(pressed);
+			for (var button = 0; button <= SDLGamepad.SDL_GAMEPAD_BUTTON_DPAD_RIGHT; button++) {
+				input.handleGamepadButtonEvent(instanceId, button, button < buttons.length && buttons[button]);
 			}
 		}
 	}
@@ -462,12 +450,12 @@ final class InputPipelineTest {
 		}
 
 		private static OutputCapture captureAndReset(final Input input) {
-			final var axes = new EnumMap<>(input.getAxes());
+			final var axes = input.getAxes();
 			final var buttons = Arrays.copyOf(input.getButtons(), input.getButtons().length);
 			final var downKeystrokes = Set.copyOf(input.getDownKeystrokes());
 			final var downUpKeystrokes = Set.copyOf(input.getDownUpKeystrokes());
-			final var downMouseButtons = Set.copyOf(input.getDownMouseButtons());
-			final var downUpMouseButtons = Set.copyOf(input.getDownUpMouseButtons());
+			final var downMouseButtons = toMouseButtonSet(input.getDownMouseButtons());
+			final var downUpMouseButtons = toMouseButtonSet(input.getDownUpMouseButtons());
 			final var cursorDeltaX = input.getCursorDeltaX();
 			final var cursorDeltaY = input.getCursorDeltaY();
 			final var scrollClicks = input.getScrollClicks();
@@ -481,7 +469,7 @@ final class InputPipelineTest {
 			input.setCursorDeltaY(0);
 			input.setScrollClicks(0);
 			input.getDownUpKeystrokes().clear();
-			input.getDownUpMouseButtons().clear();
+			input.clearDownUpMouseButtons();
 			input.getOnLockKeys().clear();
 			input.getOffLockKeys().clear();
 
@@ -489,6 +477,16 @@ final class InputPipelineTest {
 					downUpMouseButtons, cursorDeltaX, cursorDeltaY, scrollClicks, onLockKeys, offLockKeys);
 		}
 
+		private static Set<Integer> toMouseButtonSet(final int mouseButtons) {
+			final var mouseButtonSet = new HashSet<Integer>();
+			for (var mouseButton = 0; mouseButton < Integer.SIZE; mouseButton++) {
+				if ((mouseButtons & 1 << mouseButton) != 0) {
+					mouseButtonSet.add(mouseButton);
+				}
+			}
+			return mouseButtonSet;
+		}
+
 		private Map<VirtualAxis, Integer> axes() {
 			return axes;
 		}
@@ -1379,6 +1377,49 @@ final class InputPipelineTest {
 		}
 	}
 
+	@Nested
+	@DisplayName("poll() allocation")
+	final class AllocationTests {
+
+		private static final int NUM_ITERATIONS = 10_000;
+
+		@Test
+		@DisplayName("does not allocate when polling held buttons in steady state")
+		void doesNotAllocateInSteadyState() {
+			final var threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+			Assumptions.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+			threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+			final var profile = new Profile();
+			final var defaultMode = profile.getModes().getFirst();
+			defaultMode.getButtonToActionsMap().put(SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH,
+					new ArrayList<>(List.of(newButtonToButtonAction(0), newButtonToMouseButtonAction(1))));
+			setProfile(profile);
+
+			final var buttons = noButtons();
+			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH] = true;
+			injector.injectState(noAxes(), buttons);
+
+			// a mock records each invocation, whereas the real method returns right away
+			// as long as no keyboard button has changed
+			Mockito.framework().clearInlineMock(mockOnScreenKeyboard);
+
+			for (var i = 0; i < NUM_ITERATIONS; i++) {
+				Assertions.assertTrue(input.poll());
+			}
+
+			final var allocatedBytesBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+			for (var i = 0; i < NUM_ITERATIONS; i++) {
+				input.poll();
+			}
+			final var allocatedBytesAfter = threadMXBean.getCurrentThreadAllocatedBytes();
+
+			Assertions.assertEquals(0L, allocatedBytesAfter - allocatedBytesBefore);
+			Assertions.assertTrue(input.getButtons()[0]);
+			Assertions.assertTrue(input.isMouseButtonDown(1));
+		}
+	}
+
 	@Nested
 	@DisplayName("Axis mapping")
 	final class AxisMappingTests {
@@ -1944,13 +1985,13 @@ final class InputPipelineTest {
 			final var axes = noAxes();
 			axes[SDLGamepad.SDL_GAMEPAD_AXIS_LEFTX] = 0.8f;
 
-			final var initialValue = input.getAxes().getOrDefault(VirtualAxis.RX, 0);
+			final var initialValue = input.getAxis(VirtualAxis.RX);
 
 			for (var i = 0; i < 10; i++) {
 				pollWithState(axes, noButtons());
 			}
 
-			Assertions.assertNotEquals(initialValue, input.getAxes().getOrDefault(VirtualAxis.RX, 0));
+			Assertions.assertNotEquals(initialValue, input.getAxis(VirtualAxis.RX));
 		}
 
 		@Test
@@ -1965,13 +2006,13 @@ final class InputPipelineTest {
 			final var axes = noAxes();
 			axes[SDLGamepad.SDL_GAMEPAD_AXIS_LEFTX] = 0.2f;
 
-			final var initialValue = input.getAxes().getOrDefault(VirtualAxis.RX, 0);
+			final var initialValue = input.getAxis(VirtualAxis.RX);
 
 			for (var i = 0; i < 10; i++) {
 				pollWithState(axes, noButtons());
 			}
 
-			Assertions.assertEquals(initialValue, input.getAxes().getOrDefault(VirtualAxis.RX, 0));
+			Assertions.assertEquals(initialValue, input.getAxis(VirtualAxis.RX));
 		}
 
 		@Test
@@ -1988,13 +2029,13 @@ final class InputPipelineTest {
 			final var axes = noAxes();
 			axes[SDLGamepad.SDL_GAMEPAD_AXIS_LEFTX] = 0.8f;
 
-			final var initialValue = input.getAxes().getOrDefault(VirtualAxis.RX, 0);
+			final var initialValue = input.getAxis(VirtualAxis.RX);
 
 			for (var i = 0; i < 10; i++) {
 				pollWithState(axes, noButtons());
 			}
 
-			Assertions.assertTrue(input.getAxes().getOrDefault(VirtualAxis.RX, 0) < initialValue);
+			Assertions.assertTrue(input.getAxis(VirtualAxis.RX) < initialValue);
 		}
 	}
 
@@ -2779,11 +2820,11 @@ final class InputPipelineTest {
 			// RelativeAxis on RIGHTY: accumulate over polls
 			final var relAxes = noAxes();
 			relAxes[SDLGamepad.SDL_GAMEPAD_AXIS_RIGHTY] = 0.8f;
-			final var initialZ = input.getAxes().getOrDefault(VirtualAxis.Z, 0);
+			final var initialZ = input.getAxis(VirtualAxis.Z);
 			for (var i = 0; i < 10; i++) {
 				pollWithState(relAxes, noButtons());
 			}
-			Assertions.assertNotEquals(initialZ, input.getAxes().getOrDefault(VirtualAxis.Z, 0),
+			Assertions.assertNotEquals(initialZ, input.getAxis(VirtualAxis.Z),
 					"AxisToRelativeAxis: RIGHTY accumulated on Z");
 
 			// ========== Phase 2: Default mode - cycle action ==========
@@ -2821,8 +2862,8 @@ final class InputPipelineTest {
 			phase3Buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_WEST] = true;
 			phase3Buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_RIGHT_STICK] = true;
 
-			final var initialRY = input.getAxes().getOrDefault(VirtualAxis.RY, 0);
-			final var initialRZ = input.getAxes().get(VirtualAxis.RZ);
+			final var initialRY = input.getAxis(VirtualAxis.RY);
+			final var initialRZ = input.getAxis(VirtualAxis.RZ);
 
 			// First poll: capture ON_PRESS btn 5 firing; DIK_F delayed
 			final var p3First = pollWithState(phase3Axes, phase3Buttons);
@@ -2841,9 +2882,9 @@ final class InputPipelineTest {
 			final var p3 = pollWithState(phase3Axes, phase3Buttons);
 
 			// Mode 1 overrides
-			Assertions.assertNotEquals(initialRY, input.getAxes().getOrDefault(VirtualAxis.RY, 0),
+			Assertions.assertNotEquals(initialRY, input.getAxis(VirtualAxis.RY),
 					"Mode 1 override: LEFTX -> RelativeAxis(RY)");
-			Assertions.assertNotEquals(initialRZ, input.getAxes().get(VirtualAxis.RZ),
+			Assertions.assertNotEquals(initialRZ, input.getAxis(VirtualAxis.RZ),
 					"Mode 1 override: RIGHTX -> RelativeAxis(RZ)");
 			Assertions.assertFalse(p3.buttons()[5],
 					"Mode 1 ON_PRESS: SOUTH -> btn 5 does not repeat on subsequent polls");
@@ -2871,14 +2912,14 @@ final class InputPipelineTest {
 			resetButtons[SDLGamepad.SDL_GAMEPAD_BUTTON_LEFT_SHOULDER] = true;
 			pollWithState(phase3Axes, resetButtons);
 
-			assertAxisEquals(input.floatToIntAxisValue(0f), input.getAxes().getOrDefault(VirtualAxis.RY, 0));
+			assertAxisEquals(input.floatToIntAxisValue(0f), input.getAxis(VirtualAxis.RY));
 
 			// Reset RZ via ButtonToAxisResetAction on RIGHT_SHOULDER (Phase 3 may have
 			// saturated it)
 			final var resetRZButtons = noButtons();
 			resetRZButtons[SDLGamepad.SDL_GAMEPAD_BUTTON_RIGHT_SHOULDER] = true;
 			pollWithState(noAxes(), resetRZButtons);
-			assertAxisEquals(input.floatToIntAxisValue(0f), input.getAxes().getOrDefault(VirtualAxis.RZ, 0));
+			assertAxisEquals(input.floatToIntAxisValue(0f), input.getAxis(VirtualAxis.RZ));
 
 			// ========== Phase 5: Stack Mode 2 on Mode 1 (three-layer) ==========
 
@@ -2901,7 +2942,7 @@ final class InputPipelineTest {
 			phase5Buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_WEST] = true;
 			phase5Buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_RIGHT_STICK] = true;
 
-			final var initialRZPhase5 = input.getAxes().get(VirtualAxis.RZ);
+			final var initialRZPhase5 = input.getAxis(VirtualAxis.RZ);
 
 			for (var i = 0; i < 10; i++) {
 				pollWithState(phase5Axes, phase5Buttons);
@@ -2920,7 +2961,7 @@ final class InputPipelineTest {
 					"Mode 2 NullAction on EAST blocks default DIK_E");
 
 			// Falls through Mode 2 to Mode 1
-			Assertions.assertNotEquals(initialRZPhase5, input.getAxes().get(VirtualAxis.RZ),
+			Assertions.assertNotEquals(initialRZPhase5, input.getAxis(VirtualAxis.RZ),
 					"Fallthrough to Mode 1: RIGHTX -> RelativeAxis(RZ)");
 			Assertions.assertFalse(p5.onLockKeys().contains(LockKey.CAPS_LOCK_LOCK_KEY),
 					"Fallthrough to Mode 1: NullAction on WEST still blocks LockKey");
@@ -3087,13 +3128,13 @@ final class InputPipelineTest {
 			final var axes = noAxes();
 			axes[SDLGamepad.SDL_GAMEPAD_AXIS_LEFTX] = 0.7f;
 			pollWithState(axes, noButtons());
-			Assertions.assertFalse(IAxisToDelayableAction.ACTION_TO_DOWN_SINCE_MAP.isEmpty(), "Delay tracking started");
+			Assertions.assertTrue(input.getDelayTracker().isTracking(delayedAction), "Delay tracking started");
 
 			// Switch to Mode 1 -> onModeActivated clears tracking
 			final var toggleButtons = noButtons();
 			toggleButtons[SDLGamepad.SDL_GAMEPAD_BUTTON_NORTH] = true;
 			pollWithState(axes, toggleButtons);
-			Assertions.assertTrue(IAxisToDelayableAction.ACTION_TO_DOWN_SINCE_MAP.isEmpty(),
+			Assertions.assertFalse(input.getDelayTracker().isTracking(delayedAction),
 					"Delay tracking cleared by onModeActivated");
 		}
 
@@ -3122,15 +3163,14 @@ final class InputPipelineTest {
 			final var buttons = noButtons();
 			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH] = true;
 			pollWithState(noAxes(), buttons);
-			Assertions.assertFalse(IButtonToDelayableAction.ACTION_TO_DOWN_SINCE_MAP.isEmpty(),
-					"Delay tracking started");
+			Assertions.assertTrue(input.getDelayTracker().isTracking(delayedAction), "Delay tracking started");
 
 			// Switch to Mode 1 -> onModeActivated clears tracking
 			final var toggleButtons = noButtons();
 			toggleButtons[SDLGamepad.SDL_GAMEPAD_BUTTON_NORTH] = true;
 			toggleButtons[SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH] = true;
 			pollWithState(noAxes(), toggleButtons);
-			Assertions.assertTrue(IButtonToDelayableAction.ACTION_TO_DOWN_SINCE_MAP.isEmpty(),
+			Assertions.assertFalse(input.getDelayTracker().isTracking(delayedAction),
 					"Delay tracking cleared by onModeActivated");
 		}
 
@@ -3286,19 +3326,19 @@ final class InputPipelineTest {
 			for (var i = 0; i < 10; i++) {
 				pollWithState(axes, noButtons());
 			}
-			final var accumulated = input.getAxes().getOrDefault(VirtualAxis.X, 0);
+			final var accumulated = input.getAxis(VirtualAxis.X);
 			Assertions.assertNotEquals(0, accumulated, "Axis accumulated value");
 
 			// Press reset - suppressed during delay
 			final var buttons = noButtons();
 			buttons[SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH] = true;
 			pollWithState(noAxes(), buttons);
-			Assertions.assertNotEquals(0, input.getAxes().getOrDefault(VirtualAxis.X, 0),
+			Assertions.assertNotEquals(0, input.getAxis(VirtualAxis.X),
 					"Reset suppressed during delay");
 
 			Thread.sleep(DELAY_WAIT_MS);
 			pollWithState(noAxes(), buttons);
-			assertAxisEquals(input.floatToIntAxisValue(0f), input.getAxes().getOrDefault(VirtualAxis.X, 0));
+			assertAxisEquals(input.floatToIntAxisValue(0f), input.getAxis(VirtualAxis.X));
 		}
 
 		@Test
@@ -3971,6 +4011,35 @@ final class InputPipelineTest {
 			Assertions.assertTrue(output1.downKeystrokes().contains(expectedKeystroke));
 			Assertions.assertTrue(output2.downKeystrokes().contains(expectedKeystroke));
 		}
+
+		@Test
+		@DisplayName("overlay axis values are only flagged as changed when they change")
+		void overlayAxisValuesFlaggedOnlyOnChange() {
+			setUpAxisProfile(SDLGamepad.SDL_GAMEPAD_AXIS_LEFTX, VirtualAxis.X);
+
+			final var axes = noAxes();
+			axes[SDLGamepad.SDL_GAMEPAD_AXIS_LEFTX] = 0.5f;
+
+			final var output = pollWithState(axes, noButtons());
+			Assertions.assertTrue(input.consumeOverlayAxisValuesChanged());
+			Assertions.assertEquals(output.axes().getOrDefault(VirtualAxis.X, 0),
+					input.getOverlayAxisValue(VirtualAxis.X));
+
+			pollWithState(axes, noButtons());
+			Assertions.assertFalse(input.consumeOverlayAxisValuesChanged());
+		}
+
+		@Test
+		@DisplayName("polling fails once the gamepad has been removed")
+		void pollingFailsOnceGamepadRemoved() {
+			setUpButtonProfile(SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH, 0);
+
+			injector.injectState(noAxes(), noButtons());
+			Assertions.assertTrue(input.poll());
+
+			injector.injectRemoval();
+			Assertions.assertFalse(input.poll());
+		}
 	}
 
 	@Nested
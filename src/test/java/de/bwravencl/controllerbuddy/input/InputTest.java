@@ -19,13 +19,16 @@ package de.bwravencl.controllerbuddy.input;
 
 import de.bwravencl.controllerbuddy.gui.Main;
 import de.bwravencl.controllerbuddy.gui.Main.Controller;
+import de.bwravencl.controllerbuddy.input.action.ButtonToButtonAction;
+import de.bwravencl.controllerbuddy.input.action.ButtonToModeAction;
+import de.bwravencl.controllerbuddy.input.action.IAction;
 import de.bwravencl.controllerbuddy.runmode.RunMode;
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -90,14 +93,13 @@ final class InputTest {
 		void suspensionExpiresAfterTimeout() throws Exception {
 			// Force an already-expired timestamp via reflection
 			input.suspendAxis(0);
-			final var field = input.getClass().getDeclaredField("axisToEndSuspensionTimeNanosMap");
+			final var field = input.getClass().getDeclaredField("axisSuspensionEndNanoTimes");
 			field.setAccessible(true);
-			@SuppressWarnings("unchecked")
-			final var map = (Map<Integer, Long>) field.get(input);
-			map.put(0, System.currentTimeMillis() - 1); // set timestamp to the past
+			final var endNanoTimes = (long[]) field.get(input);
+			endNanoTimes[0] = System.nanoTime() - 1; // set timestamp to the past
 
-			// poll() clears expired suspensions, but we can verify the map state directly
-			Assertions.assertFalse(map.get(0) > System.currentTimeMillis(),
+			// poll() clears expired suspensions, but we can verify the array state directly
+			Assertions.assertTrue(endNanoTimes[0] - System.nanoTime() < 0L,
 					"Timestamp should be in the past, i.e. the suspension has expired");
 		}
 	}
@@ -115,6 +117,19 @@ final class InputTest {
 			Assertions.assertTrue(axes.values().stream().allMatch(v -> v == 0));
 		}
 
+		@Test
+		@DisplayName("initialises the axes with the values of the provided axes map")
+		void initializesAxesFromProvidedAxesMap() {
+			final var axes = new EnumMap<VirtualAxis, Integer>(VirtualAxis.class);
+			axes.put(VirtualAxis.X, 42);
+
+			final var input = new Input(mockMain, mockController, axes);
+
+			Assertions.assertEquals(42, input.getAxis(VirtualAxis.X));
+			Assertions.assertEquals(0, input.getAxis(VirtualAxis.Y));
+			Assertions.assertEquals(42, input.getAxis(VirtualAxis.X));
+		}
+
 		@Test
 		@DisplayName("sets skipAxisInitialization based on whether an axes map was provided")
 		void setsSkipAxisInitializationCorrectly() {
@@ -125,18 +140,6 @@ final class InputTest {
 			Assertions.assertTrue(new Input(mockMain, mockController, axes).isSkipAxisInitialization(),
 					"Should be true when an axes map is provided");
 		}
-
-		@Test
-		@DisplayName("uses the provided axes map directly instead of creating a fresh one")
-		void usesProvidedAxesMapWhenNotNull() {
-			final var axes = new EnumMap<VirtualAxis, Integer>(VirtualAxis.class);
-			axes.put(VirtualAxis.X, 42);
-
-			final var input = new Input(mockMain, mockController, axes);
-
-			Assertions.assertSame(axes, input.getAxes());
-			Assertions.assertEquals(42, input.getAxes().get(VirtualAxis.X));
-		}
 	}
 
 	@Nested
@@ -189,6 +192,108 @@ final class InputTest {
 		}
 	}
 
+	@Nested
+	@DisplayName("getButtonActions()")
+	final class GetButtonActionsTests {
+
+		private final ButtonToButtonAction defaultModeAction = new ButtonToButtonAction();
+
+		private final ButtonToButtonAction mode1Action = new ButtonToButtonAction();
+
+		private Input input;
+
+		private Mode mode1;
+
+		private Mode mode2;
+
+		private Profile profile;
+
+		@Test
+		@DisplayName("falls back to the default mode for buttons not mapped by the active mode")
+		void fallsBackToDefaultMode() {
+			profile.setActiveMode(input, mode1);
+
+			Assertions.assertArrayEquals(new IAction<?>[] { defaultModeAction },
+					input.getButtonActions(SDLGamepad.SDL_GAMEPAD_BUTTON_EAST));
+		}
+
+		@Test
+		@DisplayName("falls back to the modes below the topmost mode action on the mode stack")
+		void fallsBackToModesBelowTopmostModeAction() {
+			final var mode1ModeAction = new ButtonToModeAction();
+			mode1ModeAction.setMode(mode1);
+			final var mode2ModeAction = new ButtonToModeAction();
+			mode2ModeAction.setMode(mode2);
+
+			final var buttonToModeActionStack = ButtonToModeAction.getButtonToModeActionStack();
+			buttonToModeActionStack.push(mode1ModeAction);
+			buttonToModeActionStack.push(mode2ModeAction);
+			profile.setActiveMode(input, mode2);
+
+			Assertions.assertArrayEquals(new IAction<?>[] { mode1Action },
+					input.getButtonActions(SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH));
+			Assertions.assertArrayEquals(new IAction<?>[] { defaultModeAction },
+					input.getButtonActions(SDLGamepad.SDL_GAMEPAD_BUTTON_EAST));
+		}
+
+		@Test
+		@DisplayName("prefers the actions of the active mode over those of the default mode")
+		void prefersActionsOfActiveMode() {
+			Profile.defaultMode.getButtonToActionsMap().put(SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH,
+					List.of(defaultModeAction));
+			profile.setActiveMode(input, mode1);
+
+			Assertions.assertArrayEquals(new IAction<?>[] { mode1Action },
+					input.getButtonActions(SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH));
+		}
+
+		@Test
+		@DisplayName("recompiles the actions after the active mode has changed")
+		void recompilesAfterActiveModeChange() {
+			Profile.defaultMode.getButtonToActionsMap().put(SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH,
+					List.of(defaultModeAction));
+
+			Assertions.assertArrayEquals(new IAction<?>[] { defaultModeAction },
+					input.getButtonActions(SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH));
+
+			profile.setActiveMode(input, mode1);
+
+			Assertions.assertArrayEquals(new IAction<?>[] { mode1Action },
+					input.getButtonActions(SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH));
+		}
+
+		@Test
+		@DisplayName("returns no actions for buttons that are not mapped in any mode")
+		void returnsNoActionsForUnmappedButtons() {
+			Assertions.assertEquals(0, input.getButtonActions(SDLGamepad.SDL_GAMEPAD_BUTTON_WEST).length);
+		}
+
+		@BeforeEach
+		void setUp() {
+			ButtonToModeAction.getButtonToModeActionStack().clear();
+			Profile.defaultMode.getButtonToActionsMap().clear();
+			Profile.defaultMode.getButtonToActionsMap().put(SDLGamepad.SDL_GAMEPAD_BUTTON_EAST,
+					List.of(defaultModeAction));
+
+			mode1 = new Mode();
+			mode1.getButtonToActionsMap().put(SDLGamepad.SDL_GAMEPAD_BUTTON_SOUTH, List.of(mode1Action));
+			mode2 = new Mode();
+
+			profile = new Profile();
+			profile.getModes().add(mode1);
+			profile.getModes().add(mode2);
+
+			input = createInput();
+			input.setProfile(profile);
+		}
+
+		@AfterEach
+		void tearDown() {
+			ButtonToModeAction.getButtonToModeActionStack().clear();
+			Profile.defaultMode.getButtonToActionsMap().clear();
+		}
+	}
+
 	@Nested
 	@DisplayName("initButtons()")
 	final class InitButtonsTests {
@@ -268,12 +373,10 @@ final class InputTest {
 			input.setAxis(VirtualAxis.X, 1f, false, null, null, null);
 			input.moveAxis(VirtualAxis.X, 1f);
 
-			final var field = input.getClass().getDeclaredField("virtualAxisToTargetValueMap");
+			final var field = input.getClass().getDeclaredField("movingVirtualAxes");
 			field.setAccessible(true);
-			@SuppressWarnings("unchecked")
-			final var targetMap = (Map<VirtualAxis, Integer>) field.get(input);
 
-			Assertions.assertFalse(targetMap.containsKey(VirtualAxis.X));
+			Assertions.assertEquals(0, field.getInt(input) & 1 << VirtualAxis.X.ordinal());
 		}
 
 		@Test
@@ -282,13 +385,14 @@ final class InputTest {
 			// The axes start at 0; moving to 1f should enqueue a target
 			input.moveAxis(VirtualAxis.X, 1f);
 
-			final var field = input.getClass().getDeclaredField("virtualAxisToTargetValueMap");
-			field.setAccessible(true);
-			@SuppressWarnings("unchecked")
-			final var targetMap = (Map<VirtualAxis, Integer>) field.get(input);
+			final var movingField = input.getClass().getDeclaredField("movingVirtualAxes");
+			movingField.setAccessible(true);
+			final var targetValuesField = input.getClass().getDeclaredField("virtualAxisTargetValues");
+			targetValuesField.setAccessible(true);
+			final var targetValues = (int[]) targetValuesField.get(input);
 
-			Assertions.assertTrue(targetMap.containsKey(VirtualAxis.X));
-			Assertions.assertEquals(32_767, targetMap.get(VirtualAxis.X));
+			Assertions.assertNotEquals(0, movingField.getInt(input) & 1 << VirtualAxis.X.ordinal());
+			Assertions.assertEquals(32_767, targetValues[VirtualAxis.X.ordinal()]);
 		}
 
 		@BeforeEach
@@ -386,11 +490,10 @@ final class InputTest {
 			final var input = createInputWithRunMode();
 			input.suspendAxis(0);
 
-			final var field = Input.class.getDeclaredField("axisToEndSuspensionTimeNanosMap");
+			final var field = Input.class.getDeclaredField("axisSuspensionEndNanoTimes");
 			field.setAccessible(true);
-			@SuppressWarnings("unchecked")
-			final var map = (Map<Integer, Long>) field.get(input);
-			map.put(0, System.nanoTime() - 1);
+			final var endNanoTimes = (long[]) field.get(input);
+			endNanoTimes[0] = System.nanoTime() - 1;
 
 			input.poll();
 
@@ -489,15 +592,13 @@ final class InputTest {
 		@DisplayName("clears the pending axis movement targets queued via moveAxis()")
 		void clearsPendingAxisMoveTargets() throws Exception {
 			// Inject a target directly so we don't need RunMode stubs
-			final var field = Input.class.getDeclaredField("virtualAxisToTargetValueMap");
+			final var field = Input.class.getDeclaredField("movingVirtualAxes");
 			field.setAccessible(true);
-			@SuppressWarnings("unchecked")
-			final var map = (Map<VirtualAxis, Integer>) field.get(input);
-			map.put(VirtualAxis.X, 1000);
+			field.setInt(input, 1 << VirtualAxis.X.ordinal());
 
 			input.reset();
 
-			Assertions.assertTrue(map.isEmpty());
+			Assertions.assertEquals(0, field.getInt(input));
 		}
 
 		@Test
@@ -584,10 +685,10 @@ final class InputTest {
 		@DisplayName("clamps the value to the runMode axis range")
 		void clampsValueToAxisRange() {
 			input.setAxis(VirtualAxis.X, 5f, false, null, null, null);
-			Assertions.assertEquals(32_767, input.getAxes().get(VirtualAxis.X));
+			Assertions.assertEquals(32_767, input.getAxis(VirtualAxis.X));
 
 			input.setAxis(VirtualAxis.X, -5f, false, null, null, null);
-			Assertions.assertEquals(-32_768, input.getAxes().get(VirtualAxis.X));
+			Assertions.assertEquals(-32_768, input.getAxis(VirtualAxis.X));
 		}
 
 		@Test
@@ -608,8 +709,8 @@ final class InputTest {
 			input.setAxis(VirtualAxis.X, 1f, false, null, null, null);
 			input.setAxis(VirtualAxis.Y, -1f, false, null, null, null);
 
-			Assertions.assertEquals(32_767, input.getAxes().get(VirtualAxis.X));
-			Assertions.assertEquals(-32_768, input.getAxes().get(VirtualAxis.Y));
+			Assertions.assertEquals(32_767, input.getAxis(VirtualAxis.X));
+			Assertions.assertEquals(-32_768, input.getAxis(VirtualAxis.Y));
 		}
 
 		@Test
@@ -671,7 +772,7 @@ final class InputTest {
 		@DisplayName("stores the converted float value in the axes map")
 		void storesConvertedValueInAxesMap() {
 			input.setAxis(VirtualAxis.X, 1f, false, null, null, null);
-			Assertions.assertEquals(32_767, input.getAxes().get(VirtualAxis.X));
+			Assertions.assertEquals(32_767, input.getAxis(VirtualAxis.X));
 		}
 	}
 
@@ -80,6 +80,26 @@ final class ScancodeTest {
 		}
 	}
 
+	@Nested
+	@DisplayName("forKeyCode()")
+	final class ForKeyCodeTests {
+
+		@Test
+		@DisplayName("returns the same Scancode instances as KEY_CODE_TO_SCAN_CODE_MAP")
+		void returnsSameInstancesAsKeyCodeToScancodeMap() {
+			Scancode.KEY_CODE_TO_SCAN_CODE_MAP
+					.forEach((keyCode, scancode) -> Assertions.assertSame(scancode, Scancode.forKeyCode(keyCode)));
+		}
+
+		@Test
+		@DisplayName("returns null for key codes without a scancode")
+		void returnsNullForUnknownKeyCodes() {
+			Assertions.assertNull(Scancode.forKeyCode(0));
+			Assertions.assertNull(Scancode.forKeyCode(-1));
+			Assertions.assertNull(Scancode.forKeyCode(Scancode.NUM_KEY_CODES));
+		}
+	}
+
 	@Nested
 	@DisplayName("KEY_CODE_TO_SCAN_CODE_MAP")
 	final class KeyCodeToScancodeMapTests {
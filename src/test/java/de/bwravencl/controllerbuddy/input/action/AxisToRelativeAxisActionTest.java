@@ -20,7 +20,6 @@ package de.bwravencl.controllerbuddy.input.action;
 import de.bwravencl.controllerbuddy.input.Input;
 import de.bwravencl.controllerbuddy.input.VirtualAxis;
 import de.bwravencl.controllerbuddy.runmode.RunMode;
-import java.util.EnumMap;
 import org.jspecify.annotations.NullMarked;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -54,8 +53,6 @@ final class AxisToRelativeAxisActionTest {
 
 		private AxisToRelativeAxisAction action;
 
-		private EnumMap<VirtualAxis, Integer> axes;
-
 		@Test
 		@DisplayName("accumulates fractional movement in remainingD below minimum axis step")
 		void accumulatesBelowMinAxisStep() {
@@ -79,7 +76,7 @@ final class AxisToRelativeAxisActionTest {
 			Mockito.when(mockInput.getRunMode()).thenReturn(mockRunMode);
 			Mockito.when(mockRunMode.getMinAxisValue()).thenReturn(-32_767);
 			Mockito.when(mockRunMode.getMaxAxisValue()).thenReturn(32_767);
-			Mockito.when(mockInput.getAxes()).thenReturn(axes);
+			Mockito.when(mockInput.getAxis(VirtualAxis.X)).thenReturn(0);
 
 			action.doAction(mockInput, 0, 1.0f);
 			Mockito.verify(mockInput).setAxis(Mockito.eq(VirtualAxis.X), Mockito.anyFloat(), Mockito.eq(false),
@@ -96,8 +93,7 @@ final class AxisToRelativeAxisActionTest {
 			Mockito.when(mockRunMode.getMinAxisValue()).thenReturn(-32_767);
 			Mockito.when(mockRunMode.getMaxAxisValue()).thenReturn(32_767);
 			// Axis already at near-maximum
-			axes.put(VirtualAxis.X, 32_000);
-			Mockito.when(mockInput.getAxes()).thenReturn(axes);
+			Mockito.when(mockInput.getAxis(VirtualAxis.X)).thenReturn(32_000);
 
 			action.doAction(mockInput, 0, 1.0f);
 
@@ -133,8 +129,7 @@ final class AxisToRelativeAxisActionTest {
 			Mockito.when(mockInput.getRunMode()).thenReturn(mockRunMode);
 			Mockito.when(mockRunMode.getMinAxisValue()).thenReturn(-32_767);
 			Mockito.when(mockRunMode.getMaxAxisValue()).thenReturn(32_767);
-			axes.put(VirtualAxis.X, 0);
-			Mockito.when(mockInput.getAxes()).thenReturn(axes);
+			Mockito.when(mockInput.getAxis(VirtualAxis.X)).thenReturn(0);
 
 			action.doAction(mockInput, 0, 1.0f);
 
@@ -150,8 +145,6 @@ final class AxisToRelativeAxisActionTest {
 			action = new AxisToRelativeAxisAction();
 			action.setVirtualAxis(VirtualAxis.X);
 			action.setDeadZone(0.1f);
-			axes = new EnumMap<>(VirtualAxis.class);
-			axes.put(VirtualAxis.X, 0);
 		}
 	}
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.input.action;
+
+import de.bwravencl.controllerbuddy.input.Mode;
+import de.bwravencl.controllerbuddy.input.Profile;
+import de.bwravencl.controllerbuddy.input.action.IActivatableAction.Activatable;
+import de.bwravencl.controllerbuddy.input.action.IActivatableAction.Activation;
+import java.util.ArrayList;
+import java.util.List;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+@NullMarked
+final class DelayTrackerTest {
+
+	@BeforeAll
+	static void ensureMainInitialized() {
+		final var _ = de.bwravencl.controllerbuddy.gui.Main.strings;
+	}
+
+	private static ButtonToButtonAction newDelayedAction() {
+		final var action = new ButtonToButtonAction();
+		action.setDelay(1000L);
+
+		return action;
+	}
+
+	private static ButtonToButtonAction newOnReleaseAction() {
+		final var action = new ButtonToButtonAction();
+		action.setActivation(Activation.ON_RELEASE);
+		action.setActivatable(Activatable.NO);
+
+		return action;
+	}
+
+	private static Profile newProfile(final Mode... modes) {
+		final var mockProfile = Mockito.mock(Profile.class);
+		Mockito.when(mockProfile.getModes()).thenReturn(List.of(modes));
+
+		return mockProfile;
+	}
+
+	@Nested
+	@DisplayName("onModeActivated()")
+	final class OnModeActivatedTests {
+
+		@Test
+		@DisplayName("stops the delays of actions whose component is mapped in the new mode")
+		void stopsDelaysOfActionsOnComponentsMappedInNewMode() {
+			final var overriddenAction = newDelayedAction();
+			final var retainedAction = newDelayedAction();
+
+			final var activeMode = new Mode();
+			activeMode.getButtonToActionsMap().put(0, new ArrayList<>(List.of(overriddenAction)));
+			activeMode.getButtonToActionsMap().put(1, new ArrayList<>(List.of(retainedAction)));
+
+			final var newMode = new Mode();
+			newMode.getButtonToActionsMap().put(0, new ArrayList<>(List.of(new ButtonToButtonAction())));
+
+			final var delayTracker = new DelayTracker();
+			delayTracker.setProfile(newProfile(activeMode, newMode));
+			delayTracker.getDelayState(overriddenAction).hold(overriddenAction.getDelay());
+			delayTracker.getDelayState(retainedAction).hold(retainedAction.getDelay());
+
+			delayTracker.onModeActivated(activeMode, newMode);
+
+			Assertions.assertFalse(delayTracker.isTracking(overriddenAction));
+			Assertions.assertTrue(delayTracker.isTracking(retainedAction));
+		}
+	}
+
+	@Nested
+	@DisplayName("onModeDeactivated()")
+	final class OnModeDeactivatedTests {
+
+		@Test
+		@DisplayName("stops the delays of all actions of the deactivated mode")
+		void stopsDelaysOfAllActionsOfMode() {
+			final var action = newDelayedAction();
+
+			final var mode = new Mode();
+			mode.getButtonToActionsMap().put(0, new ArrayList<>(List.of(action)));
+
+			final var delayTracker = new DelayTracker();
+			delayTracker.setProfile(newProfile(mode));
+			delayTracker.getDelayState(action).hold(action.getDelay());
+
+			delayTracker.onModeDeactivated(mode);
+
+			Assertions.assertFalse(delayTracker.isTracking(action));
+		}
+	}
+
+	@Nested
+	@DisplayName("reset()")
+	final class ResetTests {
+
+		@Test
+		@DisplayName("stops the delays of all actions, including those not part of the profile")
+		void stopsAllDelays() {
+			final var action = newDelayedAction();
+
+			final var delayTracker = new DelayTracker();
+			delayTracker.getDelayState(action).hold(action.getDelay());
+			Assertions.assertTrue(delayTracker.isTracking(action));
+
+			delayTracker.reset();
+
+			Assertions.assertFalse(delayTracker.isTracking(action));
+		}
+	}
+
+	@Nested
+	@DisplayName("setProfile()")
+	final class SetProfileTests {
+
+		@Test
+		@DisplayName("denies only undelayed ON_RELEASE actions mapped to the same component")
+		void deniesOnlyColocatedUndelayedOnReleaseActions() {
+			final var delayedAction = new ButtonToButtonAction();
+			delayedAction.setDelay(1L);
+
+			final var colocatedOnReleaseAction = newOnReleaseAction();
+			final var colocatedDelayedOnReleaseAction = newOnReleaseAction();
+			colocatedDelayedOnReleaseAction.setDelay(1000L);
+			final var otherComponentOnReleaseAction = newOnReleaseAction();
+
+			final var mode = new Mode();
+			mode.getButtonToActionsMap().put(0, new ArrayList<>(
+					List.of(delayedAction, colocatedOnReleaseAction, colocatedDelayedOnReleaseAction)));
+			mode.getButtonToActionsMap().put(1, new ArrayList<>(List.of(otherComponentOnReleaseAction)));
+
+			final var delayTracker = new DelayTracker();
+			delayTracker.setProfile(newProfile(mode));
+
+			final var delayState = delayTracker.getDelayState(delayedAction);
+			delayState.hold(0L);
+			Assertions.assertTrue(delayState.hold(0L));
+
+			Assertions.assertEquals(Activatable.DENIED_BY_OTHER_ACTION, colocatedOnReleaseAction.getActivatable());
+			Assertions.assertEquals(Activatable.NO, colocatedDelayedOnReleaseAction.getActivatable());
+			Assertions.assertEquals(Activatable.NO, otherComponentOnReleaseAction.getActivatable());
+		}
+
+		@Test
+		@DisplayName("discards the delay states of the previous profile")
+		void discardsPreviousDelayStates() {
+			final var action = newDelayedAction();
+
+			final var mode = new Mode();
+			mode.getButtonToActionsMap().put(0, new ArrayList<>(List.of(action)));
+
+			final var delayTracker = new DelayTracker();
+			delayTracker.setProfile(newProfile(mode));
+			delayTracker.getDelayState(action).hold(action.getDelay());
+
+			delayTracker.setProfile(newProfile(mode));
+
+			Assertions.assertFalse(delayTracker.isTracking(action));
+		}
+	}
+}
@@ -28,7 +28,6 @@ import java.util.UUID;
 import org.jspecify.annotations.NullMarked;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -56,10 +55,27 @@ final class IButtonToDelayableActionTest {
 	@DisplayName("handleDelay()")
 	final class HandleDelayTests {
 
-		@BeforeEach
-		void clearStaticState() {
-			IButtonToDelayableAction.ACTION_TO_DOWN_SINCE_MAP.clear();
-			IButtonToDelayableAction.ACTION_TO_MUST_DENY_ACTIVATION_MAP.clear();
+		private final DelayTracker delayTracker = new DelayTracker();
+
+		@Test
+		@DisplayName("keeps separate delay state per input")
+		void keepsSeparateDelayStatePerInput() {
+			final var action = new ButtonToButtonAction();
+			action.setDelay(1000L);
+
+			final var otherDelayTracker = new DelayTracker();
+			final var otherMockInput = Mockito.mock(Input.class);
+			Mockito.when(mockInput.getDelayTracker()).thenReturn(delayTracker);
+			Mockito.when(otherMockInput.getDelayTracker()).thenReturn(otherDelayTracker);
+
+			action.handleDelay(mockInput, 0, true);
+
+			Assertions.assertTrue(delayTracker.isTracking(action));
+			Assertions.assertFalse(otherDelayTracker.isTracking(action));
+
+			action.handleDelay(otherMockInput, 0, false);
+
+			Assertions.assertTrue(delayTracker.isTracking(action));
 		}
 
 		@Test
@@ -67,6 +83,7 @@ final class IButtonToDelayableActionTest {
 		void returnsFalseBeforeDelayElapses() {
 			final var action = new ButtonToButtonAction();
 			action.setDelay(10_000L);
+			Mockito.when(mockInput.getDelayTracker()).thenReturn(delayTracker);
 
 			action.handleDelay(mockInput, 0, true);
 			// Second press immediately - delay has not elapsed
@@ -74,24 +91,28 @@ final class IButtonToDelayableActionTest {
 		}
 
 		@Test
-		@DisplayName("returns false on first press when delayed, recording the timestamp")
+		@DisplayName("returns false on first press when delayed, starting the delay")
 		void returnsFalseOnFirstPressWhenDelayed() {
 			final var action = new ButtonToButtonAction();
 			action.setDelay(1000L);
+			Mockito.when(mockInput.getDelayTracker()).thenReturn(delayTracker);
+
 			Assertions.assertFalse(action.handleDelay(mockInput, 0, true));
-			Assertions.assertTrue(IButtonToDelayableAction.ACTION_TO_DOWN_SINCE_MAP.containsKey(action));
+			Assertions.assertTrue(delayTracker.isTracking(action));
 		}
 
 		@Test
-		@DisplayName("returns false on release and removes from tracking map")
-		void returnsFalseOnReleaseAndClearsMap() {
+		@DisplayName("returns false on release and stops the delay")
+		void returnsFalseOnReleaseAndStopsDelay() {
 			final var action = new ButtonToButtonAction();
 			action.setDelay(1000L);
+			Mockito.when(mockInput.getDelayTracker()).thenReturn(delayTracker);
+
 			action.handleDelay(mockInput, 0, true);
-			Assertions.assertTrue(IButtonToDelayableAction.ACTION_TO_DOWN_SINCE_MAP.containsKey(action));
+			Assertions.assertTrue(delayTracker.isTracking(action));
 
 			Assertions.assertFalse(action.handleDelay(mockInput, 0, false));
-			Assertions.assertFalse(IButtonToDelayableAction.ACTION_TO_DOWN_SINCE_MAP.containsKey(action));
+			Assertions.assertFalse(delayTracker.isTracking(action));
 		}
 
 		@Test
@@ -99,13 +120,7 @@ final class IButtonToDelayableActionTest {
 		void returnsTrueAfterDelayElapses() throws InterruptedException {
 			final var action = new ButtonToButtonAction();
 			action.setDelay(1L);
-
-			final var mode = new Mode(UUID.randomUUID(), null);
-			final var actionList = new ArrayList<IAction<Boolean>>();
-			actionList.add(action);
-			mode.getButtonToActionsMap().put(0, actionList);
-			Mockito.when(mockInput.getProfile()).thenReturn(mockProfile);
-			Mockito.when(mockProfile.getModes()).thenReturn(List.of(mode));
+			Mockito.when(mockInput.getDelayTracker()).thenReturn(delayTracker);
 
 			action.handleDelay(mockInput, 0, true);
 			Thread.sleep(10);
@@ -135,8 +150,9 @@ final class IButtonToDelayableActionTest {
 			actionList.add(delayedAction);
 			actionList.add(siblingAction);
 			mode.getButtonToActionsMap().put(0, actionList);
-			Mockito.when(mockInput.getProfile()).thenReturn(mockProfile);
 			Mockito.when(mockProfile.getModes()).thenReturn(List.of(mode));
+			delayTracker.setProfile(mockProfile);
+			Mockito.when(mockInput.getDelayTracker()).thenReturn(delayTracker);
 
 			delayedAction.handleDelay(mockInput, 0, true);
 			Thread.sleep(10);
@@ -20,10 +20,7 @@ package de.bwravencl.controllerbuddy.input.action;
 import de.bwravencl.controllerbuddy.input.Input;
 import de.bwravencl.controllerbuddy.input.action.IActivatableAction.Activatable;
 import de.bwravencl.controllerbuddy.input.action.IActivatableAction.Activation;
-import java.util.HashSet;
-import java.util.Set;
 import org.jspecify.annotations.NullMarked;
-import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -56,11 +53,9 @@ final class ToMouseButtonActionTest {
 			final var action = new ButtonToMouseButtonAction();
 			action.setActivatable(Activatable.ALWAYS);
 			action.setMouseButton(1);
-			final var downUpMouseButtons = new HashSet<Integer>();
-			Mockito.when(mockInput.getDownUpMouseButtons()).thenReturn(downUpMouseButtons);
 
 			action.handleAction(false, mockInput);
-			Assertions.assertTrue(downUpMouseButtons.contains(1));
+			Mockito.verify(mockInput).addDownUpMouseButton(1);
 		}
 	}
 
@@ -70,23 +65,20 @@ final class ToMouseButtonActionTest {
 
 		private ButtonToMouseButtonAction action;
 
-		private Set<Integer> downUpMouseButtons;
-
 		@Test
 		@DisplayName("fires on first press, sustained press does not repeat, release re-arms")
 		void firesOnTransitionOnly() {
 			action.handleAction(true, mockInput);
-			Assertions.assertTrue(downUpMouseButtons.contains(3));
-			downUpMouseButtons.clear();
+			Mockito.verify(mockInput).addDownUpMouseButton(3);
 
 			// Sustained press: does not fire
 			action.handleAction(true, mockInput);
-			Assertions.assertTrue(downUpMouseButtons.isEmpty());
+			Mockito.verify(mockInput).addDownUpMouseButton(3);
 
 			// Release re-arms
 			action.handleAction(false, mockInput);
 			action.handleAction(true, mockInput);
-			Assertions.assertTrue(downUpMouseButtons.contains(3));
+			Mockito.verify(mockInput, Mockito.times(2)).addDownUpMouseButton(3);
 		}
 
 		@BeforeEach
@@ -95,8 +87,6 @@ final class ToMouseButtonActionTest {
 			action.setActivation(Activation.ON_PRESS);
 			action.setActivatable(Activatable.YES);
 			action.setMouseButton(3);
-			downUpMouseButtons = new HashSet<>();
-			Mockito.when(mockInput.getDownUpMouseButtons()).thenReturn(downUpMouseButtons);
 		}
 	}
 
@@ -106,25 +96,23 @@ final class ToMouseButtonActionTest {
 
 		private ButtonToMouseButtonAction action;
 
-		private Set<Integer> downUpMouseButtons;
-
 		@Test
 		@DisplayName("DENIED_BY_OTHER_ACTION does not fire on release")
 		void deniedDoesNotFire() {
 			action.setActivatable(Activatable.DENIED_BY_OTHER_ACTION);
 			action.handleAction(true, mockInput);
 			action.handleAction(false, mockInput);
-			Assertions.assertTrue(downUpMouseButtons.isEmpty());
+			Mockito.verify(mockInput, Mockito.never()).addDownUpMouseButton(Mockito.anyInt());
 		}
 
 		@Test
 		@DisplayName("fires on release after press")
 		void firesOnRelease() {
 			action.handleAction(true, mockInput);
-			Assertions.assertTrue(downUpMouseButtons.isEmpty());
+			Mockito.verify(mockInput, Mockito.never()).addDownUpMouseButton(Mockito.anyInt());
 
 			action.handleAction(false, mockInput);
-			Assertions.assertTrue(downUpMouseButtons.contains(2));
+			Mockito.verify(mockInput).addDownUpMouseButton(2);
 		}
 
 		@BeforeEach
@@ -133,8 +121,6 @@ final class ToMouseButtonActionTest {
 			action.setActivation(Activation.ON_RELEASE);
 			action.setActivatable(Activatable.NO);
 			action.setMouseButton(2);
-			downUpMouseButtons = new HashSet<>();
-			Mockito.lenient().when(mockInput.getDownUpMouseButtons()).thenReturn(downUpMouseButtons);
 		}
 	}
 
@@ -144,23 +130,21 @@ final class ToMouseButtonActionTest {
 
 		private ButtonToMouseButtonAction action;
 
-		private Set<Integer> downMouseButtons;
-
 		@Test
-		@DisplayName("adds mouse button while hot and removes on release")
+		@DisplayName("presses mouse button while hot and releases it on release")
 		void addsAndRemovesMouseButton() {
 			action.handleAction(true, mockInput);
-			Assertions.assertTrue(downMouseButtons.contains(1));
+			Mockito.verify(mockInput).pressMouseButton(1);
 
 			action.handleAction(false, mockInput);
-			Assertions.assertFalse(downMouseButtons.contains(1));
+			Mockito.verify(mockInput).releaseMouseButton(1);
 		}
 
 		@Test
-		@DisplayName("does not remove mouse button if it was never pressed")
+		@DisplayName("does not release mouse button if it was never pressed")
 		void doesNotRemoveIfNeverPressed() {
 			action.handleAction(false, mockInput);
-			Assertions.assertTrue(downMouseButtons.isEmpty());
+			Mockito.verify(mockInput, Mockito.never()).releaseMouseButton(Mockito.anyInt());
 		}
 
 		@BeforeEach
@@ -169,8 +153,6 @@ final class ToMouseButtonActionTest {
 			action.setActivation(Activation.WHILE_PRESSED);
 			action.setActivatable(Activatable.YES);
 			action.setMouseButton(1);
-			downMouseButtons = new HashSet<>();
-			Mockito.lenient().when(mockInput.getDownMouseButtons()).thenReturn(downMouseButtons);
 		}
 	}
 }
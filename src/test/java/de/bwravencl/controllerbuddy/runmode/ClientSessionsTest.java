@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import de.bwravencl.controllerbuddy.runmode.ClientSessions.ClientSession;
+import de.bwravencl.controllerbuddy.runmode.ServerRunMode.Handshake;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Objects;
+import javax.crypto.spec.SecretKeySpec;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@NullMarked
+final class ClientSessionsTest {
+
+	private static final int MAX_AXIS_VALUE = 32_767;
+
+	private static final int MAX_NUM_CLIENTS = 2;
+
+	private static final int MAX_NUM_PENDING_SESSIONS = 2;
+
+	private static final int MIN_AXIS_VALUE = -32_768;
+
+	private static final int NUM_BUTTONS = 32;
+
+	private static final long TIMEOUT_NANOS = 1_000L;
+
+	private static ClientSession addConfirmed(final ClientSessions clientSessions, final int lastOctet,
+			final SecretKeySpec key, final long currentTimeNanos) throws UnknownHostException {
+		final var pendingSession = addPending(clientSessions, handshake(lastOctet, NUM_BUTTONS), key,
+				currentTimeNanos);
+		Assertions.assertTrue(clientSessions.confirm(pendingSession));
+		return pendingSession;
+	}
+
+	private static ClientSession addPending(final ClientSessions clientSessions, final Handshake handshake,
+			final SecretKeySpec key, final long currentTimeNanos) {
+		return Objects.requireNonNull(clientSessions.addPending(handshake,
+				new InetSocketAddress(handshake.address(), ServerRunMode.DEFAULT_PORT + 1), key, 0L,
+				currentTimeNanos));
+	}
+
+	private static Handshake handshake(final int lastOctet, final int numButtons) throws UnknownHostException {
+		return new Handshake(InetAddress.getByAddress(new byte[] { (byte) 192, (byte) 168, 0, (byte) lastOctet }),
+				MIN_AXIS_VALUE, MAX_AXIS_VALUE, numButtons, ServerRunMode.PROTOCOL_VERSION);
+	}
+
+	private static SecretKeySpec key(final int seed) {
+		final var keyBytes = new byte[ServerRunMode.KEY_LENGTH];
+		keyBytes[0] = (byte) seed;
+		return new SecretKeySpec(keyBytes, "AES");
+	}
+
+	@Nested
+	@DisplayName("addPending()")
+	final class AddPendingTests {
+
+		@Test
+		@DisplayName("continues the counter of a timed out session whose key is resumed")
+		void continuesCounterOfResumedLostSession() throws UnknownHostException {
+			final var clientSessions = new ClientSessions(MAX_NUM_CLIENTS, MAX_NUM_PENDING_SESSIONS);
+			final var lostSession = addConfirmed(clientSessions, 1, key(1), 0L);
+			lostSession.counter = 42L;
+			Assertions.assertTrue(clientSessions.removeTimedOut(TIMEOUT_NANOS + 1L, TIMEOUT_NANOS));
+
+			final var resumedSession = addPending(clientSessions, handshake(1, NUM_BUTTONS), key(1),
+					TIMEOUT_NANOS + 1L);
+
+			Assertions.assertEquals(42L, resumedSession.counter);
+		}
+
+		@Test
+		@DisplayName("does not replace the confirmed session of the same client")
+		void doesNotReplaceConfirmedSession() throws UnknownHostException {
+			final var clientSessions = new ClientSessions(MAX_NUM_CLIENTS, MAX_NUM_PENDING_SESSIONS);
+			final var confirmedSession = addConfirmed(clientSessions, 1, key(1), 0L);
+
+			addPending(clientSessions, handshake(1, NUM_BUTTONS), key(2), 0L);
+
+			Assertions.assertEquals(List.of(confirmedSession), clientSessions.getConfirmedSessions());
+			Assertions.assertSame(confirmedSession,
+					clientSessions.getConfirmedSession(confirmedSession.address));
+		}
+
+		@Test
+		@DisplayName("rejects a client whose number of buttons differs from the connected clients")
+		void rejectsMismatchingClient() throws UnknownHostException {
+			final var clientSessions = new ClientSessions(MAX_NUM_CLIENTS, MAX_NUM_PENDING_SESSIONS);
+			addConfirmed(clientSessions, 1, key(1), 0L);
+
+			Assertions.assertNull(clientSessions.addPending(handshake(2, NUM_BUTTONS + 1),
+					new InetSocketAddress(ServerRunMode.DEFAULT_PORT + 1), key(2), 0L, 0L));
+			Assertions.assertTrue(clientSessions.getPendingSessions().isEmpty());
+		}
+
+		@Test
+		@DisplayName("rejects a client once the maximum number of pending sessions is reached")
+		void rejectsWhenPendingSessionsFull() throws UnknownHostException {
+			final var clientSessions = new ClientSessions(MAX_NUM_CLIENTS, MAX_NUM_PENDING_SESSIONS);
+			for (var i = 1; i <= MAX_NUM_PENDING_SESSIONS; i++) {
+				addPending(clientSessions, handshake(i, NUM_BUTTONS), key(i), 0L);
+			}
+
+			Assertions.assertNull(clientSessions.addPending(handshake(MAX_NUM_PENDING_SESSIONS + 1, NUM_BUTTONS),
+					new InetSocketAddress(ServerRunMode.DEFAULT_PORT + 1), key(MAX_NUM_PENDING_SESSIONS + 1), 0L,
+					0L));
+		}
+
+		@Test
+		@DisplayName("replaces the pending session of the same client")
+		void replacesPendingSession() throws UnknownHostException {
+			final var clientSessions = new ClientSessions(MAX_NUM_CLIENTS, MAX_NUM_PENDING_SESSIONS);
+			addPending(clientSessions, handshake(1, NUM_BUTTONS), key(1), 0L);
+			final var newSession = addPending(clientSessions, handshake(1, NUM_BUTTONS), key(2), 0L);
+
+			Assertions.assertEquals(List.of(newSession), clientSessions.getPendingSessions());
+		}
+	}
+
+	@Nested
+	@DisplayName("confirm()")
+	final class ConfirmTests {
+
+		@Test
+		@DisplayName("does not count pending sessions toward the maximum number of clients")
+		void doesNotCountPendingSessions() throws UnknownHostException {
+			final var clientSessions = new ClientSessions(MAX_NUM_CLIENTS, MAX_NUM_PENDING_SESSIONS);
+			addConfirmed(clientSessions, 1, key(1), 0L);
+			addPending(clientSessions, handshake(2, NUM_BUTTONS), key(2), 0L);
+			addPending(clientSessions, handshake(3, NUM_BUTTONS), key(3), 0L);
+
+			Assertions.assertEquals(1, clientSessions.getConfirmedSessions().size());
+			Assertions.assertTrue(clientSessions
+					.confirm(Objects.requireNonNull(clientSessions.getPendingSession(handshake(2, 0).address()))));
+		}
+
+		@Test
+		@DisplayName("rejects a pending session once the maximum number of clients is reached")
+		void rejectsWhenClientsFull() throws UnknownHostException {
+			final var clientSessions = new ClientSessions(MAX_NUM_CLIENTS, MAX_NUM_PENDING_SESSIONS);
+			addConfirmed(clientSessions, 1, key(1), 0L);
+			final var pendingSession = addPending(clientSessions, handshake(3, NUM_BUTTONS), key(3), 0L);
+			addConfirmed(clientSessions, 2, key(2), 0L);
+
+			Assertions.assertFalse(clientSessions.confirm(pendingSession));
+			Assertions.assertEquals(MAX_NUM_CLIENTS, clientSessions.getConfirmedSessions().size());
+			Assertions.assertTrue(clientSessions.getPendingSessions().isEmpty());
+		}
+
+		@Test
+		@DisplayName("replaces the confirmed session of the same client and continues its counter")
+		void replacesConfirmedSessionAndContinuesCounter() throws UnknownHostException {
+			final var clientSessions = new ClientSessions(MAX_NUM_CLIENTS, MAX_NUM_PENDING_SESSIONS);
+			final var oldSession = addConfirmed(clientSessions, 1, key(1), 0L);
+			oldSession.counter = 42L;
+			final var newSession = addPending(clientSessions, handshake(1, NUM_BUTTONS), key(2), 0L);
+
+			Assertions.assertTrue(clientSessions.confirm(newSession));
+
+			Assertions.assertEquals(List.of(newSession), clientSessions.getConfirmedSessions());
+			Assertions.assertEquals(42L, newSession.counter);
+		}
+	}
+
+	@Nested
+	@DisplayName("removeTimedOut()")
+	final class RemoveTimedOutTests {
+
+		@Test
+		@DisplayName("removes a timed out pending session without reporting a change")
+		void removesTimedOutPendingSession() throws UnknownHostException {
+			final var clientSessions = new ClientSessions(MAX_NUM_CLIENTS, MAX_NUM_PENDING_SESSIONS);
+			addPending(clientSessions, handshake(1, NUM_BUTTONS), key(1), 0L);
+
+			Assertions.assertFalse(clientSessions.removeTimedOut(TIMEOUT_NANOS + 1L, TIMEOUT_NANOS));
+			Assertions.assertTrue(clientSessions.getPendingSessions().isEmpty());
+		}
+
+		@Test
+		@DisplayName("removes only the confirmed session that timed out")
+		void removesOnlyTimedOutSession() throws UnknownHostException {
+			final var clientSessions = new ClientSessions(MAX_NUM_CLIENTS, MAX_NUM_PENDING_SESSIONS);
+			addConfirmed(clientSessions, 1, key(1), 0L);
+			final var aliveSession = addConfirmed(clientSessions, 2, key(2), 0L);
+			aliveSession.lastAliveTimeNanos = TIMEOUT_NANOS;
+
+			Assertions.assertTrue(clientSessions.removeTimedOut(TIMEOUT_NANOS + 1L, TIMEOUT_NANOS));
+			Assertions.assertEquals(List.of(aliveSession), clientSessions.getConfirmedSessions());
+		}
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@NullMarked
+final class DenseBitSetTest {
+
+	private static final int CAPACITY = 256;
+
+	private static DenseBitSet bitSetOf(final int... elements) {
+		final var bitSet = new DenseBitSet(CAPACITY);
+		for (final var element : elements) {
+			bitSet.add(element);
+		}
+		return bitSet;
+	}
+
+	private static List<Integer> elementsOf(final DenseBitSet bitSet) {
+		final var elements = new ArrayList<Integer>();
+		for (var i = bitSet.nextSetBit(0); i >= 0; i = bitSet.nextSetBit(i + 1)) {
+			elements.add(i);
+		}
+		return elements;
+	}
+
+	@Nested
+	@DisplayName("diff()")
+	final class DiffTests {
+
+		@Test
+		@DisplayName("all previously-down elements are released when sourceSet is empty")
+		void allElementsReleasedWhenSourceSetIsEmpty() {
+			final var sourceSet = bitSetOf();
+			final var oldDownSet = bitSetOf(1, 2, 3);
+			final var newUpSet = bitSetOf();
+			final var newDownSet = bitSetOf();
+
+			DenseBitSet.diff(sourceSet, oldDownSet, newUpSet, newDownSet, false);
+
+			Assertions.assertEquals(List.of(1, 2, 3), elementsOf(newUpSet));
+			Assertions.assertTrue(oldDownSet.isEmpty());
+			Assertions.assertTrue(newDownSet.isEmpty());
+		}
+
+		@Test
+		@DisplayName("elements in different words are diffed independently")
+		void elementsInDifferentWordsAreDiffedIndependently() {
+			final var sourceSet = bitSetOf(1, 200);
+			final var oldDownSet = bitSetOf(70, 200);
+			final var newUpSet = bitSetOf();
+			final var newDownSet = bitSetOf();
+
+			DenseBitSet.diff(sourceSet, oldDownSet, newUpSet, newDownSet, false);
+
+			Assertions.assertEquals(List.of(70), elementsOf(newUpSet));
+			Assertions.assertEquals(List.of(1), elementsOf(newDownSet));
+			Assertions.assertEquals(List.of(1, 200), elementsOf(oldDownSet));
+		}
+
+		@Test
+		@DisplayName("elements newly in sourceSet appear in newDownSet and are added to oldDownSet")
+		void newElementsAppearInNewDownSet() {
+			final var sourceSet = bitSetOf(1, 2);
+			final var oldDownSet = bitSetOf();
+			final var newUpSet = bitSetOf();
+			final var newDownSet = bitSetOf();
+
+			DenseBitSet.diff(sourceSet, oldDownSet, newUpSet, newDownSet, false);
+
+			Assertions.assertEquals(List.of(1, 2), elementsOf(newDownSet));
+			Assertions.assertEquals(List.of(1, 2), elementsOf(oldDownSet));
+		}
+
+		@Test
+		@DisplayName("elements no longer in sourceSet appear in newUpSet and are removed from oldDownSet")
+		void removedElementsAppearInNewUpSet() {
+			final var sourceSet = bitSetOf(1);
+			final var oldDownSet = bitSetOf(1, 2);
+			final var newUpSet = bitSetOf();
+			final var newDownSet = bitSetOf();
+
+			DenseBitSet.diff(sourceSet, oldDownSet, newUpSet, newDownSet, false);
+
+			Assertions.assertTrue(newUpSet.contains(2));
+			Assertions.assertFalse(oldDownSet.contains(2));
+		}
+
+		@Test
+		@DisplayName("newUpSet and newDownSet are cleared before each update")
+		void setsAreClearedBeforeUpdate() {
+			final var sourceSet = bitSetOf();
+			final var oldDownSet = bitSetOf();
+			final var newUpSet = bitSetOf(99);
+			final var newDownSet = bitSetOf(88);
+
+			DenseBitSet.diff(sourceSet, oldDownSet, newUpSet, newDownSet, false);
+
+			Assertions.assertFalse(newUpSet.contains(99));
+			Assertions.assertFalse(newDownSet.contains(88));
+		}
+
+		@Test
+		@DisplayName("still-down elements do not appear in newDownSet when keepStillDown is false")
+		void stillDownElementsExcludedFromNewDownSetWhenNotKeepStillDown() {
+			final var sourceSet = bitSetOf(1);
+			final var oldDownSet = bitSetOf(1);
+			final var newUpSet = bitSetOf();
+			final var newDownSet = bitSetOf();
+
+			DenseBitSet.diff(sourceSet, oldDownSet, newUpSet, newDownSet, false);
+
+			Assertions.assertFalse(newDownSet.contains(1));
+			Assertions.assertTrue(newUpSet.isEmpty());
+		}
+
+		@Test
+		@DisplayName("still-down elements appear in newDownSet when keepStillDown is true")
+		void stillDownElementsIncludedInNewDownSetWhenKeepStillDown() {
+			final var sourceSet = bitSetOf(1);
+			final var oldDownSet = bitSetOf(1);
+			final var newUpSet = bitSetOf();
+			final var newDownSet = bitSetOf();
+
+			DenseBitSet.diff(sourceSet, oldDownSet, newUpSet, newDownSet, true);
+
+			Assertions.assertTrue(newDownSet.contains(1));
+			Assertions.assertTrue(newUpSet.isEmpty());
+		}
+	}
+
+	@Nested
+	@DisplayName("nextSetBit()")
+	final class NextSetBitTests {
+
+		@Test
+		@DisplayName("returns -1 if no element is greater than or equal to the index")
+		void returnsMinusOneIfNoElementFollows() {
+			final var bitSet = bitSetOf(5);
+
+			Assertions.assertEquals(-1, bitSet.nextSetBit(6));
+			Assertions.assertEquals(-1, bitSet.nextSetBit(CAPACITY));
+			Assertions.assertEquals(-1, bitSetOf().nextSetBit(0));
+		}
+
+		@Test
+		@DisplayName("returns the smallest element greater than or equal to the index across word boundaries")
+		void returnsNextElementAcrossWordBoundaries() {
+			final var bitSet = bitSetOf(0, 63, 64, 255);
+
+			Assertions.assertEquals(0, bitSet.nextSetBit(0));
+			Assertions.assertEquals(63, bitSet.nextSetBit(1));
+			Assertions.assertEquals(64, bitSet.nextSetBit(64));
+			Assertions.assertEquals(255, bitSet.nextSetBit(65));
+		}
+	}
+
+	@Nested
+	@DisplayName("setBits()")
+	final class SetBitsTests {
+
+		@Test
+		@DisplayName("replaces the contents with the indices of the set bits")
+		void replacesContentsWithIndicesOfSetBits() {
+			final var bitSet = bitSetOf(2, 100);
+
+			bitSet.setBits((1 << 1) | (1 << 31));
+
+			Assertions.assertEquals(List.of(1, 31), elementsOf(bitSet));
+		}
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import com.sun.management.ThreadMXBean;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.security.GeneralSecurityException;
+import java.util.Random;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.spec.SecretKeySpec;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@NullMarked
+final class EncryptedDatagramChannelTest {
+
+	private static final long RECEIVE_TIMEOUT_MILLIS = 1_000L;
+
+	private static InetSocketAddress loopbackAddress(final EncryptedDatagramChannel channel) throws IOException {
+		return new InetSocketAddress(InetAddress.getLoopbackAddress(), channel.getLocalPort());
+	}
+
+	@Nested
+	@DisplayName("allocation")
+	final class AllocationTests {
+
+		// AES-GCM encryption and decryption of a small datagram allocate 2,016 bytes
+		// in steady state: one GCMParameterSpec with a copy of the IV per cipher
+		// initialization, and the per-operation state of the JCE implementation; the
+		// bound leaves a small margin for variance in escape analysis
+		private static final long MAX_CIPHER_ALLOCATED_BYTES_PER_DATAGRAM = 2_112L;
+
+		private static final int NUM_ITERATIONS = 10_000;
+
+		private static final int NUM_WARM_UP_ITERATIONS = 3 * NUM_ITERATIONS;
+
+		private static long measureAllocatedBytesPerDatagram(final DatagramExchange datagramExchange)
+				throws IOException, GeneralSecurityException {
+			final var threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+			Assumptions.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+			threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+			try (final var receiver = new EncryptedDatagramChannel(0, new Random());
+					final var sender = new EncryptedDatagramChannel(0, new Random())) {
+				final var target = loopbackAddress(receiver);
+
+				var value = 0L;
+				for (var i = 0; i < NUM_WARM_UP_ITERATIONS; i++) {
+					datagramExchange.exchange(sender, receiver, target, value++);
+				}
+
+				final var allocatedBytesBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+				for (var i = 0; i < NUM_ITERATIONS; i++) {
+					datagramExchange.exchange(sender, receiver, target, value++);
+				}
+				final var allocatedBytesAfter = threadMXBean.getCurrentThreadAllocatedBytes();
+
+				return (allocatedBytesAfter - allocatedBytesBefore) / NUM_ITERATIONS;
+			}
+		}
+
+		@Test
+		@DisplayName("allocates nothing for buffering, sending and receiving a datagram in steady state")
+		void allocatesNothingPerPlaintextDatagram() throws IOException, GeneralSecurityException {
+			final var allocatedBytesPerDatagram = measureAllocatedBytesPerDatagram(
+					(sender, receiver, target, value) -> {
+						sender.beginMessage().putInt(ServerRunMode.MessageType.UPDATE.getId()).putLong(value);
+						sender.sendPlaintext(target);
+
+						final var packet = receiver.receive(RECEIVE_TIMEOUT_MILLIS);
+						if (packet == null || packet.getLong(Integer.BYTES) != value) {
+							throw new IllegalStateException();
+						}
+					});
+
+			Assertions.assertEquals(0L, allocatedBytesPerDatagram);
+		}
+
+		@Test
+		@DisplayName("allocates only the cipher state per encrypted datagram in steady state")
+		void allocatesOnlyCipherStatePerEncryptedDatagram() throws IOException, GeneralSecurityException {
+			final var key = new SecretKeySpec(new byte[32], "AES");
+
+			final var allocatedBytesPerDatagram = measureAllocatedBytesPerDatagram(
+					(sender, receiver, target, value) -> {
+						sender.beginMessage().putInt(ServerRunMode.MessageType.UPDATE.getId()).putLong(value);
+						sender.sendEncrypted(key, target);
+
+						if (receiver.receive(RECEIVE_TIMEOUT_MILLIS) == null
+								|| receiver.decrypt(key).getLong(Integer.BYTES) != value) {
+							throw new IllegalStateException();
+						}
+					});
+
+			Assertions.assertTrue(allocatedBytesPerDatagram <= MAX_CIPHER_ALLOCATED_BYTES_PER_DATAGRAM,
+					"Allocated " + allocatedBytesPerDatagram + " bytes per datagram");
+		}
+
+		@FunctionalInterface
+		private interface DatagramExchange {
+
+			void exchange(EncryptedDatagramChannel sender, EncryptedDatagramChannel receiver,
+					InetSocketAddress target, long value) throws IOException, GeneralSecurityException;
+		}
+	}
+
+	@Nested
+	@DisplayName("receive()")
+	final class ReceiveTests {
+
+		@Test
+		@DisplayName("fails with ClosedChannelException after the channel has been closed")
+		void failsAfterClose() throws IOException {
+			final var channel = new EncryptedDatagramChannel(0, new Random());
+			channel.close();
+			Assertions.assertThrows(ClosedChannelException.class, () -> channel.receive(RECEIVE_TIMEOUT_MILLIS));
+		}
+
+		@Test
+		@DisplayName("returns null when no datagram arrives before the timeout")
+		void returnsNullOnTimeout() throws IOException {
+			try (final var channel = new EncryptedDatagramChannel(0, new Random())) {
+				Assertions.assertNull(channel.receive(10L));
+			}
+		}
+	}
+
+	@Nested
+	@DisplayName("sendEncrypted() and decrypt()")
+	final class SendEncryptedTests {
+
+		@Test
+		@DisplayName("delivers the plaintext to a peer using the same key")
+		void deliversPlaintextToPeer() throws IOException, GeneralSecurityException {
+			final var key = new SecretKeySpec(new byte[32], "AES");
+
+			try (final var receiver = new EncryptedDatagramChannel(0, new Random());
+					final var sender = new EncryptedDatagramChannel(0, new Random())) {
+				sender.beginMessage().putInt(ServerRunMode.MessageType.UPDATE.getId()).putLong(123L);
+				sender.sendEncrypted(key, loopbackAddress(receiver));
+
+				final var packet = receiver.receive(RECEIVE_TIMEOUT_MILLIS);
+				Assertions.assertNotNull(packet);
+				Assertions.assertEquals(
+						ServerRunMode.IV_LENGTH + Integer.BYTES + Long.BYTES + ServerRunMode.TAG_LENGTH / Byte.SIZE,
+						packet.remaining());
+
+				final var plaintext = receiver.decrypt(key);
+				Assertions.assertEquals(ServerRunMode.MessageType.UPDATE.getId(), plaintext.getInt());
+				Assertions.assertEquals(123L, plaintext.getLong());
+				Assertions.assertFalse(plaintext.hasRemaining());
+			}
+		}
+
+		@Test
+		@DisplayName("rejects datagrams encrypted with a different key")
+		void rejectsDatagramsWithDifferentKey() throws IOException {
+			final var otherKeyBytes = new byte[32];
+			otherKeyBytes[0] = 1;
+
+			try (final var receiver = new EncryptedDatagramChannel(0, new Random());
+					final var sender = new EncryptedDatagramChannel(0, new Random())) {
+				sender.beginMessage().putInt(ServerRunMode.MessageType.UPDATE.getId());
+				sender.sendEncrypted(new SecretKeySpec(otherKeyBytes, "AES"), loopbackAddress(receiver));
+
+				Assertions.assertNotNull(receiver.receive(RECEIVE_TIMEOUT_MILLIS));
+				final var key = new SecretKeySpec(new byte[32], "AES");
+				Assertions.assertThrows(AEADBadTagException.class, () -> receiver.decrypt(key));
+			}
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@NullMarked
+final class HistogramTest {
+
+	@Nested
+	@DisplayName("bucketIndex()")
+	final class BucketIndexTests {
+
+		@Test
+		@DisplayName("maps every value to a bucket whose bounds contain it")
+		void mapsValuesToContainingBuckets() {
+			for (final var value : new long[] { 0L, 1L, 63L, 64L, 65L, 1_000L, 999_999L, 1_000_000L,
+					Long.MAX_VALUE }) {
+				final var index = Histogram.bucketIndex(value);
+
+				Assertions.assertTrue(Histogram.bucketLowerBound(index) <= value);
+				if (value < Long.MAX_VALUE) {
+					Assertions.assertTrue(Histogram.bucketLowerBound(index + 1) > value);
+				}
+			}
+		}
+
+		@Test
+		@DisplayName("keeps the relative error below the sub-bucket resolution")
+		void keepsRelativeErrorBelowResolution() {
+			for (var value = 1L; value < 1_000_000_000L; value = (value * 3L) + 1L) {
+				final var lowerBound = Histogram.bucketLowerBound(Histogram.bucketIndex(value));
+
+				Assertions.assertTrue((double) (value - lowerBound) / value < 1d / Histogram.SUB_BUCKET_COUNT);
+			}
+		}
+	}
+
+	@Nested
+	@DisplayName("getValueAtPercentile()")
+	final class GetValueAtPercentileTests {
+
+		@Test
+		@DisplayName("returns zero if no value has been recorded")
+		void returnsZeroWithoutValues() {
+			Assertions.assertEquals(0L, new Histogram().getValueAtPercentile(50d));
+		}
+
+		@Test
+		@DisplayName("returns the recorded values at the requested percentiles")
+		void returnsValuesAtPercentiles() {
+			final var histogram = new Histogram();
+			for (var value = 1L; value <= 100L; value++) {
+				histogram.record(value * 1_000L);
+			}
+
+			Assertions.assertEquals(100L, histogram.getCount());
+			Assertions.assertEquals(50_500d, histogram.getMean(), 1e-9);
+			Assertions.assertEquals(100_000L, histogram.getMax());
+			Assertions.assertEquals(50_000d, histogram.getValueAtPercentile(50d), 50_000d / Histogram.SUB_BUCKET_COUNT);
+			Assertions.assertEquals(99_000d, histogram.getValueAtPercentile(99d), 99_000d / Histogram.SUB_BUCKET_COUNT);
+		}
+	}
+
+	@Nested
+	@DisplayName("record()")
+	final class RecordTests {
+
+		@Test
+		@DisplayName("records negative values as zero")
+		void recordsNegativeValuesAsZero() {
+			final var histogram = new Histogram();
+			histogram.record(-5L);
+
+			Assertions.assertEquals(1L, histogram.getCount());
+			Assertions.assertEquals(0L, histogram.getMax());
+			Assertions.assertEquals(0L, histogram.getValueAtPercentile(100d));
+		}
+	}
+
+	@Nested
+	@DisplayName("reset()")
+	final class ResetTests {
+
+		@Test
+		@DisplayName("removes all recorded values")
+		void removesAllValues() {
+			final var histogram = new Histogram();
+			histogram.record(42L);
+			histogram.reset();
+
+			Assertions.assertEquals(0L, histogram.getCount());
+			Assertions.assertEquals(0L, histogram.getMax());
+			Assertions.assertEquals(0d, histogram.getMean());
+			Assertions.assertEquals(0L, histogram.getValueAtPercentile(100d));
+		}
+	}
+}
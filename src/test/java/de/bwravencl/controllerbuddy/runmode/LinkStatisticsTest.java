@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@NullMarked
+final class LinkStatisticsTest {
+
+	private static final long NANOS_PER_MILLI = 1_000_000L;
+
+	private static void exchange(final LinkStatistics server, final LinkStatistics client,
+			final long serverSendTimeMillis, final long clientClockOffsetMillis, final long oneWayDelayMillis,
+			final long replyDelayMillis) throws IOException {
+		final var buffer = ByteBuffer.allocate(64);
+
+		server.writeTiming(buffer, serverSendTimeMillis * NANOS_PER_MILLI);
+		final var clientReceiveTimeMillis = serverSendTimeMillis + oneWayDelayMillis + clientClockOffsetMillis;
+		client.readTiming(buffer.flip(), clientReceiveTimeMillis * NANOS_PER_MILLI);
+
+		buffer.clear();
+		final var clientSendTimeMillis = clientReceiveTimeMillis + replyDelayMillis;
+		client.writeTiming(buffer, clientSendTimeMillis * NANOS_PER_MILLI);
+		server.readTiming(buffer.flip(),
+				(clientSendTimeMillis - clientClockOffsetMillis + oneWayDelayMillis) * NANOS_PER_MILLI);
+	}
+
+	@Nested
+	@DisplayName("addPeerTimestamp()")
+	final class AddPeerTimestampTests {
+
+		@Test
+		@DisplayName("measures the jitter of varying transit times")
+		void measuresJitterOfVaryingTransitTimes() {
+			final var linkStatistics = new LinkStatistics(0L);
+			for (var i = 0; i < 100; i++) {
+				final var sendTimeMillis = i * 10L;
+				linkStatistics.addPeerTimestamp(sendTimeMillis * 1_000L,
+						(sendTimeMillis + (i % 2 == 0 ? 5L : 15L)) * NANOS_PER_MILLI);
+			}
+
+			final var jitterNanos = linkStatistics.snapshot().jitterNanos();
+			Assertions.assertTrue(jitterNanos > 9L * NANOS_PER_MILLI);
+			Assertions.assertTrue(jitterNanos <= 10L * NANOS_PER_MILLI);
+		}
+
+		@Test
+		@DisplayName("reports no jitter for constant transit times")
+		void reportsNoJitterForConstantTransitTimes() {
+			final var linkStatistics = new LinkStatistics(0L);
+			for (var i = 0; i < 10; i++) {
+				final var sendTimeMillis = i * 10L;
+				linkStatistics.addPeerTimestamp(sendTimeMillis * 1_000L, (sendTimeMillis + 7L) * NANOS_PER_MILLI);
+			}
+
+			Assertions.assertEquals(0L, linkStatistics.snapshot().jitterNanos());
+		}
+	}
+
+	@Nested
+	@DisplayName("addSequenceNumber()")
+	final class AddSequenceNumberTests {
+
+		@Test
+		@DisplayName("counts gaps in the sequence as lost messages")
+		void countsGapsAsLost() {
+			final var linkStatistics = new LinkStatistics(0L);
+			for (final var sequenceNumber : new long[] { 1L, 2L, 5L, 6L }) {
+				linkStatistics.addSequenceNumber(sequenceNumber);
+			}
+
+			Assertions.assertEquals(4L, linkStatistics.getNumReceived());
+			Assertions.assertEquals(2L, linkStatistics.getNumLost());
+			Assertions.assertEquals(0L, linkStatistics.getNumReordered());
+			Assertions.assertEquals(1d / 3d, linkStatistics.snapshot().lossRatio(), 1e-9);
+		}
+
+		@Test
+		@DisplayName("counts late messages as reordered instead of lost")
+		void countsLateMessagesAsReordered() {
+			final var linkStatistics = new LinkStatistics(0L);
+			for (final var sequenceNumber : new long[] { 1L, 3L, 2L, 4L }) {
+				linkStatistics.addSequenceNumber(sequenceNumber);
+			}
+
+			Assertions.assertEquals(4L, linkStatistics.getNumReceived());
+			Assertions.assertEquals(0L, linkStatistics.getNumLost());
+			Assertions.assertEquals(1L, linkStatistics.getNumReordered());
+		}
+
+		@Test
+		@DisplayName("restarts the sequence after a session reset")
+		void restartsSequenceAfterSessionReset() {
+			final var linkStatistics = new LinkStatistics(0L);
+			linkStatistics.addSequenceNumber(100L);
+			linkStatistics.resetSession();
+			linkStatistics.addSequenceNumber(0L);
+			linkStatistics.addSequenceNumber(1L);
+
+			Assertions.assertEquals(3L, linkStatistics.getNumReceived());
+			Assertions.assertEquals(0L, linkStatistics.getNumLost());
+			Assertions.assertEquals(0L, linkStatistics.getNumReordered());
+		}
+	}
+
+	@Nested
+	@DisplayName("readTiming()")
+	final class ReadTimingTests {
+
+		@Test
+		@DisplayName("does not measure the round-trip time before the peer has echoed a timestamp")
+		void doesNotMeasureRttWithoutEcho() throws IOException {
+			final var server = new LinkStatistics(0L);
+			final var client = new LinkStatistics(0L);
+			final var buffer = ByteBuffer.allocate(64);
+
+			server.writeTiming(buffer, 10L * NANOS_PER_MILLI);
+			client.readTiming(buffer.flip(), 15L * NANOS_PER_MILLI);
+
+			final var clientStatistics = client.snapshot();
+			Assertions.assertEquals(-1L, clientStatistics.rttNanos());
+			Assertions.assertEquals(-1L, clientStatistics.minRttNanos());
+			Assertions.assertEquals(-1L, clientStatistics.oneWayLatencyNanos());
+		}
+
+		@Test
+		@DisplayName("measures the round-trip time and the one-way latency despite a clock offset")
+		void measuresRttAndOneWayLatency() throws IOException {
+			final var server = new LinkStatistics(0L);
+			final var client = new LinkStatistics(0L);
+			for (var i = 0; i < 5; i++) {
+				exchange(server, client, 1_000L + i * 100L, 5_000L, 4L, 2L);
+			}
+
+			final var serverStatistics = server.snapshot();
+			Assertions.assertEquals(8L * NANOS_PER_MILLI, serverStatistics.rttNanos());
+			Assertions.assertEquals(8L * NANOS_PER_MILLI, serverStatistics.minRttNanos());
+			Assertions.assertEquals(4L * NANOS_PER_MILLI, serverStatistics.oneWayLatencyNanos());
+
+			final var clientStatistics = client.snapshot();
+			Assertions.assertEquals(8L * NANOS_PER_MILLI, clientStatistics.rttNanos());
+			Assertions.assertEquals(4L * NANOS_PER_MILLI, clientStatistics.oneWayLatencyNanos());
+		}
+	}
+}
@@ -19,12 +19,15 @@ package de.bwravencl.controllerbuddy.runmode;
 
 import de.bwravencl.controllerbuddy.gui.Main;
 import de.bwravencl.controllerbuddy.input.Input;
+import de.bwravencl.controllerbuddy.input.Keystroke;
 import de.bwravencl.controllerbuddy.input.Mode;
 import de.bwravencl.controllerbuddy.input.Profile;
+import de.bwravencl.controllerbuddy.input.Scancode;
+import de.bwravencl.controllerbuddy.input.VirtualAxis;
 import de.bwravencl.controllerbuddy.input.action.ButtonToButtonAction;
-import java.util.HashSet;
+import de.bwravencl.controllerbuddy.runmode.RecordingOutputSink.OutputEvent;
+import de.bwravencl.controllerbuddy.runmode.RecordingOutputSink.Type;
 import java.util.List;
-import java.util.Set;
 import org.jspecify.annotations.NullMarked;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Assumptions;
@@ -41,6 +44,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 final class OutputRunModeTest {
 
+	private static final Scancode A_SCANCODE = Scancode.NAME_TO_SCAN_CODE_MAP.get(Scancode.DIK_A);
+
+	private static final Scancode LSHIFT_SCANCODE = Scancode.NAME_TO_SCAN_CODE_MAP.get(Scancode.DIK_LSHIFT);
+
 	@Mock
 	Input mockInput;
 
@@ -181,95 +188,123 @@ final class OutputRunModeTest {
 	}
 
 	@Nested
-	@DisplayName("updateOutputSets()")
-	final class UpdateOutputSetsTests {
+	@DisplayName("writeOutput()")
+	final class WriteOutputTests {
+
+		private static final OutputEvent FLUSH_EVENT = new OutputEvent(0L, Type.FLUSH, 0, 0);
+
+		private RecordingOutputSink recordingOutputSink;
+
+		private LocalRunMode runMode;
 
 		@Test
-		@DisplayName("all previously-down elements are released when sourceSet is empty")
-		void allElementsReleasedWhenSourceSetIsEmpty() {
-			final var sourceSet = new HashSet<Integer>();
-			final var oldDownSet = new HashSet<>(Set.of(1, 2, 3));
-			final var newUpSet = new HashSet<Integer>();
-			final var newDownSet = new HashSet<Integer>();
-
-			OutputRunMode.updateOutputSets(sourceSet, oldDownSet, newUpSet, newDownSet, false);
-
-			Assertions.assertEquals(Set.of(1, 2, 3), newUpSet);
-			Assertions.assertTrue(oldDownSet.isEmpty());
-			Assertions.assertTrue(newDownSet.isEmpty());
+		@DisplayName("ends every frame with a flush")
+		void endsFrameWithFlush() {
+			runMode.writeOutput();
+			recordingOutputSink.clear();
+
+			runMode.writeOutput();
+			Assertions.assertEquals(List.of(FLUSH_EVENT), recordingOutputSink.getEvents());
 		}
 
 		@Test
-		@DisplayName("elements newly in sourceSet appear in newDownSet and are added to oldDownSet")
-		void newElementsAppearInNewDownSet() {
-			final var sourceSet = new HashSet<>(Set.of(1, 2));
-			final var oldDownSet = new HashSet<Integer>();
-			final var newUpSet = new HashSet<Integer>();
-			final var newDownSet = new HashSet<Integer>();
-
-			OutputRunMode.updateOutputSets(sourceSet, oldDownSet, newUpSet, newDownSet, false);
-
-			Assertions.assertTrue(newDownSet.contains(1));
-			Assertions.assertTrue(newDownSet.contains(2));
-			Assertions.assertTrue(oldDownSet.contains(1));
-			Assertions.assertTrue(oldDownSet.contains(2));
+		@DisplayName("holds the modifiers of a keystroke around its tapped keys")
+		void holdsModifiersAroundTappedKeys() {
+			runMode.writeOutput();
+			recordingOutputSink.clear();
+
+			runMode.downUpKeystrokes
+					.add(new Keystroke(new Scancode[] { A_SCANCODE }, new Scancode[] { LSHIFT_SCANCODE }));
+			runMode.writeOutput();
+
+			Assertions.assertEquals(List.of(new OutputEvent(0L, Type.KEY, LSHIFT_SCANCODE.keyCode(), 1),
+					new OutputEvent(0L, Type.KEY, A_SCANCODE.keyCode(), 1),
+					new OutputEvent(0L, Type.KEY, A_SCANCODE.keyCode(), 0),
+					new OutputEvent(0L, Type.KEY, LSHIFT_SCANCODE.keyCode(), 0), FLUSH_EVENT),
+					recordingOutputSink.getEvents());
 		}
 
 		@Test
-		@DisplayName("elements no longer in sourceSet appear in newUpSet and are removed from oldDownSet")
-		void removedElementsAppearInNewUpSet() {
-			final var sourceSet = new HashSet<Integer>();
-			final var oldDownSet = new HashSet<>(Set.of(1, 2));
-			final var newUpSet = new HashSet<Integer>();
-			final var newDownSet = new HashSet<Integer>();
-
-			sourceSet.add(1);
-			OutputRunMode.updateOutputSets(sourceSet, oldDownSet, newUpSet, newDownSet, false);
-
-			Assertions.assertTrue(newUpSet.contains(2));
-			Assertions.assertFalse(oldDownSet.contains(2));
+		@DisplayName("sends a newly pressed normal key only once per key repeat interval")
+		void limitsNormalKeysToKeyRepeatRate() {
+			runMode.newDownNormalKeys.add(A_SCANCODE.keyCode());
+
+			runMode.writeOutput();
+			runMode.writeOutput();
+
+			final var keyEvents = recordingOutputSink.getEvents().stream().filter(event -> event.type() == Type.KEY)
+					.toList();
+			Assertions.assertEquals(List.of(new OutputEvent(0L, Type.KEY, A_SCANCODE.keyCode(), 1)), keyEvents);
 		}
 
 		@Test
-		@DisplayName("newUpSet and newDownSet are cleared before each update")
-		void setsAreClearedBeforeUpdate() {
-			final var sourceSet = new HashSet<Integer>();
-			final var oldDownSet = new HashSet<Integer>();
-			final var newUpSet = new HashSet<>(Set.of(99));
-			final var newDownSet = new HashSet<>(Set.of(88));
+		@DisplayName("moves the cursor only if it has a non-zero delta")
+		void movesCursorOnlyForNonZeroDelta() {
+			runMode.writeOutput();
+			recordingOutputSink.clear();
 
-			OutputRunMode.updateOutputSets(sourceSet, oldDownSet, newUpSet, newDownSet, false);
+			runMode.cursorDeltaX = 3;
+			runMode.writeOutput();
 
-			Assertions.assertFalse(newUpSet.contains(99));
-			Assertions.assertFalse(newDownSet.contains(88));
+			Assertions.assertEquals(List.of(new OutputEvent(0L, Type.CURSOR_X, 0, 3), FLUSH_EVENT),
+					recordingOutputSink.getEvents());
 		}
 
 		@Test
-		@DisplayName("still-down elements do not appear in newDownSet when keepStillDown is false")
-		void stillDownElementsExcludedFromNewDownSetWhenNotKeepStillDown() {
-			final var sourceSet = new HashSet<>(Set.of(1));
-			final var oldDownSet = new HashSet<>(Set.of(1));
-			final var newUpSet = new HashSet<Integer>();
-			final var newDownSet = new HashSet<Integer>();
+		@DisplayName("presses and releases tapped mouse buttons within the same frame")
+		void pressesAndReleasesTappedMouseButtons() {
+			runMode.writeOutput();
+			recordingOutputSink.clear();
+
+			runMode.downUpMouseButtons.add(2);
+			runMode.writeOutput();
+
+			Assertions.assertEquals(List.of(new OutputEvent(0L, Type.MOUSE_BUTTON, 2, 1),
+					new OutputEvent(0L, Type.MOUSE_BUTTON, 2, 0), FLUSH_EVENT), recordingOutputSink.getEvents());
+		}
 
-			OutputRunMode.updateOutputSets(sourceSet, oldDownSet, newUpSet, newDownSet, false);
+		@BeforeEach
+		void setUp() {
+			Mockito.when(mockMain.getInput()).thenReturn(mockInput);
+			Mockito.when(mockMain.getMinPollingRate()).thenReturn(RunMode.DEFAULT_MIN_POLLING_RATE_HZ);
+			Mockito.when(mockMain.getMaxPollingRate()).thenReturn(RunMode.DEFAULT_MAX_POLLING_RATE_HZ);
+			Mockito.when(mockInput.getProfile()).thenReturn(mockProfile);
+			// a key repeat rate of 1 Hz keeps consecutive frames within one interval
+			Mockito.when(mockProfile.getKeyRepeatRate()).thenReturn(1L);
+			runMode = new LocalRunMode(mockMain);
 
-			Assertions.assertFalse(newDownSet.contains(1));
-			Assertions.assertTrue(newUpSet.isEmpty());
+			recordingOutputSink = new RecordingOutputSink(() -> 0L);
+			runMode.outputSink = recordingOutputSink;
+		}
+
+		@Test
+		@DisplayName("configures the key repeat rate of the sink only when it is updated")
+		void updatesKeyRepeatRateOnlyOnRequest() {
+			runMode.heldKeysRepeatedBySink = true;
+			runMode.writeOutput();
+			runMode.writeOutput();
+			Assertions.assertTrue(recordingOutputSink.getEvents().stream()
+					.noneMatch(outputEvent -> outputEvent.type() == Type.KEY_REPEAT_RATE));
+			recordingOutputSink.clear();
+
+			runMode.updateKeyRepeatRate();
+
+			Assertions.assertEquals(List.of(new OutputEvent(0L, Type.KEY_REPEAT_RATE, 0, 1)),
+					recordingOutputSink.getEvents());
 		}
 
 		@Test
-		@DisplayName("still-down elements appear in newDownSet when keepStillDown is true")
-		void stillDownElementsIncludedInNewDownSetWhenKeepStillDown() {
-			final var sourceSet = new HashSet<>(Set.of(1));
-			final var oldDownSet = new HashSet<>(Set.of(1));
-			final var newUpSet = new HashSet<Integer>();
-			final var newDownSet = new HashSet<Integer>();
+		@DisplayName("writes all axes in the first frame and only changed axes afterwards")
+		void writesOnlyChangedAxes() {
+			runMode.writeOutput();
+			Assertions.assertEquals(VirtualAxis.values().length + 1, recordingOutputSink.getEvents().size());
+			recordingOutputSink.clear();
 
-			OutputRunMode.updateOutputSets(sourceSet, oldDownSet, newUpSet, newDownSet, true);
+			runMode.axisY.set(7);
+			runMode.writeOutput();
 
-			Assertions.assertTrue(newDownSet.contains(1));
-			Assertions.assertTrue(newUpSet.isEmpty());
+			Assertions.assertEquals(List.of(new OutputEvent(0L, Type.AXIS, VirtualAxis.Y.ordinal(), 7), FLUSH_EVENT),
+					recordingOutputSink.getEvents());
 		}
 	}
 }
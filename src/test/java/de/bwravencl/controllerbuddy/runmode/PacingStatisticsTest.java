@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@NullMarked
+final class PacingStatisticsTest {
+
+	private static final long PERIOD_NANOS = 1_000_000L;
+
+	@Nested
+	@DisplayName("record()")
+	final class RecordTests {
+
+		@Test
+		@DisplayName("does not record a period for the first wake-up")
+		void doesNotRecordPeriodForFirstWakeUp() {
+			final var pacingStatistics = new PacingStatistics();
+			pacingStatistics.record(PERIOD_NANOS, PERIOD_NANOS + 50_000L);
+
+			Assertions.assertEquals(0L, pacingStatistics.getPeriodHistogram().getCount());
+			Assertions.assertEquals(0L, pacingStatistics.getJitterHistogram().getCount());
+		}
+
+		@Test
+		@DisplayName("records the achieved period and its deviation from the scheduled period")
+		void recordsPeriodAndJitter() {
+			final var pacingStatistics = new PacingStatistics();
+			pacingStatistics.record(PERIOD_NANOS, PERIOD_NANOS + 10L);
+			pacingStatistics.record(2L * PERIOD_NANOS, (2L * PERIOD_NANOS) + 30L);
+			pacingStatistics.record(3L * PERIOD_NANOS, (3L * PERIOD_NANOS) + 20L);
+
+			final var periodHistogram = pacingStatistics.getPeriodHistogram();
+			Assertions.assertEquals(2L, periodHistogram.getCount());
+			Assertions.assertEquals(PERIOD_NANOS + 20L, periodHistogram.getMax());
+			Assertions.assertEquals(PERIOD_NANOS + 5d, periodHistogram.getMean(), 1e-9);
+
+			final var jitterHistogram = pacingStatistics.getJitterHistogram();
+			Assertions.assertEquals(2L, jitterHistogram.getCount());
+			Assertions.assertEquals(10L, jitterHistogram.getValueAtPercentile(50d));
+			Assertions.assertEquals(20L, jitterHistogram.getMax());
+		}
+	}
+
+	@Nested
+	@DisplayName("recordMissedPeriods()")
+	final class RecordMissedPeriodsTests {
+
+		@Test
+		@DisplayName("counts the missed periods and does not relate the next wake-up to the previous one")
+		void countsMissedPeriodsAndRestarts() {
+			final var pacingStatistics = new PacingStatistics();
+			pacingStatistics.record(PERIOD_NANOS, PERIOD_NANOS);
+			pacingStatistics.recordMissedPeriods(3L);
+			pacingStatistics.record(5L * PERIOD_NANOS, 5L * PERIOD_NANOS);
+
+			Assertions.assertEquals(3L, pacingStatistics.getNumMissedPeriods());
+			Assertions.assertEquals(0L, pacingStatistics.getPeriodHistogram().getCount());
+		}
+	}
+
+	@Nested
+	@DisplayName("restart()")
+	final class RestartTests {
+
+		@Test
+		@DisplayName("does not relate the next wake-up to the previous one")
+		void doesNotRelateNextWakeUpToPreviousOne() {
+			final var pacingStatistics = new PacingStatistics();
+			pacingStatistics.record(PERIOD_NANOS, PERIOD_NANOS);
+			pacingStatistics.restart();
+			pacingStatistics.record(1_500_000L, 1_500_000L);
+			pacingStatistics.record(1_500_000L + PERIOD_NANOS, 1_500_000L + PERIOD_NANOS);
+
+			final var periodHistogram = pacingStatistics.getPeriodHistogram();
+			Assertions.assertEquals(1L, periodHistogram.getCount());
+			Assertions.assertEquals(PERIOD_NANOS, periodHistogram.getMax());
+			Assertions.assertEquals(0L, pacingStatistics.getJitterHistogram().getMax());
+		}
+	}
+}
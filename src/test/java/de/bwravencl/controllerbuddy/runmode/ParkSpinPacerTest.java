@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import java.time.Duration;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@NullMarked
+final class ParkSpinPacerTest {
+
+	@Nested
+	@DisplayName("await()")
+	final class AwaitTests {
+
+		@Test
+		@DisplayName("returns immediately if the deadline has already passed")
+		void returnsImmediatelyForPassedDeadline() {
+			final var deadlineNanos = System.nanoTime() - 1_000_000_000L;
+
+			Assertions.assertTimeout(Duration.ofMillis(100L),
+					() -> new ParkSpinPacer().await(deadlineNanos));
+		}
+
+		@Test
+		@DisplayName("returns no earlier than the deadline")
+		void returnsNoEarlierThanDeadline() throws InterruptedException {
+			final var pacer = new ParkSpinPacer();
+			for (var i = 0; i < 10; i++) {
+				final var deadlineNanos = System.nanoTime() + 1_000_000L;
+				pacer.await(deadlineNanos);
+
+				Assertions.assertTrue(System.nanoTime() - deadlineNanos >= 0L);
+			}
+		}
+
+		@Test
+		@DisplayName("throws an InterruptedException if the thread is interrupted")
+		void throwsIfInterrupted() {
+			Thread.currentThread().interrupt();
+
+			Assertions.assertThrows(InterruptedException.class,
+					() -> new ParkSpinPacer().await(System.nanoTime() + 1_000_000_000L));
+			Assertions.assertFalse(Thread.interrupted());
+		}
+	}
+}
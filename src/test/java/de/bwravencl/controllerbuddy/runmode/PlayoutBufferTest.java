@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import de.bwravencl.controllerbuddy.input.VirtualAxis;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@NullMarked
+@ExtendWith(MockitoExtension.class)
+final class PlayoutBufferTest {
+
+	private static final long NANOS_PER_MILLI = 1_000_000L;
+
+	@Mock
+	UpdateMessage mockUpdateMessage;
+
+	private void add(final PlayoutBuffer playoutBuffer, final long senderTimeMillis, final long arrivalTimeMillis,
+			final int value) {
+		Mockito.lenient().when(mockUpdateMessage.getTimestampMicros()).thenReturn(senderTimeMillis * 1_000L);
+		Mockito.lenient().when(mockUpdateMessage.getAxis(Mockito.any())).thenReturn(value);
+		playoutBuffer.add(mockUpdateMessage, arrivalTimeMillis * NANOS_PER_MILLI);
+	}
+
+	private static int sampleX(final PlayoutBuffer playoutBuffer, final long currentTimeNanos) {
+		final var axes = new int[VirtualAxis.values().length];
+		Assertions.assertTrue(playoutBuffer.sample(currentTimeNanos, axes));
+		return axes[VirtualAxis.X.ordinal()];
+	}
+
+	@Nested
+	@DisplayName("add()")
+	final class AddTests {
+
+		@Test
+		@DisplayName("increases the playout delay with the measured jitter")
+		void increasesPlayoutDelayWithMeasuredJitter() {
+			final var steadyPlayoutBuffer = new PlayoutBuffer();
+			final var jitteryPlayoutBuffer = new PlayoutBuffer();
+			for (var i = 0; i < 50; i++) {
+				final var senderTimeMillis = i * 10L;
+				add(steadyPlayoutBuffer, senderTimeMillis, senderTimeMillis + 5L, i);
+				add(jitteryPlayoutBuffer, senderTimeMillis, senderTimeMillis + (i % 2 == 0 ? 5L : 15L), i);
+			}
+
+			Assertions.assertTrue(steadyPlayoutBuffer.getDelayNanos() < 10L * NANOS_PER_MILLI);
+			Assertions.assertTrue(jitteryPlayoutBuffer.getDelayNanos() > 20L * NANOS_PER_MILLI);
+			Assertions.assertTrue(jitteryPlayoutBuffer.getDelayNanos() <= 100L * NANOS_PER_MILLI);
+		}
+
+		@Test
+		@DisplayName("ignores states that are not newer than the newest buffered state")
+		void ignoresStatesThatAreNotNewer() {
+			final var playoutBuffer = new PlayoutBuffer();
+			add(playoutBuffer, 10L, 15L, 1_000);
+			add(playoutBuffer, 5L, 16L, -1_000);
+
+			Assertions.assertEquals(1_000, sampleX(playoutBuffer, 100L * NANOS_PER_MILLI));
+		}
+	}
+
+	@Nested
+	@DisplayName("sample()")
+	final class SampleTests {
+
+		@Test
+		@DisplayName("holds the newest state once the playout time has passed it")
+		void holdsNewestState() {
+			final var playoutBuffer = new PlayoutBuffer();
+			add(playoutBuffer, 0L, 5L, 0);
+			add(playoutBuffer, 10L, 15L, 1_000);
+
+			Assertions.assertEquals(1_000, sampleX(playoutBuffer, 1_000L * NANOS_PER_MILLI));
+		}
+
+		@Test
+		@DisplayName("interpolates axis values between the surrounding states")
+		void interpolatesBetweenSurroundingStates() {
+			final var playoutBuffer = new PlayoutBuffer();
+			add(playoutBuffer, 0L, 5L, 0);
+			add(playoutBuffer, 10L, 15L, 1_000);
+
+			final var playoutOffsetNanos = 5L * NANOS_PER_MILLI + playoutBuffer.getDelayNanos();
+			Assertions.assertEquals(0, sampleX(playoutBuffer, playoutOffsetNanos));
+			Assertions.assertEquals(500, sampleX(playoutBuffer, playoutOffsetNanos + 5L * NANOS_PER_MILLI));
+		}
+
+		@Test
+		@DisplayName("keeps the older state during long gaps and only interpolates shortly before the newer state")
+		void limitsInterpolationDuringLongGaps() {
+			final var playoutBuffer = new PlayoutBuffer();
+			add(playoutBuffer, 0L, 5L, 0);
+			add(playoutBuffer, 100L, 105L, 1_000);
+
+			final var playoutOffsetNanos = 5L * NANOS_PER_MILLI + playoutBuffer.getDelayNanos();
+			Assertions.assertEquals(0, sampleX(playoutBuffer, playoutOffsetNanos + 50L * NANOS_PER_MILLI));
+			Assertions.assertEquals(500, sampleX(playoutBuffer, playoutOffsetNanos + 90L * NANOS_PER_MILLI));
+		}
+
+		@Test
+		@DisplayName("returns false and leaves the target untouched if the buffer is empty")
+		void returnsFalseIfEmpty() {
+			final var axes = new int[] { 1, 2, 3, 4, 5, 6, 7, 8 };
+
+			Assertions.assertFalse(new PlayoutBuffer().sample(0L, axes));
+			Assertions.assertArrayEquals(new int[] { 1, 2, 3, 4, 5, 6, 7, 8 }, axes);
+		}
+	}
+}
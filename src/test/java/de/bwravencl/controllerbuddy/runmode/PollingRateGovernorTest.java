@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@NullMarked
+final class PollingRateGovernorTest {
+
+	private static final long IDLE_TIMEOUT_NANOS = 500_000_000L;
+
+	private static final int MAX_POLLING_RATE = 1000;
+
+	private static final int MIN_POLLING_RATE = 125;
+
+	private static PollingRateGovernor activeGovernor() {
+		final var pollingRateGovernor = new PollingRateGovernor(MIN_POLLING_RATE, MAX_POLLING_RATE,
+				IDLE_TIMEOUT_NANOS);
+		pollingRateGovernor.reportActivity();
+		pollingRateGovernor.update(0L);
+		return pollingRateGovernor;
+	}
+
+	@Nested
+	@DisplayName("PollingRateGovernor()")
+	final class ConstructorTests {
+
+		@Test
+		@DisplayName("starts at the minimum polling rate")
+		void startsAtMinimumPollingRate() {
+			Assertions.assertEquals(MIN_POLLING_RATE,
+					new PollingRateGovernor(MIN_POLLING_RATE, MAX_POLLING_RATE, IDLE_TIMEOUT_NANOS).getPollingRate());
+		}
+
+		@Test
+		@DisplayName("throws if the maximum polling rate is less than the minimum polling rate")
+		void throwsForInvertedBounds() {
+			Assertions.assertThrows(IllegalArgumentException.class,
+					() -> new PollingRateGovernor(MAX_POLLING_RATE, MIN_POLLING_RATE, IDLE_TIMEOUT_NANOS));
+		}
+	}
+
+	@Nested
+	@DisplayName("reportActivity()")
+	final class ReportActivityTests {
+
+		@Test
+		@DisplayName("raises the polling rate to the maximum right away")
+		void raisesPollingRateToMaximum() {
+			final var pollingRateGovernor = new PollingRateGovernor(MIN_POLLING_RATE, MAX_POLLING_RATE,
+					IDLE_TIMEOUT_NANOS);
+			pollingRateGovernor.reportActivity();
+
+			Assertions.assertEquals(MAX_POLLING_RATE, pollingRateGovernor.getPollingRate());
+		}
+	}
+
+	@Nested
+	@DisplayName("update()")
+	final class UpdateTests {
+
+		@Test
+		@DisplayName("decays the polling rate stepwise to the minimum once the idle timeout has passed")
+		void decaysStepwiseAfterIdleTimeout() {
+			final var pollingRateGovernor = activeGovernor();
+
+			Assertions.assertTrue(pollingRateGovernor.update(IDLE_TIMEOUT_NANOS));
+			Assertions.assertEquals(MAX_POLLING_RATE / 2, pollingRateGovernor.getPollingRate());
+
+			Assertions.assertFalse(pollingRateGovernor.update(IDLE_TIMEOUT_NANOS + 1L));
+			Assertions.assertEquals(MAX_POLLING_RATE / 2, pollingRateGovernor.getPollingRate());
+
+			var timeNanos = IDLE_TIMEOUT_NANOS;
+			for (var i = 0; i < 10; i++) {
+				timeNanos += PollingRateGovernor.DECAY_STEP_NANOS;
+				pollingRateGovernor.update(timeNanos);
+			}
+			Assertions.assertEquals(MIN_POLLING_RATE, pollingRateGovernor.getPollingRate());
+		}
+
+		@Test
+		@DisplayName("keeps the maximum polling rate until the idle timeout has passed")
+		void keepsMaximumPollingRateUntilIdleTimeout() {
+			final var pollingRateGovernor = activeGovernor();
+
+			Assertions.assertFalse(pollingRateGovernor.update(IDLE_TIMEOUT_NANOS - 1L));
+			Assertions.assertEquals(MAX_POLLING_RATE, pollingRateGovernor.getPollingRate());
+		}
+
+		@Test
+		@DisplayName("keeps the maximum polling rate while activity is reported")
+		void keepsMaximumPollingRateWhileActive() {
+			final var pollingRateGovernor = activeGovernor();
+			for (var timeNanos = 0L; timeNanos < 2L * IDLE_TIMEOUT_NANOS; timeNanos += 1_000_000L) {
+				pollingRateGovernor.reportActivity();
+				Assertions.assertFalse(pollingRateGovernor.update(timeNanos));
+			}
+
+			Assertions.assertEquals(MAX_POLLING_RATE, pollingRateGovernor.getPollingRate());
+		}
+
+		@Test
+		@DisplayName("restarts the idle timeout when activity is reported during the decay")
+		void restartsIdleTimeoutOnActivity() {
+			final var pollingRateGovernor = activeGovernor();
+			pollingRateGovernor.update(IDLE_TIMEOUT_NANOS);
+
+			pollingRateGovernor.reportActivity();
+			pollingRateGovernor.update(IDLE_TIMEOUT_NANOS + 1L);
+			Assertions.assertEquals(MAX_POLLING_RATE, pollingRateGovernor.getPollingRate());
+
+			Assertions.assertFalse(pollingRateGovernor.update(2L * IDLE_TIMEOUT_NANOS));
+			Assertions.assertEquals(MAX_POLLING_RATE, pollingRateGovernor.getPollingRate());
+		}
+	}
+}
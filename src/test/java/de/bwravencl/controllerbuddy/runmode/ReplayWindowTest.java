@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@NullMarked
+final class ReplayWindowTest {
+
+	private static ReplayWindow windowAccepting(final long... sequenceNumbers) {
+		final var replayWindow = new ReplayWindow();
+		for (final var sequenceNumber : sequenceNumbers) {
+			Assertions.assertTrue(replayWindow.canAccept(sequenceNumber));
+			replayWindow.accept(sequenceNumber);
+		}
+		return replayWindow;
+	}
+
+	@Nested
+	@DisplayName("canAccept()")
+	final class CanAcceptTests {
+
+		@Test
+		@DisplayName("accepts sequence numbers that arrive late but within the window")
+		void acceptsLateSequenceNumbersWithinWindow() {
+			final var replayWindow = windowAccepting(0L, 2L, 5L);
+
+			Assertions.assertTrue(replayWindow.canAccept(1L));
+			Assertions.assertTrue(replayWindow.canAccept(3L));
+			Assertions.assertTrue(replayWindow.canAccept(4L));
+			Assertions.assertEquals(5L, replayWindow.getHighest());
+		}
+
+		@Test
+		@DisplayName("rejects sequence numbers that have already been accepted")
+		void rejectsDuplicates() {
+			final var replayWindow = windowAccepting(0L, 2L, 1L);
+
+			Assertions.assertFalse(replayWindow.canAccept(0L));
+			Assertions.assertFalse(replayWindow.canAccept(1L));
+			Assertions.assertFalse(replayWindow.canAccept(2L));
+			Assertions.assertTrue(replayWindow.canAccept(3L));
+		}
+
+		@Test
+		@DisplayName("rejects sequence numbers that have fallen out of the window")
+		void rejectsSequenceNumbersOutsideWindow() {
+			final var replayWindow = windowAccepting(0L, ReplayWindow.SIZE + 10L);
+
+			Assertions.assertFalse(replayWindow.canAccept(10L));
+			Assertions.assertTrue(replayWindow.canAccept(11L));
+			Assertions.assertFalse(replayWindow.canAccept(-1L));
+		}
+	}
+
+	@Nested
+	@DisplayName("reset()")
+	final class ResetTests {
+
+		@Test
+		@DisplayName("accepts previously accepted sequence numbers again")
+		void acceptsPreviouslyAcceptedSequenceNumbers() {
+			final var replayWindow = windowAccepting(0L, 1L);
+			replayWindow.reset();
+
+			Assertions.assertTrue(replayWindow.canAccept(0L));
+			Assertions.assertEquals(-1L, replayWindow.getHighest());
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@NullMarked
+final class SendSchedulerTest {
+
+	private static final long NANOS_PER_MILLI = 1_000_000L;
+
+	@Nested
+	@DisplayName("adapt()")
+	final class AdaptTests {
+
+		@Test
+		@DisplayName("halves the send rate on congestion without falling below the lower bound")
+		void halvesSendRateOnCongestion() {
+			final var sendScheduler = new SendScheduler(30, 200);
+
+			sendScheduler.adapt(true);
+			Assertions.assertEquals(100, sendScheduler.getSendRate());
+
+			for (var i = 0; i < 10; i++) {
+				sendScheduler.adapt(true);
+			}
+			Assertions.assertEquals(30, sendScheduler.getSendRate());
+		}
+
+		@Test
+		@DisplayName("increases the send rate without congestion up to the upper bound")
+		void increasesSendRateWithoutCongestion() {
+			final var sendScheduler = new SendScheduler(30, 200);
+			sendScheduler.adapt(true);
+
+			sendScheduler.adapt(false);
+			Assertions.assertEquals(100 + SendScheduler.RATE_INCREASE_HZ, sendScheduler.getSendRate());
+
+			for (var i = 0; i < 100; i++) {
+				sendScheduler.adapt(false);
+			}
+			Assertions.assertEquals(200, sendScheduler.getSendRate());
+		}
+	}
+
+	@Nested
+	@DisplayName("isCongested()")
+	final class IsCongestedTests {
+
+		@Test
+		@DisplayName("considers a connection with a high loss ratio congested")
+		void considersHighLossCongested() {
+			Assertions.assertTrue(SendScheduler.isCongested(0.1d, 2L * NANOS_PER_MILLI, 2L * NANOS_PER_MILLI));
+		}
+
+		@Test
+		@DisplayName("considers a connection whose round-trip time indicates queuing congested")
+		void considersQueuingCongested() {
+			Assertions.assertFalse(SendScheduler.isCongested(0d, 6L * NANOS_PER_MILLI, 2L * NANOS_PER_MILLI));
+			Assertions.assertTrue(SendScheduler.isCongested(0d, 20L * NANOS_PER_MILLI, 2L * NANOS_PER_MILLI));
+		}
+
+		@Test
+		@DisplayName("does not consider a connection without measurements congested")
+		void doesNotConsiderConnectionWithoutMeasurementsCongested() {
+			Assertions.assertFalse(SendScheduler.isCongested(0d, -1L, -1L));
+		}
+	}
+
+	@Nested
+	@DisplayName("isSendDue()")
+	final class IsSendDueTests {
+
+		@Test
+		@DisplayName("allows one send per send interval")
+		void allowsOneSendPerInterval() {
+			final var sendScheduler = new SendScheduler(100, 100);
+			sendScheduler.reset(0L);
+
+			Assertions.assertTrue(sendScheduler.isSendDue(0L));
+			sendScheduler.onSend(0L);
+
+			Assertions.assertFalse(sendScheduler.isSendDue(9L * NANOS_PER_MILLI));
+			Assertions.assertTrue(sendScheduler.isSendDue(10L * NANOS_PER_MILLI));
+		}
+
+		@Test
+		@DisplayName("restarts the schedule after an idle period instead of sending a burst")
+		void restartsScheduleAfterIdlePeriod() {
+			final var sendScheduler = new SendScheduler(100, 100);
+			sendScheduler.reset(0L);
+			sendScheduler.onSend(0L);
+
+			sendScheduler.onSend(1_000L * NANOS_PER_MILLI);
+
+			Assertions.assertFalse(sendScheduler.isSendDue(1_005L * NANOS_PER_MILLI));
+			Assertions.assertTrue(sendScheduler.isSendDue(1_010L * NANOS_PER_MILLI));
+		}
+	}
+}
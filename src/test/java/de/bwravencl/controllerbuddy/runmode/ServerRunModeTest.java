@@ -100,6 +100,8 @@ final class ServerRunModeTest {
 					ServerRunMode.MessageType.fromId(ServerRunMode.MessageType.REQUEST_ALIVE.getId()));
 			Assertions.assertEquals(ServerRunMode.MessageType.CLIENT_ALIVE,
 					ServerRunMode.MessageType.fromId(ServerRunMode.MessageType.CLIENT_ALIVE.getId()));
+			Assertions.assertEquals(ServerRunMode.MessageType.CLIENT_RESUME,
+					ServerRunMode.MessageType.fromId(ServerRunMode.MessageType.CLIENT_RESUME.getId()));
 		}
 
 		@Test
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.bwravencl.controllerbuddy.runmode;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import javax.crypto.spec.SecretKeySpec;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@NullMarked
+final class SessionTicketsTest {
+
+	private static final long HOUR_NANOS = 60L * 60L * 1_000_000_000L;
+
+	private static final SecretKeySpec KEY = new SecretKeySpec(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12,
+			13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32 }, "AES");
+
+	private static InetAddress address(final int lastOctet) throws UnknownHostException {
+		return InetAddress.getByAddress(new byte[] { (byte) 192, (byte) 168, 0, (byte) lastOctet });
+	}
+
+	private static ByteBuffer issue(final SessionTickets sessionTickets, final InetAddress clientAddress) {
+		final var buffer = ByteBuffer.allocate(ServerRunMode.MAX_PACKET_LENGTH);
+		sessionTickets.issue(KEY, clientAddress, 0L, buffer);
+		return buffer.flip();
+	}
+
+	@Nested
+	@DisplayName("issue()")
+	final class IssueTests {
+
+		@Test
+		@DisplayName("writes a ticket of the fixed ticket length")
+		void writesTicketOfFixedLength() throws UnknownHostException {
+			Assertions.assertEquals(SessionTickets.TICKET_LENGTH,
+					issue(new SessionTickets(new Random()), address(1)).remaining());
+		}
+	}
+
+	@Nested
+	@DisplayName("redeem()")
+	final class RedeemTests {
+
+		@Test
+		@DisplayName("rejects a ticket that has expired")
+		void rejectsExpiredTicket() throws UnknownHostException {
+			final var sessionTickets = new SessionTickets(new Random());
+			final var ticket = issue(sessionTickets, address(1));
+
+			Assertions.assertNull(sessionTickets.redeem(ticket, address(1), 2L * HOUR_NANOS));
+		}
+
+		@Test
+		@DisplayName("rejects a ticket that has been tampered with")
+		void rejectsTamperedTicket() throws UnknownHostException {
+			final var sessionTickets = new SessionTickets(new Random());
+			final var ticket = issue(sessionTickets, address(1));
+			ticket.put(ServerRunMode.IV_LENGTH, (byte) (ticket.get(ServerRunMode.IV_LENGTH) ^ 1));
+
+			Assertions.assertNull(sessionTickets.redeem(ticket, address(1), 0L));
+		}
+
+		@Test
+		@DisplayName("rejects a ticket redeemed from a different address")
+		void rejectsTicketFromDifferentAddress() throws UnknownHostException {
+			final var sessionTickets = new SessionTickets(new Random());
+			final var ticket = issue(sessionTickets, address(1));
+
+			Assertions.assertNull(sessionTickets.redeem(ticket, address(2), 0L));
+		}
+
+		@Test
+		@DisplayName("rejects a ticket issued by a different server")
+		void rejectsTicketOfDifferentServer() throws UnknownHostException {
+			final var ticket = issue(new SessionTickets(new Random()), address(1));
+
+			Assertions.assertNull(new SessionTickets(new Random()).redeem(ticket, address(1), 0L));
+		}
+
+		@Test
+		@DisplayName("rejects a truncated ticket")
+		void rejectsTruncatedTicket() throws UnknownHostException {
+			final var sessionTickets = new SessionTickets(new Random());
+			final var ticket = issue(sessionTickets, address(1));
+			ticket.limit(ticket.limit() - 1);
+
+			Assertions.assertNull(sessionTickets.redeem(ticket, address(1), 0L));
+		}
+
+		@Test
+		@DisplayName("returns the session key for a valid ticket")
+		void returnsSessionKeyForValidTicket() throws UnknownHostException {
+			final var sessionTickets = new SessionTickets(new Random());
+			final var ticket = issue(sessionTickets, address(1));
+
+			final var key = sessionTickets.redeem(ticket, address(1), HOUR_NANOS - 1L);
+			Assertions.assertNotNull(key);
+			Assertions.assertArrayEquals(KEY.getEncoded(), key.getEncoded());
+			Assertions.assertEquals("AES", key.getAlgorithm());
+		}
+	}
+}
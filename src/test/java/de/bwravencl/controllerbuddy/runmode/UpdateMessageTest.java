@@ -0,0 +1,523 @@
+/*
+ * Copyright (C) 2026 Matteo Hausner
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.bwravencl.controllerbuddy.runmode;
+
+import com.sun.management.ThreadMXBean;
+import de.bwravencl.controllerbuddy.input.Input;
+import de.bwravencl.controllerbuddy.input.Keystroke;
+import de.bwravencl.controllerbuddy.input.LockKey;
+import de.bwravencl.controllerbuddy.input.Scancode;
+import de.bwravencl.controllerbuddy.input.VirtualAxis;
+import de.bwravencl.controllerbuddy.runmode.UpdateMessage.ReadResult;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@NullMarked
+@ExtendWith(MockitoExtension.class)
+final class UpdateMessageTest {
+
+	private static final Scancode A_SCANCODE = Scancode.NAME_TO_SCAN_CODE_MAP.get(Scancode.DIK_A);
+
+	private static final Scancode B_SCANCODE = Scancode.NAME_TO_SCAN_CODE_MAP.get(Scancode.DIK_B);
+
+	private static final Scancode LSHIFT_SCANCODE = Scancode.NAME_TO_SCAN_CODE_MAP.get(Scancode.DIK_LSHIFT);
+
+	@Mock
+	Input mockInput;
+
+	private static ByteBuffer encode(final UpdateMessage message, final @Nullable UpdateMessage previous) {
+		final var buffer = ByteBuffer.allocate(ServerRunMode.MAX_PACKET_LENGTH);
+		message.write(buffer, previous, eventHistoryOf(message));
+		return buffer.flip();
+	}
+
+	private static EventHistory eventHistoryOf(final UpdateMessage message) {
+		final var eventHistory = new EventHistory(0);
+		if (message.hasEvents()) {
+			eventHistory.add(message);
+		}
+		return eventHistory;
+	}
+
+	private void stubInput(final Map<VirtualAxis, Integer> axes, final boolean[] buttons,
+			final Set<Keystroke> downKeystrokes, final Set<Keystroke> downUpKeystrokes, final Set<LockKey> onLockKeys) {
+		for (final var virtualAxis : VirtualAxis.values()) {
+			Mockito.when(mockInput.getAxis(virtualAxis)).thenAnswer(_ -> axes.getOrDefault(virtualAxis, 0));
+		}
+		Mockito.when(mockInput.getButtons()).thenReturn(buttons);
+		Mockito.when(mockInput.getCursorDeltaX()).thenReturn(-3);
+		Mockito.when(mockInput.getCursorDeltaY()).thenReturn(7);
+		Mockito.when(mockInput.getDownMouseButtons()).thenReturn(1 << 1);
+		Mockito.when(mockInput.getDownKeystrokes()).thenReturn(downKeystrokes);
+		Mockito.when(mockInput.getDownUpMouseButtons()).thenReturn(1 << 3);
+		Mockito.when(mockInput.getDownUpKeystrokes()).thenReturn(downUpKeystrokes);
+		Mockito.when(mockInput.getScrollClicks()).thenReturn(-2);
+		Mockito.when(mockInput.getOnLockKeys()).thenReturn(onLockKeys);
+		Mockito.when(mockInput.getOffLockKeys()).thenReturn(new HashSet<>());
+	}
+
+	@Nested
+	@DisplayName("accumulate()")
+	final class AccumulateTests {
+
+		@Test
+		@DisplayName("keeps the latest held state and sums up the one-shot events of every capture")
+		void keepsLatestHeldStateAndSumsUpEvents() {
+			final var axes = new EnumMap<VirtualAxis, Integer>(VirtualAxis.class);
+			axes.put(VirtualAxis.X, 1_000);
+			stubInput(axes, new boolean[8], Set.of(),
+					Set.of(new Keystroke(new Scancode[] { B_SCANCODE }, new Scancode[0])),
+					Set.of(LockKey.CAPS_LOCK_LOCK_KEY));
+
+			final var message = new UpdateMessage();
+			message.accumulate(mockInput);
+			axes.put(VirtualAxis.X, -1_000);
+			message.accumulate(mockInput);
+
+			Assertions.assertEquals(-1_000, message.getAxis(VirtualAxis.X));
+			Assertions.assertEquals(-6, message.getCursorDeltaX());
+			Assertions.assertEquals(14, message.getCursorDeltaY());
+			Assertions.assertEquals(-4, message.getScrollClicks());
+			Assertions.assertEquals(1, message.getDownUpMouseButtons().size());
+			Assertions.assertEquals(1, message.getDownUpKeystrokes().size());
+			Assertions.assertEquals(1, message.getOnLockKeyCodes().size());
+		}
+
+		@Test
+		@DisplayName("starts over after the events have been cleared")
+		void startsOverAfterClearEvents() {
+			stubInput(new EnumMap<>(VirtualAxis.class), new boolean[8], Set.of(), Set.of(), Set.of());
+
+			final var message = new UpdateMessage();
+			message.accumulate(mockInput);
+			message.clearEvents();
+			Assertions.assertFalse(message.hasEvents());
+
+			message.accumulate(mockInput);
+			Assertions.assertEquals(-3, message.getCursorDeltaX());
+			Assertions.assertEquals(-2, message.getScrollClicks());
+		}
+	}
+
+	@Nested
+	@DisplayName("read() and write() allocation")
+	final class AllocationTests {
+
+		private static final int NUM_ITERATIONS = 10_000;
+
+		@Test
+		@DisplayName("does not allocate when encoding and decoding in steady state")
+		void doesNotAllocateInSteadyState() throws IOException {
+			final var threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+			Assumptions.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+			threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+			final var axes = new EnumMap<VirtualAxis, Integer>(VirtualAxis.class);
+			axes.put(VirtualAxis.X, 1_000);
+			stubInput(axes, new boolean[32],
+					Set.of(new Keystroke(new Scancode[] { A_SCANCODE }, new Scancode[] { LSHIFT_SCANCODE })), Set.of(),
+					Set.of());
+
+			final var previous = new UpdateMessage();
+			previous.capture(mockInput);
+			axes.put(VirtualAxis.X, -1_000);
+			final var current = new UpdateMessage();
+			current.capture(mockInput);
+
+			final var buffer = ByteBuffer.allocateDirect(ServerRunMode.MAX_PACKET_LENGTH);
+			final var eventHistory = new EventHistory(2);
+			final var received = new UpdateMessage();
+			final var counterWindow = new ReplayWindow();
+
+			var counter = 0L;
+			for (var i = 0; i < NUM_ITERATIONS; i++) {
+				encodeAndDecode(current, previous, eventHistory, received, counterWindow, buffer, counter++);
+			}
+
+			final var allocatedBytesBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+			for (var i = 0; i < NUM_ITERATIONS; i++) {
+				encodeAndDecode(current, previous, eventHistory, received, counterWindow, buffer, counter++);
+			}
+			final var allocatedBytesAfter = threadMXBean.getCurrentThreadAllocatedBytes();
+
+			Assertions.assertEquals(0L, allocatedBytesAfter - allocatedBytesBefore);
+		}
+
+		private static void encodeAndDecode(final UpdateMessage message, final UpdateMessage previous,
+				final EventHistory eventHistory, final UpdateMessage received, final ReplayWindow counterWindow,
+				final ByteBuffer buffer, final long counter) throws IOException {
+			message.setCounter(counter);
+			eventHistory.add(message);
+			buffer.clear();
+			message.write(buffer, previous, eventHistory);
+			buffer.flip();
+			if (received.read(buffer, counterWindow) != ReadResult.NEWEST) {
+				throw new IllegalStateException();
+			}
+		}
+	}
+
+	@Nested
+	@DisplayName("read() and write()")
+	final class RoundTripTests {
+
+		@Test
+		@DisplayName("applies only the new events of a message that arrives after a newer one")
+		void appliesOnlyEventsOfLateMessage() throws IOException {
+			final var axes = new EnumMap<VirtualAxis, Integer>(VirtualAxis.class);
+			axes.put(VirtualAxis.X, 100);
+			stubInput(axes, new boolean[0], Set.of(), Set.of(), Set.of());
+
+			final var eventHistory = new EventHistory(0);
+			final var older = new UpdateMessage();
+			older.capture(mockInput);
+			older.setCounter(0L);
+			eventHistory.add(older);
+			final var olderBuffer = ByteBuffer.allocate(ServerRunMode.MAX_PACKET_LENGTH);
+			older.write(olderBuffer, null, eventHistory);
+			olderBuffer.flip();
+
+			axes.put(VirtualAxis.X, 200);
+			final var newer = new UpdateMessage();
+			newer.capture(mockInput);
+			newer.setCounter(1L);
+			eventHistory.add(newer);
+			final var newerBuffer = ByteBuffer.allocate(ServerRunMode.MAX_PACKET_LENGTH);
+			newer.write(newerBuffer, null, eventHistory);
+
+			final var received = new UpdateMessage();
+			final var counterWindow = new ReplayWindow();
+			Assertions.assertEquals(ReadResult.NEWEST, received.read(newerBuffer.flip(), counterWindow));
+
+			Assertions.assertEquals(ReadResult.LATE, received.read(olderBuffer.duplicate(), counterWindow));
+			Assertions.assertEquals(200, received.getAxis(VirtualAxis.X));
+			Assertions.assertEquals(1L, received.getCounter());
+			Assertions.assertEquals(-2, received.getScrollClicks());
+			Assertions.assertEquals(1L, received.getEventSequence());
+
+			Assertions.assertEquals(ReadResult.DISCARDED, received.read(olderBuffer, counterWindow));
+		}
+
+		@Test
+		@DisplayName("applies event blocks that are repeated in later messages only once")
+		void appliesRepeatedEventBlocksOnce() throws IOException {
+			stubInput(new EnumMap<>(VirtualAxis.class), new boolean[0], Set.of(), Set.of(), Set.of());
+
+			final var eventHistory = new EventHistory(2);
+			final var first = new UpdateMessage();
+			first.capture(mockInput);
+			first.setCounter(0L);
+			eventHistory.add(first);
+			final var firstBuffer = ByteBuffer.allocate(ServerRunMode.MAX_PACKET_LENGTH);
+			first.write(firstBuffer, null, eventHistory);
+
+			final var second = new UpdateMessage();
+			second.setCounter(1L);
+			Assertions.assertFalse(second.hasEvents());
+			Assertions.assertTrue(eventHistory.hasPending());
+			final var secondBuffer = ByteBuffer.allocate(ServerRunMode.MAX_PACKET_LENGTH);
+			second.write(secondBuffer, first, eventHistory);
+
+			final var received = new UpdateMessage();
+			final var counterWindow = new ReplayWindow();
+			Assertions.assertEquals(ReadResult.NEWEST, received.read(firstBuffer.flip(), counterWindow));
+			Assertions.assertEquals(-2, received.getScrollClicks());
+			Assertions.assertEquals(0L, received.getEventSequence());
+
+			Assertions.assertEquals(ReadResult.NEWEST, received.read(secondBuffer.flip(), counterWindow));
+			Assertions.assertFalse(received.hasEvents());
+			Assertions.assertEquals(0L, received.getEventSequence());
+		}
+
+		@Test
+		@DisplayName("decodes a keyframe to the captured state")
+		void decodesKeyframeToCapturedState() throws IOException {
+			final var axes = new EnumMap<VirtualAxis, Integer>(VirtualAxis.class);
+			axes.put(VirtualAxis.X, 32_767);
+			axes.put(VirtualAxis.Y, -32_768);
+			final var buttons = new boolean[11];
+			buttons[0] = true;
+			buttons[10] = true;
+			stubInput(axes, buttons,
+					Set.of(new Keystroke(new Scancode[] { A_SCANCODE }, new Scancode[] { LSHIFT_SCANCODE })),
+					Set.of(new Keystroke(new Scancode[] { B_SCANCODE }, new Scancode[0])),
+					Set.of(LockKey.CAPS_LOCK_LOCK_KEY));
+
+			final var sent = new UpdateMessage();
+			sent.capture(mockInput);
+			sent.setCounter(0L);
+			sent.setTimestampMicros(123_456_789L);
+			final var buffer = ByteBuffer.allocate(ServerRunMode.MAX_PACKET_LENGTH);
+			sent.write(buffer, null, eventHistoryOf(sent));
+			buffer.flip();
+
+			final var received = new UpdateMessage();
+			Assertions.assertEquals(ReadResult.NEWEST, received.read(buffer, new ReplayWindow()));
+			Assertions.assertFalse(buffer.hasRemaining());
+
+			Assertions.assertTrue(received.isKeyframe());
+			Assertions.assertEquals(123_456_789L, received.getTimestampMicros());
+			Assertions.assertEquals(32_767, received.getAxis(VirtualAxis.X));
+			Assertions.assertEquals(-32_768, received.getAxis(VirtualAxis.Y));
+			Assertions.assertEquals(0, received.getAxis(VirtualAxis.Z));
+			Assertions.assertEquals(11, received.getNumButtons());
+			Assertions.assertTrue(received.isButtonPressed(0));
+			Assertions.assertFalse(received.isButtonPressed(1));
+			Assertions.assertTrue(received.isButtonPressed(10));
+			Assertions.assertEquals(-3, received.getCursorDeltaX());
+			Assertions.assertEquals(7, received.getCursorDeltaY());
+			Assertions.assertEquals(1, received.getDownMouseButtons().get(0));
+			Assertions.assertEquals(3, received.getDownUpMouseButtons().get(0));
+			Assertions.assertEquals(LSHIFT_SCANCODE.keyCode(), received.getDownModifierKeyCodes().get(0));
+			Assertions.assertEquals(A_SCANCODE.keyCode(), received.getDownNormalKeyCodes().get(0));
+			Assertions.assertEquals(new Keystroke(new Scancode[] { B_SCANCODE }, new Scancode[0]),
+					received.getDownUpKeystrokes().getFirst());
+			Assertions.assertEquals(-2, received.getScrollClicks());
+			Assertions.assertEquals(LockKey.CAPS_LOCK_LOCK_KEY.virtualKeyCode(), received.getOnLockKeyCodes().get(0));
+			Assertions.assertEquals(0, received.getOffLockKeyCodes().size());
+			Assertions.assertTrue(received.heldStateEquals(sent));
+		}
+
+		@Test
+		@DisplayName("decodes a body written once and prefixed with a different counter per receiver")
+		void decodesSharedBodyWithDistinctCounters() throws IOException {
+			final var axes = new EnumMap<VirtualAxis, Integer>(VirtualAxis.class);
+			axes.put(VirtualAxis.Y, -50);
+			stubInput(axes, new boolean[0], Set.of(), Set.of(), Set.of());
+
+			final var sent = new UpdateMessage();
+			sent.capture(mockInput);
+			final var bodyBuffer = ByteBuffer.allocate(ServerRunMode.MAX_PACKET_LENGTH);
+			sent.writeBody(bodyBuffer, null, eventHistoryOf(sent));
+			bodyBuffer.flip();
+
+			for (final var counter : new long[] { 0L, 1_000L }) {
+				final var buffer = ByteBuffer.allocate(ServerRunMode.MAX_PACKET_LENGTH);
+				UpdateMessage.putVarLong(buffer, counter);
+				buffer.put(bodyBuffer.duplicate());
+				buffer.flip();
+
+				final var received = new UpdateMessage();
+				Assertions.assertEquals(ReadResult.NEWEST, received.read(buffer, new ReplayWindow()));
+				Assertions.assertEquals(counter, received.getCounter());
+				Assertions.assertTrue(received.isKeyframe());
+				Assertions.assertEquals(-50, received.getAxis(VirtualAxis.Y));
+				Assertions.assertFalse(buffer.hasRemaining());
+			}
+		}
+
+		@Test
+		@DisplayName("discards messages whose counter has already been accepted")
+		void discardsDuplicateMessages() throws IOException {
+			stubInput(new EnumMap<>(VirtualAxis.class), new boolean[0], Set.of(), Set.of(), Set.of());
+
+			final var sent = new UpdateMessage();
+			sent.capture(mockInput);
+			sent.setCounter(5L);
+			final var buffer = ByteBuffer.allocate(ServerRunMode.MAX_PACKET_LENGTH);
+			sent.write(buffer, null, eventHistoryOf(sent));
+			buffer.flip();
+
+			final var counterWindow = new ReplayWindow();
+			counterWindow.accept(5L);
+
+			Assertions.assertEquals(ReadResult.DISCARDED, new UpdateMessage().read(buffer, counterWindow));
+		}
+
+		@Test
+		@DisplayName("leaves the state untouched if a trailing event block is malformed")
+		void leavesStateUntouchedOnMalformedTrailingEventBlock() throws IOException {
+			final var axes = new EnumMap<VirtualAxis, Integer>(VirtualAxis.class);
+			axes.put(VirtualAxis.X, 100);
+			stubInput(axes, new boolean[0], Set.of(), Set.of(), Set.of());
+
+			final var eventHistory = new EventHistory(1);
+			final var lost = new UpdateMessage();
+			lost.capture(mockInput);
+			lost.setCounter(0L);
+			eventHistory.add(lost);
+			lost.write(ByteBuffer.allocate(ServerRunMode.MAX_PACKET_LENGTH), null, eventHistory);
+
+			final var delivered = new UpdateMessage();
+			delivered.capture(mockInput);
+			delivered.setCounter(1L);
+			eventHistory.add(delivered);
+			final var buffer = ByteBuffer.allocate(ServerRunMode.MAX_PACKET_LENGTH);
+			delivered.write(buffer, lost, eventHistory);
+			buffer.flip();
+
+			// the last byte is the size of the off lock key list of the second event
+			// block, claiming one entry makes the block overrun its length
+			final var corruptBuffer = ByteBuffer.allocate(buffer.remaining()).put(buffer.duplicate()).flip();
+			corruptBuffer.put(corruptBuffer.limit() - 1, (byte) 1);
+
+			final var received = new UpdateMessage();
+			final var counterWindow = new ReplayWindow();
+			Assertions.assertThrows(IOException.class, () -> received.read(corruptBuffer, counterWindow));
+
+			Assertions.assertTrue(counterWindow.canAccept(1L));
+			Assertions.assertEquals(0L, received.getCounter());
+			Assertions.assertEquals(0, received.getAxis(VirtualAxis.X));
+			Assertions.assertFalse(received.hasEvents());
+			Assertions.assertEquals(-1L, received.getEventSequence());
+
+			Assertions.assertEquals(ReadResult.NEWEST, received.read(buffer, counterWindow));
+			Assertions.assertEquals(1L, received.getCounter());
+			Assertions.assertEquals(100, received.getAxis(VirtualAxis.X));
+			Assertions.assertEquals(-6, received.getCursorDeltaX());
+			Assertions.assertEquals(1L, received.getEventSequence());
+		}
+
+		@Test
+		@DisplayName("recovers the events of a lost message from the following message")
+		void recoversEventsOfLostMessage() throws IOException {
+			stubInput(new EnumMap<>(VirtualAxis.class), new boolean[0], Set.of(), Set.of(), Set.of());
+
+			final var eventHistory = new EventHistory(1);
+			final var lost = new UpdateMessage();
+			lost.capture(mockInput);
+			lost.setCounter(0L);
+			eventHistory.add(lost);
+			lost.write(ByteBuffer.allocate(ServerRunMode.MAX_PACKET_LENGTH), null, eventHistory);
+
+			final var delivered = new UpdateMessage();
+			delivered.capture(mockInput);
+			delivered.setCounter(1L);
+			eventHistory.add(delivered);
+			final var buffer = ByteBuffer.allocate(ServerRunMode.MAX_PACKET_LENGTH);
+			delivered.write(buffer, lost, eventHistory);
+
+			final var received = new UpdateMessage();
+			Assertions.assertEquals(ReadResult.NEWEST,
+					received.read(buffer.flip(), new ReplayWindow()));
+			Assertions.assertFalse(buffer.hasRemaining());
+			Assertions.assertEquals(-6, received.getCursorDeltaX());
+			Assertions.assertEquals(14, received.getCursorDeltaY());
+			Assertions.assertEquals(-4, received.getScrollClicks());
+			Assertions.assertEquals(2, received.getDownUpMouseButtons().size());
+			Assertions.assertEquals(1L, received.getEventSequence());
+		}
+
+		@Test
+		@DisplayName("only transmits axes that changed since the previous message")
+		void transmitsOnlyChangedAxes() throws IOException {
+			final var axes = new EnumMap<VirtualAxis, Integer>(VirtualAxis.class);
+			axes.put(VirtualAxis.X, 100);
+			axes.put(VirtualAxis.RZ, 200);
+			stubInput(axes, new boolean[0], Set.of(), Set.of(), Set.of());
+
+			final var first = new UpdateMessage();
+			first.capture(mockInput);
+			first.setCounter(0L);
+			final var received = new UpdateMessage();
+			final var counterWindow = new ReplayWindow();
+			Assertions.assertEquals(ReadResult.NEWEST, received.read(encode(first, null), counterWindow));
+
+			axes.put(VirtualAxis.RZ, 201);
+			final var second = new UpdateMessage();
+			second.capture(mockInput);
+			second.setCounter(1L);
+			final var secondBuffer = encode(second, first);
+			Assertions.assertEquals(ReadResult.NEWEST, received.read(secondBuffer, counterWindow));
+
+			Assertions.assertFalse(received.isKeyframe());
+			Assertions.assertEquals(1 << VirtualAxis.RZ.ordinal(), received.getChangedAxesMask());
+			Assertions.assertEquals(100, received.getAxis(VirtualAxis.X));
+			Assertions.assertEquals(201, received.getAxis(VirtualAxis.RZ));
+		}
+	}
+
+	@Nested
+	@DisplayName("putVarInt() and getVarInt()")
+	final class VarIntTests {
+
+		@Test
+		@DisplayName("encodes small values in a single byte")
+		void encodesSmallValuesInSingleByte() throws IOException {
+			final var buffer = ByteBuffer.allocate(5);
+			UpdateMessage.putVarInt(buffer, 127);
+			Assertions.assertEquals(1, buffer.position());
+			buffer.flip();
+			Assertions.assertEquals(127, UpdateMessage.getVarInt(buffer));
+		}
+
+		@Test
+		@DisplayName("round-trips signed values using zigzag encoding")
+		void roundTripsSignedValues() throws IOException {
+			final var buffer = ByteBuffer.allocate(5 * 4);
+			UpdateMessage.putZigZagVarInt(buffer, -1);
+			UpdateMessage.putZigZagVarInt(buffer, Integer.MIN_VALUE);
+			UpdateMessage.putZigZagVarInt(buffer, Integer.MAX_VALUE);
+			UpdateMessage.putZigZagVarInt(buffer, 0);
+			buffer.flip();
+			Assertions.assertEquals(-1, UpdateMessage.getZigZagVarInt(buffer));
+			Assertions.assertEquals(Integer.MIN_VALUE, UpdateMessage.getZigZagVarInt(buffer));
+			Assertions.assertEquals(Integer.MAX_VALUE, UpdateMessage.getZigZagVarInt(buffer));
+			Assertions.assertEquals(0, UpdateMessage.getZigZagVarInt(buffer));
+		}
+
+		@Test
+		@DisplayName("round-trips the full range of long values")
+		void roundTripsLongValues() throws IOException {
+			final var buffer = ByteBuffer.allocate(10);
+			UpdateMessage.putVarLong(buffer, Long.MAX_VALUE);
+			buffer.flip();
+			Assertions.assertEquals(Long.MAX_VALUE, UpdateMessage.getVarLong(buffer));
+		}
+
+		@Test
+		@DisplayName("rejects encodings that are longer than five bytes")
+		void rejectsOverlongEncodings() {
+			final var buffer = ByteBuffer.wrap(new byte[] { (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80,
+					(byte) 0x80, 0x00 });
+			Assertions.assertThrows(IOException.class, () -> UpdateMessage.getVarInt(buffer));
+		}
+
+		@Test
+		@DisplayName("rejects five-byte encodings whose value exceeds 32 bits")
+		void rejectsVarIntsExceeding32Bits() {
+			final var buffer = ByteBuffer.wrap(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+					0x10 });
+			Assertions.assertThrows(IOException.class, () -> UpdateMessage.getVarInt(buffer));
+		}
+
+		@Test
+		@DisplayName("rejects ten-byte encodings whose value exceeds 64 bits")
+		void rejectsVarLongsExceeding64Bits() {
+			final var buffer = ByteBuffer.wrap(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+					(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x02 });
+			Assertions.assertThrows(IOException.class, () -> UpdateMessage.getVarLong(buffer));
+		}
+	}
+}